@@ -0,0 +1,29 @@
+@echo off
+REM Claim Batch - process a CSV or NDJSON claim file offline, with checkpoint/resume
+REM Usage: run-batch.bat --input claims.csv [--output decisions.ndjson] [--threads 8] [--window 1024] ...
+REM Requires the gRPC server (start-grpc-server.bat) unless --fraud-detection false is given
+
+echo ================================================
+echo Insurance Claim Processing - Claim Batch
+echo ================================================
+echo.
+
+REM Set Java 11 path
+set JAVA_HOME=C:\Program Files\Microsoft\jdk-11.0.16.101-hotspot
+set PATH=%JAVA_HOME%\bin;%PATH%
+
+REM Set classpath
+set CLASSPATH=target\classes;target\claim-processing\WEB-INF\classes
+for %%i in (target\claim-processing\WEB-INF\lib\*.jar) do call :append_classpath "%%i"
+goto :after_classpath
+
+:append_classpath
+set CLASSPATH=%CLASSPATH%;%~1
+goto :eof
+
+:after_classpath
+
+java -Dlogging.level=WARN -cp "%CLASSPATH%" com.insurance.batch.ClaimBatchRunner %*
+
+echo.
+pause
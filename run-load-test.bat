@@ -0,0 +1,29 @@
+@echo off
+REM Load Test - drive REST, gRPC and GraphQL endpoints and report latency percentiles
+REM Usage: run-load-test.bat [--mode closed|open] [--workers 16] [--rate 100] [--duration 60] ...
+REM Requires Tomcat (start-tomcat.bat) and the gRPC server (start-grpc-server.bat)
+
+echo ================================================
+echo Insurance Claim Processing - Load Test
+echo ================================================
+echo.
+
+REM Set Java 11 path
+set JAVA_HOME=C:\Program Files\Microsoft\jdk-11.0.16.101-hotspot
+set PATH=%JAVA_HOME%\bin;%PATH%
+
+REM Set classpath
+set CLASSPATH=target\classes;target\claim-processing\WEB-INF\classes
+for %%i in (target\claim-processing\WEB-INF\lib\*.jar) do call :append_classpath "%%i"
+goto :after_classpath
+
+:append_classpath
+set CLASSPATH=%CLASSPATH%;%~1
+goto :eof
+
+:after_classpath
+
+java -cp "%CLASSPATH%" com.insurance.loadtest.LoadGenerator %*
+
+echo.
+pause
@@ -0,0 +1,92 @@
+package com.insurance.dto;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson versus JSON-B (Yasson, used by Jersey) for the REST DTOs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private final Gson gson = new Gson();
+    private Jsonb jsonb;
+
+    private ClaimRequest request;
+    private ClaimResponse response;
+    private String requestJson;
+    private String responseJson;
+
+    @Setup
+    public void setUp() {
+        jsonb = JsonbBuilder.create();
+
+        request = new ClaimRequest("CLM-BENCH-001", "USR-123", "AUTO", 12500.0,
+                "Rear-ended at a traffic light", "2024-01-15");
+        response = new ClaimResponse();
+        response.setClaimId("CLM-BENCH-001");
+        response.setStatus("APPROVED");
+        response.setMessage("Claim approved successfully");
+        response.setIdentityVerified(true);
+        response.setFraudCheckPassed(true);
+        response.setPolicyStatus("VALID");
+        response.setTimestamp("2024-01-15 10:30:00");
+
+        requestJson = gson.toJson(request);
+        responseJson = gson.toJson(response);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        jsonb.close();
+    }
+
+    @Benchmark
+    public ClaimRequest gsonReadRequest() {
+        return gson.fromJson(requestJson, ClaimRequest.class);
+    }
+
+    @Benchmark
+    public ClaimRequest jsonbReadRequest() {
+        return jsonb.fromJson(requestJson, ClaimRequest.class);
+    }
+
+    @Benchmark
+    public String gsonWriteResponse() {
+        return gson.toJson(response);
+    }
+
+    @Benchmark
+    public String jsonbWriteResponse() {
+        return jsonb.toJson(response);
+    }
+
+    @Benchmark
+    public ClaimResponse gsonReadResponse() {
+        return gson.fromJson(responseJson, ClaimResponse.class);
+    }
+
+    @Benchmark
+    public ClaimResponse jsonbReadResponse() {
+        return jsonb.fromJson(responseJson, ClaimResponse.class);
+    }
+}
@@ -0,0 +1,173 @@
+package com.insurance.graphql;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
+
+/**
+ * validatePolicy executed through GraphQL versus calling the data fetcher directly.
+ * Policies come from an in-memory backend, so only fetcher and engine cost is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PolicyValidationBenchmark {
+
+    private static final String VALIDATE_POLICY =
+            "query ValidatePolicy($policyId: String!, $claimAmount: Float!) { " +
+            "validatePolicy(policyId: $policyId, claimAmount: $claimAmount) { " +
+            "policyId isValid status message validationErrors coverageLimit } }";
+
+    @Param({"POL-001", "POL-003"})
+    public String policyId;
+
+    private GraphQL graphQL;
+    private DataFetcher<ValidationResult> validatePolicy;
+    private Map<String, Object> variables;
+    private DataFetchingEnvironment environment;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        // The fetchers log every call; keep console I/O out of the numbers
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        PolicyDataFetcher.configure(new InMemoryPolicyBackend());
+        validatePolicy = PolicyDataFetcher.validatePolicy();
+
+        RuntimeWiring wiring = newRuntimeWiring()
+                .type("Query", builder -> builder.dataFetcher("validatePolicy", validatePolicy))
+                .build();
+        graphQL = GraphQL.newGraphQL(new SchemaGenerator().makeExecutableSchema(
+                new SchemaParser().parse(loadSchema()), wiring))
+                .preparsedDocumentProvider(new CachingDocumentProvider(16))
+                .build();
+
+        variables = new HashMap<>();
+        variables.put("policyId", policyId);
+        variables.put("claimAmount", 30000.0);
+        environment = DataFetchingEnvironmentImpl.newDataFetchingEnvironment()
+                .arguments(variables)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public ExecutionResult throughGraphQL() {
+        return graphQL.execute(ExecutionInput.newExecutionInput()
+                .query(VALIDATE_POLICY)
+                .variables(variables)
+                .build());
+    }
+
+    @Benchmark
+    public ValidationResult direct() throws Exception {
+        return validatePolicy.get(environment);
+    }
+
+    private static String loadSchema() throws IOException {
+        try (InputStream in = PolicyValidationBenchmark.class.getResourceAsStream("/schema.graphql")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Sample policies held in memory
+     */
+    static final class InMemoryPolicyBackend implements PolicyBackend {
+        private final Map<String, Policy> policies = new HashMap<>();
+
+        InMemoryPolicyBackend() {
+            add(new Policy("POL-001", "USR-123", "AUTO", "ACTIVE",
+                    50000, 1200, "2024-01-01", "2025-01-01", true));
+            add(new Policy("POL-002", "USR-456", "HOME", "ACTIVE",
+                    200000, 2400, "2024-01-01", "2025-01-01", true));
+            add(new Policy("POL-003", "USR-123", "HEALTH", "EXPIRED",
+                    100000, 3600, "2023-01-01", "2024-01-01", false));
+        }
+
+        private void add(Policy policy) {
+            policy.setVersion(1);
+            policies.put(policy.getPolicyId(), policy);
+        }
+
+        @Override
+        public synchronized Policy findById(String policyId) {
+            Policy policy = policies.get(policyId);
+            return policy != null ? new Policy(policy) : null;
+        }
+
+        @Override
+        public synchronized List<Policy> findByUserId(String userId) {
+            List<Policy> result = new ArrayList<>();
+            for (Policy policy : policies.values()) {
+                if (policy.getUserId().equals(userId)) {
+                    result.add(new Policy(policy));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public synchronized List<Policy> findAll() {
+            List<Policy> result = new ArrayList<>();
+            for (Policy policy : policies.values()) {
+                result.add(new Policy(policy));
+            }
+            return result;
+        }
+
+        @Override
+        public synchronized Policy create(Policy policy) {
+            throw new UnsupportedOperationException("Read-only benchmark backend");
+        }
+
+        @Override
+        public synchronized Policy update(String policyId, Long expectedVersion, Consumer<Policy> change) {
+            throw new UnsupportedOperationException("Read-only benchmark backend");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.insurance.grpc;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.grpc.proto.FraudRequest;
+import com.insurance.grpc.proto.FraudResponse;
+import com.insurance.workload.ClaimMix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fraud rules (FraudDetectionServiceImpl.performFraudAnalysis) over a claim mix
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FraudAnalysisBenchmark {
+
+    private static final int REQUESTS = 1024;
+
+    private final FraudDetectionServiceImpl service = new FraudDetectionServiceImpl();
+    private FraudRequest[] requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ClaimMix mix = new ClaimMix(ClaimMix.DEFAULT_SPEC, 1000);
+        Random random = new Random(42);
+        requests = new FraudRequest[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            ClaimRequest claim = mix.next(random);
+            requests[i] = FraudRequest.newBuilder()
+                    .setClaimId(claim.getClaimId())
+                    .setUserId(claim.getUserId())
+                    .setClaimAmount(claim.getClaimAmount())
+                    .setClaimType(claim.getClaimType())
+                    .setIncidentDate(claim.getIncidentDate())
+                    .setUserHistory(i % 10 == 0 ? "MULTIPLE_CLAIMS" : "FIRST_TIME_CLAIM")
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public FraudResponse performFraudAnalysis() {
+        FraudRequest request = requests[next];
+        next = (next + 1) & (REQUESTS - 1);
+        return service.performFraudAnalysis(request);
+    }
+}
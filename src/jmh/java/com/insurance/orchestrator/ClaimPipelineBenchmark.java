@@ -0,0 +1,89 @@
+package com.insurance.orchestrator;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+import com.insurance.grpc.FraudDetectionClient;
+import com.insurance.grpc.FraudDetectionServiceImpl;
+import com.insurance.workload.ClaimMix;
+import com.insurance.soap.InProcessIdentityVerifier;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InsuranceClaimOrchestrator.processClaim end to end with in-process stand-ins:
+ * SOAP verification called directly, gRPC over an in-process transport,
+ * GraphQL executed in the orchestrator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClaimPipelineBenchmark {
+
+    private static final int REQUESTS = 256;
+
+    private Server server;
+    private InsuranceClaimOrchestrator orchestrator;
+    private ClaimRequest[] requests;
+    private int next;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        // The pipeline logs every step; keep console I/O out of the numbers
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new FraudDetectionServiceImpl())
+                .build()
+                .start();
+        ManagedChannel channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        orchestrator = new InsuranceClaimOrchestrator(new InProcessIdentityVerifier(),
+                new FraudDetectionClient(channel));
+
+        ClaimMix mix = new ClaimMix(ClaimMix.DEFAULT_SPEC, 1000);
+        Random random = new Random(42);
+        requests = new ClaimRequest[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            requests[i] = mix.next(random);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        orchestrator.cleanup();
+        server.shutdownNow();
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public ClaimResponse processClaim() {
+        ClaimRequest request = requests[next];
+        next = (next + 1) % REQUESTS;
+        return orchestrator.processClaim(request);
+    }
+}
@@ -0,0 +1,93 @@
+package com.insurance.batch;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Progress of a batch run: how much of the input is done and how long the
+ * output was at that point. Written atomically (temporary file + move) after
+ * the output has been synced, so a resumed run can truncate the output to
+ * outputBytes and continue reading the input at inputOffset.
+ */
+public final class BatchCheckpoint {
+
+    private final String input;
+    private final long records;
+    private final long lines;
+    private final long inputOffset;
+    private final long outputBytes;
+
+    public BatchCheckpoint(String input, long records, long lines, long inputOffset, long outputBytes) {
+        this.input = input;
+        this.records = records;
+        this.lines = lines;
+        this.inputOffset = inputOffset;
+        this.outputBytes = outputBytes;
+    }
+
+    /**
+     * Read a checkpoint, or null if the file does not exist
+     */
+    public static BatchCheckpoint load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return new BatchCheckpoint(
+                properties.getProperty("input"),
+                Long.parseLong(properties.getProperty("records", "0")),
+                Long.parseLong(properties.getProperty("lines", "0")),
+                Long.parseLong(properties.getProperty("inputOffset", "0")),
+                Long.parseLong(properties.getProperty("outputBytes", "0")));
+    }
+
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("input", input);
+        properties.setProperty("records", Long.toString(records));
+        properties.setProperty("lines", Long.toString(lines));
+        properties.setProperty("inputOffset", Long.toString(inputOffset));
+        properties.setProperty("outputBytes", Long.toString(outputBytes));
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Claim batch checkpoint");
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    /**
+     * Claims (including unparseable lines) written to the output
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Input lines consumed, for line numbers after a resume
+     */
+    public long getLines() {
+        return lines;
+    }
+
+    public long getInputOffset() {
+        return inputOffset;
+    }
+
+    public long getOutputBytes() {
+        return outputBytes;
+    }
+}
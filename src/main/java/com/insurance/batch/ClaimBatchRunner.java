@@ -0,0 +1,305 @@
+package com.insurance.batch;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.insurance.dto.ClaimResponse;
+import com.insurance.grpc.FraudDetectionClient;
+import com.insurance.orchestrator.InsuranceClaimOrchestrator;
+import com.insurance.soap.IdentityVerifiers;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Offline batch processing of a claim file through {@link InsuranceClaimOrchestrator}.
+ *
+ * The input (CSV or NDJSON, see {@link ClaimFileReader}) is streamed: at
+ * most --window claims are read ahead of the output, and --threads of them
+ * are processed at once, so memory use does not depend on the file size.
+ * Decisions are appended to the output as NDJSON in input order; a claim
+ * whose processing throws gets an ERROR record and the run goes on. Every
+ * --checkpoint-every records the output is synced and a checkpoint written;
+ * running again with the same arguments resumes after the last checkpoint.
+ *
+ * Options:
+ *   --input FILE (required)   --output FILE (default: input + ".decisions.ndjson")
+ *   --format csv|ndjson (default: from the extension)   --threads 8   --window 1024
+ *   --checkpoint FILE (default: output + ".checkpoint")   --checkpoint-every 10000
+ *   --progress-seconds 5   --restart true (ignore an existing checkpoint)
+ *   --grpc-host localhost   --grpc-port 50051   --fraud-detection false (skip fraud checks)
+ *
+ * Identity verification is in-process or remote per -Didentity.client.mode.
+ */
+public class ClaimBatchRunner {
+
+    private final InsuranceClaimOrchestrator orchestrator;
+    private final ExecutorService workers;
+    private final int window;
+    private final int checkpointEvery;
+    private final Gson gson = new GsonBuilder().serializeNulls().create();
+
+    private final LongAdder processed = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new HashMap<>();
+
+    public ClaimBatchRunner(InsuranceClaimOrchestrator orchestrator, int threads, int window, int checkpointEvery) {
+        if (threads < 1 || window < threads) {
+            throw new IllegalArgumentException("Need --threads >= 1 and --window >= --threads");
+        }
+        this.orchestrator = orchestrator;
+        this.window = window;
+        this.checkpointEvery = checkpointEvery;
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (String status : new String[]{"APPROVED", "REJECTED", "ERROR", "INVALID"}) {
+            outcomes.put(status, new LongAdder());
+        }
+    }
+
+    /**
+     * Process the input from the checkpoint (or the start) to the end
+     *
+     * @return records written by this run
+     */
+    public long run(Path input, ClaimFileReader.Format format, Path output, Path checkpointFile,
+                    boolean restart) throws IOException {
+        BatchCheckpoint checkpoint = restart ? null : BatchCheckpoint.load(checkpointFile);
+        if (checkpoint != null && !input.toAbsolutePath().toString().equals(checkpoint.getInput())) {
+            throw new IllegalStateException("Checkpoint " + checkpointFile + " belongs to " + checkpoint.getInput()
+                    + "; use --restart true or another --checkpoint");
+        }
+        if (checkpoint == null) {
+            checkpoint = new BatchCheckpoint(input.toAbsolutePath().toString(), 0, 0, 0, 0);
+        } else {
+            System.out.println("Resuming after record " + checkpoint.getRecords()
+                    + " (input offset " + checkpoint.getInputOffset() + ")");
+        }
+
+        try (ClaimFileReader reader = new ClaimFileReader(input, format,
+                checkpoint.getInputOffset(), checkpoint.getLines());
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Drop anything written after the last checkpoint; it is produced again
+            out.truncate(checkpoint.getOutputBytes());
+            out.position(checkpoint.getOutputBytes());
+            OutputStream stream = new BufferedOutputStream(Channels.newOutputStream(out), 256 * 1024);
+
+            ArrayDeque<Pending> inFlight = new ArrayDeque<>(window);
+            long records = checkpoint.getRecords();
+            long lines = checkpoint.getLines();
+            long inputOffset = checkpoint.getInputOffset();
+            long outputBytes = checkpoint.getOutputBytes();
+            long sinceCheckpoint = 0;
+
+            ClaimFileReader.Entry entry = reader.next();
+            while (entry != null || !inFlight.isEmpty()) {
+                // Read ahead until the window is full, then write the oldest result
+                if (entry != null && inFlight.size() < window) {
+                    inFlight.addLast(submit(entry));
+                    entry = reader.next();
+                    continue;
+                }
+
+                Pending head = inFlight.removeFirst();
+                byte[] line = (gson.toJson(head.result.join()) + "\n").getBytes(StandardCharsets.UTF_8);
+                stream.write(line);
+                outputBytes += line.length;
+                records++;
+                lines = head.entry.getLineNumber();
+                inputOffset = head.entry.getEndOffset();
+                processed.increment();
+
+                if (++sinceCheckpoint >= checkpointEvery) {
+                    checkpoint(stream, out, new BatchCheckpoint(checkpoint.getInput(), records, lines,
+                            inputOffset, outputBytes), checkpointFile);
+                    sinceCheckpoint = 0;
+                }
+            }
+            checkpoint(stream, out, new BatchCheckpoint(checkpoint.getInput(), records, lines,
+                    inputOffset, outputBytes), checkpointFile);
+            return records - checkpoint.getRecords();
+        }
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private Pending submit(ClaimFileReader.Entry entry) {
+        if (entry.getClaim() == null) {
+            outcomes.get("INVALID").increment();
+            return new Pending(entry, CompletableFuture.completedFuture(
+                    invalid(entry.getLineNumber(), entry.getError())));
+        }
+        return new Pending(entry, CompletableFuture.supplyAsync(() -> {
+            ClaimResponse response = orchestrator.processClaim(entry.getClaim());
+            LongAdder outcome = outcomes.get(response.getStatus());
+            (outcome != null ? outcome : outcomes.get("ERROR")).increment();
+            JsonObject json = gson.toJsonTree(response).getAsJsonObject();
+            json.addProperty("inputLine", entry.getLineNumber());
+            return json;
+        }, workers).exceptionally(error -> {
+            outcomes.get("ERROR").increment();
+            return failed(entry, error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+        }));
+    }
+
+    private JsonObject invalid(long lineNumber, String error) {
+        JsonObject json = new JsonObject();
+        json.addProperty("inputLine", lineNumber);
+        json.addProperty("status", "INVALID");
+        json.addProperty("message", "Unreadable claim: " + error);
+        return json;
+    }
+
+    private JsonObject failed(ClaimFileReader.Entry entry, Throwable error) {
+        JsonObject json = new JsonObject();
+        json.addProperty("inputLine", entry.getLineNumber());
+        json.addProperty("claimId", entry.getClaim().getClaimId());
+        json.addProperty("status", "ERROR");
+        json.addProperty("message", "Error processing claim: " + error);
+        return json;
+    }
+
+    /**
+     * Sync the output, then record how far it goes
+     */
+    private static void checkpoint(OutputStream stream, FileChannel out, BatchCheckpoint checkpoint,
+                                   Path checkpointFile) throws IOException {
+        stream.flush();
+        out.force(false);
+        checkpoint.save(checkpointFile);
+    }
+
+    private String progress(long startNanos, long previous, long intervalNanos) {
+        long done = processed.sum();
+        double elapsed = (System.nanoTime() - startNanos) / 1e9;
+        return String.format("%,d claims, %.0f/s (last interval %.0f/s) | approved %d, rejected %d, error %d, invalid %d",
+                done, done / Math.max(elapsed, 1e-9), (done - previous) / (intervalNanos / 1e9),
+                outcomes.get("APPROVED").sum(), outcomes.get("REJECTED").sum(),
+                outcomes.get("ERROR").sum(), outcomes.get("INVALID").sum());
+    }
+
+    /**
+     * A claim being processed, with where it came from
+     */
+    private static final class Pending {
+        final ClaimFileReader.Entry entry;
+        final CompletableFuture<JsonObject> result;
+
+        Pending(ClaimFileReader.Entry entry, CompletableFuture<JsonObject> result) {
+            this.entry = entry;
+            this.result = result;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        if (!options.containsKey("input")) {
+            throw new IllegalArgumentException("--input is required");
+        }
+        Path input = Paths.get(options.get("input"));
+        Path output = Paths.get(options.getOrDefault("output", input + ".decisions.ndjson"));
+        Path checkpointFile = Paths.get(options.getOrDefault("checkpoint", output + ".checkpoint"));
+        ClaimFileReader.Format format = options.containsKey("format")
+                ? ClaimFileReader.Format.valueOf(options.get("format").toUpperCase())
+                : ClaimFileReader.Format.forFile(input);
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        int window = Integer.parseInt(options.getOrDefault("window", "1024"));
+        int checkpointEvery = Integer.parseInt(options.getOrDefault("checkpoint-every", "10000"));
+        long progressSeconds = Long.parseLong(options.getOrDefault("progress-seconds", "5"));
+        boolean restart = Boolean.parseBoolean(options.getOrDefault("restart", "false"));
+
+        FraudDetectionClient fraudClient = null;
+        if (Boolean.parseBoolean(options.getOrDefault("fraud-detection", "true"))) {
+            fraudClient = new FraudDetectionClient(options.getOrDefault("grpc-host", "localhost"),
+                    Integer.parseInt(options.getOrDefault("grpc-port", "50051")));
+        }
+        InsuranceClaimOrchestrator orchestrator =
+                new InsuranceClaimOrchestrator(IdentityVerifiers.getDefault(), fraudClient);
+
+        System.out.println("=== Claim Batch ===");
+        System.out.println("Input: " + input + " (" + format + ", " + Files.size(input) + " bytes)");
+        System.out.println("Output: " + output + ", checkpoint: " + checkpointFile);
+        System.out.println("Threads: " + threads + ", window: " + window + ", checkpoint every " + checkpointEvery);
+
+        ClaimBatchRunner runner = new ClaimBatchRunner(orchestrator, threads, window, checkpointEvery);
+        long start = System.nanoTime();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(progressSeconds);
+        ScheduledProgress progress = new ScheduledProgress(runner, start, intervalNanos);
+        try {
+            long written = runner.run(input, format, output, checkpointFile, restart);
+            progress.stop();
+            System.out.println("Done: " + written + " records in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            System.out.println(runner.progress(start, 0, Math.max(1, System.nanoTime() - start)));
+        } finally {
+            progress.stop();
+            runner.shutdown();
+            if (fraudClient != null) {
+                fraudClient.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Prints throughput at a fixed interval from a daemon thread
+     */
+    private static final class ScheduledProgress {
+        private final Thread thread;
+
+        ScheduledProgress(ClaimBatchRunner runner, long startNanos, long intervalNanos) {
+            this.thread = new Thread(() -> {
+                long previous = 0;
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(intervalNanos);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    System.out.println(runner.progress(startNanos, previous, intervalNanos));
+                    previous = runner.processed.sum();
+                }
+            }, "batch-progress");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void stop() {
+            thread.interrupt();
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
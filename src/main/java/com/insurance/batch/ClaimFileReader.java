@@ -0,0 +1,262 @@
+package com.insurance.batch;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.insurance.dto.ClaimRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams claims from a CSV or NDJSON file, one line at a time.
+ *
+ * CSV files start with a header naming the columns (claimId, userId,
+ * claimType, claimAmount, description, incidentDate, in any order); fields
+ * may be double-quoted, with "" for a quote, but not span lines. NDJSON
+ * files hold one ClaimRequest JSON object per line. Blank lines are skipped.
+ * Every claim carries the byte offset just after its line, so a run can be
+ * resumed by reopening the file at that offset.
+ */
+public class ClaimFileReader implements Closeable {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * Format from the file extension: .csv is CSV, anything else NDJSON
+         */
+        public static Format forFile(Path file) {
+            return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : NDJSON;
+        }
+    }
+
+    private static final String[] CSV_COLUMNS = {
+            "claimid", "userid", "claimtype", "claimamount", "description", "incidentdate"};
+
+    private final Format format;
+    private final LineReader lines;
+    private final Gson gson = new Gson();
+    private int[] columnIndex;
+    private long lineNumber;
+
+    /**
+     * @param startOffset byte offset to continue from (0 for a new run)
+     * @param startLine number of lines before startOffset
+     */
+    public ClaimFileReader(Path file, Format format, long startOffset, long startLine) throws IOException {
+        this.format = format;
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.lines = new LineReader(Channels.newInputStream(channel));
+        if (format == Format.CSV) {
+            readHeader();
+        }
+        if (startOffset > lines.offset) {
+            channel.position(startOffset);
+            lines.reset(startOffset);
+            lineNumber = startLine;
+        }
+    }
+
+    /**
+     * A claim read from the file, or the reason its line could not be parsed
+     */
+    public static final class Entry {
+        private final long lineNumber;
+        private final long endOffset;
+        private final ClaimRequest claim;
+        private final String error;
+
+        Entry(long lineNumber, long endOffset, ClaimRequest claim, String error) {
+            this.lineNumber = lineNumber;
+            this.endOffset = endOffset;
+            this.claim = claim;
+            this.error = error;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * Byte offset just after this entry's line
+         */
+        public long getEndOffset() {
+            return endOffset;
+        }
+
+        public ClaimRequest getClaim() {
+            return claim;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    /**
+     * Next claim, or null at the end of the file
+     */
+    public Entry next() throws IOException {
+        while (true) {
+            String line = lines.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                ClaimRequest claim = format == Format.CSV ? parseCsv(line) : gson.fromJson(line, ClaimRequest.class);
+                if (claim == null) {
+                    throw new IllegalArgumentException("Empty claim");
+                }
+                return new Entry(lineNumber, lines.offset, claim, null);
+            } catch (JsonParseException | IllegalArgumentException e) {
+                return new Entry(lineNumber, lines.offset, null, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lines.in.close();
+    }
+
+    private void readHeader() throws IOException {
+        String header = lines.readLine();
+        if (header == null) {
+            throw new IOException("CSV file is empty, expected a header line");
+        }
+        lineNumber++;
+        List<String> names = splitCsv(header);
+        columnIndex = new int[CSV_COLUMNS.length];
+        Arrays.fill(columnIndex, -1);
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT);
+            for (int c = 0; c < CSV_COLUMNS.length; c++) {
+                if (CSV_COLUMNS[c].equals(name)) {
+                    columnIndex[c] = i;
+                }
+            }
+        }
+        if (columnIndex[0] < 0 || columnIndex[3] < 0) {
+            throw new IOException("CSV header must contain claimId and claimAmount columns: " + header);
+        }
+    }
+
+    private ClaimRequest parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        String amount = column(fields, 3);
+        if (amount == null) {
+            throw new IllegalArgumentException("Missing claimAmount");
+        }
+        return new ClaimRequest(column(fields, 0), column(fields, 1), column(fields, 2),
+                Double.parseDouble(amount), column(fields, 4), column(fields, 5));
+    }
+
+    private String column(List<String> fields, int column) {
+        int index = columnIndex[column];
+        if (index < 0 || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * UTF-8 line reader that tracks the byte offset of what it has returned
+     */
+    private static final class LineReader {
+        final InputStream in;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int position;
+        private int limit;
+        private byte[] line = new byte[256];
+        long offset;
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Discard buffered bytes after the underlying stream was repositioned
+         */
+        void reset(long newOffset) {
+            position = 0;
+            limit = 0;
+            offset = newOffset;
+        }
+
+        String readLine() throws IOException {
+            int length = 0;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return length > 0 ? decode(length) : null;
+                    }
+                }
+                byte b = buffer[position++];
+                offset++;
+                if (b == '\n') {
+                    return decode(length);
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+            }
+        }
+
+        private String decode(int length) {
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.insurance.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Size-bounded map with a per-entry expiry time, shared by the result
+ * caches and the admission controller's bucket table.
+ *
+ * Keys are spread over up to 16 segments by hash. Each segment is a
+ * LinkedHashMap in access order behind its own lock: a lookup moves the
+ * entry to the recently used end, and an insert into a full segment drops
+ * the least recently used entry. Both are O(1); nothing ever scans the
+ * whole cache to make room. Expired entries are dropped when they are
+ * looked up, when they reach the least recently used end, or by
+ * {@link #purge}. Small caches use a single segment, so their bound is exact;
+ * larger ones hold at most maxEntries rounded up to a multiple of the
+ * segment count.
+ *
+ * Times are System.nanoTime() values supplied by the caller.
+ */
+public final class BoundedCache<K, V> {
+
+    /** Expiry time of an entry that only leaves the cache by eviction */
+    public static final long NEVER = Long.MAX_VALUE;
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_ENTRIES = 64;
+
+    private final Segment<K, V>[] segments;
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public BoundedCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        int count = 1;
+        while (count < MAX_SEGMENTS && maxEntries / (count * 2) >= MIN_SEGMENT_ENTRIES) {
+            count *= 2;
+        }
+        this.segments = (Segment<K, V>[]) new Segment<?, ?>[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(evictions);
+        }
+        setMaxEntries(maxEntries);
+    }
+
+    /**
+     * Live value for key, or null if it is absent or has expired
+     */
+    public V get(K key, long nowNanos) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            CacheEntry<V> entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isExpired(nowNanos)) {
+                segment.remove(key);
+                evictions.increment();
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * Store a value until expiresAtNanos, replacing any current one
+     */
+    public void put(K key, V value, long expiresAtNanos) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, new CacheEntry<>(value, expiresAtNanos));
+        }
+    }
+
+    /**
+     * Atomically replace the value for key. remapping receives the live
+     * value (or null) and returns the value to keep, or null to remove the
+     * entry. A new value expires at expiresAtNanos; returning the current
+     * value unchanged keeps its expiry.
+     *
+     * @return the value now stored, or null
+     */
+    public V compute(K key, long nowNanos, long expiresAtNanos, UnaryOperator<V> remapping) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            CacheEntry<V> entry = segment.get(key);
+            V current = entry != null && !entry.isExpired(nowNanos) ? entry.value : null;
+            V updated = remapping.apply(current);
+            if (updated == null) {
+                segment.remove(key);
+            } else if (current == null || updated != current) {
+                segment.put(key, new CacheEntry<>(updated, expiresAtNanos));
+            }
+            return updated;
+        }
+    }
+
+    public V remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            CacheEntry<V> entry = segment.remove(key);
+            return entry != null ? entry.value : null;
+        }
+    }
+
+    /**
+     * Remove every entry whose key matches; visits the whole cache
+     */
+    public void removeIf(Predicate<? super K> keyMatches) {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.keySet().removeIf(keyMatches);
+            }
+        }
+    }
+
+    /**
+     * Drop entries that have expired or are stale, starting from the least
+     * recently used end of each segment and stopping at the first entry to
+     * keep. This costs O(removed) when staleness follows access order, as
+     * with an idle timeout.
+     *
+     * @param stale extra condition for dropping a live value, or null
+     * @return number of entries removed
+     */
+    public int purge(long nowNanos, Predicate<? super V> stale) {
+        int removed = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                Iterator<CacheEntry<V>> iterator = segment.values().iterator();
+                while (iterator.hasNext()) {
+                    CacheEntry<V> entry = iterator.next();
+                    if (!entry.isExpired(nowNanos) && (stale == null || !stale.test(entry.value))) {
+                        break;
+                    }
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        evictions.add(removed);
+        return removed;
+    }
+
+    /**
+     * Change the bound; entries beyond a smaller bound are dropped least recently used first
+     */
+    public void setMaxEntries(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        int perSegment = (maxEntries + segments.length - 1) / segments.length;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.maxEntries = perSegment;
+                Iterator<CacheEntry<V>> iterator = segment.values().iterator();
+                while (segment.size() > perSegment && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Entries held, including expired ones not dropped yet
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Entries dropped for the size bound or on expiry
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (segments.length - 1)];
+    }
+
+    private static final class CacheEntry<V> {
+        final V value;
+        final long expiresAt;
+
+        CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long nowNanos) {
+            return expiresAt != NEVER && nowNanos - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * Access-ordered map that drops its eldest entry once over the bound. Guarded by its own monitor.
+     */
+    private static final class Segment<K, V> extends LinkedHashMap<K, CacheEntry<V>> {
+        // Never serialized; declared because LinkedHashMap is Serializable
+        private static final long serialVersionUID = 1L;
+
+        private final LongAdder evictions;
+        int maxEntries;
+
+        Segment(LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+            if (size() > maxEntries) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -1,65 +1,83 @@
 package com.insurance.client;
 
-import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.insurance.graphql.PersistedQueryRegistry;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * GraphQL Client for testing Policy Validation Service
+ * Uses the shared, pooled HTTP client in {@link JsonHttp}
  */
 public class GraphQLClient {
 
-    private static final String GRAPHQL_URL = "http://localhost:8080/claim-processing/graphql";
-    private static final Gson gson = new Gson();
+    private static final String GRAPHQL_URL =
+            System.getProperty("graphql.url", "http://localhost:8080/claim-processing/graphql");
 
     /**
      * Execute GraphQL query
      */
-    public static String executeQuery(String query, Map<String, Object> variables) throws Exception {
-        URL url = new URL(GRAPHQL_URL);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+    public static JsonObject executeQuery(String query, Map<String, Object> variables) throws Exception {
+        return JsonHttp.send(JsonHttp.post(GRAPHQL_URL, queryRequest(query, variables)), JsonObject.class);
+    }
 
-        try {
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setDoOutput(true);
+    /**
+     * Execute GraphQL query without blocking the caller
+     */
+    public static CompletableFuture<JsonObject> executeQueryAsync(String query, Map<String, Object> variables) {
+        return JsonHttp.sendAsync(JsonHttp.post(GRAPHQL_URL, queryRequest(query, variables)), JsonObject.class);
+    }
 
-            // Build request
-            Map<String, Object> request = new HashMap<>();
-            request.put("query", query);
-            if (variables != null) {
-                request.put("variables", variables);
-            }
+    private static Map<String, Object> queryRequest(String query, Map<String, Object> variables) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("query", query);
+        if (variables != null) {
+            request.put("variables", variables);
+        }
+        return request;
+    }
 
-            // Send request
-            String jsonRequest = gson.toJson(request);
-            try (OutputStream os = conn.getOutputStream()) {
-                byte[] input = jsonRequest.getBytes("utf-8");
-                os.write(input, 0, input.length);
-            }
+    /**
+     * Execute GraphQL query as an automatic persisted query.
+     * Sends only the SHA-256 hash first and falls back to sending the full
+     * document if the server answers PersistedQueryNotFound.
+     */
+    public static JsonObject executePersistedQuery(String query, Map<String, Object> variables) throws Exception {
+        Map<String, Object> persistedQuery = new HashMap<>();
+        persistedQuery.put("version", 1);
+        persistedQuery.put("sha256Hash", PersistedQueryRegistry.sha256(query));
+
+        Map<String, Object> request = new HashMap<>();
+        request.put("extensions", Collections.singletonMap("persistedQuery", persistedQuery));
+        if (variables != null) {
+            request.put("variables", variables);
+        }
 
-            // Read response
-            BufferedReader br = new BufferedReader(
-                    new InputStreamReader(conn.getInputStream(), "utf-8"));
+        JsonObject response = JsonHttp.send(JsonHttp.post(GRAPHQL_URL, request), JsonObject.class);
+        if (isPersistedQueryNotFound(response)) {
+            request.put("query", query);
+            response = JsonHttp.send(JsonHttp.post(GRAPHQL_URL, request), JsonObject.class);
+        }
+        return response;
+    }
 
-            StringBuilder response = new StringBuilder();
-            String responseLine;
-            while ((responseLine = br.readLine()) != null) {
-                response.append(responseLine.trim());
+    private static boolean isPersistedQueryNotFound(JsonObject response) {
+        if (response == null || !response.has("errors")) {
+            return false;
+        }
+        JsonArray errors = response.getAsJsonArray("errors");
+        for (JsonElement error : errors) {
+            JsonElement message = error.getAsJsonObject().get("message");
+            if (message != null && "PersistedQueryNotFound".equals(message.getAsString())) {
+                return true;
             }
-
-            return response.toString();
-
-        } finally {
-            conn.disconnect();
         }
+        return false;
     }
 
     public static void main(String[] args) {
@@ -71,7 +89,7 @@ public class GraphQLClient {
             System.out.println("-".repeat(60));
             String query1 = "query { policy(policyId: \"POL-001\") { " +
                     "policyId userId policyType status coverageAmount premium isActive } }";
-            String response1 = executeQuery(query1, null);
+            JsonObject response1 = executeQuery(query1, null);
             printFormattedResponse(response1);
 
             System.out.println("\n");
@@ -81,7 +99,7 @@ public class GraphQLClient {
             System.out.println("-".repeat(60));
             String query2 = "query { policiesByUser(userId: \"USR-123\") { " +
                     "policyId policyType status coverageAmount isActive } }";
-            String response2 = executeQuery(query2, null);
+            JsonObject response2 = executeQuery(query2, null);
             printFormattedResponse(response2);
 
             System.out.println("\n");
@@ -95,7 +113,7 @@ public class GraphQLClient {
             Map<String, Object> variables3 = new HashMap<>();
             variables3.put("policyId", "POL-001");
             variables3.put("claimAmount", 30000.0);
-            String response3 = executeQuery(query3, variables3);
+            JsonObject response3 = executePersistedQuery(query3, variables3);
             printFormattedResponse(response3);
 
             System.out.println("\n");
@@ -106,7 +124,7 @@ public class GraphQLClient {
             Map<String, Object> variables4 = new HashMap<>();
             variables4.put("policyId", "POL-001");
             variables4.put("claimAmount", 75000.0);
-            String response4 = executeQuery(query3, variables4);
+            JsonObject response4 = executePersistedQuery(query3, variables4);
             printFormattedResponse(response4);
 
             System.out.println("\n");
@@ -117,7 +135,7 @@ public class GraphQLClient {
             Map<String, Object> variables5 = new HashMap<>();
             variables5.put("policyId", "POL-003");
             variables5.put("claimAmount", 25000.0);
-            String response5 = executeQuery(query3, variables5);
+            JsonObject response5 = executePersistedQuery(query3, variables5);
             printFormattedResponse(response5);
 
         } catch (Exception e) {
@@ -126,8 +144,7 @@ public class GraphQLClient {
         }
     }
 
-    private static void printFormattedResponse(String jsonResponse) {
-        JsonObject json = gson.fromJson(jsonResponse, JsonObject.class);
-        System.out.println(gson.toJson(json));
+    private static void printFormattedResponse(JsonObject response) {
+        System.out.println(JsonHttp.GSON.toJson(response));
     }
 }
@@ -0,0 +1,33 @@
+package com.insurance.client;
+
+import java.io.IOException;
+
+/**
+ * The server answered with a non-2xx status.
+ * Carries the status code and, for 429/503 responses, the Retry-After hint
+ * so callers can back off instead of retrying at once.
+ */
+public class HttpStatusException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final long retryAfterSeconds;
+
+    HttpStatusException(int statusCode, long retryAfterSeconds, String body) {
+        super("HTTP " + statusCode + (body.isEmpty() ? "" : ": " + body));
+        this.statusCode = statusCode;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Seconds the server asked the caller to wait, or -1 without a Retry-After header
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,179 @@
+package com.insurance.client;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * HTTP plumbing shared by the REST and GraphQL clients.
+ *
+ * One HttpClient (and so one connection pool) serves every call in the JVM.
+ * It prefers HTTP/2 and falls back to HTTP/1.1 keep-alive connections when
+ * the server does not upgrade. Response bodies are deserialized straight
+ * from the byte stream, without building an intermediate String.
+ *
+ * A non-2xx response is never parsed as the requested type: the call fails
+ * with an {@link HttpStatusException} carrying the status and Retry-After.
+ */
+final class JsonHttp {
+
+    static final Gson GSON = new Gson();
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    // Runs the client's I/O callbacks and the JSON parsing
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "http-client-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(Long.getLong("http.client.connectTimeoutMs", 5000)))
+            .executor(EXECUTOR)
+            .build();
+
+    static final Duration REQUEST_TIMEOUT = Duration.ofMillis(Long.getLong("http.client.requestTimeoutMs", 30000));
+
+    // Error bodies are kept in the exception message up to this length
+    private static final int MAX_ERROR_BODY_CHARS = 500;
+
+    private JsonHttp() {
+    }
+
+    /**
+     * Build a JSON POST request
+     */
+    static HttpRequest post(String url, Object body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(GSON.toJson(body).getBytes(StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    /**
+     * Build a JSON GET request
+     */
+    static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    /**
+     * Body handler that parses the response stream as JSON of the given type.
+     * The body is exposed as a Supplier so the (blocking) parse runs outside
+     * the client's response subscriber. For a non-2xx status the supplier
+     * throws an UncheckedIOException wrapping an {@link HttpStatusException}.
+     */
+    static <T> HttpResponse.BodyHandler<Supplier<T>> json(Class<T> type) {
+        return responseInfo -> {
+            if (isSuccess(responseInfo.statusCode())) {
+                return HttpResponse.BodySubscribers.mapping(
+                        HttpResponse.BodySubscribers.ofInputStream(),
+                        in -> () -> parse(in, type));
+            }
+            return HttpResponse.BodySubscribers.mapping(
+                    HttpResponse.BodySubscribers.ofByteArray(),
+                    body -> {
+                        HttpStatusException error = statusException(
+                                responseInfo.statusCode(), responseInfo.headers(), body);
+                        return () -> {
+                            throw new UncheckedIOException(error);
+                        };
+                    });
+        };
+    }
+
+    /**
+     * Send a request and parse the JSON response, blocking the caller
+     */
+    static <T> T send(HttpRequest request, Class<T> type) throws IOException, InterruptedException {
+        try {
+            return CLIENT.send(request, json(type)).body().get();
+        } catch (UncheckedIOException e) {
+            if (e.getCause() instanceof HttpStatusException) {
+                throw e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Send a request and parse the JSON response without blocking the caller.
+     * A non-2xx response fails the future with an {@link HttpStatusException}.
+     */
+    static <T> CompletableFuture<T> sendAsync(HttpRequest request, Class<T> type) {
+        return CLIENT.sendAsync(request, json(type))
+                .thenApplyAsync(response -> {
+                    try {
+                        return response.body().get();
+                    } catch (UncheckedIOException e) {
+                        if (e.getCause() instanceof HttpStatusException) {
+                            throw new CompletionException(e.getCause());
+                        }
+                        throw e;
+                    }
+                }, EXECUTOR);
+    }
+
+    static boolean isSuccess(int statusCode) {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * The failure for a non-2xx response, with the start of its body as the detail
+     */
+    static HttpStatusException statusException(int statusCode, HttpHeaders headers, byte[] body) {
+        String text = new String(body, StandardCharsets.UTF_8).trim();
+        if (text.length() > MAX_ERROR_BODY_CHARS) {
+            text = text.substring(0, MAX_ERROR_BODY_CHARS) + "...";
+        }
+        return new HttpStatusException(statusCode, retryAfterSeconds(headers), text);
+    }
+
+    /**
+     * Retry-After in seconds; -1 when absent or given as an HTTP date
+     */
+    private static long retryAfterSeconds(HttpHeaders headers) {
+        String value = headers.firstValue("Retry-After").orElse(null);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static <T> T parse(InputStream in, Class<T> type) {
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return GSON.fromJson(reader, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read response body", e);
+        }
+    }
+}
@@ -1,90 +1,136 @@
 package com.insurance.client;
 
-import com.google.gson.Gson;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.insurance.dto.ClaimProtobuf;
 import com.insurance.dto.ClaimRequest;
 import com.insurance.dto.ClaimResponse;
+import com.insurance.dto.proto.ClaimResponseMessage;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * REST Client for testing Claim Submission Service
+ * Uses the shared, pooled HTTP client in {@link JsonHttp}
  */
 public class RestClient {
 
-    private static final String BASE_URL = "http://localhost:8080/claim-processing/api";
-    private static final Gson gson = new Gson();
+    private static final String BASE_URL =
+            System.getProperty("claims.api.url", "http://localhost:8080/claim-processing/api");
+    private static final String APPLICATION_PROTOBUF = "application/x-protobuf";
 
     /**
      * Submit a claim via REST API
      */
     public static ClaimResponse submitClaim(ClaimRequest request) throws Exception {
-        URL url = new URL(BASE_URL + "/claims/submit");
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        return JsonHttp.send(JsonHttp.post(BASE_URL + "/claims/submit", request), ClaimResponse.class);
+    }
 
-        try {
-            // Set request method and headers
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setDoOutput(true);
-
-            // Send request body
-            String jsonRequest = gson.toJson(request);
-            try (OutputStream os = conn.getOutputStream()) {
-                byte[] input = jsonRequest.getBytes("utf-8");
-                os.write(input, 0, input.length);
-            }
+    /**
+     * Submit a claim via REST API without blocking the caller
+     */
+    public static CompletableFuture<ClaimResponse> submitClaimAsync(ClaimRequest request) {
+        return JsonHttp.sendAsync(JsonHttp.post(BASE_URL + "/claims/submit", request), ClaimResponse.class);
+    }
 
-            // Read response
-            int responseCode = conn.getResponseCode();
-            BufferedReader br;
-            if (responseCode == 200) {
-                br = new BufferedReader(new InputStreamReader(conn.getInputStream(), "utf-8"));
-            } else {
-                br = new BufferedReader(new InputStreamReader(conn.getErrorStream(), "utf-8"));
-            }
+    /**
+     * Submit a claim as protobuf (application/x-protobuf) without blocking the caller.
+     * Cheaper to encode and decode than JSON for high-volume producers.
+     * A non-2xx response fails the future with an {@link HttpStatusException}.
+     */
+    public static CompletableFuture<ClaimResponse> submitClaimProtobufAsync(ClaimRequest request) {
+        HttpRequest httpRequest = HttpRequest.newBuilder(URI.create(BASE_URL + "/claims/submit"))
+                .timeout(JsonHttp.REQUEST_TIMEOUT)
+                .header("Content-Type", APPLICATION_PROTOBUF)
+                .header("Accept", APPLICATION_PROTOBUF)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(ClaimProtobuf.toMessage(request).toByteArray()))
+                .build();
+        return JsonHttp.CLIENT.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (!JsonHttp.isSuccess(response.statusCode())) {
+                        throw new CompletionException(JsonHttp.statusException(
+                                response.statusCode(), response.headers(), response.body()));
+                    }
+                    try {
+                        return ClaimProtobuf.fromMessage(ClaimResponseMessage.parseFrom(response.body()));
+                    } catch (InvalidProtocolBufferException e) {
+                        throw new CompletionException("Invalid protobuf response", e);
+                    }
+                });
+    }
 
-            StringBuilder response = new StringBuilder();
-            String responseLine;
-            while ((responseLine = br.readLine()) != null) {
-                response.append(responseLine.trim());
-            }
+    /**
+     * Submit many claims with at most maxConcurrency requests in flight.
+     * Responses are returned in request order; a claim whose call fails gets
+     * an ERROR response instead of failing the whole batch.
+     */
+    public static CompletableFuture<List<ClaimResponse>> submitClaims(List<ClaimRequest> requests,
+                                                                      int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        ClaimResponse[] responses = new ClaimResponse[requests.size()];
+        AtomicInteger next = new AtomicInteger();
+
+        // Each lane submits one claim at a time and picks the next when it completes
+        int lanes = Math.min(maxConcurrency, requests.size());
+        CompletableFuture<?>[] laneFutures = new CompletableFuture<?>[lanes];
+        for (int i = 0; i < lanes; i++) {
+            laneFutures[i] = submitNext(requests, responses, next);
+        }
 
-            return gson.fromJson(response.toString(), ClaimResponse.class);
+        return CompletableFuture.allOf(laneFutures).thenApply(done -> {
+            List<ClaimResponse> ordered = new ArrayList<>(responses.length);
+            for (ClaimResponse response : responses) {
+                ordered.add(response);
+            }
+            return ordered;
+        });
+    }
 
-        } finally {
-            conn.disconnect();
+    private static CompletableFuture<Void> submitNext(List<ClaimRequest> requests, ClaimResponse[] responses,
+                                                      AtomicInteger next) {
+        int index = next.getAndIncrement();
+        if (index >= requests.size()) {
+            return CompletableFuture.completedFuture(null);
         }
+        ClaimRequest request = requests.get(index);
+        return submitClaimAsync(request)
+                .handle((response, error) -> {
+                    responses[index] = error == null ? response : errorResponse(request, error);
+                    return null;
+                })
+                .thenCompose(ignored -> submitNext(requests, responses, next));
+    }
+
+    private static ClaimResponse errorResponse(ClaimRequest request, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        ClaimResponse response = new ClaimResponse();
+        response.setClaimId(request.getClaimId());
+        response.setStatus("ERROR");
+        response.setMessage("Submission failed: " + cause);
+        return response;
     }
 
     /**
      * Get claim status via REST API
      */
     public static ClaimResponse getClaimStatus(String claimId) throws Exception {
-        URL url = new URL(BASE_URL + "/claims/" + claimId);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-
-        try {
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("Accept", "application/json");
-
-            BufferedReader br = new BufferedReader(
-                    new InputStreamReader(conn.getInputStream(), "utf-8"));
-
-            StringBuilder response = new StringBuilder();
-            String responseLine;
-            while ((responseLine = br.readLine()) != null) {
-                response.append(responseLine.trim());
-            }
-
-            return gson.fromJson(response.toString(), ClaimResponse.class);
+        return JsonHttp.send(JsonHttp.get(BASE_URL + "/claims/" + claimId), ClaimResponse.class);
+    }
 
-        } finally {
-            conn.disconnect();
-        }
+    /**
+     * Get claim status via REST API without blocking the caller
+     */
+    public static CompletableFuture<ClaimResponse> getClaimStatusAsync(String claimId) {
+        return JsonHttp.sendAsync(JsonHttp.get(BASE_URL + "/claims/" + claimId), ClaimResponse.class);
     }
 
     /**
@@ -119,6 +165,23 @@ public class RestClient {
             System.out.println("Policy Status: " + response.getPolicyStatus());
             System.out.println("Timestamp: " + response.getTimestamp());
 
+            // Bulk submission, at most 4 requests in flight
+            System.out.println("\n=== Bulk Submission ===");
+            List<ClaimRequest> bulk = new ArrayList<>();
+            for (int i = 1; i <= 10; i++) {
+                bulk.add(new ClaimRequest(
+                        String.format("CLM-REST-BULK-%03d", i),
+                        "USR-123",
+                        "AUTO",
+                        1000.0 * i,
+                        "Bulk test claim",
+                        "2024-01-15"
+                ));
+            }
+            for (ClaimResponse bulkResponse : submitClaims(bulk, 4).join()) {
+                System.out.println(bulkResponse.getClaimId() + ": " + bulkResponse.getStatus());
+            }
+
         } catch (Exception e) {
             System.err.println("Error: " + e.getMessage());
             e.printStackTrace();
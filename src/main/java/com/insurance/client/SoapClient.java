@@ -1,11 +1,18 @@
 package com.insurance.client;
 
-import com.insurance.soap.IdentityVerificationService;
+import com.insurance.soap.IdentityCheck;
+import com.insurance.soap.IdentityVerificationAsyncClient;
+import com.insurance.soap.IdentityVerifier;
+import com.insurance.soap.IdentityVerifiers;
 import com.insurance.soap.VerificationResult;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * SOAP Client for testing Identity Verification Service
- * Note: This is a direct Java client. For external SOAP testing, use SoapUI or similar tools.
+ * Calls the service through the configured {@link IdentityVerifier}: in-process by default,
+ * or over HTTP with pooled ports when run with -Didentity.client.mode=remote -Didentity.client.url=...
+ * For external SOAP testing, use SoapUI or similar tools.
  */
 public class SoapClient {
 
@@ -13,8 +20,8 @@ public class SoapClient {
         System.out.println("=== Testing SOAP Identity Verification Service ===\n");
 
         try {
-            // Create SOAP service instance
-            IdentityVerificationService service = new IdentityVerificationService();
+            IdentityVerifier service = IdentityVerifiers.getDefault();
+            System.out.println("Verifier: " + service + "\n");
 
             // Test Case 1: Valid identity
             System.out.println("Test Case 1: Valid Identity");
@@ -52,6 +59,46 @@ public class SoapClient {
 
             System.out.println("\n");
 
+            // Test Case 4: Batch verification
+            System.out.println("Test Case 4: Batch Verification");
+            System.out.println("-".repeat(50));
+            VerificationResult[] batch = service.verifyIdentities(new IdentityCheck[] {
+                    new IdentityCheck("USR-123", "John Doe", "ID12345678"),
+                    new IdentityCheck("USR-456", "Jane Smith", "ID123"),
+                    new IdentityCheck("USR-789", "Sam Lee", "ID87654321")
+            });
+            for (VerificationResult result : batch) {
+                printResult(result);
+                System.out.println();
+            }
+
+            // Test Case 5: Document image (sent as an MTOM attachment over the wire)
+            System.out.println("Test Case 5: Document Image Verification");
+            System.out.println("-".repeat(50));
+            byte[] documentImage = new byte[64 * 1024];
+            VerificationResult result5 = service.verifyIdentityDocument(
+                    "USR-123",
+                    "John Doe",
+                    "ID12345678",
+                    documentImage
+            );
+            printResult(result5);
+
+            System.out.println("\n");
+
+            // Test Case 6: Async endpoint (only when a server URL is given)
+            if (args.length > 0) {
+                System.out.println("Test Case 6: Async Endpoint " + args[0]);
+                System.out.println("-".repeat(50));
+                IdentityVerificationAsyncClient asyncClient = new IdentityVerificationAsyncClient(args[0]);
+                VerificationResult result6 = asyncClient
+                        .verifyIdentity("USR-123", "John Doe", "ID12345678")
+                        .get(30, TimeUnit.SECONDS);
+                printResult(result6);
+
+                System.out.println("\n");
+            }
+
             // Test service status
             System.out.println("Service Status: " + service.getServiceStatus());
 
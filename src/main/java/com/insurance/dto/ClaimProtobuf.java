@@ -0,0 +1,67 @@
+package com.insurance.dto;
+
+import com.insurance.dto.proto.ClaimRequestMessage;
+import com.insurance.dto.proto.ClaimResponseMessage;
+
+/**
+ * Conversion between the claim DTOs and their protobuf messages.
+ * Protobuf strings cannot be null: null is sent as "" and "" is read back as null.
+ */
+public final class ClaimProtobuf {
+
+    private ClaimProtobuf() {
+    }
+
+    public static ClaimRequestMessage toMessage(ClaimRequest request) {
+        return ClaimRequestMessage.newBuilder()
+                .setClaimId(orEmpty(request.getClaimId()))
+                .setUserId(orEmpty(request.getUserId()))
+                .setClaimType(orEmpty(request.getClaimType()))
+                .setClaimAmount(request.getClaimAmount())
+                .setDescription(orEmpty(request.getDescription()))
+                .setIncidentDate(orEmpty(request.getIncidentDate()))
+                .build();
+    }
+
+    public static ClaimRequest fromMessage(ClaimRequestMessage message) {
+        return new ClaimRequest(
+                orNull(message.getClaimId()),
+                orNull(message.getUserId()),
+                orNull(message.getClaimType()),
+                message.getClaimAmount(),
+                orNull(message.getDescription()),
+                orNull(message.getIncidentDate()));
+    }
+
+    public static ClaimResponseMessage toMessage(ClaimResponse response) {
+        return ClaimResponseMessage.newBuilder()
+                .setClaimId(orEmpty(response.getClaimId()))
+                .setStatus(orEmpty(response.getStatus()))
+                .setMessage(orEmpty(response.getMessage()))
+                .setTimestamp(orEmpty(response.getTimestamp()))
+                .setIdentityVerified(response.isIdentityVerified())
+                .setFraudCheckPassed(response.isFraudCheckPassed())
+                .setPolicyStatus(orEmpty(response.getPolicyStatus()))
+                .build();
+    }
+
+    public static ClaimResponse fromMessage(ClaimResponseMessage message) {
+        ClaimResponse response = new ClaimResponse(
+                orNull(message.getClaimId()),
+                orNull(message.getStatus()),
+                orNull(message.getMessage()),
+                orNull(message.getTimestamp()));
+        response.setIdentityVerified(message.getIdentityVerified());
+        response.setFraudCheckPassed(message.getFraudCheckPassed());
+        response.setPolicyStatus(orNull(message.getPolicyStatus()));
+        return response;
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String orNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
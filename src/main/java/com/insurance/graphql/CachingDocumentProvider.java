@@ -0,0 +1,55 @@
+package com.insurance.graphql;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Caches parsed and validated GraphQL documents by query text so that
+ * repeated queries skip parsing and validation.
+ * Only documents without errors are cached.
+ */
+public class CachingDocumentProvider implements PreparsedDocumentProvider {
+
+    private final Map<String, PreparsedDocumentEntry> cache;
+
+    public CachingDocumentProvider(final int maxEntries) {
+        this.cache = Collections.synchronizedMap(
+                new LinkedHashMap<String, PreparsedDocumentEntry>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, PreparsedDocumentEntry> eldest) {
+                        return size() > maxEntries;
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+            ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        String query = executionInput.getQuery();
+        PreparsedDocumentEntry entry = cache.get(query);
+        if (entry == null) {
+            entry = parseAndValidateFunction.apply(executionInput);
+            if (!entry.hasErrors()) {
+                cache.put(query, entry);
+            }
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+
+    /**
+     * Still abstract in graphql-java 19; the engine calls {@link #getDocumentAsync}
+     */
+    @Override
+    @Deprecated
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+                                              Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        return getDocumentAsync(executionInput, parseAndValidateFunction).join();
+    }
+}
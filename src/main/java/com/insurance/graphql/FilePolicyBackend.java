@@ -0,0 +1,156 @@
+package com.insurance.graphql;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.insurance.logging.EventLog;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Policy backend persisted as a JSON file.
+ * The file is read once at startup and rewritten atomically after every write.
+ * If it does not exist yet, the store starts with the sample policies and the
+ * file is only created by the first write. With a null file the policies are
+ * kept in memory only.
+ */
+public class FilePolicyBackend implements PolicyBackend {
+
+    private final Path file;
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Map<String, Policy> policies = new LinkedHashMap<>();
+
+    public FilePolicyBackend(Path file) {
+        this.file = file;
+        if (file != null && Files.exists(file)) {
+            load();
+        } else {
+            seed();
+        }
+    }
+
+    @Override
+    public synchronized Policy findById(String policyId) {
+        Policy policy = policies.get(policyId);
+        return policy != null ? new Policy(policy) : null;
+    }
+
+    @Override
+    public synchronized List<Policy> findByUserId(String userId) {
+        List<Policy> userPolicies = new ArrayList<>();
+        for (Policy policy : policies.values()) {
+            if (userId != null && userId.equals(policy.getUserId())) {
+                userPolicies.add(new Policy(policy));
+            }
+        }
+        return userPolicies;
+    }
+
+    @Override
+    public synchronized List<Policy> findAll() {
+        List<Policy> all = new ArrayList<>(policies.size());
+        for (Policy policy : policies.values()) {
+            all.add(new Policy(policy));
+        }
+        return all;
+    }
+
+    @Override
+    public synchronized Policy create(Policy policy) {
+        if (policies.containsKey(policy.getPolicyId())) {
+            throw new IllegalArgumentException("Policy already exists: " + policy.getPolicyId());
+        }
+        Policy stored = new Policy(policy);
+        stored.setVersion(1);
+        policies.put(stored.getPolicyId(), stored);
+        persist();
+        return new Policy(stored);
+    }
+
+    @Override
+    public synchronized Policy update(String policyId, Long expectedVersion, Consumer<Policy> change) {
+        Policy current = policies.get(policyId);
+        if (current == null) {
+            throw new IllegalArgumentException("Policy not found: " + policyId);
+        }
+        if (expectedVersion != null && expectedVersion != current.getVersion()) {
+            throw new IllegalStateException("Version conflict for policy " + policyId + ": expected "
+                    + expectedVersion + " but found " + current.getVersion());
+        }
+        Policy updated = new Policy(current);
+        change.accept(updated);
+        updated.setPolicyId(policyId);
+        updated.setVersion(current.getVersion() + 1);
+        policies.put(policyId, updated);
+        persist();
+        return new Policy(updated);
+    }
+
+    private void load() {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<Policy> stored = gson.fromJson(reader, new TypeToken<List<Policy>>() { }.getType());
+            if (stored != null) {
+                for (Policy policy : stored) {
+                    policies.put(policy.getPolicyId(), policy);
+                }
+            }
+            EventLog.info("policy.store.loaded", "policies", policies.size(), "file", file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load policies from " + file, e);
+        }
+    }
+
+    /**
+     * Write all policies to a temporary file and move it over the store
+     */
+    private void persist() {
+        if (file == null) {
+            return;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                gson.toJson(new ArrayList<>(policies.values()), writer);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to persist policies to " + file, e);
+        }
+    }
+
+    private void seed() {
+        addSeed(new Policy(
+                "POL-001", "USR-123", "AUTO", "ACTIVE",
+                50000, 1200, "2024-01-01", "2025-01-01", true
+        ));
+        addSeed(new Policy(
+                "POL-002", "USR-456", "HOME", "ACTIVE",
+                200000, 2400, "2024-01-01", "2025-01-01", true
+        ));
+        addSeed(new Policy(
+                "POL-003", "USR-123", "HEALTH", "EXPIRED",
+                100000, 3600, "2023-01-01", "2024-01-01", false
+        ));
+    }
+
+    private void addSeed(Policy policy) {
+        policy.setVersion(1);
+        policies.put(policy.getPolicyId(), policy);
+    }
+}
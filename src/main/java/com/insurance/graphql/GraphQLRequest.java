@@ -0,0 +1,118 @@
+package com.insurance.graphql;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import graphql.ExecutionInput;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A single GraphQL operation as sent in a POST /graphql body
+ */
+public class GraphQLRequest {
+
+    private static final Type MAP_TYPE = new TypeToken<Map<String, Object>>() { }.getType();
+
+    private String query;
+    private String operationName;
+    private Map<String, Object> variables = Collections.emptyMap();
+    private Map<String, Object> extensions = Collections.emptyMap();
+
+    /**
+     * Read one operation object from a streaming JSON reader.
+     * Variables and extensions are bound directly from the stream.
+     */
+    public static GraphQLRequest read(JsonReader reader, Gson gson) throws IOException {
+        GraphQLRequest request = new GraphQLRequest();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "query":
+                    request.query = reader.nextString();
+                    break;
+                case "operationName":
+                    request.operationName = reader.nextString();
+                    break;
+                case "variables":
+                    request.variables = gson.fromJson(reader, MAP_TYPE);
+                    break;
+                case "extensions":
+                    request.extensions = gson.fromJson(reader, MAP_TYPE);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return request;
+    }
+
+    /**
+     * Build the execution input for the resolved query document
+     */
+    public ExecutionInput toExecutionInput() {
+        ExecutionInput.Builder builder = ExecutionInput.newExecutionInput()
+                .query(query)
+                .variables(variables);
+        if (operationName != null) {
+            builder.operationName(operationName);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Extract extensions.persistedQuery.sha256Hash, or null if absent
+     */
+    @SuppressWarnings("unchecked")
+    public String getPersistedQueryHash() {
+        Object persistedQuery = extensions.get("persistedQuery");
+        if (!(persistedQuery instanceof Map)) {
+            return null;
+        }
+        Object hash = ((Map<String, Object>) persistedQuery).get("sha256Hash");
+        return hash instanceof String ? (String) hash : null;
+    }
+
+    // Getters and Setters
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getOperationName() {
+        return operationName;
+    }
+
+    public void setOperationName(String operationName) {
+        this.operationName = operationName;
+    }
+
+    public Map<String, Object> getVariables() {
+        return variables;
+    }
+
+    public void setVariables(Map<String, Object> variables) {
+        this.variables = variables;
+    }
+
+    public Map<String, Object> getExtensions() {
+        return extensions;
+    }
+
+    public void setExtensions(Map<String, Object> extensions) {
+        this.extensions = extensions;
+    }
+}
@@ -1,24 +1,59 @@
 package com.insurance.graphql;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.insurance.health.Readiness;
+import com.insurance.logging.EventLog;
+import com.insurance.metrics.Counter;
+import com.insurance.metrics.LatencyHistogram;
+import com.insurance.metrics.MetricsRegistry;
+import com.insurance.tracing.Span;
+import com.insurance.tracing.TraceContext;
+import com.insurance.tracing.Tracer;
+import graphql.ExecutionInput;
 import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
 import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetcher;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.SchemaGenerator;
 import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
 
 import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
@@ -26,15 +61,59 @@ import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
 /**
  * GraphQL Servlet for Insurance Policy operations
  * Endpoint: /graphql
+ *
+ * Requests are processed asynchronously: the container thread only parses
+ * the body, execution runs on a bounded executor and the response is
+ * completed from the result future. When the executor's queue is full the
+ * request gets 503 with Retry-After.
  */
 public class GraphQLServlet extends HttpServlet {
 
+    private static final int DEFAULT_PERSISTED_QUERY_CACHE_SIZE = 1000;
+    private static final int DEFAULT_DOCUMENT_CACHE_SIZE = 500;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 20;
+    private static final int DEFAULT_ASYNC_TIMEOUT_MS = 30000;
+
+    private static final int MAX_OPERATION_METRICS = Integer.getInteger("metrics.maxSeriesPerMetric", 500);
+    private static final Map<String, OperationMetrics> OPERATION_METRICS = new ConcurrentHashMap<>();
+    private static final OperationMetrics OTHER_OPERATION_METRICS = new OperationMetrics("other");
+
+    private static final String WARMUP_VALIDATE_QUERY =
+            "query WarmUpValidatePolicy($policyId: String!, $claimAmount: Float!) { " +
+            "validatePolicy(policyId: $policyId, claimAmount: $claimAmount) { " +
+            "policyId isValid status message validationErrors coverageLimit } }";
+    private static final String WARMUP_POLICY_QUERY =
+            "query WarmUpPolicy($policyId: String!) { policy(policyId: $policyId) { " +
+            "policyId userId policyType status coverageAmount premium startDate endDate isActive } }";
+
     private GraphQL graphQL;
-    private Gson gson = new Gson();
+    private Gson gson = new GsonBuilder().serializeNulls().create();
+    private PersistedQueryRegistry persistedQueries;
+    private boolean persistedQueriesOnly;
+    private ExecutorService executor;
+    private ExecutorService fetcherExecutor;
+    private int maxBatchSize;
+    private long asyncTimeout;
 
     @Override
     public void init() throws ServletException {
         try {
+            // Bounded executor for operations; once its queue is full requests
+            // are answered with 503 rather than run on the container thread
+            int executorThreads = intParameter("executorThreads", Runtime.getRuntime().availableProcessors() * 2);
+            this.maxBatchSize = intParameter("maxBatchSize", DEFAULT_MAX_BATCH_SIZE);
+            this.asyncTimeout = intParameter("asyncTimeoutMs", DEFAULT_ASYNC_TIMEOUT_MS);
+            this.executor = newExecutor("graphql-exec-", executorThreads, executorThreads * maxBatchSize,
+                    new ThreadPoolExecutor.AbortPolicy());
+
+            // Optional executor for data fetchers that call a slow policy backend; when
+            // it is full the operation's own executor thread runs the fetcher
+            if (Boolean.parseBoolean(getInitParameter("asyncDataFetchers"))) {
+                int fetcherThreads = intParameter("fetcherThreads", executorThreads);
+                this.fetcherExecutor = newExecutor("graphql-fetch-", fetcherThreads, fetcherThreads * 64,
+                        new ThreadPoolExecutor.CallerRunsPolicy());
+            }
+
             // Load GraphQL schema
             String schema = loadSchemaFile("schema.graphql");
 
@@ -50,8 +129,20 @@ public class GraphQLServlet extends HttpServlet {
             GraphQLSchema graphQLSchema = schemaGenerator.makeExecutableSchema(
                     typeDefinitionRegistry, runtimeWiring);
 
-            // Create GraphQL instance
-            this.graphQL = GraphQL.newGraphQL(graphQLSchema).build();
+            // Create GraphQL instance with a parsed document cache
+            this.graphQL = GraphQL.newGraphQL(graphQLSchema)
+                    .preparsedDocumentProvider(new CachingDocumentProvider(
+                            intParameter("documentCacheSize", DEFAULT_DOCUMENT_CACHE_SIZE)))
+                    .build();
+
+            // Persisted queries
+            this.persistedQueries = new PersistedQueryRegistry(
+                    intParameter("persistedQueryCacheSize", DEFAULT_PERSISTED_QUERY_CACHE_SIZE));
+            this.persistedQueriesOnly = Boolean.parseBoolean(getInitParameter("persistedQueriesOnly"));
+            loadPersistedQueries();
+
+            warmUp(intParameter("warmupIterations", 0));
+            Readiness.shared().register("graphql-endpoint", () -> "schema loaded");
 
             System.out.println("GraphQL Service initialized successfully");
 
@@ -60,6 +151,25 @@ public class GraphQLServlet extends HttpServlet {
         }
     }
 
+    /**
+     * Create a bounded pool of daemon threads with the given policy for a full queue
+     */
+    private ExecutorService newExecutor(String namePrefix, int threads, int queueSize,
+                                        RejectedExecutionHandler whenFull) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                whenFull);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
     /**
      * Load GraphQL schema file
      */
@@ -73,19 +183,90 @@ public class GraphQLServlet extends HttpServlet {
                 .collect(Collectors.joining("\n"));
     }
 
+    /**
+     * Preload allowed persisted queries.
+     * Uses the "persistedQueriesFile" init parameter if set, otherwise the
+     * bundled persisted-queries.json resource (optional).
+     */
+    private void loadPersistedQueries() throws IOException {
+        String file = getInitParameter("persistedQueriesFile");
+        InputStream inputStream = file != null
+                ? new FileInputStream(file)
+                : getServletContext().getResourceAsStream("/WEB-INF/classes/persisted-queries.json");
+        if (inputStream == null) {
+            return;
+        }
+        try (InputStream in = inputStream) {
+            int count = persistedQueries.load(in);
+            EventLog.info("graphql.persisted.loaded", "queries", count);
+        }
+    }
+
+    /**
+     * Run the policy queries through the full execution path before the
+     * servlet takes traffic, so parsing, validation and the data fetchers
+     * are compiled and the document cache is populated
+     */
+    private void warmUp(int iterations) {
+        if (iterations <= 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        String[] policyIds = {"POL-001", "POL-002", "POL-003"};
+        for (int i = 0; i < iterations; i++) {
+            String policyId = policyIds[i % policyIds.length];
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("policyId", policyId);
+            variables.put("claimAmount", 1000.0 + i % 100 * 500);
+
+            GraphQLRequest validate = new GraphQLRequest();
+            validate.setOperationName("WarmUpValidatePolicy");
+            validate.setQuery(WARMUP_VALIDATE_QUERY);
+            validate.setVariables(variables);
+            executeAsync(validate, null).join();
+
+            GraphQLRequest policy = new GraphQLRequest();
+            policy.setOperationName("WarmUpPolicy");
+            policy.setQuery(WARMUP_POLICY_QUERY);
+            policy.setVariables(Collections.singletonMap("policyId", policyId));
+            executeAsync(policy, null).join();
+        }
+        EventLog.info("graphql.warmup", "iterations", iterations,
+                "elapsedMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private int intParameter(String name, int defaultValue) {
+        String value = getInitParameter(name);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
     /**
      * Build runtime wiring with data fetchers
      */
     private RuntimeWiring buildWiring() {
         return newRuntimeWiring()
                 .type("Query", builder -> builder
-                        .dataFetcher("policy", PolicyDataFetcher.getPolicyById())
-                        .dataFetcher("policiesByUser", PolicyDataFetcher.getPoliciesByUserId())
-                        .dataFetcher("allPolicies", PolicyDataFetcher.getAllPolicies())
-                        .dataFetcher("validatePolicy", PolicyDataFetcher.validatePolicy()))
+                        .dataFetcher("policy", wire("policy", PolicyDataFetcher.getPolicyById()))
+                        .dataFetcher("policiesByUser", wire("policiesByUser", PolicyDataFetcher.getPoliciesByUserId()))
+                        .dataFetcher("allPolicies", wire("allPolicies", PolicyDataFetcher.getAllPolicies()))
+                        .dataFetcher("validatePolicy", wire("validatePolicy", PolicyDataFetcher.validatePolicy())))
+                .type("Mutation", builder -> builder
+                        .dataFetcher("createPolicy", wire("createPolicy", PolicyDataFetcher.createPolicy()))
+                        .dataFetcher("updatePolicy", wire("updatePolicy", PolicyDataFetcher.updatePolicy()))
+                        .dataFetcher("updatePolicyStatus",
+                                wire("updatePolicyStatus", PolicyDataFetcher.updatePolicyStatus())))
                 .build();
     }
 
+    /**
+     * Wrap a data fetcher with a trace span, and to return a CompletableFuture
+     * when async data fetchers are enabled
+     */
+    private <T> DataFetcher<?> wire(String fieldName, DataFetcher<T> fetcher) {
+        DataFetcher<T> traced = PolicyDataFetcher.traced(fieldName, fetcher);
+        return fetcherExecutor != null ? PolicyDataFetcher.async(traced, fetcherExecutor) : traced;
+    }
+
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
@@ -93,42 +274,298 @@ public class GraphQLServlet extends HttpServlet {
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
 
+        // Read the request straight from the container's (recycled) reader.
+        // A JSON array is a batch of independent operations.
+        List<GraphQLRequest> batch = null;
+        GraphQLRequest graphQLRequest = null;
         try {
-            // Read request body
-            String requestBody = request.getReader().lines()
-                    .collect(Collectors.joining(System.lineSeparator()));
-
-            // Parse JSON request
-            @SuppressWarnings("unchecked")
-            Map<String, Object> json = gson.fromJson(requestBody, Map.class);
-            String query = (String) json.get("query");
-            @SuppressWarnings("unchecked")
-            Map<String, Object> variables = json.get("variables") != null ?
-                    (Map<String, Object>) json.get("variables") : new HashMap<>();
-
-            System.out.println("\n=== GraphQL Request ===");
-            System.out.println("Query: " + query);
-            System.out.println("Variables: " + variables);
-
-            // Execute query
-            ExecutionResult executionResult = graphQL.execute(
-                    graphql.ExecutionInput.newExecutionInput()
-                            .query(query)
-                            .variables(variables)
-                            .build()
-            );
-
-            // Send response
-            Map<String, Object> result = executionResult.toSpecification();
-            String jsonResponse = gson.toJson(result);
-
-            response.getWriter().write(jsonResponse);
-            response.setStatus(HttpServletResponse.SC_OK);
+            JsonReader reader = new JsonReader(request.getReader());
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                batch = readBatch(reader);
+                if (batch == null) {
+                    response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                    writeResult(response, errorResult("Batch exceeds maximum of " + maxBatchSize
+                            + " operations", "BAD_REQUEST"));
+                    return;
+                }
+            } else {
+                graphQLRequest = GraphQLRequest.read(reader, gson);
+            }
+        } catch (IOException | RuntimeException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            writeResult(response, errorResult("Malformed GraphQL request: " + e.getMessage(), "BAD_REQUEST"));
+            return;
+        }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            response.getWriter().write("{\"error\":\"" + e.getMessage() + "\"}");
+        // Continue the caller's trace, if any
+        TraceContext parent = TraceContext.parse(request.getHeader(TraceContext.TRACEPARENT));
+        List<CompletableFuture<ExecutionResult>> results = null;
+        CompletableFuture<ExecutionResult> result = null;
+        try {
+            if (batch != null) {
+                results = executeBatch(batch, parent);
+            } else {
+                result = executeAsync(graphQLRequest, parent);
+            }
+        } catch (RejectedExecutionException e) {
+            // Executor saturated: shed the request instead of running it on the container thread
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            writeResult(response, errorResult("GraphQL executor is busy, retry later", "SERVICE_UNAVAILABLE"));
+            return;
+        }
+
+        // Release the container thread; the response is completed from the result future
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(asyncTimeout);
+        AsyncResponse asyncResponse = new AsyncResponse(asyncContext);
+        asyncContext.addListener(asyncResponse);
+        response.setStatus(HttpServletResponse.SC_OK);
+
+        CompletableFuture<Void> written = results != null
+                ? writeBatch(asyncResponse, results)
+                : result.thenAccept(asyncResponse::write);
+        written.whenComplete((ignored, error) -> asyncResponse.complete(error));
+    }
+
+    /**
+     * Resolve the query document and start executing it on the executor
+     *
+     * @throws RejectedExecutionException if the executor's queue is full
+     */
+    private CompletableFuture<ExecutionResult> executeAsync(GraphQLRequest graphQLRequest, TraceContext parent) {
+        long start = System.nanoTime();
+        String operation = graphQLRequest.getOperationName() != null
+                ? graphQLRequest.getOperationName() : "anonymous";
+        ExecutionResult rejected = resolveQuery(graphQLRequest);
+        if (rejected != null) {
+            recordOperation(operation, start, "rejected");
+            return CompletableFuture.completedFuture(rejected);
+        }
+
+        EventLog.info("graphql.request", "operation", operation, "query", graphQLRequest.getQuery(),
+                "variables", graphQLRequest.getVariables());
+
+        // Data fetchers add their spans under this one through the GraphQL context
+        Span span = Tracer.startDetachedSpan("graphql.server/" + operation, parent);
+        ExecutionInput input = graphQLRequest.toExecutionInput().transform(builder -> builder.graphQLContext(
+                Collections.singletonMap(PolicyDataFetcher.TRACE_CONTEXT_KEY, span.context())));
+
+        CompletableFuture<CompletableFuture<ExecutionResult>> started;
+        try {
+            started = CompletableFuture.supplyAsync(() -> graphQL.executeAsync(input), executor);
+        } catch (RejectedExecutionException e) {
+            span.end();
+            recordOperation(operation, start, "overloaded");
+            throw e;
+        }
+        return started
+                .thenCompose(result -> result)
+                .exceptionally(e -> errorResult(String.valueOf(
+                        e.getCause() != null ? e.getCause().getMessage() : e.getMessage()),
+                        "INTERNAL_SERVER_ERROR"))
+                .whenComplete((result, error) -> {
+                    span.end();
+                    recordOperation(operation, start,
+                            result != null && result.getErrors().isEmpty() ? "ok" : "error");
+                });
+    }
+
+    /**
+     * Record latency and outcome of one operation, labelled by operation name
+     */
+    private static void recordOperation(String operation, long start, String outcome) {
+        OperationMetrics metrics = OPERATION_METRICS.get(operation);
+        if (metrics == null) {
+            // Operation names come from clients; past the series cap they share one "other" entry
+            metrics = OPERATION_METRICS.size() < MAX_OPERATION_METRICS
+                    ? OPERATION_METRICS.computeIfAbsent(operation, OperationMetrics::new)
+                    : OTHER_OPERATION_METRICS;
+        }
+        metrics.duration.recordSince(start);
+        metrics.outcome(outcome).increment();
+    }
+
+    /**
+     * Metric handles of one operation name, resolved on first use
+     */
+    private static final class OperationMetrics {
+        static final String[] OUTCOMES = {"ok", "error", "rejected", "overloaded"};
+
+        final String operation;
+        final LatencyHistogram duration;
+        final AtomicReferenceArray<Counter> outcomes = new AtomicReferenceArray<>(OUTCOMES.length);
+
+        OperationMetrics(String operation) {
+            this.operation = operation;
+            this.duration = MetricsRegistry.shared().histogram("graphql_operation_duration_seconds",
+                    "GraphQL operation execution time", "operation", operation);
+        }
+
+        Counter outcome(String outcome) {
+            int index = indexOf(outcome);
+            if (index < 0) {
+                return counter(outcome);
+            }
+            Counter counter = outcomes.get(index);
+            if (counter == null) {
+                // The registry returns the same counter to racing callers
+                counter = counter(outcome);
+                outcomes.set(index, counter);
+            }
+            return counter;
+        }
+
+        private static int indexOf(String outcome) {
+            for (int i = 0; i < OUTCOMES.length; i++) {
+                if (OUTCOMES[i].equals(outcome)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private Counter counter(String outcome) {
+            return MetricsRegistry.shared().counter("graphql_operations_total",
+                    "GraphQL operations by name and outcome", "operation", operation, "outcome", outcome);
+        }
+    }
+
+    /**
+     * Read a JSON array of operations. Returns null as soon as operation
+     * maxBatchSize + 1 is reached, without reading the rest of the body.
+     */
+    private List<GraphQLRequest> readBatch(JsonReader reader) throws IOException {
+        List<GraphQLRequest> batch = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (batch.size() == maxBatchSize) {
+                return null;
+            }
+            batch.add(GraphQLRequest.read(reader, gson));
+        }
+        reader.endArray();
+        return batch;
+    }
+
+    /**
+     * Start all operations of a batch concurrently on the executor.
+     * Futures are returned in request order.
+     *
+     * @throws RejectedExecutionException if the executor cannot take the whole batch; the batch
+     *                                    is then answered with 503 and the results of operations
+     *                                    already started are discarded
+     */
+    private List<CompletableFuture<ExecutionResult>> executeBatch(List<GraphQLRequest> batch, TraceContext parent) {
+        List<CompletableFuture<ExecutionResult>> results = new ArrayList<>(batch.size());
+        for (GraphQLRequest operation : batch) {
+            results.add(executeAsync(operation, parent));
+        }
+        return results;
+    }
+
+    /**
+     * Resolve automatic persisted queries (extensions.persistedQuery.sha256Hash)
+     * and apply the allowlist.
+     *
+     * @return an error result if the request cannot be executed, otherwise null
+     */
+    private ExecutionResult resolveQuery(GraphQLRequest graphQLRequest) {
+        String query = graphQLRequest.getQuery();
+        String queryHash = graphQLRequest.getPersistedQueryHash();
+        if (queryHash != null) {
+            if (query == null) {
+                query = persistedQueries.lookup(queryHash);
+                if (query == null) {
+                    return errorResult("PersistedQueryNotFound", "PERSISTED_QUERY_NOT_FOUND");
+                }
+                graphQLRequest.setQuery(query);
+            } else if (!persistedQueries.register(queryHash, query)) {
+                return errorResult("provided sha does not match query", "BAD_USER_INPUT");
+            }
+        }
+        if (query == null) {
+            return errorResult("Missing query", "BAD_USER_INPUT");
+        }
+        if (persistedQueriesOnly && !persistedQueries.isPreloaded(query)) {
+            return errorResult("PersistedQueryNotAllowed", "PERSISTED_QUERY_NOT_ALLOWED");
+        }
+        return null;
+    }
+
+    /**
+     * GraphQL-style error result with an error code extension
+     */
+    private ExecutionResult errorResult(String message, String code) {
+        return new ExecutionResultImpl(GraphqlErrorBuilder.newError()
+                .message(message)
+                .extensions(Collections.singletonMap("code", code))
+                .build());
+    }
+
+    /**
+     * Stream an execution result to the response writer without building
+     * an intermediate specification map or JSON string
+     */
+    private void writeResult(HttpServletResponse response, ExecutionResult result) throws IOException {
+        JsonWriter writer = new JsonWriter(response.getWriter());
+        writeResult(writer, result);
+        writer.flush();
+    }
+
+    /**
+     * Stream batch results as a JSON array, in request order, writing each
+     * result as soon as it and all earlier ones have completed
+     */
+    private CompletableFuture<Void> writeBatch(AsyncResponse asyncResponse,
+                                               List<CompletableFuture<ExecutionResult>> results) {
+        CompletableFuture<Void> written = CompletableFuture.completedFuture(null)
+                .thenRun(asyncResponse::beginArray);
+        for (CompletableFuture<ExecutionResult> result : results) {
+            written = written.thenCombine(result, (ignored, executionResult) -> {
+                asyncResponse.write(executionResult);
+                return null;
+            });
+        }
+        return written.thenRun(asyncResponse::endArray);
+    }
+
+    private void writeResult(JsonWriter writer, ExecutionResult result) throws IOException {
+        writer.beginObject();
+        List<GraphQLError> errors = result.getErrors();
+        if (errors != null && !errors.isEmpty()) {
+            writer.name("errors").beginArray();
+            for (GraphQLError error : errors) {
+                writeValue(writer, error.toSpecification());
+            }
+            writer.endArray();
+        }
+        if (result.isDataPresent()) {
+            writer.name("data");
+            writeValue(writer, result.getData());
+        }
+        if (result.getExtensions() != null) {
+            writer.name("extensions");
+            writeValue(writer, result.getExtensions());
+        }
+        writer.endObject();
+    }
+
+    private void writeValue(JsonWriter writer, Object value) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+        } else {
+            gson.toJson(value, value.getClass(), writer);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        if (fetcherExecutor != null) {
+            fetcherExecutor.shutdown();
         }
     }
 
@@ -138,4 +575,122 @@ public class GraphQLServlet extends HttpServlet {
         response.setContentType("application/json");
         response.getWriter().write("{\"message\":\"GraphQL endpoint. Use POST to send queries.\"}");
     }
+
+    /**
+     * Writes to an async response and completes it exactly once, either from
+     * the result future or from the container's timeout
+     */
+    private final class AsyncResponse implements AsyncListener {
+        private final AsyncContext asyncContext;
+        private JsonWriter writer;
+        private boolean finished;
+
+        AsyncResponse(AsyncContext asyncContext) {
+            this.asyncContext = asyncContext;
+        }
+
+        synchronized void beginArray() {
+            try {
+                if (!finished) {
+                    writer().beginArray();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        synchronized void endArray() {
+            try {
+                if (!finished) {
+                    writer().endArray();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        synchronized void write(ExecutionResult result) {
+            try {
+                if (!finished) {
+                    writeResult(writer(), result);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Flush and complete the response, replacing it with an error
+         * if execution failed before anything was committed
+         */
+        synchronized void complete(Throwable error) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            try {
+                if (error != null) {
+                    EventLog.error("graphql.request.failed", error);
+                    resetWithError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                            String.valueOf(error.getMessage()), "INTERNAL_SERVER_ERROR");
+                }
+                if (writer != null) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                EventLog.error("graphql.response.failed", e);
+            } finally {
+                asyncContext.complete();
+            }
+        }
+
+        @Override
+        public synchronized void onTimeout(AsyncEvent event) throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            try {
+                resetWithError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                        "GraphQL request timed out", "TIMEOUT");
+                if (writer != null) {
+                    writer.flush();
+                }
+            } finally {
+                asyncContext.complete();
+            }
+        }
+
+        private void resetWithError(int status, String message, String code) throws IOException {
+            HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+            if (response.isCommitted()) {
+                return;
+            }
+            writer = null;
+            response.reset();
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            response.setStatus(status);
+            writeResult(writer(), errorResult(message, code));
+        }
+
+        private JsonWriter writer() throws IOException {
+            if (writer == null) {
+                writer = new JsonWriter(asyncContext.getResponse().getWriter());
+            }
+            return writer;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package com.insurance.graphql;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of persisted GraphQL documents keyed by their SHA-256 hash
+ * (Automatic Persisted Queries).
+ *
+ * Documents preloaded at startup are pinned and never evicted; documents
+ * registered by clients at runtime are kept in a bounded LRU cache.
+ */
+public class PersistedQueryRegistry {
+
+    private final Map<String, String> preloaded = new ConcurrentHashMap<>();
+    private final Map<String, String> registered;
+
+    public PersistedQueryRegistry(final int maxEntries) {
+        this.registered = Collections.synchronizedMap(
+                new LinkedHashMap<String, String>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                        return size() > maxEntries;
+                    }
+                });
+    }
+
+    /**
+     * Look up a document by hash, or null if it has not been seen
+     */
+    public String lookup(String sha256Hash) {
+        String key = sha256Hash.toLowerCase();
+        String query = preloaded.get(key);
+        return query != null ? query : registered.get(key);
+    }
+
+    /**
+     * Register a client-supplied document under its hash.
+     *
+     * @return false if the hash does not match the document
+     */
+    public boolean register(String sha256Hash, String query) {
+        String key = sha256Hash.toLowerCase();
+        if (!sha256(query).equals(key)) {
+            return false;
+        }
+        if (!preloaded.containsKey(key)) {
+            registered.put(key, query);
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a document is part of the preloaded set
+     */
+    public boolean isPreloaded(String query) {
+        return preloaded.containsKey(sha256(query));
+    }
+
+    /**
+     * Preload documents from a JSON array of query strings
+     *
+     * @return number of documents loaded
+     */
+    public int load(InputStream inputStream) {
+        Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        List<String> queries = new Gson().fromJson(reader, new TypeToken<List<String>>() { }.getType());
+        if (queries == null) {
+            return 0;
+        }
+        for (String query : queries) {
+            preloaded.put(sha256(query), query);
+        }
+        return queries.size();
+    }
+
+    public int size() {
+        return preloaded.size() + registered.size();
+    }
+
+    /**
+     * Lower-case hex SHA-256 of a query document
+     */
+    public static String sha256(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(query.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16))
+                        .append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -13,11 +13,19 @@ public class Policy {
     private String startDate;
     private String endDate;
     private boolean isActive;
+    private long version;
 
     // Default constructor
     public Policy() {
     }
 
+    // Copy constructor
+    public Policy(Policy other) {
+        this(other.policyId, other.userId, other.policyType, other.status, other.coverageAmount,
+                other.premium, other.startDate, other.endDate, other.isActive);
+        this.version = other.version;
+    }
+
     // Parameterized constructor
     public Policy(String policyId, String userId, String policyType, String status,
                  double coverageAmount, double premium, String startDate, String endDate, boolean isActive) {
@@ -105,6 +113,14 @@ public class Policy {
         isActive = active;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Policy{" +
@@ -117,6 +133,7 @@ public class Policy {
                 ", startDate='" + startDate + '\'' +
                 ", endDate='" + endDate + '\'' +
                 ", isActive=" + isActive +
+                ", version=" + version +
                 '}';
     }
 }
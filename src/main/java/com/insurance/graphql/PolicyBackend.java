@@ -0,0 +1,43 @@
+package com.insurance.graphql;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage backend for insurance policies.
+ * Implementations return copies, never their internal instances.
+ * Every write bumps the policy's version.
+ */
+public interface PolicyBackend {
+
+    /**
+     * Find a policy by ID, or null if it does not exist
+     */
+    Policy findById(String policyId);
+
+    /**
+     * Find all policies of a user
+     */
+    List<Policy> findByUserId(String userId);
+
+    /**
+     * Find all policies
+     */
+    List<Policy> findAll();
+
+    /**
+     * Store a new policy with version 1
+     *
+     * @throws IllegalArgumentException if the policy ID already exists
+     */
+    Policy create(Policy policy);
+
+    /**
+     * Atomically apply a change to a policy and bump its version
+     *
+     * @param expectedVersion version the caller last read, or null to skip the check
+     * @throws IllegalArgumentException if the policy does not exist
+     * @throws IllegalStateException if the stored version differs from expectedVersion
+     */
+    Policy update(String policyId, Long expectedVersion, Consumer<Policy> change);
+}
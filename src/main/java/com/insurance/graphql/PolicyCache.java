@@ -0,0 +1,68 @@
+package com.insurance.graphql;
+
+import com.insurance.cache.BoundedCache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through policy cache in front of a {@link PolicyBackend}.
+ *
+ * Entries expire after a TTL and the cache is a size-bounded
+ * {@link BoundedCache}. Writes install the new version through
+ * {@link #invalidate(Policy)}; an entry is never replaced by an older
+ * version, so a slow read-through load that raced with a write cannot bring
+ * back stale data.
+ */
+public class PolicyCache {
+
+    private final PolicyBackend backend;
+    private final long ttlNanos;
+    private final BoundedCache<String, Policy> entries;
+
+    public PolicyCache(PolicyBackend backend, int maxEntries, long ttl, TimeUnit unit) {
+        this.backend = backend;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.entries = new BoundedCache<>(maxEntries);
+    }
+
+    /**
+     * Get a policy, loading it from the backend on a miss or after expiry.
+     * The returned instance is shared and must not be modified.
+     */
+    public Policy get(String policyId) {
+        long now = System.nanoTime();
+        Policy cached = entries.get(policyId, now);
+        if (cached != null) {
+            return cached;
+        }
+        Policy loaded = backend.findById(policyId);
+        if (loaded == null) {
+            entries.remove(policyId);
+            return null;
+        }
+        return install(loaded, now);
+    }
+
+    /**
+     * Install a freshly written policy version, replacing any older cached one
+     */
+    public void invalidate(Policy written) {
+        install(new Policy(written), System.nanoTime());
+    }
+
+    /**
+     * Drop a policy from the cache
+     */
+    public void evict(String policyId) {
+        entries.remove(policyId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Policy install(Policy policy, long now) {
+        return entries.compute(policy.getPolicyId(), now, now + ttlNanos, current ->
+                current != null && current.getVersion() > policy.getVersion() ? current : policy);
+    }
+}
@@ -1,33 +1,86 @@
 package com.insurance.graphql;
 
+import com.insurance.logging.EventLog;
+import com.insurance.tracing.Span;
+import com.insurance.tracing.TraceContext;
+import com.insurance.tracing.Tracer;
+import graphql.GraphQLContext;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.DataFetcherResult;
 import graphql.schema.DataFetcher;
-import java.util.HashMap;
-import java.util.Map;
+import graphql.schema.DataFetchingEnvironment;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * GraphQL Data Fetchers for Policy operations
+ * Reads go through a versioned {@link PolicyCache}; mutations write to the
+ * {@link PolicyBackend} and install the new version in the cache.
+ * Unless {@link #configure} is called first, the backend is a
+ * {@link FilePolicyBackend} on the file named by policy.store.file, created
+ * on first use; without that property policies are kept in memory only.
  */
 public class PolicyDataFetcher {
 
-    // Mock database
-    private static Map<String, Policy> policyDatabase = new HashMap<>();
-
-    static {
-        // Initialize with sample policies
-        policyDatabase.put("POL-001", new Policy(
-                "POL-001", "USR-123", "AUTO", "ACTIVE",
-                50000, 1200, "2024-01-01", "2025-01-01", true
-        ));
-        policyDatabase.put("POL-002", new Policy(
-                "POL-002", "USR-456", "HOME", "ACTIVE",
-                200000, 2400, "2024-01-01", "2025-01-01", true
-        ));
-        policyDatabase.put("POL-003", new Policy(
-                "POL-003", "USR-123", "HEALTH", "EXPIRED",
-                100000, 3600, "2023-01-01", "2024-01-01", false
-        ));
+    /** GraphQL context key holding the caller's {@link TraceContext} */
+    public static final String TRACE_CONTEXT_KEY = "traceContext";
+
+    private static final int CACHE_SIZE = Integer.getInteger("policy.cache.maxEntries", 10000);
+    private static final long CACHE_TTL_SECONDS = Long.getLong("policy.cache.ttlSeconds", 300);
+
+    // Fields a created policy must have; the schema declares them non-null
+    private static final String[] REQUIRED_FIELDS = {
+            "userId", "policyType", "coverageAmount", "premium", "startDate", "endDate"};
+
+    // Values updatePolicyStatus accepts
+    private static final List<String> STATUSES = Arrays.asList("ACTIVE", "SUSPENDED", "EXPIRED", "CANCELLED");
+
+    // Policy store and the versioned cache in front of it, replaced together
+    private static volatile Store store;
+
+    /**
+     * Replace the policy backend (and start with an empty cache in front of it)
+     */
+    public static void configure(PolicyBackend policyBackend) {
+        store = new Store(policyBackend,
+                new PolicyCache(policyBackend, CACHE_SIZE, CACHE_TTL_SECONDS, TimeUnit.SECONDS));
+    }
+
+    private static Store store() {
+        Store current = store;
+        if (current == null) {
+            synchronized (PolicyDataFetcher.class) {
+                if (store == null) {
+                    String file = System.getProperty("policy.store.file");
+                    if (file == null) {
+                        EventLog.warn("graphql.policy.store.memoryOnly",
+                                "reason", "policy.store.file is not set; policy changes are not persisted");
+                    }
+                    Path path = file != null ? Paths.get(file) : null;
+                    configure(new FilePolicyBackend(path));
+                }
+                current = store;
+            }
+        }
+        return current;
+    }
+
+    private static PolicyBackend backend() {
+        return store().backend;
+    }
+
+    private static PolicyCache cache() {
+        return store().cache;
     }
 
     /**
@@ -36,15 +89,9 @@ public class PolicyDataFetcher {
     public static DataFetcher<Policy> getPolicyById() {
         return environment -> {
             String policyId = environment.getArgument("policyId");
-            System.out.println("\n=== GraphQL: Fetching Policy ===");
-            System.out.println("Policy ID: " + policyId);
-
-            Policy policy = policyDatabase.get(policyId);
-            if (policy != null) {
-                System.out.println("Policy found: " + policy.getPolicyType());
-            } else {
-                System.out.println("Policy not found");
-            }
+            Policy policy = cache().get(policyId);
+            EventLog.info("graphql.policy.fetch", "policyId", policyId,
+                    "found", policy != null, "policyType", policy != null ? policy.getPolicyType() : null);
             return policy;
         };
     }
@@ -55,17 +102,9 @@ public class PolicyDataFetcher {
     public static DataFetcher<List<Policy>> getPoliciesByUserId() {
         return environment -> {
             String userId = environment.getArgument("userId");
-            System.out.println("\n=== GraphQL: Fetching Policies by User ===");
-            System.out.println("User ID: " + userId);
-
-            List<Policy> userPolicies = new ArrayList<>();
-            for (Policy policy : policyDatabase.values()) {
-                if (policy.getUserId().equals(userId)) {
-                    userPolicies.add(policy);
-                }
-            }
+            List<Policy> userPolicies = backend().findByUserId(userId);
 
-            System.out.println("Found " + userPolicies.size() + " policies");
+            EventLog.info("graphql.policy.byUser", "userId", userId, "count", userPolicies.size());
             return userPolicies;
         };
     }
@@ -78,14 +117,12 @@ public class PolicyDataFetcher {
             String policyId = environment.getArgument("policyId");
             Double claimAmount = environment.getArgument("claimAmount");
 
-            System.out.println("\n=== GraphQL: Validating Policy ===");
-            System.out.println("Policy ID: " + policyId);
-            System.out.println("Claim Amount: $" + claimAmount);
+            EventLog.info("graphql.policy.validate", "policyId", policyId, "claimAmount", claimAmount);
 
             ValidationResult result = new ValidationResult();
             result.setPolicyId(policyId);
 
-            Policy policy = policyDatabase.get(policyId);
+            Policy policy = cache().get(policyId);
 
             if (policy == null) {
                 result.setValid(false);
@@ -122,7 +159,7 @@ public class PolicyDataFetcher {
             result.setMessage("Policy is valid for claim");
             result.setCoverageLimit(policy.getCoverageAmount());
 
-            System.out.println("Validation Result: " + result.getStatus());
+            EventLog.info("graphql.policy.validated", "policyId", policyId, "status", result.getStatus());
             return result;
         };
     }
@@ -132,9 +169,200 @@ public class PolicyDataFetcher {
      */
     public static DataFetcher<List<Policy>> getAllPolicies() {
         return environment -> {
-            System.out.println("\n=== GraphQL: Fetching All Policies ===");
-            System.out.println("Total policies: " + policyDatabase.size());
-            return new ArrayList<>(policyDatabase.values());
+            List<Policy> policies = backend().findAll();
+            EventLog.info("graphql.policy.all", "count", policies.size());
+            return policies;
         };
     }
+
+    /**
+     * Create a new policy; all fields but policyId are required
+     */
+    public static DataFetcher<DataFetcherResult<Policy>> createPolicy() {
+        return environment -> {
+            Map<String, Object> input = environment.getArgument("input");
+            List<String> problems = validateInput(input, true);
+            if (!problems.isEmpty()) {
+                return invalidInput(environment, problems);
+            }
+
+            Policy policy = new Policy();
+            String policyId = (String) input.get("policyId");
+            policy.setPolicyId(policyId != null ? policyId
+                    : "POL-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+            policy.setStatus("ACTIVE");
+            policy.setActive(true);
+            applyInput(policy, input);
+
+            Policy created = backend().create(policy);
+            cache().invalidate(created);
+
+            EventLog.info("graphql.policy.created", "policyId", created.getPolicyId());
+            return DataFetcherResult.<Policy>newResult().data(created).build();
+        };
+    }
+
+    /**
+     * Update policy fields present in the input
+     */
+    public static DataFetcher<DataFetcherResult<Policy>> updatePolicy() {
+        return environment -> {
+            String policyId = environment.getArgument("policyId");
+            Map<String, Object> input = environment.getArgument("input");
+            List<String> problems = validateInput(input, false);
+            if (!problems.isEmpty()) {
+                return invalidInput(environment, problems);
+            }
+
+            Policy updated = backend().update(policyId, expectedVersion(environment),
+                    policy -> applyInput(policy, input));
+            cache().invalidate(updated);
+
+            EventLog.info("graphql.policy.updated", "policyId", policyId, "version", updated.getVersion());
+            return DataFetcherResult.<Policy>newResult().data(updated).build();
+        };
+    }
+
+    /**
+     * Change policy status (ACTIVE, SUSPENDED, EXPIRED, CANCELLED); any other
+     * value is rejected with a BAD_USER_INPUT error and the policy is left as is
+     */
+    public static DataFetcher<DataFetcherResult<Policy>> updatePolicyStatus() {
+        return environment -> {
+            String policyId = environment.getArgument("policyId");
+            String status = environment.getArgument("status");
+            if (!STATUSES.contains(status)) {
+                EventLog.info("graphql.policy.invalidStatus", "policyId", policyId, "status", status);
+                return DataFetcherResult.<Policy>newResult()
+                        .error(GraphqlErrorBuilder.newError(environment)
+                                .message("Invalid status: " + status + "; expected one of " + STATUSES)
+                                .extensions(Collections.singletonMap("code", "BAD_USER_INPUT"))
+                                .build())
+                        .build();
+            }
+
+            Policy updated = backend().update(policyId, expectedVersion(environment), policy -> {
+                policy.setStatus(status);
+                policy.setActive("ACTIVE".equals(status));
+            });
+            cache().invalidate(updated);
+
+            EventLog.info("graphql.policy.statusChanged", "policyId", policyId, "status", status,
+                    "version", updated.getVersion());
+            return DataFetcherResult.<Policy>newResult().data(updated).build();
+        };
+    }
+
+    private static Long expectedVersion(DataFetchingEnvironment environment) {
+        Number expectedVersion = environment.getArgument("expectedVersion");
+        return expectedVersion != null ? expectedVersion.longValue() : null;
+    }
+
+    /**
+     * Check a PolicyInput: on create every required field must be present;
+     * fields that are present must not be blank or negative
+     *
+     * @return one message per problem, empty if the input is valid
+     */
+    private static List<String> validateInput(Map<String, Object> input, boolean create) {
+        List<String> problems = new ArrayList<>();
+        Object policyId = input.get("policyId");
+        if (policyId instanceof String && ((String) policyId).trim().isEmpty()) {
+            problems.add("policyId must not be blank");
+        }
+        for (String field : REQUIRED_FIELDS) {
+            Object value = input.get(field);
+            if (value == null) {
+                if (create) {
+                    problems.add(field + " is required");
+                }
+            } else if (value instanceof String && ((String) value).trim().isEmpty()) {
+                problems.add(field + " must not be blank");
+            } else if (value instanceof Number && ((Number) value).doubleValue() < 0) {
+                problems.add(field + " must not be negative");
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Null result with one BAD_USER_INPUT error per problem
+     */
+    private static DataFetcherResult<Policy> invalidInput(DataFetchingEnvironment environment, List<String> problems) {
+        EventLog.info("graphql.policy.invalidInput", "problems", problems);
+        DataFetcherResult.Builder<Policy> result = DataFetcherResult.newResult();
+        for (String problem : problems) {
+            result.error(GraphqlErrorBuilder.newError(environment)
+                    .message("Invalid PolicyInput: " + problem)
+                    .extensions(Collections.singletonMap("code", "BAD_USER_INPUT"))
+                    .build());
+        }
+        return result.build();
+    }
+
+    /**
+     * Copy the fields present in a PolicyInput onto a policy
+     */
+    private static void applyInput(Policy policy, Map<String, Object> input) {
+        if (input.get("userId") != null) {
+            policy.setUserId((String) input.get("userId"));
+        }
+        if (input.get("policyType") != null) {
+            policy.setPolicyType((String) input.get("policyType"));
+        }
+        if (input.get("coverageAmount") != null) {
+            policy.setCoverageAmount(((Number) input.get("coverageAmount")).doubleValue());
+        }
+        if (input.get("premium") != null) {
+            policy.setPremium(((Number) input.get("premium")).doubleValue());
+        }
+        if (input.get("startDate") != null) {
+            policy.setStartDate((String) input.get("startDate"));
+        }
+        if (input.get("endDate") != null) {
+            policy.setEndDate((String) input.get("endDate"));
+        }
+    }
+
+    /**
+     * Record a span around a data fetcher, as a child of the trace context
+     * in the GraphQL context. Without a trace context the fetcher runs as is.
+     */
+    public static <T> DataFetcher<T> traced(String fieldName, DataFetcher<T> fetcher) {
+        return environment -> {
+            GraphQLContext context = environment.getGraphQlContext();
+            TraceContext parent = context != null ? context.get(TRACE_CONTEXT_KEY) : null;
+            if (parent == null) {
+                return fetcher.get(environment);
+            }
+            try (Span ignored = Tracer.startSpan("graphql.fetch/" + fieldName, parent)) {
+                return fetcher.get(environment);
+            }
+        };
+    }
+
+    /**
+     * Run a data fetcher asynchronously on the given executor.
+     * graphql-java resolves CompletableFuture results without blocking the
+     * executing thread, so a slow policy backend does not hold it.
+     */
+    public static <T> DataFetcher<CompletableFuture<T>> async(DataFetcher<T> fetcher, Executor executor) {
+        return environment -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return fetcher.get(environment);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private static final class Store {
+        final PolicyBackend backend;
+        final PolicyCache cache;
+
+        Store(PolicyBackend backend, PolicyCache cache) {
+            this.backend = backend;
+            this.cache = cache;
+        }
+    }
 }
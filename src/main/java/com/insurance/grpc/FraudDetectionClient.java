@@ -28,7 +28,8 @@ public class FraudDetectionClient {
      */
     public FraudDetectionClient(ManagedChannel channel) {
         this.channel = channel;
-        blockingStub = FraudDetectionGrpc.newBlockingStub(channel);
+        blockingStub = FraudDetectionGrpc.newBlockingStub(channel)
+                .withInterceptors(new TracingClientInterceptor());
     }
 
     /**
@@ -80,6 +81,19 @@ public class FraudDetectionClient {
         return response;
     }
 
+    /**
+     * Whether the server answers a GetStatistics call within the timeout
+     */
+    public boolean isServing(long timeoutMs) {
+        try {
+            blockingStub.withDeadlineAfter(timeoutMs, TimeUnit.MILLISECONDS)
+                    .getStatistics(StatisticsRequest.newBuilder().setTimePeriod("HEALTH_CHECK").build());
+            return true;
+        } catch (StatusRuntimeException e) {
+            return false;
+        }
+    }
+
     /**
      * Test client
      */
@@ -1,7 +1,9 @@
 package com.insurance.grpc;
 
+import com.insurance.metrics.MetricsHttpExporter;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptors;
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
@@ -18,7 +20,8 @@ public class FraudDetectionServer {
      */
     public void start() throws IOException {
         server = ServerBuilder.forPort(PORT)
-                .addService(new FraudDetectionServiceImpl())
+                .addService(ServerInterceptors.intercept(new FraudDetectionServiceImpl(),
+                        new TracingServerInterceptor()))
                 .build()
                 .start();
 
@@ -58,10 +61,15 @@ public class FraudDetectionServer {
 
     /**
      * Main method to start the server
+     * With -Dmetrics.port=N, metrics are served at http://localhost:N/metrics
      */
     public static void main(String[] args) throws IOException, InterruptedException {
         final FraudDetectionServer server = new FraudDetectionServer();
         server.start();
+        Integer metricsPort = Integer.getInteger("metrics.port");
+        if (metricsPort != null) {
+            MetricsHttpExporter.start(metricsPort);
+        }
         server.blockUntilShutdown();
     }
 }
@@ -1,6 +1,10 @@
 package com.insurance.grpc;
 
 import com.insurance.grpc.proto.*;
+import com.insurance.logging.EventLog;
+import com.insurance.metrics.Counter;
+import com.insurance.metrics.LatencyHistogram;
+import com.insurance.metrics.MetricsRegistry;
 import io.grpc.stub.StreamObserver;
 
 import java.util.ArrayList;
@@ -11,29 +15,40 @@ import java.util.List;
  */
 public class FraudDetectionServiceImpl extends FraudDetectionGrpc.FraudDetectionImplBase {
 
+    private static final String DURATION_METRIC = "grpc_server_handling_seconds";
+    private static final String DURATION_HELP = "gRPC method handling time";
+
+    private static final LatencyHistogram ANALYZE_CLAIM_TIME = MetricsRegistry.shared().histogram(
+            DURATION_METRIC, DURATION_HELP, "method", "AnalyzeClaim");
+    private static final LatencyHistogram GET_STATISTICS_TIME = MetricsRegistry.shared().histogram(
+            DURATION_METRIC, DURATION_HELP, "method", "GetStatistics");
+    private static final Counter FRAUDULENT = MetricsRegistry.shared().counter(
+            "fraud_analysis_results_total", "Fraud analysis verdicts", "fraudulent", "true");
+    private static final Counter NOT_FRAUDULENT = MetricsRegistry.shared().counter(
+            "fraud_analysis_results_total", "Fraud analysis verdicts", "fraudulent", "false");
+
     @Override
     public void analyzeClaim(FraudRequest request, StreamObserver<FraudResponse> responseObserver) {
-        System.out.println("\n=== gRPC Service: Fraud Detection Analysis ===");
-        System.out.println("Claim ID: " + request.getClaimId());
-        System.out.println("User ID: " + request.getUserId());
-        System.out.println("Claim Amount: $" + request.getClaimAmount());
-        System.out.println("Claim Type: " + request.getClaimType());
+        long start = System.nanoTime();
+        EventLog.info("grpc.fraud.analyze", "claimId", request.getClaimId(), "userId", request.getUserId(),
+                "amount", request.getClaimAmount(), "claimType", request.getClaimType());
 
         // Analyze claim for fraud
         FraudResponse response = performFraudAnalysis(request);
 
-        System.out.println("Risk Score: " + response.getRiskScore());
-        System.out.println("Risk Level: " + response.getRiskLevel());
-        System.out.println("Recommendation: " + response.getRecommendation());
+        EventLog.info("grpc.fraud.result", "claimId", request.getClaimId(), "riskScore", response.getRiskScore(),
+                "riskLevel", response.getRiskLevel(), "recommendation", response.getRecommendation());
+        (response.getIsFraudulent() ? FRAUDULENT : NOT_FRAUDULENT).increment();
 
         responseObserver.onNext(response);
         responseObserver.onCompleted();
+        ANALYZE_CLAIM_TIME.recordSince(start);
     }
 
     @Override
     public void getStatistics(StatisticsRequest request, StreamObserver<StatisticsResponse> responseObserver) {
-        System.out.println("\n=== gRPC Service: Fraud Statistics Request ===");
-        System.out.println("Time Period: " + request.getTimePeriod());
+        long start = System.nanoTime();
+        EventLog.info("grpc.fraud.statistics", "timePeriod", request.getTimePeriod());
 
         StatisticsResponse response = StatisticsResponse.newBuilder()
                 .setTotalClaimsAnalyzed(1000)
@@ -44,12 +59,14 @@ public class FraudDetectionServiceImpl extends FraudDetectionGrpc.FraudDetection
 
         responseObserver.onNext(response);
         responseObserver.onCompleted();
+        GET_STATISTICS_TIME.recordSince(start);
     }
 
     /**
      * Perform fraud analysis on the claim
+     * Package-private so the JMH benchmarks can call it directly
      */
-    private FraudResponse performFraudAnalysis(FraudRequest request) {
+    FraudResponse performFraudAnalysis(FraudRequest request) {
         double riskScore = 0.0;
         List<String> redFlags = new ArrayList<>();
         boolean isFraudulent = false;
@@ -0,0 +1,49 @@
+package com.insurance.grpc;
+
+import com.insurance.tracing.Span;
+import com.insurance.tracing.TraceContext;
+import com.insurance.tracing.Tracer;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * Records a client span per call and sends its context to the server in the
+ * traceparent metadata header. Calls made outside a trace are not traced.
+ */
+public class TracingClientInterceptor implements ClientInterceptor {
+
+    static final Metadata.Key<String> TRACEPARENT_KEY =
+            Metadata.Key.of(TraceContext.TRACEPARENT, Metadata.ASCII_STRING_MARSHALLER);
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions, Channel next) {
+        TraceContext parent = Tracer.current();
+        if (parent == null) {
+            return next.newCall(method, callOptions);
+        }
+        Span span = Tracer.startDetachedSpan("grpc.client/" + method.getFullMethodName(), parent);
+
+        return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                headers.put(TRACEPARENT_KEY, span.context().toTraceparent());
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        span.setAttribute("status", status.getCode());
+                        span.end();
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+        };
+    }
+}
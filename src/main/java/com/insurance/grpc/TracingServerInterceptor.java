@@ -0,0 +1,64 @@
+package com.insurance.grpc;
+
+import com.insurance.tracing.Span;
+import com.insurance.tracing.TraceContext;
+import com.insurance.tracing.Tracer;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+/**
+ * Continues the caller's trace (traceparent metadata header) with a server
+ * span per call. The span context is current on the thread that runs each
+ * listener callback, so the service implementation can add child spans.
+ */
+public class TracingServerInterceptor implements ServerInterceptor {
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        TraceContext parent = TraceContext.parse(headers.get(TracingClientInterceptor.TRACEPARENT_KEY));
+        Span span = Tracer.startDetachedSpan("grpc.server/" + call.getMethodDescriptor().getFullMethodName(), parent);
+        TraceContext context = span.context();
+
+        ServerCall<ReqT, RespT> tracedCall = new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                span.setAttribute("status", status.getCode());
+                span.end();
+                super.close(status, trailers);
+            }
+        };
+
+        ServerCall.Listener<ReqT> delegate;
+        try (Tracer.Scope ignored = Tracer.activate(context)) {
+            delegate = next.startCall(tracedCall, headers);
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT>(delegate) {
+            @Override
+            public void onMessage(ReqT message) {
+                try (Tracer.Scope ignored = Tracer.activate(context)) {
+                    super.onMessage(message);
+                }
+            }
+
+            @Override
+            public void onHalfClose() {
+                try (Tracer.Scope ignored = Tracer.activate(context)) {
+                    super.onHalfClose();
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                span.setAttribute("status", "CANCELLED");
+                span.end();
+                super.onCancel();
+            }
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.insurance.health;
+
+/**
+ * Deep check of a downstream dependency.
+ * Returns a short status detail, or throws if the dependency is not usable.
+ */
+@FunctionalInterface
+public interface DependencyCheck {
+
+    String check() throws Exception;
+}
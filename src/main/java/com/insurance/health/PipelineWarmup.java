@@ -0,0 +1,203 @@
+package com.insurance.health;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.workload.ClaimMix;
+import com.insurance.logging.EventLog;
+import com.insurance.orchestrator.InsuranceClaimOrchestrator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Synthetic warm-up of the claim pipeline.
+ *
+ * Runs batches of synthetic claims through {@link InsuranceClaimOrchestrator#processWarmupClaim}
+ * (and so through the SOAP, gRPC and GraphQL paths) from several threads,
+ * until the median latency of consecutive batches stops changing by more
+ * than the tolerance, or an iteration or time limit is reached. Warm-up
+ * claims have claimIds starting with {@link #CLAIM_ID_PREFIX} and are left
+ * out of the exported claim metrics.
+ */
+public class PipelineWarmup {
+
+    public static final String CLAIM_ID_PREFIX = "WARMUP-";
+
+    private static final int STABLE_BATCHES_REQUIRED = 3;
+
+    private final InsuranceClaimOrchestrator orchestrator;
+    private final int threads;
+    private final int batchSize;
+    private final int maxIterations;
+    private final long maxMillis;
+    private final double tolerance;
+
+    public PipelineWarmup(InsuranceClaimOrchestrator orchestrator, int threads, int batchSize,
+                          int maxIterations, long maxMillis, double tolerance) {
+        if (threads < 1 || batchSize < threads) {
+            throw new IllegalArgumentException("Need at least one thread and one claim per thread in a batch");
+        }
+        this.orchestrator = orchestrator;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.maxIterations = maxIterations;
+        this.maxMillis = maxMillis;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Warm-up configured by warmup.threads, warmup.batchSize, warmup.iterations,
+     * warmup.maxSeconds and warmup.tolerance
+     */
+    public static PipelineWarmup fromSystemProperties(InsuranceClaimOrchestrator orchestrator) {
+        return new PipelineWarmup(orchestrator,
+                Integer.getInteger("warmup.threads", 4),
+                Integer.getInteger("warmup.batchSize", 200),
+                Integer.getInteger("warmup.iterations", 20000),
+                TimeUnit.SECONDS.toMillis(Long.getLong("warmup.maxSeconds", 120)),
+                Double.parseDouble(System.getProperty("warmup.tolerance", "0.10")));
+    }
+
+    /**
+     * Outcome of a warm-up run
+     */
+    public static final class Result {
+        private final int iterations;
+        private final int batches;
+        private final int failures;
+        private final long elapsedMillis;
+        private final double firstMedianMicros;
+        private final double lastMedianMicros;
+        private final boolean stabilized;
+
+        Result(int iterations, int batches, int failures, long elapsedMillis,
+               double firstMedianMicros, double lastMedianMicros, boolean stabilized) {
+            this.iterations = iterations;
+            this.batches = batches;
+            this.failures = failures;
+            this.elapsedMillis = elapsedMillis;
+            this.firstMedianMicros = firstMedianMicros;
+            this.lastMedianMicros = lastMedianMicros;
+            this.stabilized = stabilized;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public boolean isStabilized() {
+            return stabilized;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d claims in %d batches, %d ms, median %.0f -> %.0f us, %s",
+                    iterations, batches, elapsedMillis, firstMedianMicros, lastMedianMicros,
+                    stabilized ? "stabilized" : "not stabilized") + (failures > 0 ? ", " + failures + " failures" : "");
+        }
+    }
+
+    /**
+     * Run batches until latency stabilizes or a limit is hit
+     */
+    public Result run() throws InterruptedException {
+        ClaimMix mix = new ClaimMix(ClaimMix.DEFAULT_SPEC, 50);
+        AtomicInteger sequence = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "warmup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        int iterations = 0;
+        int batches = 0;
+        int stableBatches = 0;
+        double firstMedian = 0;
+        double previousMedian = 0;
+        try {
+            while (iterations < maxIterations && System.nanoTime() < deadline
+                    && stableBatches < STABLE_BATCHES_REQUIRED) {
+                double median = runBatch(pool, mix, sequence, failures);
+                iterations += (batchSize / threads) * threads;
+                batches++;
+                if (batches == 1) {
+                    firstMedian = median;
+                } else if (Math.abs(median - previousMedian) <= tolerance * previousMedian) {
+                    stableBatches++;
+                } else {
+                    stableBatches = 0;
+                }
+                previousMedian = median;
+                EventLog.debug("warmup.batch", "batch", batches, "medianMicros", Math.round(median),
+                        "stableBatches", stableBatches);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return new Result(iterations, batches, failures.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                firstMedian, previousMedian, stableBatches >= STABLE_BATCHES_REQUIRED);
+    }
+
+    /**
+     * Process one batch split across the threads; returns the median claim latency in microseconds
+     */
+    private double runBatch(ExecutorService pool, ClaimMix mix, AtomicInteger sequence,
+                            AtomicInteger failures) throws InterruptedException {
+        int perThread = batchSize / threads;
+        List<Future<long[]>> futures = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            long seed = sequence.get() + t;
+            futures.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                long[] latencies = new long[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    ClaimRequest claim = mix.next(random);
+                    claim.setClaimId(CLAIM_ID_PREFIX + sequence.incrementAndGet());
+                    long claimStart = System.nanoTime();
+                    try {
+                        orchestrator.processWarmupClaim(claim);
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - claimStart;
+                }
+                return latencies;
+            }));
+        }
+
+        long[] all = new long[perThread * threads];
+        int offset = 0;
+        for (Future<long[]> future : futures) {
+            try {
+                long[] latencies = future.get();
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+                offset += latencies.length;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Warm-up batch failed", e.getCause());
+            }
+        }
+        Arrays.sort(all);
+        return all[all.length / 2] / 1000.0;
+    }
+}
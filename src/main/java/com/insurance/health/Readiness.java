@@ -0,0 +1,201 @@
+package com.insurance.health;
+
+import com.insurance.logging.EventLog;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Readiness of the application to take traffic.
+ *
+ * The application is ready once startup has reached {@link State#READY}
+ * (downstream connections made, claim journal replayed, warm-up finished) and every registered
+ * dependency check passes. Checks run in parallel with a timeout, and the
+ * result is cached briefly so frequent probes do not load the dependencies.
+ */
+public class Readiness {
+
+    /**
+     * Startup progress
+     */
+    public enum State {
+        STARTING, RECOVERING, WARMING_UP, READY, FAILED
+    }
+
+    private static final Readiness SHARED = new Readiness(
+            Long.getLong("readiness.cacheMillis", 2000),
+            Long.getLong("readiness.checkTimeoutMs", 2000));
+
+    private final long cacheNanos;
+    private final long checkTimeoutMs;
+
+    private final Map<String, DependencyCheck> checks = new ConcurrentSkipListMap<>();
+    private final ExecutorService checkPool = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "readiness-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile State state = State.STARTING;
+    private volatile String stateDetail = "Starting";
+    private volatile Report cached;
+
+    public Readiness(long cacheMillis, long checkTimeoutMs) {
+        this.cacheNanos = TimeUnit.MILLISECONDS.toNanos(cacheMillis);
+        this.checkTimeoutMs = checkTimeoutMs;
+    }
+
+    /**
+     * Readiness of the web application
+     */
+    public static Readiness shared() {
+        return SHARED;
+    }
+
+    /**
+     * Add (or replace) a dependency that must pass for the application to be ready
+     */
+    public void register(String name, DependencyCheck check) {
+        checks.put(name, check);
+        cached = null;
+    }
+
+    public void setState(State newState, String detail) {
+        this.state = newState;
+        this.stateDetail = detail;
+        this.cached = null;
+        EventLog.info("readiness.state", "state", newState, "detail", detail);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Current readiness; dependency checks are re-run at most once per cache interval
+     */
+    public Report evaluate() {
+        Report report = cached;
+        if (report != null && System.nanoTime() - report.evaluatedNanos < cacheNanos) {
+            return report;
+        }
+        report = new Report(state, stateDetail, runChecks());
+        cached = report;
+        return report;
+    }
+
+    /**
+     * Run all dependency checks now, bypassing the cache
+     */
+    public Map<String, CheckResult> runChecks() {
+        List<String> names = new ArrayList<>(checks.keySet());
+        List<Future<String>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (String name : names) {
+            DependencyCheck check = checks.get(name);
+            futures.add(checkPool.submit(check::check));
+        }
+
+        Map<String, CheckResult> results = new LinkedHashMap<>();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(checkTimeoutMs);
+        for (int i = 0; i < names.size(); i++) {
+            Future<String> future = futures.get(i);
+            CheckResult result;
+            try {
+                String detail = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                result = new CheckResult(true, detail, start);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                result = new CheckResult(false, "Timed out after " + checkTimeoutMs + " ms", start);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                result = new CheckResult(false, cause.getClass().getSimpleName() + ": " + cause.getMessage(), start);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result = new CheckResult(false, "Interrupted", start);
+            }
+            results.put(names.get(i), result);
+        }
+        return results;
+    }
+
+    /**
+     * Outcome of one dependency check
+     */
+    public static final class CheckResult {
+        private final boolean up;
+        private final String detail;
+        private final long durationMillis;
+
+        CheckResult(boolean up, String detail, long startNanos) {
+            this.up = up;
+            this.detail = detail;
+            this.durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+
+        public boolean isUp() {
+            return up;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+    }
+
+    /**
+     * Startup state plus dependency checks, as returned by /api/health/ready
+     */
+    public static final class Report {
+        private final State state;
+        private final String detail;
+        private final Map<String, CheckResult> checks;
+        private final long evaluatedNanos = System.nanoTime();
+
+        Report(State state, String detail, Map<String, CheckResult> checks) {
+            this.state = state;
+            this.detail = detail;
+            this.checks = checks;
+        }
+
+        public boolean isReady() {
+            if (state != State.READY) {
+                return false;
+            }
+            for (CheckResult result : checks.values()) {
+                if (!result.isUp()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public String getStatus() {
+            return isReady() ? "READY" : "NOT_READY";
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        public Map<String, CheckResult> getChecks() {
+            return checks;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.insurance.health;
+
+import com.insurance.journal.ClaimJournal;
+import com.insurance.logging.EventLog;
+import com.insurance.orchestrator.InsuranceClaimOrchestrator;
+import com.insurance.service.ClaimIntake;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brings the web application to READY.
+ *
+ * On deployment it registers the downstream dependency checks, waits for
+ * them to pass, rebuilds the claim intake from the claim journal (which
+ * queues unfinished claims again, so it needs the dependencies), then runs
+ * the pipeline warm-up. The application stays STARTING for as long as a
+ * dependency is down; a warning is logged once
+ * readiness.dependencyWaitSeconds have passed. This runs on a background
+ * thread, so the container starts serving /api/health/live right away while
+ * /api/health/ready stays 503. Set warmup.enabled=false to skip the warm-up.
+ * The claim journal is a readiness check too, so a journal that stopped
+ * after a failed sync takes the instance out of rotation.
+ */
+public class StartupListener implements ServletContextListener {
+
+    private Thread startup;
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        startup = new Thread(this::bringUp, "startup-warmup");
+        startup.setDaemon(true);
+        startup.start();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        if (startup != null) {
+            startup.interrupt();
+        }
+    }
+
+    private void bringUp() {
+        Readiness readiness = Readiness.shared();
+        try {
+            readiness.setState(Readiness.State.STARTING, "Connecting to downstream services");
+            InsuranceClaimOrchestrator orchestrator = InsuranceClaimOrchestrator.shared();
+            registerChecks(readiness, orchestrator);
+            awaitDependencies(readiness, TimeUnit.SECONDS.toNanos(Long.getLong("readiness.dependencyWaitSeconds", 60)));
+
+            readiness.setState(Readiness.State.RECOVERING, "Replaying the claim journal");
+            ClaimIntake.shared().recover();
+
+            if (!Boolean.parseBoolean(System.getProperty("warmup.enabled", "true"))) {
+                readiness.setState(Readiness.State.READY, "Warm-up disabled");
+                return;
+            }
+            readiness.setState(Readiness.State.WARMING_UP, "Running synthetic claims");
+            PipelineWarmup.Result result = PipelineWarmup.fromSystemProperties(orchestrator).run();
+            EventLog.info("warmup.done", "iterations", result.getIterations(), "elapsedMs", result.getElapsedMillis(),
+                    "stabilized", result.isStabilized(), "failures", result.getFailures());
+            readiness.setState(Readiness.State.READY, "Warm-up: " + result);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            EventLog.error("startup.failed", e);
+            readiness.setState(Readiness.State.FAILED, "Startup failed: " + e.getMessage());
+        }
+    }
+
+    private static void registerChecks(Readiness readiness, InsuranceClaimOrchestrator orchestrator) {
+        readiness.register("identity-verification", orchestrator::checkIdentityService);
+        readiness.register("policy-validation", orchestrator::checkPolicyValidation);
+        ClaimJournal journal = ClaimJournal.shared();
+        if (journal != null) {
+            readiness.register("claim-journal", journal::checkWritable);
+        }
+        if (Boolean.parseBoolean(System.getProperty("readiness.requireFraudDetection", "true"))) {
+            long timeoutMs = Long.getLong("readiness.checkTimeoutMs", 2000);
+            readiness.register("fraud-detection", () -> {
+                if (!orchestrator.isFraudDetectionServing(timeoutMs)) {
+                    throw new IllegalStateException("gRPC server not serving on localhost:50051");
+                }
+                return "SERVING";
+            });
+        }
+    }
+
+    /**
+     * Poll the dependency checks until all pass. Warming up against a missing
+     * dependency would only warm the failure path, and declaring the
+     * application ready without it would send traffic that can only fail.
+     */
+    private static void awaitDependencies(Readiness readiness, long warnAfterNanos) throws InterruptedException {
+        long warnAt = System.nanoTime() + warnAfterNanos;
+        boolean warned = false;
+        while (true) {
+            Map<String, Readiness.CheckResult> results = readiness.runChecks();
+            StringBuilder down = new StringBuilder();
+            for (Map.Entry<String, Readiness.CheckResult> entry : results.entrySet()) {
+                if (!entry.getValue().isUp()) {
+                    down.append(down.length() > 0 ? ", " : "").append(entry.getKey());
+                }
+            }
+            if (down.length() == 0) {
+                return;
+            }
+            if (!warned && System.nanoTime() >= warnAt) {
+                EventLog.warn("startup.dependencies.unavailable", "down", down, "action", "staying not ready");
+                warned = true;
+            }
+            readiness.setState(Readiness.State.STARTING, "Waiting for " + down);
+            TimeUnit.SECONDS.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,664 @@
+package com.insurance.journal;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+import com.insurance.logging.EventLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Write-ahead journal of submitted claims and their decisions.
+ *
+ * Records are appended to fixed-size, preallocated memory-mapped segment
+ * files, rolled over when full. Appending only copies the encoded record into the mapping;
+ * a single flusher thread makes appended records durable, waiting
+ * journal.groupCommitMicros after the first pending record so that records
+ * appended meanwhile by other submissions share the same sync. Callers that
+ * need durability block in {@link #awaitDurable} until their record is
+ * covered, or get a future from {@link #whenDurable} that the flusher
+ * completes. On open, segments are scanned and a torn record at the tail
+ * (from a crash mid-append) is discarded; {@link #replay} reads all records
+ * back to rebuild in-memory state.
+ *
+ * Sealed segments whose newest record is older than journal.retentionSeconds
+ * are deleted by a background thread, oldest first, so the journal (and the
+ * replay on startup) does not grow without bound. A claim submitted in such a
+ * segment but not decided yet is appended again first, with its original
+ * timestamp and idempotency key, so no open claim is ever lost.
+ *
+ * A failed sync leaves it unknown which appended records reached the disk,
+ * so the journal stops: waiting callers and later appends get an
+ * IllegalStateException carrying the cause, and {@link #checkWritable}
+ * reports it to the readiness probe.
+ *
+ * Configuration (system properties):
+ *   journal.enabled            false disables the journal (default true)
+ *   journal.dir                segment directory (default: temp dir/insurance-journal)
+ *   journal.segmentBytes       size of each segment file (default 64 MB)
+ *   journal.groupCommitMicros  time the flusher waits for more records (default 200)
+ *   journal.retentionSeconds   age after which sealed segments are deleted (default 86400, 0 keeps all)
+ */
+public class ClaimJournal implements AutoCloseable {
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final long groupCommitNanos;
+    private final long retentionMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final List<Integer> segments = new ArrayList<>();
+    // Newest record time per segment index, guarded by lock
+    private final Map<Integer, Long> lastAppendMillis = new HashMap<>();
+    // Sequence of the SUBMITTED record of each undecided claim, updated under lock
+    private final Map<String, Long> openSubmissions = new ConcurrentHashMap<>();
+    // Callers of whenDurable by sequence, guarded by lock
+    private final PriorityQueue<DurableWaiter> waiters = new PriorityQueue<>();
+    // Held by replay and by segment retirement, so a replay never sees a segment disappear
+    private final Object maintenance = new Object();
+    private final ThreadLocal<ByteBuffer> scratch = ThreadLocal.withInitial(() -> ByteBuffer.allocate(512));
+
+    // Guarded by lock
+    private JournalSegment current;
+    private long nextSequence;
+    private long durableSequence;
+    private boolean closed;
+    // Set when a sync fails; the journal is closed from then on
+    private Throwable failure;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+    private final LongAdder retired = new LongAdder();
+    private final Thread flusher;
+    private final Thread retention;
+
+    public ClaimJournal(Path dir, int segmentBytes, long groupCommitMicros) {
+        this(dir, segmentBytes, groupCommitMicros, 0);
+    }
+
+    /**
+     * @param retentionSeconds age after which sealed segments are deleted, or 0 to keep them all
+     */
+    public ClaimJournal(Path dir, int segmentBytes, long groupCommitMicros, long retentionSeconds) {
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("Journal segments must be at least 4096 bytes");
+        }
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.groupCommitNanos = TimeUnit.MICROSECONDS.toNanos(groupCommitMicros);
+        this.retentionMillis = TimeUnit.SECONDS.toMillis(retentionSeconds);
+        recover();
+        this.flusher = new Thread(this::flushLoop, "claim-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        if (retentionMillis > 0) {
+            // Expired segments are dropped before anyone replays them
+            retireExpired();
+            this.retention = new Thread(this::retentionLoop, "claim-journal-retention");
+            retention.setDaemon(true);
+            retention.start();
+        } else {
+            this.retention = null;
+        }
+    }
+
+    /**
+     * Journal shared by the claim resources, or null if journal.enabled=false
+     */
+    public static ClaimJournal shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    private static final class SharedHolder {
+        static final ClaimJournal INSTANCE = open();
+
+        private static ClaimJournal open() {
+            if (!Boolean.parseBoolean(System.getProperty("journal.enabled", "true"))) {
+                return null;
+            }
+            ClaimJournal journal = new ClaimJournal(
+                    Paths.get(System.getProperty("journal.dir",
+                            System.getProperty("java.io.tmpdir") + "/insurance-journal")),
+                    Integer.getInteger("journal.segmentBytes", 64 * 1024 * 1024),
+                    Long.getLong("journal.groupCommitMicros", 200),
+                    Long.getLong("journal.retentionSeconds", 86400));
+            Runtime.getRuntime().addShutdownHook(new Thread(journal::close, "claim-journal-shutdown"));
+            return journal;
+        }
+    }
+
+    /**
+     * Append a submitted claim; returns its sequence number
+     *
+     * @param idempotencyKey cache key the claim was submitted under, restored with its decision on replay
+     */
+    public long appendSubmitted(ClaimRequest request, String idempotencyKey) {
+        long now = System.currentTimeMillis();
+        return append(JournalCodec.encodeSubmitted(request, idempotencyKey, now, scratch.get()),
+                JournalRecord.Type.SUBMITTED, request.getClaimId(), now);
+    }
+
+    /**
+     * Append the decision on a claim; returns its sequence number
+     */
+    public long appendDecision(ClaimResponse response, String idempotencyKey) {
+        long now = System.currentTimeMillis();
+        return append(JournalCodec.encodeDecided(response, idempotencyKey, now, scratch.get()),
+                JournalRecord.Type.DECIDED, response.getClaimId(), now);
+    }
+
+    /**
+     * Block until the record with this sequence number (and all before it) is on disk
+     */
+    public void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (closed) {
+                    throw unavailable("Journal closed before record " + sequence + " was synced");
+                }
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Future completed once the record with this sequence number is on disk,
+     * without blocking the caller. It completes on the flusher thread, so
+     * dependent actions must be short; it fails if the journal is closed first.
+     */
+    public CompletableFuture<Void> whenDurable(long sequence) {
+        lock.lock();
+        try {
+            if (durableSequence >= sequence) {
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            if (closed) {
+                future.completeExceptionally(unavailable("Journal closed before record " + sequence + " was synced"));
+                return future;
+            }
+            waiters.add(new DurableWaiter(sequence, future));
+            return future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Read every record in the journal, oldest first
+     */
+    public void replay(Consumer<JournalRecord> consumer) {
+        synchronized (maintenance) {
+            List<Integer> indexes;
+            int currentIndex;
+            int currentEnd;
+            lock.lock();
+            try {
+                indexes = new ArrayList<>(segments);
+                currentIndex = current.getIndex();
+                currentEnd = current.position();
+            } finally {
+                lock.unlock();
+            }
+            for (int index : indexes) {
+                JournalSegment segment = JournalSegment.open(dir, index, segmentBytes);
+                segment.scan(index == currentIndex ? currentEnd : segment.capacity(), consumer);
+            }
+        }
+    }
+
+    /**
+     * Delete sealed segments whose newest record is older than the retention,
+     * oldest first, after appending their undecided claims again
+     */
+    public void retireExpired() {
+        if (retentionMillis <= 0) {
+            return;
+        }
+        synchronized (maintenance) {
+            long cutoff = System.currentTimeMillis() - retentionMillis;
+            while (true) {
+                int index;
+                lock.lock();
+                try {
+                    if (closed || segments.size() < 2) {
+                        return;
+                    }
+                    index = segments.get(0);
+                    Long last = lastAppendMillis.get(index);
+                    if (last != null && last >= cutoff) {
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (!retire(index)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public long getAppended() {
+        return appended.sum();
+    }
+
+    /**
+     * Number of disk syncs; appended / syncs is the average group size
+     */
+    public long getSyncs() {
+        return syncs.sum();
+    }
+
+    /**
+     * Segments deleted by retention since start
+     */
+    public long getRetired() {
+        return retired.sum();
+    }
+
+    /**
+     * Readiness check: fails once a sync has failed or the journal is closed
+     */
+    public String checkWritable() {
+        lock.lock();
+        try {
+            if (closed) {
+                throw unavailable("Journal is closed");
+            }
+            return "segments=" + segments.size() + ", durableSequence=" + durableSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getSegmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop the flusher after a final sync
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            // After a failed sync the flusher is gone, but retention still has to stop
+            if (closed && failure == null) {
+                return;
+            }
+            closed = true;
+            pending.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (retention != null) {
+            retention.interrupt();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ClaimJournal{" +
+                "dir=" + dir +
+                ", segments=" + getSegmentCount() +
+                ", appended=" + getAppended() +
+                ", syncs=" + getSyncs() +
+                '}';
+    }
+
+    private long append(ByteBuffer body, JournalRecord.Type type, String claimId, long nowMillis) {
+        if (body != scratch.get()) {
+            scratch.set(body);
+        }
+        int frameBytes = JournalCodec.FRAME_HEADER_BYTES + body.remaining();
+        if (frameBytes > segmentBytes) {
+            throw new IllegalArgumentException("Journal record of " + frameBytes + " bytes exceeds the segment size");
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw unavailable("Journal is closed");
+            }
+            if (current.remaining() < frameBytes) {
+                roll();
+            }
+            long sequence = nextSequence++;
+            body.putLong(JournalCodec.SEQUENCE_OFFSET, sequence);
+            current.append(body, JournalCodec.crc(body));
+            appended.increment();
+            lastAppendMillis.merge(current.getIndex(), nowMillis, Math::max);
+            trackOpen(type, claimId, sequence);
+            pending.signal();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sync the full segment and continue in a new one. Caller holds the lock.
+     * A new segment that cannot be allocated (e.g. a full disk) fails the
+     * append that needed it, and the next append tries again.
+     */
+    private void roll() {
+        try {
+            force(current);
+        } catch (RuntimeException | InternalError e) {
+            fail(e, current);
+            throw unavailable("Record not appended");
+        }
+        current = JournalSegment.open(dir, current.getIndex() + 1, segmentBytes);
+        syncDirectory();
+        segments.add(current.getIndex());
+        EventLog.info("journal.segment.rolled", "file", current.getFile());
+    }
+
+    private void trackOpen(JournalRecord.Type type, String claimId, long sequence) {
+        if (claimId == null) {
+            return;
+        }
+        if (type == JournalRecord.Type.SUBMITTED) {
+            openSubmissions.put(claimId, sequence);
+        } else {
+            openSubmissions.remove(claimId);
+        }
+    }
+
+    /**
+     * Carry the undecided claims of a sealed segment forward, then delete it
+     *
+     * @return false if the file could not be deleted; it is retried on the next pass
+     */
+    private boolean retire(int index) {
+        JournalSegment segment = JournalSegment.open(dir, index, segmentBytes);
+        List<JournalRecord> open = new ArrayList<>();
+        segment.scan(segment.capacity(), record -> {
+            if (record.getType() == JournalRecord.Type.SUBMITTED && isOpen(record)) {
+                open.add(record);
+            }
+        });
+
+        long last = -1;
+        int carried = 0;
+        lock.lock();
+        try {
+            // Re-checked under the lock: a decision appended since the scan closes the claim
+            for (JournalRecord record : open) {
+                if (isOpen(record)) {
+                    last = append(JournalCodec.encodeSubmitted(record.getRequest(), record.getIdempotencyKey(),
+                                    record.getTimestampMillis(), scratch.get()),
+                            JournalRecord.Type.SUBMITTED, record.getClaimId(), System.currentTimeMillis());
+                    carried++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (last >= 0) {
+            awaitDurable(last);
+        }
+
+        try {
+            Files.deleteIfExists(segment.getFile());
+        } catch (IOException e) {
+            // Windows refuses to delete a file that is still mapped; the mapping goes with the next GC
+            EventLog.warn("journal.segment.retireFailed", "file", segment.getFile(), "reason", e.getMessage());
+            return false;
+        }
+        lock.lock();
+        try {
+            segments.remove(Integer.valueOf(index));
+            lastAppendMillis.remove(index);
+        } finally {
+            lock.unlock();
+        }
+        syncDirectory();
+        retired.increment();
+        EventLog.info("journal.segment.retired", "file", segment.getFile(), "carriedForward", carried);
+        return true;
+    }
+
+    private boolean isOpen(JournalRecord record) {
+        Long sequence = record.getClaimId() != null ? openSubmissions.get(record.getClaimId()) : null;
+        return sequence != null && sequence == record.getSequence();
+    }
+
+    /**
+     * Make a created or deleted segment's directory entry durable. Directories
+     * cannot be opened on Windows, so a failure is ignored.
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on this platform
+        }
+    }
+
+    /**
+     * Check for expired segments a few times per retention period, at most once a minute
+     */
+    private void retentionLoop() {
+        long intervalMillis = Math.max(1000, Math.min(TimeUnit.MINUTES.toMillis(1), retentionMillis / 4));
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                retireExpired();
+            } catch (RuntimeException e) {
+                EventLog.error("journal.retention.failed", e, "dir", dir);
+            }
+        }
+    }
+
+    /**
+     * Sync appended records in groups until closed
+     */
+    private void flushLoop() {
+        while (true) {
+            long target;
+            JournalSegment segment;
+            lock.lock();
+            try {
+                while (!closed && nextSequence - 1 <= durableSequence) {
+                    pending.awaitUninterruptibly();
+                }
+                if (closed && nextSequence - 1 <= durableSequence) {
+                    flushed.signalAll();
+                    failWaiters();
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            // Let concurrent submissions join this sync
+            if (groupCommitNanos > 0) {
+                LockSupport.parkNanos(groupCommitNanos);
+            }
+
+            lock.lock();
+            try {
+                target = nextSequence - 1;
+                segment = current;
+            } finally {
+                lock.unlock();
+            }
+
+            // Records in earlier segments were synced when the segment rolled
+            try {
+                force(segment);
+            } catch (RuntimeException | InternalError e) {
+                lock.lock();
+                try {
+                    fail(e, segment);
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            syncs.increment();
+
+            List<CompletableFuture<Void>> done = new ArrayList<>();
+            lock.lock();
+            try {
+                durableSequence = target;
+                flushed.signalAll();
+                while (!waiters.isEmpty() && waiters.peek().sequence <= target) {
+                    done.add(waiters.poll().future);
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (CompletableFuture<Void> future : done) {
+                future.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Make a segment's records durable; a separate method so tests can make the sync fail
+     */
+    void force(JournalSegment segment) {
+        segment.force();
+    }
+
+    /**
+     * Close the journal after a failed sync and release everyone waiting for
+     * one. Caller holds the lock.
+     */
+    private void fail(Throwable cause, JournalSegment segment) {
+        if (failure == null) {
+            failure = cause;
+            EventLog.error("journal.sync.failed", cause, "file", segment.getFile(),
+                    "durableSequence", durableSequence, "nextSequence", nextSequence);
+        }
+        closed = true;
+        pending.signalAll();
+        flushed.signalAll();
+        failWaiters();
+    }
+
+    /**
+     * Exception for a caller the journal can no longer serve; carries the sync failure, if any.
+     * Caller holds the lock.
+     */
+    private IllegalStateException unavailable(String message) {
+        return failure != null
+                ? new IllegalStateException(message + "; the journal stopped after a failed sync", failure)
+                : new IllegalStateException(message);
+    }
+
+    /**
+     * Fail whenDurable futures that can no longer complete. Caller holds the lock.
+     */
+    private void failWaiters() {
+        while (!waiters.isEmpty()) {
+            DurableWaiter waiter = waiters.poll();
+            waiter.future.completeExceptionally(
+                    unavailable("Journal closed before record " + waiter.sequence + " was synced"));
+        }
+    }
+
+    private static final class DurableWaiter implements Comparable<DurableWaiter> {
+        final long sequence;
+        final CompletableFuture<Void> future;
+
+        DurableWaiter(long sequence, CompletableFuture<Void> future) {
+            this.sequence = sequence;
+            this.future = future;
+        }
+
+        @Override
+        public int compareTo(DurableWaiter other) {
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Find the segments, scan them to the last good record and position the
+     * last one for appending
+     */
+    private void recover() {
+        try {
+            Files.createDirectories(dir);
+            try (Stream<Path> files = Files.list(dir)) {
+                files.mapToInt(JournalSegment::indexOf).filter(index -> index >= 0).forEach(segments::add);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open claim journal in " + dir, e);
+        }
+        Collections.sort(segments);
+        boolean created = segments.isEmpty();
+        if (created) {
+            segments.add(0);
+        }
+
+        long[] lastSequence = {-1};
+        long[] records = {0};
+        JournalSegment segment = null;
+        for (int index : segments) {
+            segment = JournalSegment.open(dir, index, segmentBytes);
+            int end = segment.scan(segment.capacity(), record -> {
+                lastSequence[0] = record.getSequence();
+                records[0]++;
+                lastAppendMillis.merge(index, record.getTimestampMillis(), Math::max);
+                trackOpen(record.getType(), record.getClaimId(), record.getSequence());
+            });
+            segment.position(end);
+        }
+        if (created) {
+            syncDirectory();
+        }
+
+        // Anything after the last good record of the last segment is a torn append
+        if (segment.truncateTail()) {
+            EventLog.warn("journal.tail.truncated", "file", segment.getFile(), "position", segment.position());
+        }
+        this.current = segment;
+        this.nextSequence = lastSequence[0] + 1;
+        this.durableSequence = lastSequence[0];
+        EventLog.info("journal.recovered", "dir", dir, "segments", segments.size(), "records", records[0],
+                "openClaims", openSubmissions.size(), "nextSequence", nextSequence);
+    }
+}
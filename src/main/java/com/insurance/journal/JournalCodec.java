@@ -0,0 +1,180 @@
+package com.insurance.journal;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout of journal records.
+ *
+ * Each record is framed as [int bodyLength][int crc32(body)][body], where
+ * body is [long sequence][byte type][long timestampMillis][fields]. Strings
+ * are a varint of (UTF-8 length + 1), 0 meaning null, followed by the bytes.
+ * A zero bodyLength marks the end of the written part of a segment. The
+ * idempotency key is the last field of both record types; records written
+ * before it was added simply end earlier and decode with a null key.
+ */
+final class JournalCodec {
+
+    static final int FRAME_HEADER_BYTES = 8;
+    static final int SEQUENCE_OFFSET = 0;
+
+    private static final int FIXED_BODY_BYTES = 8 + 1 + 8;
+    private static final int FLAG_IDENTITY_VERIFIED = 1;
+    private static final int FLAG_FRAUD_CHECK_PASSED = 2;
+
+    private JournalCodec() {
+    }
+
+    /**
+     * Encode a SUBMITTED body into the buffer, with sequence 0 to be patched at append time
+     */
+    static ByteBuffer encodeSubmitted(ClaimRequest request, String idempotencyKey, long timestampMillis,
+                                      ByteBuffer scratch) {
+        byte[][] strings = {
+                utf8(request.getClaimId()), utf8(request.getUserId()), utf8(request.getClaimType()),
+                utf8(request.getDescription()), utf8(request.getIncidentDate()), utf8(idempotencyKey)};
+        ByteBuffer buffer = ensureCapacity(scratch, FIXED_BODY_BYTES + 8 + size(strings));
+        putHeader(buffer, JournalRecord.Type.SUBMITTED, timestampMillis);
+        putString(buffer, strings[0]);
+        putString(buffer, strings[1]);
+        putString(buffer, strings[2]);
+        buffer.putDouble(request.getClaimAmount());
+        putString(buffer, strings[3]);
+        putString(buffer, strings[4]);
+        putString(buffer, strings[5]);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Encode a DECIDED body into the buffer, with sequence 0 to be patched at append time
+     */
+    static ByteBuffer encodeDecided(ClaimResponse response, String idempotencyKey, long timestampMillis,
+                                    ByteBuffer scratch) {
+        byte[][] strings = {
+                utf8(response.getClaimId()), utf8(response.getStatus()), utf8(response.getMessage()),
+                utf8(response.getTimestamp()), utf8(response.getPolicyStatus()), utf8(idempotencyKey)};
+        ByteBuffer buffer = ensureCapacity(scratch, FIXED_BODY_BYTES + 1 + size(strings));
+        putHeader(buffer, JournalRecord.Type.DECIDED, timestampMillis);
+        putString(buffer, strings[0]);
+        putString(buffer, strings[1]);
+        putString(buffer, strings[2]);
+        putString(buffer, strings[3]);
+        buffer.put((byte) ((response.isIdentityVerified() ? FLAG_IDENTITY_VERIFIED : 0)
+                | (response.isFraudCheckPassed() ? FLAG_FRAUD_CHECK_PASSED : 0)));
+        putString(buffer, strings[4]);
+        putString(buffer, strings[5]);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Decode a record body (position at the start of the body, limit at its end)
+     */
+    static JournalRecord decode(ByteBuffer body) {
+        long sequence = body.getLong();
+        JournalRecord.Type type = JournalRecord.Type.of(body.get());
+        long timestampMillis = body.getLong();
+
+        if (type == JournalRecord.Type.SUBMITTED) {
+            ClaimRequest request = new ClaimRequest();
+            request.setClaimId(getString(body));
+            request.setUserId(getString(body));
+            request.setClaimType(getString(body));
+            request.setClaimAmount(body.getDouble());
+            request.setDescription(getString(body));
+            request.setIncidentDate(getString(body));
+            return new JournalRecord(type, sequence, timestampMillis, request, null, getOptionalString(body));
+        }
+
+        ClaimResponse response = new ClaimResponse();
+        response.setClaimId(getString(body));
+        response.setStatus(getString(body));
+        response.setMessage(getString(body));
+        response.setTimestamp(getString(body));
+        int flags = body.get();
+        response.setIdentityVerified((flags & FLAG_IDENTITY_VERIFIED) != 0);
+        response.setFraudCheckPassed((flags & FLAG_FRAUD_CHECK_PASSED) != 0);
+        response.setPolicyStatus(getString(body));
+        return new JournalRecord(type, sequence, timestampMillis, null, response, getOptionalString(body));
+    }
+
+    static int crc(ByteBuffer body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static void putHeader(ByteBuffer buffer, JournalRecord.Type type, long timestampMillis) {
+        buffer.putLong(0L);
+        buffer.put(type.code);
+        buffer.putLong(timestampMillis);
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer scratch, int bytes) {
+        if (scratch.capacity() >= bytes) {
+            scratch.clear();
+            return scratch;
+        }
+        return ByteBuffer.allocate(Math.max(bytes, scratch.capacity() * 2));
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int size(byte[][] strings) {
+        int size = 0;
+        for (byte[] string : strings) {
+            size += 5 + (string != null ? string.length : 0);
+        }
+        return size;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            putVarint(buffer, 0);
+            return;
+        }
+        putVarint(buffer, bytes.length + 1);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = getVarint(buffer) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String getOptionalString(ByteBuffer buffer) {
+        return buffer.hasRemaining() ? getString(buffer) : null;
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in journal record");
+    }
+}
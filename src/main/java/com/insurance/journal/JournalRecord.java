@@ -0,0 +1,94 @@
+package com.insurance.journal;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+
+/**
+ * One entry of the claim journal: a submitted claim or the decision on it
+ */
+public final class JournalRecord {
+
+    public enum Type {
+        SUBMITTED(1), DECIDED(2);
+
+        final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        static Type of(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown journal record type " + code);
+        }
+    }
+
+    private final Type type;
+    private final long sequence;
+    private final long timestampMillis;
+    private final ClaimRequest request;
+    private final ClaimResponse decision;
+    private final String idempotencyKey;
+
+    JournalRecord(Type type, long sequence, long timestampMillis, ClaimRequest request, ClaimResponse decision,
+                  String idempotencyKey) {
+        this.type = type;
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.request = request;
+        this.decision = decision;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Position in the journal; increases by one per record
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Wall clock time the record was appended
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * The submitted claim, for SUBMITTED records
+     */
+    public ClaimRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * The orchestrator's response, for DECIDED records
+     */
+    public ClaimResponse getDecision() {
+        return decision;
+    }
+
+    /**
+     * Idempotency cache key the submission was made under, or null
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getClaimId() {
+        return type == Type.SUBMITTED ? request.getClaimId() : decision.getClaimId();
+    }
+
+    @Override
+    public String toString() {
+        return "JournalRecord{" + type + " #" + sequence + " " + getClaimId() + '}';
+    }
+}
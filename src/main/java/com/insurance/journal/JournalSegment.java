@@ -0,0 +1,164 @@
+package com.insurance.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * One fixed-size, memory-mapped journal file.
+ * Records are copied into the mapping; {@link #force()} makes them durable.
+ */
+final class JournalSegment {
+
+    private static final String PREFIX = "claims-";
+    private static final String SUFFIX = ".journal";
+    private static final int PREALLOCATE_CHUNK_BYTES = 64 * 1024;
+
+    private final int index;
+    private final Path file;
+    private final MappedByteBuffer buffer;
+
+    private JournalSegment(int index, Path file, MappedByteBuffer buffer) {
+        this.index = index;
+        this.file = file;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Map a segment read-write, creating (and preallocating) the file if needed
+     */
+    static JournalSegment open(Path dir, int index, int size) {
+        Path file = dir.resolve(String.format("%s%08d%s", PREFIX, index, SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            preallocate(channel, size);
+            // The mapping stays valid after the channel is closed
+            int mappedSize = (int) Math.max(size, channel.size());
+            return new JournalSegment(index, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map journal segment " + file, e);
+        }
+    }
+
+    /**
+     * Write zeros up to size so the file's blocks exist before it is mapped.
+     * A sparse mapping would only find a full disk when a page is first
+     * touched, as a SIGBUS in the middle of an append; writing fails here
+     * with an IOException instead.
+     */
+    private static void preallocate(FileChannel channel, int size) throws IOException {
+        long position = channel.size();
+        if (position >= size) {
+            return;
+        }
+        ByteBuffer zeros = ByteBuffer.allocate(PREALLOCATE_CHUNK_BYTES);
+        while (position < size) {
+            zeros.clear().limit((int) Math.min(zeros.capacity(), size - position));
+            while (zeros.hasRemaining()) {
+                position += channel.write(zeros, position);
+            }
+        }
+        channel.force(true);
+    }
+
+    /**
+     * Segment index from a file name, or -1 if it is not a journal segment
+     */
+    static int indexOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int position() {
+        return buffer.position();
+    }
+
+    void position(int position) {
+        buffer.position(position);
+    }
+
+    int remaining() {
+        return buffer.remaining();
+    }
+
+    /**
+     * Frame and copy a record body at the current position. Caller holds the journal lock.
+     */
+    void append(ByteBuffer body, int crc) {
+        buffer.putInt(body.remaining());
+        buffer.putInt(crc);
+        buffer.put(body);
+    }
+
+    /**
+     * Zero a torn record left at the current position by a crash, so that a
+     * later scan cannot read its remains after newer records
+     */
+    boolean truncateTail() {
+        if (buffer.remaining() < JournalCodec.FRAME_HEADER_BYTES || buffer.getInt(buffer.position()) == 0) {
+            return false;
+        }
+        int length = buffer.getInt(buffer.position());
+        long frameBytes = length > 0 ? JournalCodec.FRAME_HEADER_BYTES + (long) length : buffer.remaining();
+        int end = (int) Math.min(buffer.limit(), buffer.position() + frameBytes);
+        for (int i = buffer.position(); i < end; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Read records from the start of the segment up to limit (or the first
+     * empty or damaged frame) and return the end position of the last good one
+     */
+    int scan(int limit, Consumer<JournalRecord> consumer) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(0).limit(limit);
+        while (view.remaining() >= JournalCodec.FRAME_HEADER_BYTES) {
+            int start = view.position();
+            int length = view.getInt();
+            int crc = view.getInt();
+            if (length <= 0 || length > view.remaining()) {
+                return start;
+            }
+            ByteBuffer body = view.slice();
+            body.limit(length);
+            if (JournalCodec.crc(body) != crc) {
+                return start;
+            }
+            if (consumer != null) {
+                consumer.accept(JournalCodec.decode(body));
+            }
+            view.position(start + JournalCodec.FRAME_HEADER_BYTES + length);
+        }
+        return view.position();
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+}
@@ -0,0 +1,88 @@
+package com.insurance.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and error counts of one endpoint during a load test.
+ *
+ * Two histograms are kept, both in microseconds:
+ * - response time, measured from when the request was supposed to be sent
+ *   (open loop) so queueing behind a stalled system is counted, which
+ *   corrects for coordinated omission;
+ * - service time, measured from when it was actually sent.
+ * In closed loop both start at the actual send time and are identical.
+ *
+ * Requests still queued or unanswered when an open-loop run gives up are
+ * recorded as timeouts: they count as errors, and their response time is
+ * the time they had waited by then, a lower bound of the real one.
+ */
+public class EndpointStats {
+
+    private final String name;
+    private final Recorder responseTime = new Recorder(3);
+    private final Recorder serviceTime = new Recorder(3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Record one completed request
+     *
+     * @param intendedStartNanos when the schedule wanted the request sent
+     * @param actualStartNanos when it was actually sent
+     * @param endNanos when the response (or failure) arrived
+     * @param ok false if the request failed
+     */
+    public void record(long intendedStartNanos, long actualStartNanos, long endNanos, boolean ok) {
+        responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(endNanos - intendedStartNanos));
+        serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(endNanos - actualStartNanos));
+        if (!ok) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Record a request abandoned at abandonedNanos without a response
+     */
+    public void recordTimeout(long intendedStartNanos, long abandonedNanos) {
+        responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(abandonedNanos - intendedStartNanos));
+        errors.increment();
+        timeouts.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Response time histogram since the last call (coordinated-omission corrected)
+     */
+    public Histogram takeResponseTimes() {
+        return responseTime.getIntervalHistogram();
+    }
+
+    /**
+     * Service time histogram since the last call
+     */
+    public Histogram takeServiceTimes() {
+        return serviceTime.getIntervalHistogram();
+    }
+
+    /**
+     * Failed requests, including timeouts
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+}
@@ -0,0 +1,55 @@
+package com.insurance.loadtest;
+
+import com.google.gson.JsonObject;
+import com.insurance.client.GraphQLClient;
+import com.insurance.dto.ClaimRequest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * POST /graphql with the validatePolicy query
+ */
+public class GraphQLTarget implements LoadTarget {
+
+    private static final String VALIDATE_POLICY =
+            "query ValidatePolicy($policyId: String!, $claimAmount: Float!) { " +
+            "validatePolicy(policyId: $policyId, claimAmount: $claimAmount) { " +
+            "policyId isValid status message validationErrors coverageLimit } }";
+
+    @Override
+    public String getName() {
+        return "graphql:validatePolicy";
+    }
+
+    @Override
+    public void call(ClaimRequest claim) throws Exception {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("policyId", policyIdFor(claim.getClaimType()));
+        variables.put("claimAmount", claim.getClaimAmount());
+
+        JsonObject response = GraphQLClient.executeQuery(VALIDATE_POLICY, variables);
+        if (response == null || response.has("errors")) {
+            throw new IllegalStateException("validatePolicy failed for " + claim.getClaimId() + ": " + response);
+        }
+    }
+
+    @Override
+    public void close() {
+        // Shared HTTP client, nothing to release
+    }
+
+    /**
+     * Map claim types onto the sample policies
+     */
+    private static String policyIdFor(String claimType) {
+        switch (claimType) {
+            case "HOME":
+                return "POL-002";
+            case "HEALTH":
+                return "POL-003";
+            default:
+                return "POL-001";
+        }
+    }
+}
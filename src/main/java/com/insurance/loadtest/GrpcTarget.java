@@ -0,0 +1,40 @@
+package com.insurance.loadtest;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.grpc.FraudDetectionClient;
+import com.insurance.grpc.proto.FraudResponse;
+
+/**
+ * FraudDetection.AnalyzeClaim over one shared channel
+ */
+public class GrpcTarget implements LoadTarget {
+
+    private final FraudDetectionClient client;
+
+    public GrpcTarget(String host, int port) {
+        this.client = new FraudDetectionClient(host, port);
+    }
+
+    @Override
+    public String getName() {
+        return "grpc:AnalyzeClaim";
+    }
+
+    @Override
+    public void call(ClaimRequest claim) {
+        FraudResponse response = client.analyzeClaim(claim.getClaimId(), claim.getUserId(),
+                claim.getClaimAmount(), claim.getClaimType(), claim.getIncidentDate(), "FIRST_TIME_CLAIM");
+        if (response == null) {
+            throw new IllegalStateException("AnalyzeClaim failed for " + claim.getClaimId());
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            client.shutdown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.insurance.loadtest;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.workload.ClaimMix;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator for the claim processing stack.
+ *
+ * Drives /api/claims/submit, the gRPC AnalyzeClaim RPC and /graphql with a
+ * synthetic claim mix, in one of two modes:
+ *
+ *   closed  --workers N threads, each sending its next request as soon as
+ *           the previous one completes
+ *   open    requests are scheduled at a fixed --rate (req/s) regardless of
+ *           how fast the system answers; --workers bounds concurrency and
+ *           latency is measured from the scheduled send time
+ *
+ * Options (all optional):
+ *   --targets rest,grpc,graphql   --mode closed|open   --workers 16
+ *   --rate 100   --duration 60   --warmup 10   --users 1000   --seed 42
+ *   --mix AUTO:50:500-60000,...   --grpc-host localhost   --grpc-port 50051
+ *   --hgrm-dir DIR  (write full percentile distributions per endpoint)
+ *   --drain-seconds 60  (open loop: how long to wait for queued requests at the end)
+ *
+ * Open-loop requests still queued or unanswered after the drain period are
+ * reported as timeouts rather than dropped from the results.
+ *
+ * The REST and GraphQL URLs come from -Dclaims.api.url and -Dgraphql.url.
+ */
+public class LoadGenerator {
+
+    private final List<LoadTarget> targets;
+    private final List<EndpointStats> stats = new ArrayList<>();
+    private final ClaimMix mix;
+    private final long seed;
+    private final AtomicLong requestCounter = new AtomicLong();
+    private final Set<Scheduled> unrecorded = ConcurrentHashMap.newKeySet();
+
+    private volatile long measureStartNanos;
+
+    public LoadGenerator(List<LoadTarget> targets, ClaimMix mix, long seed) {
+        this.targets = targets;
+        this.mix = mix;
+        this.seed = seed;
+        for (LoadTarget target : targets) {
+            stats.add(new EndpointStats(target.getName()));
+        }
+    }
+
+    /**
+     * Closed loop: each worker sends back-to-back requests until the deadline
+     */
+    public void runClosedLoop(int workers, long warmupSeconds, long durationSeconds) throws InterruptedException {
+        long start = System.nanoTime();
+        measureStartNanos = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureStartNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        List<Thread> threads = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            Random random = new Random(seed + i);
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    ClaimRequest claim = mix.next(random);
+                    long now = System.nanoTime();
+                    execute(claim, now, now);
+                }
+            }, "load-worker-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Open loop: schedule requests at a fixed rate and hand them to a worker pool.
+     * Requests that wait in the queue because all workers are busy have that
+     * wait included in their latency (coordinated-omission correction).
+     */
+    public void runOpenLoop(double ratePerSecond, int workers, long warmupSeconds, long durationSeconds,
+                            long drainSeconds) throws InterruptedException {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "load-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        measureStartNanos = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureStartNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        Random random = new Random(seed);
+        int maxBacklog = 0;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scheduled request = new Scheduled(mix.next(random), intended, nextTarget());
+            unrecorded.add(request);
+            pool.execute(request);
+            maxBacklog = Math.max(maxBacklog, pool.getQueue().size());
+        }
+
+        pool.shutdown();
+        if (!pool.awaitTermination(drainSeconds, TimeUnit.SECONDS)) {
+            int queued = pool.shutdownNow().size();
+            List<Scheduled> abandoned = new ArrayList<>(unrecorded);
+            long now = System.nanoTime();
+            for (Scheduled request : abandoned) {
+                request.abandon(now);
+            }
+            System.err.println("Warning: gave up on " + abandoned.size() + " requests (" + queued
+                    + " still queued) after " + drainSeconds + "s; reported as timeouts");
+        }
+        if (maxBacklog > workers) {
+            System.out.println("Note: up to " + maxBacklog + " requests were queued behind busy workers;"
+                    + " the system did not keep up with " + ratePerSecond + " req/s");
+        }
+    }
+
+    /**
+     * Send one claim to the next target (round robin) and record the outcome
+     */
+    private void execute(ClaimRequest claim, long intendedStartNanos, long actualStartNanos) {
+        int index = nextTarget();
+        boolean ok = call(index, claim);
+        if (intendedStartNanos >= measureStartNanos) {
+            stats.get(index).record(intendedStartNanos, actualStartNanos, System.nanoTime(), ok);
+        }
+    }
+
+    private int nextTarget() {
+        return (int) (requestCounter.getAndIncrement() % targets.size());
+    }
+
+    private boolean call(int index, ClaimRequest claim) {
+        try {
+            targets.get(index).call(claim);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * An open-loop request. It is recorded exactly once: when its response
+     * arrives, or as a timeout when the run gives up on it, whichever is first.
+     */
+    private final class Scheduled implements Runnable {
+        private final ClaimRequest claim;
+        private final long intendedStartNanos;
+        private final int index;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        Scheduled(ClaimRequest claim, long intendedStartNanos, int index) {
+            this.claim = claim;
+            this.intendedStartNanos = intendedStartNanos;
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            long actualStartNanos = System.nanoTime();
+            boolean ok = call(index, claim);
+            if (recorded.compareAndSet(false, true)) {
+                unrecorded.remove(this);
+                if (measured()) {
+                    stats.get(index).record(intendedStartNanos, actualStartNanos, System.nanoTime(), ok);
+                }
+            }
+        }
+
+        void abandon(long nowNanos) {
+            if (recorded.compareAndSet(false, true)) {
+                unrecorded.remove(this);
+                if (measured()) {
+                    stats.get(index).recordTimeout(intendedStartNanos, nowNanos);
+                }
+            }
+        }
+
+        private boolean measured() {
+            return intendedStartNanos >= measureStartNanos;
+        }
+    }
+
+    /**
+     * Print throughput and latency percentiles per endpoint
+     */
+    public void report(long durationSeconds, boolean openLoop, Path hgrmDir) throws FileNotFoundException {
+        System.out.println("\n=== Load Test Results ===");
+        System.out.println(String.format("%-26s %9s %7s %8s %10s %9s %9s %9s %9s %9s",
+                "Endpoint", "Requests", "Errors", "Timeouts", "Req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        System.out.println("-".repeat(115));
+
+        for (EndpointStats endpoint : stats) {
+            Histogram responseTimes = endpoint.takeResponseTimes();
+            Histogram serviceTimes = endpoint.takeServiceTimes();
+            printRow(endpoint.getName(), responseTimes, endpoint.getErrors(), endpoint.getTimeouts(),
+                    durationSeconds);
+            if (openLoop) {
+                // Timed-out requests have no service time
+                printRow("  (service time)", serviceTimes, endpoint.getErrors() - endpoint.getTimeouts(), 0,
+                        durationSeconds);
+            }
+            if (hgrmDir != null) {
+                writeDistribution(hgrmDir, endpoint.getName(), responseTimes);
+            }
+        }
+    }
+
+    private static void printRow(String name, Histogram histogram, long errors, long timeouts,
+                                 long durationSeconds) {
+        long count = histogram.getTotalCount();
+        System.out.println(String.format("%-26s %9d %7d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, count, errors, timeouts, (double) count / durationSeconds,
+                millis(histogram.getValueAtPercentile(50.0)),
+                millis(histogram.getValueAtPercentile(90.0)),
+                millis(histogram.getValueAtPercentile(99.0)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue())));
+    }
+
+    private static void writeDistribution(Path dir, String name, Histogram histogram) throws FileNotFoundException {
+        Path file = dir.resolve(name.replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm");
+        try (PrintStream out = new PrintStream(file.toFile())) {
+            // Values are recorded in microseconds; print milliseconds
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+        System.out.println("Wrote " + file);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    public void close() {
+        for (LoadTarget target : targets) {
+            target.close();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+
+        String mode = options.getOrDefault("mode", "closed");
+        int workers = Integer.parseInt(options.getOrDefault("workers", "16"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "100"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "60"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "10"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        long drain = Long.parseLong(options.getOrDefault("drain-seconds", "60"));
+        ClaimMix mix = new ClaimMix(options.getOrDefault("mix", ClaimMix.DEFAULT_SPEC),
+                Integer.parseInt(options.getOrDefault("users", "1000")));
+        Path hgrmDir = options.containsKey("hgrm-dir") ? Paths.get(options.get("hgrm-dir")) : null;
+
+        List<LoadTarget> targets = new ArrayList<>();
+        for (String name : options.getOrDefault("targets", "rest,grpc,graphql").split(",")) {
+            switch (name.trim().toLowerCase()) {
+                case "rest":
+                    targets.add(new RestTarget());
+                    break;
+                case "grpc":
+                    targets.add(new GrpcTarget(options.getOrDefault("grpc-host", "localhost"),
+                            Integer.parseInt(options.getOrDefault("grpc-port", "50051"))));
+                    break;
+                case "graphql":
+                    targets.add(new GraphQLTarget());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown target: " + name);
+            }
+        }
+        if (!"closed".equals(mode) && !"open".equals(mode)) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        if (hgrmDir != null) {
+            Files.createDirectories(hgrmDir);
+        }
+
+        System.out.println("=== Load Test ===");
+        System.out.println("Mode: " + mode + ("open".equals(mode) ? " (" + rate + " req/s)" : "")
+                + ", workers: " + workers + ", warmup: " + warmup + "s, duration: " + duration + "s");
+        System.out.println("Claim mix: " + mix + " (seed " + seed + ")");
+
+        LoadGenerator generator = new LoadGenerator(targets, mix, seed);
+        try {
+            if ("open".equals(mode)) {
+                generator.runOpenLoop(rate, workers, warmup, duration, drain);
+            } else {
+                generator.runClosedLoop(workers, warmup, duration);
+            }
+            generator.report(duration, "open".equals(mode), hgrmDir);
+        } finally {
+            generator.close();
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
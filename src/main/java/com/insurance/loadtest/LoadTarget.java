@@ -0,0 +1,25 @@
+package com.insurance.loadtest;
+
+import com.insurance.dto.ClaimRequest;
+
+/**
+ * One endpoint driven by the load generator.
+ * Implementations must be thread-safe; call() throws on any failed request.
+ */
+public interface LoadTarget {
+
+    /**
+     * Endpoint name used in the report
+     */
+    String getName();
+
+    /**
+     * Send one request for the given claim and wait for its response
+     */
+    void call(ClaimRequest claim) throws Exception;
+
+    /**
+     * Release connections
+     */
+    void close();
+}
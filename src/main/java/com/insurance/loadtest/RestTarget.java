@@ -0,0 +1,31 @@
+package com.insurance.loadtest;
+
+import com.insurance.client.RestClient;
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+
+/**
+ * POST /api/claims/submit
+ */
+public class RestTarget implements LoadTarget {
+
+    @Override
+    public String getName() {
+        return "rest:/claims/submit";
+    }
+
+    @Override
+    public void call(ClaimRequest claim) throws Exception {
+        ClaimResponse response = RestClient.submitClaim(claim);
+        if (response == null || response.getStatus() == null
+                || "ERROR".equals(response.getStatus()) || "THROTTLED".equals(response.getStatus())) {
+            throw new IllegalStateException("Claim " + claim.getClaimId() + " failed: "
+                    + (response != null ? response.getMessage() : "empty response"));
+        }
+    }
+
+    @Override
+    public void close() {
+        // Shared HTTP client, nothing to release
+    }
+}
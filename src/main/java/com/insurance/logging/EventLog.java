@@ -0,0 +1,315 @@
+package com.insurance.logging;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous structured event log.
+ *
+ * Callers enqueue an event name plus key/value fields into a lock-free ring
+ * buffer and return immediately; a background thread formats and writes the
+ * events. Request threads therefore never wait on stdout. When the buffer is
+ * full the event is dropped and counted instead of blocking.
+ *
+ * Configuration (system properties):
+ *   logging.level       DEBUG|INFO|WARN|ERROR|OFF (default INFO)
+ *   logging.sampleRate  fraction of DEBUG/INFO events kept, 0.0-1.0 (default 1.0)
+ *   logging.bufferSize  ring buffer slots (default 8192)
+ *   logging.format      text|json (default text)
+ *   logging.file        append to this file instead of stdout
+ *
+ * Per-request events are logged at INFO, so -Dlogging.level=WARN turns them
+ * off entirely. Level and sample rate can also be changed at runtime.
+ *
+ * Field values often come from requests, so control characters are escaped
+ * in both formats and a value can never start a new line. In text format the
+ * lines of a stack trace are indented: every line that starts at column 0 is
+ * an event.
+ */
+public final class EventLog {
+
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final Object[] NO_FIELDS = new Object[0];
+
+    private static volatile Level level = parseLevel(System.getProperty("logging.level", "INFO"));
+    private static volatile double sampleRate = Double.parseDouble(System.getProperty("logging.sampleRate", "1.0"));
+    private static final boolean JSON = "json".equalsIgnoreCase(System.getProperty("logging.format", "text"));
+
+    private static final RingBuffer<LogEvent> BUFFER = new RingBuffer<>(Integer.getInteger("logging.bufferSize", 8192));
+    private static final LongAdder WRITTEN = new LongAdder();
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final LongAdder SAMPLED_OUT = new LongAdder();
+
+    // Declared before the writer is started, which reads it
+    private static volatile boolean running = true;
+    private static final Writer OUT = openOutput(System.getProperty("logging.file"));
+    private static final Thread WRITER = startWriter();
+
+    private EventLog() {
+    }
+
+    public static boolean isEnabled(Level eventLevel) {
+        return eventLevel.compareTo(level) >= 0 && eventLevel != Level.OFF;
+    }
+
+    public static void debug(String event, Object... fields) {
+        log(Level.DEBUG, event, fields, null);
+    }
+
+    public static void info(String event, Object... fields) {
+        log(Level.INFO, event, fields, null);
+    }
+
+    public static void warn(String event, Object... fields) {
+        log(Level.WARN, event, fields, null);
+    }
+
+    public static void error(String event, Throwable error, Object... fields) {
+        log(Level.ERROR, event, fields, error);
+    }
+
+    /**
+     * Enqueue an event; fields are alternating names and values
+     */
+    public static void log(Level eventLevel, String event, Object[] fields, Throwable error) {
+        if (!isEnabled(eventLevel)) {
+            return;
+        }
+        if (eventLevel.compareTo(Level.INFO) <= 0 && sampleRate < 1.0
+                && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            SAMPLED_OUT.increment();
+            return;
+        }
+        if (!BUFFER.offer(new LogEvent(eventLevel, event, fields != null ? fields : NO_FIELDS, error))) {
+            DROPPED.increment();
+        }
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    public static void setSampleRate(double rate) {
+        if (rate < 0.0 || rate > 1.0) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + rate);
+        }
+        sampleRate = rate;
+    }
+
+    public static long getWritten() {
+        return WRITTEN.sum();
+    }
+
+    public static long getDropped() {
+        return DROPPED.sum();
+    }
+
+    public static long getSampledOut() {
+        return SAMPLED_OUT.sum();
+    }
+
+    private static Level parseLevel(String value) {
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown logging.level '" + value + "', using INFO");
+            return Level.INFO;
+        }
+    }
+
+    private static Writer openOutput(String file) {
+        try {
+            // System.out rather than the raw descriptor, so whatever the container
+            // or test runner installed as stdout still receives the events
+            return new BufferedWriter(new OutputStreamWriter(
+                    file != null ? new FileOutputStream(file, true) : System.out,
+                    StandardCharsets.UTF_8), 64 * 1024);
+        } catch (IOException e) {
+            System.err.println("Cannot open log file " + file + ", logging to stdout: " + e.getMessage());
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+    }
+
+    private static Thread startWriter() {
+        Thread thread = new Thread(EventLog::drainLoop, "event-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "event-log-shutdown"));
+        return thread;
+    }
+
+    /**
+     * Writer thread: drain the buffer, flush when it runs empty, then park briefly
+     */
+    private static void drainLoop() {
+        StringBuilder line = new StringBuilder(256);
+        boolean dirty = false;
+        while (true) {
+            LogEvent event = BUFFER.poll();
+            if (event != null) {
+                line.setLength(0);
+                format(event, line);
+                try {
+                    OUT.append(line);
+                    dirty = true;
+                    WRITTEN.increment();
+                } catch (IOException e) {
+                    DROPPED.increment();
+                }
+                continue;
+            }
+            if (dirty) {
+                try {
+                    OUT.flush();
+                } catch (IOException e) {
+                    // Nothing sensible to report to; keep draining
+                }
+                dirty = false;
+            }
+            if (!running) {
+                return;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private static void format(LogEvent event, StringBuilder out) {
+        if (JSON) {
+            formatJson(event, out);
+        } else {
+            formatText(event, out);
+        }
+    }
+
+    static void formatText(LogEvent event, StringBuilder out) {
+        TIMESTAMP.formatTo(Instant.ofEpochMilli(event.timeMillis), out);
+        out.append(' ').append(event.level.name());
+        if (event.level.name().length() == 4) {
+            out.append(' ');
+        }
+        out.append(" [").append(event.thread).append("] ").append(event.event);
+        for (int i = 0; i + 1 < event.fields.length; i += 2) {
+            out.append(' ').append(event.fields[i]).append('=');
+            textValue(out, String.valueOf(event.fields[i + 1]));
+        }
+        if (event.error != null) {
+            out.append(" error=");
+            textValue(out, String.valueOf(event.error.getMessage()));
+            for (String line : stackTrace(event.error).split("\\R")) {
+                out.append(System.lineSeparator()).append('\t').append(line);
+            }
+        }
+        out.append(System.lineSeparator());
+    }
+
+    /**
+     * A text-format value, quoted and escaped when it is empty or holds a
+     * space, quote, equals sign or control character
+     */
+    private static void textValue(StringBuilder out, String value) {
+        boolean quote = value.isEmpty();
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ' ' || c == '"' || c == '=' || c == '\\' || Character.isISOControl(c);
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        escape(out, value);
+        out.append('"');
+    }
+
+    static void formatJson(LogEvent event, StringBuilder out) {
+        out.append("{\"ts\":\"");
+        TIMESTAMP.formatTo(Instant.ofEpochMilli(event.timeMillis), out);
+        out.append("\",\"level\":\"").append(event.level.name()).append('"');
+        jsonField(out, "thread", event.thread);
+        jsonField(out, "event", event.event);
+        for (int i = 0; i + 1 < event.fields.length; i += 2) {
+            Object value = event.fields[i + 1];
+            if (value instanceof Number || value instanceof Boolean) {
+                out.append(",\"").append(event.fields[i]).append("\":").append(value);
+            } else {
+                jsonField(out, String.valueOf(event.fields[i]), String.valueOf(value));
+            }
+        }
+        if (event.error != null) {
+            jsonField(out, "error", String.valueOf(event.error.getMessage()));
+            jsonField(out, "stackTrace", stackTrace(event.error));
+        }
+        out.append('}').append(System.lineSeparator());
+    }
+
+    private static void jsonField(StringBuilder out, String name, String value) {
+        out.append(",\"").append(name).append("\":\"");
+        escape(out, value);
+        out.append('"');
+    }
+
+    /**
+     * Backslash-escape quotes, backslashes and control characters (JSON string rules)
+     */
+    private static void escape(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (Character.isISOControl(c)) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+    }
+
+    private static String stackTrace(Throwable error) {
+        StringWriter trace = new StringWriter();
+        error.printStackTrace(new PrintWriter(trace));
+        return trace.toString().trim();
+    }
+}
@@ -0,0 +1,8 @@
+package com.insurance.logging;
+
+/**
+ * Event log levels, lowest first. OFF disables the log.
+ */
+public enum Level {
+    DEBUG, INFO, WARN, ERROR, OFF
+}
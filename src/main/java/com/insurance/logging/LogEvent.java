@@ -0,0 +1,22 @@
+package com.insurance.logging;
+
+/**
+ * One queued event; formatted by the writer thread
+ */
+final class LogEvent {
+    final long timeMillis;
+    final Level level;
+    final String thread;
+    final String event;
+    final Object[] fields;
+    final Throwable error;
+
+    LogEvent(Level level, String event, Object[] fields, Throwable error) {
+        this.timeMillis = System.currentTimeMillis();
+        this.level = level;
+        this.thread = Thread.currentThread().getName();
+        this.event = event;
+        this.fields = fields;
+        this.error = error;
+    }
+}
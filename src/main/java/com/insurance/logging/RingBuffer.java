@@ -0,0 +1,78 @@
+package com.insurance.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and one consumer.
+ *
+ * Each slot carries a sequence number telling whether it is free for the
+ * producer at a given position or filled for the consumer, so producers
+ * only contend on one CAS of the tail and never wait: when the buffer is
+ * full, offer returns false.
+ */
+final class RingBuffer<E> {
+
+    private final int mask;
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    // Only touched by the consumer thread
+    private long head;
+
+    RingBuffer(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.items = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add an element, or return false if the buffer is full
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items[index] = element;
+                    // Volatile write publishes the item to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Remove the oldest element, or return null if none is ready.
+     * Must only be called from the consumer thread.
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        E element = (E) items[index];
+        items[index] = null;
+        sequences.set(index, head + mask + 1);
+        head++;
+        return element;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,77 @@
+package com.insurance.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with fixed buckets from 100µs to 10s.
+ *
+ * Recording is a short scan of the bucket bounds plus two LongAdder
+ * increments, so it takes tens of nanoseconds and never blocks. Bucket
+ * counts are kept per bucket and made cumulative when exported.
+ */
+public final class LatencyHistogram {
+
+    /** Upper bucket bounds in seconds, as exported in the "le" label */
+    static final String[] BOUNDS = {
+            "0.0001", "0.00025", "0.0005", "0.001", "0.0025", "0.005", "0.01", "0.025",
+            "0.05", "0.1", "0.25", "0.5", "1", "2.5", "5", "10"
+    };
+
+    private static final long[] BOUND_NANOS = new long[BOUNDS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            BOUND_NANOS[i] = (long) (Double.parseDouble(BOUNDS[i]) * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    // One slot per bound plus the +Inf bucket
+    private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int i = 0;
+        while (i < BOUND_NANOS.length && nanos > BOUND_NANOS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Record the time elapsed since a System.nanoTime() reading
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Non-cumulative bucket counts, the last one being +Inf
+     */
+    long[] bucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+}
@@ -0,0 +1,40 @@
+package com.insurance.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the shared registry at http://host:port/metrics for processes
+ * that run outside the web application (e.g. the gRPC server)
+ */
+public final class MetricsHttpExporter {
+
+    private final HttpServer server;
+
+    private MetricsHttpExporter(HttpServer server) {
+        this.server = server;
+    }
+
+    public static MetricsHttpExporter start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = MetricsRegistry.shared().scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        System.out.println("Metrics available at http://localhost:" + port + "/metrics");
+        return new MetricsHttpExporter(server);
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+}
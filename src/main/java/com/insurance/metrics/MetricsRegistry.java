@@ -0,0 +1,206 @@
+package com.insurance.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide registry of counters, gauges and latency histograms,
+ * exported in the Prometheus text format.
+ *
+ * Metrics are identified by name plus label pairs ("stage", "fraud_detection").
+ * Look-ups go through a map, so hot paths should resolve their metrics once
+ * and keep the reference. Each metric name is capped at
+ * -Dmetrics.maxSeriesPerMetric label combinations; beyond that, new
+ * combinations are counted under label values "other".
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry SHARED = new MetricsRegistry();
+
+    private final int maxSeriesPerMetric;
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public MetricsRegistry() {
+        this(Integer.getInteger("metrics.maxSeriesPerMetric", 500));
+    }
+
+    public MetricsRegistry(int maxSeriesPerMetric) {
+        this.maxSeriesPerMetric = maxSeriesPerMetric;
+    }
+
+    /**
+     * Registry shared by all services in this JVM
+     */
+    public static MetricsRegistry shared() {
+        return SHARED;
+    }
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, Type.COUNTER).series(labels, Counter::new);
+    }
+
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.HISTOGRAM).series(labels, LatencyHistogram::new);
+    }
+
+    /**
+     * Register a counter kept elsewhere and read at export time, for running
+     * totals a component already maintains. The name should end in _total.
+     * Re-registering replaces the supplier.
+     */
+    public void counter(String name, String help, LongSupplier value, String... labels) {
+        family(name, help, Type.COUNTER).series.put(Family.labelText(labels), value);
+    }
+
+    /**
+     * Register a gauge read at export time; re-registering replaces the supplier
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).series.put(Family.labelText(labels), value);
+    }
+
+    /**
+     * All metrics in the Prometheus text exposition format (version 0.0.4)
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Family family : families.values()) {
+            family.write(out);
+        }
+        return out.toString();
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.get(name);
+        if (family == null) {
+            family = families.computeIfAbsent(name, n -> new Family(n, help, type, maxSeriesPerMetric));
+        }
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    private enum Type {
+        COUNTER, GAUGE, HISTOGRAM
+    }
+
+    /**
+     * One metric name and all its label combinations
+     */
+    private static final class Family {
+        final String name;
+        final String help;
+        final Type type;
+        final int maxSeries;
+        final Map<String, Object> series = new ConcurrentSkipListMap<>();
+
+        Family(String name, String help, Type type, int maxSeries) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.maxSeries = maxSeries;
+        }
+
+        Object series(String[] labels, Supplier<Object> factory) {
+            String key = labelText(labels);
+            Object metric = series.get(key);
+            if (metric != null) {
+                return metric;
+            }
+            if (series.size() >= maxSeries) {
+                key = overflowLabelText(labels);
+            }
+            return series.computeIfAbsent(key, k -> factory.get());
+        }
+
+        void write(StringBuilder out) {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type.name().toLowerCase()).append('\n');
+            for (Map.Entry<String, Object> entry : series.entrySet()) {
+                String labels = entry.getKey();
+                Object metric = entry.getValue();
+                switch (type) {
+                    case COUNTER:
+                        long count = metric instanceof Counter
+                                ? ((Counter) metric).get() : ((LongSupplier) metric).getAsLong();
+                        sample(out, name, labels, null, Long.toString(count));
+                        break;
+                    case GAUGE:
+                        sample(out, name, labels, null, format(((DoubleSupplier) metric).getAsDouble()));
+                        break;
+                    default:
+                        writeHistogram(out, labels, (LatencyHistogram) metric);
+                }
+            }
+        }
+
+        private void writeHistogram(StringBuilder out, String labels, LatencyHistogram histogram) {
+            long[] counts = histogram.bucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < LatencyHistogram.BOUNDS.length; i++) {
+                cumulative += counts[i];
+                sample(out, name + "_bucket", labels, LatencyHistogram.BOUNDS[i], Long.toString(cumulative));
+            }
+            cumulative += counts[counts.length - 1];
+            sample(out, name + "_bucket", labels, "+Inf", Long.toString(cumulative));
+            sample(out, name + "_sum", labels, null, format(histogram.getSumNanos() / 1e9));
+            sample(out, name + "_count", labels, null, Long.toString(cumulative));
+        }
+
+        private static void sample(StringBuilder out, String name, String labels, String le, String value) {
+            out.append(name);
+            if (!labels.isEmpty() || le != null) {
+                out.append('{').append(labels);
+                if (le != null) {
+                    out.append(labels.isEmpty() ? "" : ",").append("le=\"").append(le).append('"');
+                }
+                out.append('}');
+            }
+            out.append(' ').append(value).append('\n');
+        }
+
+        private static String format(double value) {
+            if (Double.isNaN(value)) {
+                return "NaN";
+            }
+            if (Double.isInfinite(value)) {
+                return value > 0 ? "+Inf" : "-Inf";
+            }
+            return value == Math.rint(value) && Math.abs(value) < 1e15
+                    ? Long.toString((long) value) : Double.toString(value);
+        }
+
+        static String labelText(String[] labels) {
+            if (labels.length % 2 != 0) {
+                throw new IllegalArgumentException("Labels must be name/value pairs");
+            }
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) {
+                    text.append(',');
+                }
+                text.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+            }
+            return text.toString();
+        }
+
+        static String overflowLabelText(String[] labels) {
+            String[] overflow = labels.clone();
+            for (int i = 1; i < overflow.length; i += 2) {
+                overflow[i] = "other";
+            }
+            return labelText(overflow);
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.insurance.orchestrator;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+import com.insurance.tracing.TraceContext;
+import com.insurance.tracing.Tracer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Priority scheduler in front of {@link InsuranceClaimOrchestrator}.
+ *
+ * Claims are sorted into lanes (by amount band and claim type, or by an
+ * explicit lane name from the caller). Each lane has its own bounded queue
+ * and concurrency limit, and free workers pick the next claim from the
+ * eligible lanes by smooth weighted round robin, so a burst in one lane
+ * cannot starve the others.
+ *
+ * A caller that must do work before a claim may start (such as making the
+ * submission durable) first reserves a place in the lane with
+ * {@link #reserve}, then starts or cancels the reservation. Reserved places
+ * count against the lane's queue capacity.
+ *
+ * Lane spec (claims.lanes): name:weight:maxConcurrent:maxAmount[:TYPE|TYPE],
+ * comma separated and matched in order; maxAmount "*" means unlimited.
+ */
+public class ClaimScheduler {
+
+    public static final String DEFAULT_LANES = "express:6:16:10000:AUTO|HEALTH,standard:3:16:100000,large:1:4:*";
+
+    private final InsuranceClaimOrchestrator orchestrator;
+    private final List<SchedulingLane> lanes;
+    private final ExecutorService workers;
+    // Callers blocked in reserveWaiting, guarded by this
+    private int waitingForRoom;
+
+    public ClaimScheduler(InsuranceClaimOrchestrator orchestrator, List<SchedulingLane> lanes) {
+        if (lanes.isEmpty()) {
+            throw new IllegalArgumentException("At least one scheduling lane is required");
+        }
+        this.orchestrator = orchestrator;
+        this.lanes = Collections.unmodifiableList(new ArrayList<>(lanes));
+
+        // One worker per concurrency slot, so a dispatched task never waits for a thread
+        int threads = 0;
+        for (SchedulingLane lane : lanes) {
+            threads += lane.getMaxConcurrent();
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "claim-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Scheduler with lanes from claims.lanes / claims.lanes.queueCapacity
+     */
+    public static ClaimScheduler fromSystemProperties(InsuranceClaimOrchestrator orchestrator) {
+        return new ClaimScheduler(orchestrator, parseLanes(
+                System.getProperty("claims.lanes", DEFAULT_LANES),
+                Integer.getInteger("claims.lanes.queueCapacity", 1000)));
+    }
+
+    /**
+     * Parse a lane spec; see the class comment for the format
+     */
+    public static List<SchedulingLane> parseLanes(String spec, int queueCapacity) {
+        List<SchedulingLane> lanes = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] fields = part.trim().split(":");
+            if (fields.length < 4 || fields.length > 5) {
+                throw new IllegalArgumentException("Invalid lane spec: " + part);
+            }
+            double maxAmount = "*".equals(fields[3].trim())
+                    ? Double.POSITIVE_INFINITY : Double.parseDouble(fields[3].trim());
+            Set<String> types = new HashSet<>();
+            if (fields.length == 5) {
+                for (String type : fields[4].split("\\|")) {
+                    types.add(type.trim().toUpperCase());
+                }
+            }
+            lanes.add(new SchedulingLane(fields[0].trim(), Integer.parseInt(fields[1].trim()),
+                    Integer.parseInt(fields[2].trim()), queueCapacity, maxAmount, types));
+        }
+        return lanes;
+    }
+
+    /**
+     * Queue a claim for processing
+     *
+     * @param priority lane name requested by the caller, or null to classify by amount and type
+     * @throws RejectedExecutionException if the lane's queue is full
+     */
+    public CompletableFuture<ClaimResponse> submit(ClaimRequest request, String priority) {
+        return reserve(request, priority).start();
+    }
+
+    /**
+     * Reserve a place for a claim in its lane without queuing it yet
+     *
+     * @param priority lane name requested by the caller, or null to classify by amount and type
+     * @throws RejectedExecutionException if the lane's queue is full
+     */
+    public Reservation reserve(ClaimRequest request, String priority) {
+        SchedulingLane lane = laneFor(request, priority);
+        synchronized (this) {
+            if (lane.queue.size() + lane.reserved >= lane.getQueueCapacity()) {
+                lane.recordRejected();
+                throw new RejectedExecutionException("Lane " + lane.getName() + " is full ("
+                        + lane.getQueueCapacity() + " queued claims)");
+            }
+            lane.reserved++;
+        }
+        return new Reservation(request, lane);
+    }
+
+    /**
+     * Reserve a place for a claim, waiting until its lane has room instead of rejecting it
+     */
+    public Reservation reserveWaiting(ClaimRequest request, String priority) throws InterruptedException {
+        SchedulingLane lane = laneFor(request, priority);
+        synchronized (this) {
+            waitingForRoom++;
+            try {
+                while (lane.queue.size() + lane.reserved >= lane.getQueueCapacity()) {
+                    wait();
+                }
+            } finally {
+                waitingForRoom--;
+            }
+            lane.reserved++;
+        }
+        return new Reservation(request, lane);
+    }
+
+    /**
+     * Lane for a claim: the named lane if it exists, else the first matching one, else the last
+     */
+    public SchedulingLane laneFor(ClaimRequest request, String priority) {
+        if (priority != null) {
+            for (SchedulingLane lane : lanes) {
+                if (lane.getName().equalsIgnoreCase(priority.trim())) {
+                    return lane;
+                }
+            }
+        }
+        for (SchedulingLane lane : lanes) {
+            if (lane.matches(request)) {
+                return lane;
+            }
+        }
+        return lanes.get(lanes.size() - 1);
+    }
+
+    public List<SchedulingLane> getLanes() {
+        return lanes;
+    }
+
+    public synchronized int getQueued(SchedulingLane lane) {
+        return lane.queue.size();
+    }
+
+    public synchronized int getRunning(SchedulingLane lane) {
+        return lane.running;
+    }
+
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("ClaimScheduler{");
+        for (SchedulingLane lane : lanes) {
+            sb.append(lane.getName()).append(": queued=").append(lane.queue.size())
+                    .append(", running=").append(lane.running)
+                    .append(", meanWaitMs=").append(String.format("%.2f", lane.getMeanWaitMillis()))
+                    .append("; ");
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Start queued claims while some lane has both work and a free slot.
+     * Caller holds the lock.
+     */
+    private void dispatch() {
+        while (true) {
+            SchedulingLane lane = pickLane();
+            if (lane == null) {
+                return;
+            }
+            roomFreed();
+            Task task = lane.queue.pollFirst();
+            lane.running++;
+            lane.recordStart(System.nanoTime() - task.enqueuedNanos);
+            workers.execute(() -> run(task));
+        }
+    }
+
+    /**
+     * Wake callers waiting for a place in a lane. Caller holds the lock.
+     */
+    private void roomFreed() {
+        if (waitingForRoom > 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Smooth weighted round robin over the lanes that can start a claim now
+     */
+    private SchedulingLane pickLane() {
+        SchedulingLane best = null;
+        int totalWeight = 0;
+        for (SchedulingLane lane : lanes) {
+            if (lane.queue.isEmpty() || lane.running >= lane.getMaxConcurrent()) {
+                continue;
+            }
+            lane.currentWeight += lane.getWeight();
+            totalWeight += lane.getWeight();
+            if (best == null || lane.currentWeight > best.currentWeight) {
+                best = lane;
+            }
+        }
+        if (best != null) {
+            best.currentWeight -= totalWeight;
+        }
+        return best;
+    }
+
+    private void run(Task task) {
+        // Continue the submitter's trace on this worker thread
+        try (Tracer.Scope ignored = Tracer.activate(task.trace)) {
+            Tracer.recordSpan("scheduler.queue/" + task.lane.getName(), task.enqueuedNanos, System.nanoTime());
+            task.future.complete(orchestrator.processClaim(task.request));
+        } catch (Throwable t) {
+            task.future.completeExceptionally(t);
+        } finally {
+            task.lane.recordCompleted();
+            synchronized (this) {
+                task.lane.running--;
+                dispatch();
+            }
+        }
+    }
+
+    /**
+     * A place held in a lane; exactly one of {@link #start} or {@link #cancel} takes effect
+     */
+    public final class Reservation {
+        private final ClaimRequest request;
+        private final SchedulingLane lane;
+        private boolean done;
+
+        private Reservation(ClaimRequest request, SchedulingLane lane) {
+            this.request = request;
+            this.lane = lane;
+        }
+
+        public SchedulingLane getLane() {
+            return lane;
+        }
+
+        /**
+         * Queue the claim in the reserved place
+         *
+         * @return the claim's result
+         */
+        public CompletableFuture<ClaimResponse> start() {
+            // Created on the caller's thread, which carries the trace
+            Task task = new Task(request, lane);
+            synchronized (ClaimScheduler.this) {
+                if (done) {
+                    throw new IllegalStateException("Reservation already used");
+                }
+                done = true;
+                lane.reserved--;
+                lane.queue.addLast(task);
+                dispatch();
+            }
+            return task.future;
+        }
+
+        /**
+         * Give the place back without queuing anything; no effect after start
+         */
+        public void cancel() {
+            synchronized (ClaimScheduler.this) {
+                if (!done) {
+                    done = true;
+                    lane.reserved--;
+                    roomFreed();
+                }
+            }
+        }
+    }
+
+    /**
+     * A queued claim
+     */
+    static final class Task {
+        final ClaimRequest request;
+        final SchedulingLane lane;
+        final long enqueuedNanos = System.nanoTime();
+        final TraceContext trace = Tracer.current();
+        final CompletableFuture<ClaimResponse> future = new CompletableFuture<>();
+
+        Task(ClaimRequest request, SchedulingLane lane) {
+            this.request = request;
+            this.lane = lane;
+        }
+    }
+}
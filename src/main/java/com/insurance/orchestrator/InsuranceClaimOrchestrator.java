@@ -4,8 +4,21 @@ import com.insurance.dto.ClaimRequest;
 import com.insurance.dto.ClaimResponse;
 import com.insurance.grpc.FraudDetectionClient;
 import com.insurance.grpc.proto.FraudResponse;
+import com.insurance.logging.EventLog;
+import com.insurance.metrics.Counter;
+import com.insurance.metrics.LatencyHistogram;
+import com.insurance.metrics.MetricsRegistry;
+import com.insurance.status.ClaimProgressListener;
+import com.insurance.status.ClaimState;
+import com.insurance.tracing.Span;
+import com.insurance.tracing.TraceContext;
+import com.insurance.tracing.Tracer;
+import com.insurance.soap.IdentityCheck;
 import com.insurance.soap.IdentityVerificationService;
+import com.insurance.soap.IdentityVerifier;
+import com.insurance.soap.IdentityVerifiers;
 import com.insurance.soap.VerificationResult;
+import com.insurance.graphql.CachingDocumentProvider;
 import com.insurance.graphql.PolicyDataFetcher;
 import com.insurance.graphql.ValidationResult;
 
@@ -19,7 +32,10 @@ import graphql.schema.idl.TypeDefinitionRegistry;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
@@ -30,22 +46,45 @@ import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
  */
 public class InsuranceClaimOrchestrator {
 
-    private IdentityVerificationService soapService;
+    private static final String MOCK_NAME = "John Doe";
+    private static final String MOCK_DOCUMENT_ID = "ID12345678";
+
+    // Metrics (shared by all orchestrator instances). Warm-up claims are
+    // recorded in a registry of their own that is never exported.
+    private static final String STAGE_METRIC = "claim_stage_duration_seconds";
+    private static final String STAGE_HELP = "Time spent in each claim processing stage";
+    private static final String OUTCOME_METRIC = "claim_outcomes_total";
+    private static final String OUTCOME_HELP = "Claim processing outcomes by status and rejection reason";
+
+    private static final PipelineMetrics METRICS = new PipelineMetrics(MetricsRegistry.shared());
+    private static final PipelineMetrics WARMUP_METRICS = new PipelineMetrics(new MetricsRegistry());
+
+    private IdentityVerifier identityVerifier;
     private FraudDetectionClient grpcClient;
     private GraphQL graphQL;
+    private volatile ClaimProgressListener progressListener = ClaimProgressListener.NONE;
 
     public InsuranceClaimOrchestrator() {
-        // Initialize SOAP service
-        this.soapService = new IdentityVerificationService();
+        this(IdentityVerifiers.getDefault());
+    }
+
+    /**
+     * @param identityVerifier SOAP identity verification client (in-process or remote)
+     */
+    public InsuranceClaimOrchestrator(IdentityVerifier identityVerifier) {
+        this(identityVerifier, connectFraudDetection());
+    }
+
+    /**
+     * @param identityVerifier SOAP identity verification client (in-process or remote)
+     * @param grpcClient fraud detection client, or null to skip fraud checks
+     */
+    public InsuranceClaimOrchestrator(IdentityVerifier identityVerifier, FraudDetectionClient grpcClient) {
+        // Initialize SOAP client
+        this.identityVerifier = identityVerifier;
 
         // Initialize gRPC client
-        try {
-            this.grpcClient = new FraudDetectionClient("localhost", 50051);
-        } catch (Exception e) {
-            System.err.println("Warning: gRPC server not available. Fraud detection will be skipped.");
-            System.err.println("Please start gRPC server using start-grpc-server.bat");
-            this.grpcClient = null;
-        }
+        this.grpcClient = grpcClient;
 
         // Initialize GraphQL
         try {
@@ -56,13 +95,128 @@ public class InsuranceClaimOrchestrator {
         }
     }
 
+    /**
+     * Orchestrator shared by the web application (REST resources, startup warm-up)
+     */
+    public static InsuranceClaimOrchestrator shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    private static final class SharedHolder {
+        static final InsuranceClaimOrchestrator INSTANCE = new InsuranceClaimOrchestrator();
+    }
+
+    /**
+     * Report stage transitions and decisions of every claim to the listener
+     */
+    public void setProgressListener(ClaimProgressListener listener) {
+        this.progressListener = listener != null ? listener : ClaimProgressListener.NONE;
+    }
+
+    /**
+     * Latency histograms and outcome counters of the pipeline in one registry
+     */
+    private static final class PipelineMetrics {
+        final LatencyHistogram pipelineTime;
+        final LatencyHistogram identityTime;
+        final LatencyHistogram fraudTime;
+        final LatencyHistogram policyTime;
+        final Counter approved;
+        final Counter rejectedIdentity;
+        final Counter rejectedFraud;
+        final Counter rejectedPolicy;
+        final Counter error;
+
+        PipelineMetrics(MetricsRegistry registry) {
+            pipelineTime = registry.histogram("claim_processing_duration_seconds", "End-to-end claim processing time");
+            identityTime = registry.histogram(STAGE_METRIC, STAGE_HELP, "stage", "identity_verification");
+            fraudTime = registry.histogram(STAGE_METRIC, STAGE_HELP, "stage", "fraud_detection");
+            policyTime = registry.histogram(STAGE_METRIC, STAGE_HELP, "stage", "policy_validation");
+            approved = registry.counter(OUTCOME_METRIC, OUTCOME_HELP, "status", "APPROVED", "reason", "none");
+            rejectedIdentity = registry.counter(OUTCOME_METRIC, OUTCOME_HELP, "status", "REJECTED", "reason", "identity");
+            rejectedFraud = registry.counter(OUTCOME_METRIC, OUTCOME_HELP, "status", "REJECTED", "reason", "fraud");
+            rejectedPolicy = registry.counter(OUTCOME_METRIC, OUTCOME_HELP, "status", "REJECTED", "reason", "policy");
+            error = registry.counter(OUTCOME_METRIC, OUTCOME_HELP, "status", "ERROR", "reason", "exception");
+        }
+    }
+
+    /**
+     * Connect to the fraud detection gRPC server on localhost
+     */
+    private static FraudDetectionClient connectFraudDetection() {
+        try {
+            return new FraudDetectionClient("localhost", 50051);
+        } catch (Exception e) {
+            System.err.println("Warning: gRPC server not available. Fraud detection will be skipped.");
+            System.err.println("Please start gRPC server using start-grpc-server.bat");
+            return null;
+        }
+    }
+
     /**
      * Process insurance claim through all services
      */
     public ClaimResponse processClaim(ClaimRequest request) {
-        System.out.println("\n" + "=".repeat(70));
-        System.out.println("ORCHESTRATOR: Starting Claim Processing Pipeline");
-        System.out.println("=".repeat(70));
+        return processClaim(request, null, METRICS);
+    }
+
+    /**
+     * Process a synthetic claim through all services without counting it in
+     * the exported claim metrics
+     */
+    public ClaimResponse processWarmupClaim(ClaimRequest request) {
+        return processClaim(request, null, WARMUP_METRICS);
+    }
+
+    /**
+     * Process a batch of claims.
+     * Identities are verified with one verifyIdentities call per chunk of at
+     * most -Didentity.batch.maxSize claims (the service rejects larger
+     * batches); the remaining steps run per claim.
+     */
+    public List<ClaimResponse> processClaims(List<ClaimRequest> requests) {
+        List<ClaimResponse> responses = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += IdentityVerificationService.MAX_BATCH_SIZE) {
+            List<ClaimRequest> chunk = requests.subList(from,
+                    Math.min(requests.size(), from + IdentityVerificationService.MAX_BATCH_SIZE));
+            IdentityCheck[] checks = new IdentityCheck[chunk.size()];
+            for (int i = 0; i < checks.length; i++) {
+                checks[i] = new IdentityCheck(chunk.get(i).getUserId(), MOCK_NAME, MOCK_DOCUMENT_ID);
+            }
+
+            VerificationResult[] verifications = null;
+            try {
+                verifications = identityVerifier.verifyIdentities(checks);
+            } catch (Exception e) {
+                EventLog.warn("claim.batch.identityFailed", "claims", checks.length, "error", e.getMessage(),
+                        "fallback", "per-claim verification");
+            }
+
+            for (int i = 0; i < checks.length; i++) {
+                responses.add(processClaim(chunk.get(i), verifications != null ? verifications[i] : null, METRICS));
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Process a claim, using an already obtained identity verification result if given
+     */
+    private ClaimResponse processClaim(ClaimRequest request, VerificationResult preVerified, PipelineMetrics metrics) {
+        long start = System.nanoTime();
+        try (Span span = Tracer.startSpan("orchestrator.processClaim")) {
+            span.setAttribute("claimId", request.getClaimId());
+            ClaimResponse response = runPipeline(request, preVerified, metrics);
+            span.setAttribute("status", response.getStatus());
+            progressListener.onDecision(response);
+            return response;
+        } finally {
+            metrics.pipelineTime.recordSince(start);
+        }
+    }
+
+    private ClaimResponse runPipeline(ClaimRequest request, VerificationResult preVerified, PipelineMetrics metrics) {
+        EventLog.info("claim.pipeline.start", "claimId", request.getClaimId());
 
         ClaimResponse response = new ClaimResponse();
         response.setClaimId(request.getClaimId());
@@ -70,29 +224,35 @@ public class InsuranceClaimOrchestrator {
 
         try {
             // Step 1: Identity Verification (SOAP)
-            System.out.println("\n[Step 1/3] Identity Verification (SOAP Service)");
-            VerificationResult verificationResult = soapService.verifyIdentity(
-                    request.getUserId(),
-                    "John Doe", // Mock name
-                    "ID12345678" // Mock document ID
-            );
+            progressListener.onStage(request.getClaimId(), ClaimState.VERIFYING);
+            VerificationResult verificationResult = preVerified;
+            if (verificationResult == null) {
+                long stageStart = System.nanoTime();
+                try (Span ignored = Tracer.startSpan("stage.identity_verification")) {
+                    verificationResult = identityVerifier.verifyIdentity(request.getUserId(), MOCK_NAME, MOCK_DOCUMENT_ID);
+                } finally {
+                    metrics.identityTime.recordSince(stageStart);
+                }
+            }
 
             response.setIdentityVerified(verificationResult.isVerified());
 
             if (!verificationResult.isVerified()) {
                 response.setStatus("REJECTED");
                 response.setMessage("Identity verification failed: " + verificationResult.getMessage());
-                System.out.println("❌ Claim rejected: Identity verification failed");
+                EventLog.info("claim.rejected", "claimId", request.getClaimId(), "reason", "identity");
+                metrics.rejectedIdentity.increment();
                 return response;
             }
-            System.out.println("✓ Identity verified successfully");
+            EventLog.debug("claim.identity.verified", "claimId", request.getClaimId());
 
             // Step 2: Fraud Detection (gRPC)
-            System.out.println("\n[Step 2/3] Fraud Detection (gRPC Service)");
             boolean fraudCheckPassed = true;
+            progressListener.onStage(request.getClaimId(), ClaimState.SCORING);
 
             if (grpcClient != null) {
-                try {
+                long stageStart = System.nanoTime();
+                try (Span ignored = Tracer.startSpan("stage.fraud_detection")) {
                     FraudResponse fraudResult = grpcClient.analyzeClaim(
                             request.getClaimId(),
                             request.getUserId(),
@@ -108,27 +268,32 @@ public class InsuranceClaimOrchestrator {
                     if (fraudResult.getIsFraudulent()) {
                         response.setStatus("REJECTED");
                         response.setMessage("Fraud detected: " + fraudResult.getExplanation());
-                        System.out.println("❌ Claim rejected: Fraud detected (Risk: " +
-                                fraudResult.getRiskLevel() + ")");
+                        EventLog.info("claim.rejected", "claimId", request.getClaimId(), "reason", "fraud",
+                                "riskLevel", fraudResult.getRiskLevel());
+                        metrics.rejectedFraud.increment();
                         return response;
                     }
-                    System.out.println("✓ Fraud check passed (Risk: " + fraudResult.getRiskLevel() + ")");
+                    EventLog.debug("claim.fraud.passed", "claimId", request.getClaimId(),
+                            "riskLevel", fraudResult.getRiskLevel());
 
                 } catch (Exception e) {
-                    System.err.println("⚠ gRPC call failed: " + e.getMessage());
-                    System.err.println("⚠ Proceeding without fraud check");
+                    EventLog.warn("claim.fraud.unavailable", "claimId", request.getClaimId(),
+                            "error", e.getMessage(), "fallback", "skip fraud check");
+                } finally {
+                    metrics.fraudTime.recordSince(stageStart);
                 }
             } else {
-                System.out.println("⚠ gRPC service unavailable - skipping fraud check");
+                EventLog.debug("claim.fraud.skipped", "claimId", request.getClaimId());
                 response.setFraudCheckPassed(true);
             }
 
             // Step 3: Policy Validation (GraphQL)
-            System.out.println("\n[Step 3/3] Policy Validation (GraphQL Service)");
             String policyStatus = "VALID";
+            progressListener.onStage(request.getClaimId(), ClaimState.VALIDATING);
 
             if (graphQL != null) {
-                try {
+                long stageStart = System.nanoTime();
+                try (Span ignored = Tracer.startSpan("stage.policy_validation")) {
                     ValidationResult policyResult = validatePolicyViaGraphQL(
                             "POL-001", // Mock policy ID
                             request.getClaimAmount()
@@ -140,39 +305,66 @@ public class InsuranceClaimOrchestrator {
                     if (!policyResult.isValid()) {
                         response.setStatus("REJECTED");
                         response.setMessage("Policy validation failed: " + policyResult.getMessage());
-                        System.out.println("❌ Claim rejected: " + policyResult.getMessage());
+                        EventLog.info("claim.rejected", "claimId", request.getClaimId(), "reason", "policy",
+                                "detail", policyResult.getMessage());
+                        metrics.rejectedPolicy.increment();
                         return response;
                     }
-                    System.out.println("✓ Policy validated successfully");
+                    EventLog.debug("claim.policy.valid", "claimId", request.getClaimId());
 
                 } catch (Exception e) {
-                    System.err.println("⚠ GraphQL call failed: " + e.getMessage());
-                    System.err.println("⚠ Proceeding with default policy validation");
+                    EventLog.warn("claim.policy.unavailable", "claimId", request.getClaimId(),
+                            "error", e.getMessage(), "fallback", "default policy validation");
                     response.setPolicyStatus("VALID");
+                } finally {
+                    metrics.policyTime.recordSince(stageStart);
                 }
             } else {
-                System.out.println("⚠ GraphQL service unavailable - using default validation");
+                EventLog.debug("claim.policy.skipped", "claimId", request.getClaimId());
                 response.setPolicyStatus("VALID");
             }
 
             // All checks passed
             response.setStatus("APPROVED");
             response.setMessage("Claim approved successfully");
+            metrics.approved.increment();
 
-            System.out.println("\n" + "=".repeat(70));
-            System.out.println("✓ CLAIM APPROVED - All validation checks passed");
-            System.out.println("=".repeat(70));
+            EventLog.info("claim.approved", "claimId", request.getClaimId());
 
         } catch (Exception e) {
-            e.printStackTrace();
             response.setStatus("ERROR");
             response.setMessage("Error processing claim: " + e.getMessage());
-            System.out.println("\n❌ Error processing claim: " + e.getMessage());
+            metrics.error.increment();
+            EventLog.error("claim.failed", e, "claimId", request.getClaimId());
         }
 
         return response;
     }
 
+    /**
+     * Status of the identity verification service; throws if it cannot be reached
+     */
+    public String checkIdentityService() {
+        return identityVerifier.getServiceStatus();
+    }
+
+    /**
+     * Whether the fraud detection gRPC server answers within the timeout
+     */
+    public boolean isFraudDetectionServing(long timeoutMs) {
+        return grpcClient != null && grpcClient.isServing(timeoutMs);
+    }
+
+    /**
+     * Run one policy validation through the embedded GraphQL engine; throws if it fails
+     */
+    public String checkPolicyValidation() {
+        if (graphQL == null) {
+            throw new IllegalStateException("GraphQL engine not initialized");
+        }
+        return validatePolicyViaGraphQL("POL-001", 1.0).getStatus();
+    }
+
     /**
      * Validate policy using GraphQL
      */
@@ -187,12 +379,14 @@ public class InsuranceClaimOrchestrator {
         variables.put("policyId", policyId);
         variables.put("claimAmount", claimAmount);
 
-        ExecutionResult result = graphQL.execute(
-                graphql.ExecutionInput.newExecutionInput()
-                        .query(query)
-                        .variables(variables)
-                        .build()
-        );
+        graphql.ExecutionInput.Builder input = graphql.ExecutionInput.newExecutionInput()
+                .query(query)
+                .variables(variables);
+        TraceContext trace = Tracer.current();
+        if (trace != null) {
+            input.graphQLContext(Collections.singletonMap(PolicyDataFetcher.TRACE_CONTEXT_KEY, trace));
+        }
+        ExecutionResult result = graphQL.execute(input.build());
 
         @SuppressWarnings("unchecked")
         Map<String, Object> data = (Map<String, Object>) result.getData();
@@ -230,14 +424,17 @@ public class InsuranceClaimOrchestrator {
 
         RuntimeWiring runtimeWiring = newRuntimeWiring()
                 .type("Query", builder -> builder
-                        .dataFetcher("validatePolicy", PolicyDataFetcher.validatePolicy()))
+                        .dataFetcher("validatePolicy",
+                                PolicyDataFetcher.traced("validatePolicy", PolicyDataFetcher.validatePolicy())))
                 .build();
 
         SchemaGenerator schemaGenerator = new SchemaGenerator();
         GraphQLSchema graphQLSchema = schemaGenerator.makeExecutableSchema(
                 typeDefinitionRegistry, runtimeWiring);
 
-        return GraphQL.newGraphQL(graphQLSchema).build();
+        return GraphQL.newGraphQL(graphQLSchema)
+                .preparsedDocumentProvider(new CachingDocumentProvider(16))
+                .build();
     }
 
     /**
@@ -0,0 +1,127 @@
+package com.insurance.orchestrator;
+
+import com.insurance.dto.ClaimRequest;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One priority lane of the {@link ClaimScheduler}.
+ *
+ * A claim belongs to the first lane whose amount ceiling and claim types
+ * match. Queue and counters are guarded by the scheduler's lock; the
+ * metrics can be read from any thread.
+ */
+public class SchedulingLane {
+
+    private final String name;
+    private final int weight;
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final double maxAmount;
+    private final Set<String> claimTypes;
+
+    // Guarded by the scheduler; a circular array sized up front, so queuing never reallocates
+    final ArrayDeque<ClaimScheduler.Task> queue;
+    int reserved;
+    int running;
+    int currentWeight;
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public SchedulingLane(String name, int weight, int maxConcurrent, int queueCapacity,
+                          double maxAmount, Set<String> claimTypes) {
+        if (weight < 1 || maxConcurrent < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Lane " + name + ": weight, concurrency and capacity must be at least 1");
+        }
+        this.name = name;
+        this.weight = weight;
+        this.maxConcurrent = maxConcurrent;
+        this.queueCapacity = queueCapacity;
+        this.queue = new ArrayDeque<>(queueCapacity);
+        this.maxAmount = maxAmount;
+        this.claimTypes = Collections.unmodifiableSet(new HashSet<>(claimTypes));
+    }
+
+    /**
+     * Whether a claim falls into this lane by amount and type
+     */
+    public boolean matches(ClaimRequest request) {
+        if (request.getClaimAmount() > maxAmount) {
+            return false;
+        }
+        return claimTypes.isEmpty()
+                || (request.getClaimType() != null && claimTypes.contains(request.getClaimType().toUpperCase()));
+    }
+
+    void recordStart(long waitNanos) {
+        started.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    void recordCompleted() {
+        completed.increment();
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Mean time claims waited in this lane before processing started
+     */
+    public double getMeanWaitMillis() {
+        long count = started.sum();
+        return count == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return "SchedulingLane{" +
+                "name='" + name + '\'' +
+                ", weight=" + weight +
+                ", maxConcurrent=" + maxConcurrent +
+                ", completed=" + getCompleted() +
+                ", rejected=" + getRejected() +
+                ", meanWaitMs=" + String.format("%.2f", getMeanWaitMillis()) +
+                ", maxWaitMs=" + String.format("%.2f", getMaxWaitMillis()) +
+                '}';
+    }
+}
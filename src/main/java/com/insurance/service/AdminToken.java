@@ -0,0 +1,53 @@
+package com.insurance.service;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+
+/**
+ * Bearer token check for admin endpoints.
+ * The token is a system property; when it is not set the endpoint is
+ * disabled rather than open.
+ */
+final class AdminToken {
+
+    private AdminToken() {
+    }
+
+    /**
+     * Refusal for a request not carrying "Authorization: Bearer <token>"
+     * matching the given property, or null if the request may proceed
+     *
+     * @param authorization the request's Authorization header
+     * @param property system property holding the token
+     * @param action what the token guards, for the 403 message
+     */
+    static Response refusal(String authorization, String property, String action) {
+        String adminToken = System.getProperty(property);
+        if (adminToken == null || adminToken.isEmpty()) {
+            return Response.status(Response.Status.FORBIDDEN)
+                    .entity(Collections.singletonMap("error",
+                            action + " is disabled; set " + property + " to enable it"))
+                    .build();
+        }
+        if (!isAuthorized(authorization, adminToken)) {
+            return Response.status(Response.Status.UNAUTHORIZED)
+                    .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+                    .entity(Collections.singletonMap("error", "Admin token required"))
+                    .build();
+        }
+        return null;
+    }
+
+    private static boolean isAuthorized(String authorization, String adminToken) {
+        String prefix = "Bearer ";
+        if (authorization == null || !authorization.regionMatches(true, 0, prefix, 0, prefix.length())) {
+            return false;
+        }
+        byte[] presented = authorization.substring(prefix.length()).trim().getBytes(StandardCharsets.UTF_8);
+        // Constant-time comparison, so the token cannot be guessed byte by byte from response times
+        return MessageDigest.isEqual(presented, adminToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,74 @@
+package com.insurance.service;
+
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runtime configuration of claim intake admission control
+ * Endpoint: /api/admin/admission
+ *
+ * Reading is open. Changing the limits requires
+ * "Authorization: Bearer <token>" matching -Dadmission.admin.token; without
+ * that property updates are refused.
+ */
+@Path("/admin/admission")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class AdmissionAdminService {
+
+    /**
+     * Current limits
+     * GET /api/admin/admission
+     */
+    @GET
+    public AdmissionConfig getConfig() {
+        return AdmissionController.shared().getConfig();
+    }
+
+    /**
+     * Replace the limits
+     * PUT /api/admin/admission
+     */
+    @PUT
+    public Response updateConfig(@HeaderParam(HttpHeaders.AUTHORIZATION) String authorization,
+                                 AdmissionConfig config) {
+        Response refusal = AdminToken.refusal(authorization, "admission.admin.token", "Admission updates");
+        if (refusal != null) {
+            return refusal;
+        }
+        if (config == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Collections.singletonMap("error", "Admission config is required"))
+                    .build();
+        }
+        try {
+            AdmissionController.shared().updateConfig(config);
+            return Response.ok(config).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Collections.singletonMap("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    /**
+     * Admission counters
+     * GET /api/admin/admission/stats
+     */
+    @GET
+    @Path("/stats")
+    public Map<String, Object> getStatistics() {
+        AdmissionController controller = AdmissionController.shared();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", controller.getInFlight());
+        stats.put("trackedKeys", controller.getTrackedKeys());
+        stats.put("admitted", controller.getAdmitted());
+        stats.put("rejected", controller.getRejected());
+        return stats;
+    }
+}
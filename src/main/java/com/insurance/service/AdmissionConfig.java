@@ -0,0 +1,130 @@
+package com.insurance.service;
+
+/**
+ * Admission control limits for claim intake.
+ * Read and replaced at runtime through /api/admin/admission.
+ */
+public class AdmissionConfig {
+    private boolean enabled;
+    private double userRatePerSecond;
+    private int userBurst;
+    private double clientRatePerSecond;
+    private int clientBurst;
+    private int maxConcurrent;
+    private int maxTrackedKeys;
+    private long idleEvictSeconds;
+
+    // Default constructor
+    public AdmissionConfig() {
+    }
+
+    /**
+     * Initial limits from system properties (admission.*)
+     */
+    public static AdmissionConfig fromSystemProperties() {
+        AdmissionConfig config = new AdmissionConfig();
+        config.setEnabled(Boolean.parseBoolean(System.getProperty("admission.enabled", "true")));
+        config.setUserRatePerSecond(Double.parseDouble(System.getProperty("admission.userRatePerSecond", "5")));
+        config.setUserBurst(Integer.getInteger("admission.userBurst", 10));
+        config.setClientRatePerSecond(Double.parseDouble(System.getProperty("admission.clientRatePerSecond", "200")));
+        config.setClientBurst(Integer.getInteger("admission.clientBurst", 400));
+        config.setMaxConcurrent(Integer.getInteger("admission.maxConcurrent", 64));
+        config.setMaxTrackedKeys(Integer.getInteger("admission.maxTrackedKeys", 100000));
+        config.setIdleEvictSeconds(Long.getLong("admission.idleEvictSeconds", 600));
+        return config;
+    }
+
+    /**
+     * Reject nonsensical limits
+     */
+    public void validate() {
+        if (userRatePerSecond <= 0 || clientRatePerSecond <= 0) {
+            throw new IllegalArgumentException("Rates must be positive");
+        }
+        if (userBurst < 1 || clientBurst < 1 || maxConcurrent < 1 || maxTrackedKeys < 1) {
+            throw new IllegalArgumentException("Bursts, maxConcurrent and maxTrackedKeys must be at least 1");
+        }
+        if (idleEvictSeconds < 1) {
+            throw new IllegalArgumentException("idleEvictSeconds must be at least 1");
+        }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getUserRatePerSecond() {
+        return userRatePerSecond;
+    }
+
+    public void setUserRatePerSecond(double userRatePerSecond) {
+        this.userRatePerSecond = userRatePerSecond;
+    }
+
+    public int getUserBurst() {
+        return userBurst;
+    }
+
+    public void setUserBurst(int userBurst) {
+        this.userBurst = userBurst;
+    }
+
+    public double getClientRatePerSecond() {
+        return clientRatePerSecond;
+    }
+
+    public void setClientRatePerSecond(double clientRatePerSecond) {
+        this.clientRatePerSecond = clientRatePerSecond;
+    }
+
+    public int getClientBurst() {
+        return clientBurst;
+    }
+
+    public void setClientBurst(int clientBurst) {
+        this.clientBurst = clientBurst;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public int getMaxTrackedKeys() {
+        return maxTrackedKeys;
+    }
+
+    public void setMaxTrackedKeys(int maxTrackedKeys) {
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+
+    public long getIdleEvictSeconds() {
+        return idleEvictSeconds;
+    }
+
+    public void setIdleEvictSeconds(long idleEvictSeconds) {
+        this.idleEvictSeconds = idleEvictSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "AdmissionConfig{" +
+                "enabled=" + enabled +
+                ", userRatePerSecond=" + userRatePerSecond +
+                ", userBurst=" + userBurst +
+                ", clientRatePerSecond=" + clientRatePerSecond +
+                ", clientBurst=" + clientBurst +
+                ", maxConcurrent=" + maxConcurrent +
+                ", maxTrackedKeys=" + maxTrackedKeys +
+                ", idleEvictSeconds=" + idleEvictSeconds +
+                '}';
+    }
+}
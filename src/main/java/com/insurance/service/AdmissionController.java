@@ -0,0 +1,206 @@
+package com.insurance.service;
+
+import com.insurance.cache.BoundedCache;
+import com.insurance.logging.EventLog;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for claim intake.
+ *
+ * A submission must pass, in order: the token bucket of its API client, the
+ * token bucket of its userId, and a global cap on claims being processed at
+ * once. An asynchronous submission holds its place under the cap until its
+ * claim is decided, not just while the request runs. Tokens taken by an
+ * earlier check are refunded when a later one rejects, so a rejected
+ * submission costs nothing. Rejections are decided without blocking and
+ * carry a Retry-After hint. Buckets live in {@link BoundedCache}s: the
+ * least recently used bucket is dropped once maxTrackedKeys is reached, and
+ * idle buckets are swept from the least recently used end. Limits can be
+ * replaced at runtime with {@link #updateConfig}.
+ */
+public class AdmissionController {
+
+    private static final AdmissionController SHARED = new AdmissionController(AdmissionConfig.fromSystemProperties());
+
+    private volatile AdmissionConfig config;
+
+    private final BoundedCache<String, TokenBucket> userBuckets;
+    private final BoundedCache<String, TokenBucket> clientBuckets;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedByUser = new LongAdder();
+    private final LongAdder rejectedByClient = new LongAdder();
+    private final LongAdder rejectedByConcurrency = new LongAdder();
+
+    public AdmissionController(AdmissionConfig config) {
+        config.validate();
+        this.config = config;
+        this.userBuckets = new BoundedCache<>(config.getMaxTrackedKeys());
+        this.clientBuckets = new BoundedCache<>(config.getMaxTrackedKeys());
+    }
+
+    /**
+     * Controller shared by the claim resources
+     */
+    public static AdmissionController shared() {
+        return SHARED;
+    }
+
+    /**
+     * Outcome of an admission check
+     */
+    public static final class Decision {
+        static final Decision ADMITTED = new Decision(true, null, 0);
+
+        private final boolean admitted;
+        private final String reason;
+        private final long retryAfterSeconds;
+
+        Decision(boolean admitted, String reason, long retryAfterSeconds) {
+            this.admitted = admitted;
+            this.reason = reason;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public boolean isAdmitted() {
+            return admitted;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    /**
+     * Check rate limits and take a concurrency slot.
+     * An admitted caller must call {@link #release()} when done.
+     */
+    public Decision tryAdmit(String userId, String clientId) {
+        AdmissionConfig current = config;
+        if (!current.isEnabled()) {
+            inFlight.incrementAndGet();
+            admitted.increment();
+            return Decision.ADMITTED;
+        }
+
+        long now = System.nanoTime();
+        sweepIfDue(now, current);
+
+        TokenBucket clientBucket = bucket(clientBuckets, clientId, now);
+        long wait = clientBucket.tryAcquire(now, current.getClientRatePerSecond(), current.getClientBurst());
+        if (wait > 0) {
+            rejectedByClient.increment();
+            return reject("Rate limit exceeded for client " + clientId, wait);
+        }
+
+        TokenBucket userBucket = bucket(userBuckets, userId, now);
+        wait = userBucket.tryAcquire(now, current.getUserRatePerSecond(), current.getUserBurst());
+        if (wait > 0) {
+            clientBucket.refund(current.getClientRatePerSecond());
+            rejectedByUser.increment();
+            return reject("Rate limit exceeded for user " + userId, wait);
+        }
+
+        while (true) {
+            int running = inFlight.get();
+            if (running >= current.getMaxConcurrent()) {
+                clientBucket.refund(current.getClientRatePerSecond());
+                userBucket.refund(current.getUserRatePerSecond());
+                rejectedByConcurrency.increment();
+                return reject("Too many claims in progress", TimeUnit.SECONDS.toNanos(1));
+            }
+            if (inFlight.compareAndSet(running, running + 1)) {
+                admitted.increment();
+                return Decision.ADMITTED;
+            }
+        }
+    }
+
+    /**
+     * Give back the concurrency slot of an admitted submission
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public AdmissionConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Replace all limits; takes effect for the next submission
+     */
+    public void updateConfig(AdmissionConfig newConfig) {
+        newConfig.validate();
+        userBuckets.setMaxEntries(newConfig.getMaxTrackedKeys());
+        clientBuckets.setMaxEntries(newConfig.getMaxTrackedKeys());
+        this.config = newConfig;
+        EventLog.info("admission.updated", "config", newConfig);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getTrackedKeys() {
+        return userBuckets.size() + clientBuckets.size();
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejected() {
+        return rejectedByUser.sum() + rejectedByClient.sum() + rejectedByConcurrency.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "AdmissionController{" +
+                "inFlight=" + getInFlight() +
+                ", trackedKeys=" + getTrackedKeys() +
+                ", admitted=" + getAdmitted() +
+                ", rejectedByUser=" + rejectedByUser.sum() +
+                ", rejectedByClient=" + rejectedByClient.sum() +
+                ", rejectedByConcurrency=" + rejectedByConcurrency.sum() +
+                ", evictions=" + (userBuckets.getEvictions() + clientBuckets.getEvictions()) +
+                '}';
+    }
+
+    private static Decision reject(String reason, long waitNanos) {
+        long seconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        return new Decision(false, reason, seconds);
+    }
+
+    private static TokenBucket bucket(BoundedCache<String, TokenBucket> buckets, String key, long now) {
+        String bucketKey = key != null ? key : "";
+        TokenBucket bucket = buckets.get(bucketKey, now);
+        if (bucket == null) {
+            bucket = buckets.compute(bucketKey, now, BoundedCache.NEVER,
+                    existing -> existing != null ? existing : new TokenBucket(now));
+        }
+        return bucket;
+    }
+
+    /**
+     * Drop idle buckets at most every quarter of the idle timeout
+     */
+    private void sweepIfDue(long now, AdmissionConfig current) {
+        long idleNanos = TimeUnit.SECONDS.toNanos(current.getIdleEvictSeconds());
+        long last = lastSweepNanos.get();
+        if (now - last >= idleNanos / 4 && lastSweepNanos.compareAndSet(last, now)) {
+            userBuckets.purge(now, bucket -> now - bucket.getLastUsedNanos() >= idleNanos);
+            clientBuckets.purge(now, bucket -> now - bucket.getLastUsedNanos() >= idleNanos);
+        }
+    }
+}
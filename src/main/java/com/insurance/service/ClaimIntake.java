@@ -0,0 +1,332 @@
+package com.insurance.service;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+import com.insurance.journal.ClaimJournal;
+import com.insurance.journal.JournalRecord;
+import com.insurance.logging.EventLog;
+import com.insurance.orchestrator.ClaimScheduler;
+import com.insurance.orchestrator.InsuranceClaimOrchestrator;
+import com.insurance.status.ClaimProgressListener;
+import com.insurance.status.ClaimState;
+import com.insurance.status.ClaimStatusStore;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The claim pipeline behind the REST resource: the orchestrator with its
+ * priority scheduler, the idempotency cache, the {@link ClaimJournal} and
+ * the {@link ClaimStatusStore}.
+ *
+ * A claim is journaled and durable before it may start, and its decision
+ * is durable before it is returned, shown by the status store or stored
+ * for idempotent replay. A claim turned away because its lane is full is
+ * shown as REJECTED and may be submitted again.
+ *
+ * {@link #recover} rebuilds the status store and the idempotency cache
+ * from the journal and queues undecided claims again; the StartupListener
+ * runs it before the application reports ready, and claims are not
+ * accepted until it has finished.
+ */
+public class ClaimIntake {
+
+    private final InsuranceClaimOrchestrator orchestrator;
+    private final ClaimScheduler scheduler;
+    private final IdempotentClaimCache idempotencyCache;
+    private final ClaimJournal journal;
+    private final ClaimStatusStore statusStore;
+
+    private volatile boolean recovered;
+
+    /**
+     * @param journal the claim journal, or null to run without one
+     */
+    public ClaimIntake(InsuranceClaimOrchestrator orchestrator, ClaimScheduler scheduler,
+                       IdempotentClaimCache idempotencyCache, ClaimJournal journal, ClaimStatusStore statusStore) {
+        this.orchestrator = orchestrator;
+        this.scheduler = scheduler;
+        this.idempotencyCache = idempotencyCache;
+        this.journal = journal;
+        this.statusStore = statusStore;
+        // Stages go straight to the status store; decisions are published here once durable
+        orchestrator.setProgressListener(new ClaimProgressListener() {
+            @Override
+            public void onStage(String claimId, ClaimState state) {
+                statusStore.onStage(claimId, state);
+            }
+
+            @Override
+            public void onDecision(ClaimResponse response) {
+            }
+        });
+    }
+
+    /**
+     * Intake shared by the claim resources and the startup listener
+     */
+    public static ClaimIntake shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    private static final class SharedHolder {
+        static final ClaimIntake INSTANCE = create();
+
+        private static ClaimIntake create() {
+            InsuranceClaimOrchestrator orchestrator = InsuranceClaimOrchestrator.shared();
+            return new ClaimIntake(orchestrator,
+                    ClaimScheduler.fromSystemProperties(orchestrator),
+                    new IdempotentClaimCache(
+                            Long.getLong("claims.idempotency.ttlSeconds", 3600),
+                            TimeUnit.SECONDS,
+                            Integer.getInteger("claims.idempotency.maxEntries", 100000)),
+                    ClaimJournal.shared(),
+                    ClaimStatusStore.shared());
+        }
+    }
+
+    /**
+     * Restore decided claims into the status store and the idempotency cache
+     * (under the key each claim was submitted with), so retries after a
+     * restart are answered without re-processing, then queue claims that were
+     * submitted but not decided again, waiting for room in their lanes, so
+     * none is dropped. Runs once; later calls return at once.
+     */
+    public synchronized void recover() throws InterruptedException {
+        if (recovered) {
+            return;
+        }
+        if (journal != null) {
+            replayJournal();
+        }
+        recovered = true;
+    }
+
+    /**
+     * Whether {@link #recover} has finished
+     */
+    public boolean isRecovered() {
+        return recovered;
+    }
+
+    private void replayJournal() throws InterruptedException {
+        long nowMillis = System.currentTimeMillis();
+        Map<String, JournalRecord> undecided = new LinkedHashMap<>();
+        long[] decided = {0};
+        journal.replay(record -> {
+            String claimId = record.getClaimId();
+            if (claimId == null) {
+                return;
+            }
+            if (record.getType() == JournalRecord.Type.SUBMITTED) {
+                undecided.put(claimId, record);
+                return;
+            }
+            undecided.remove(claimId);
+            decided[0]++;
+            statusStore.restore(record.getDecision(), record.getTimestampMillis());
+            String key = keyOf(record);
+            if (key != null) {
+                idempotencyCache.restore(key, record.getDecision(),
+                        TimeUnit.MILLISECONDS.toNanos(Math.max(0, nowMillis - record.getTimestampMillis())));
+            }
+        });
+        EventLog.info("journal.replayed", "decisions", decided[0], "restoredResponses", idempotencyCache.size(),
+                "undecided", undecided.size());
+        for (JournalRecord record : undecided.values()) {
+            resume(record);
+            EventLog.info("journal.claim.resumed", "claimId", record.getClaimId());
+        }
+    }
+
+    /**
+     * Queue a claim from the journal again, holding its idempotency key so a
+     * retry arriving meanwhile waits for it instead of processing it twice
+     */
+    private void resume(JournalRecord record) throws InterruptedException {
+        ClaimRequest request = record.getRequest();
+        String key = keyOf(record);
+        IdempotentClaimCache.Ticket ticket = key != null ? idempotencyCache.begin(key) : null;
+        if (ticket != null && !ticket.isOwner()) {
+            ticket = null;
+        }
+        ClaimScheduler.Reservation reservation = scheduler.reserveWaiting(request, null);
+        statusStore.received(request);
+        // Already durable in the journal
+        whenDecided(request, key, ticket, reservation.start());
+    }
+
+    /**
+     * Idempotency key journaled with the record; records from before keys
+     * were journaled fall back to the claimId
+     */
+    private static String keyOf(JournalRecord record) {
+        return record.getIdempotencyKey() != null
+                ? record.getIdempotencyKey() : IdempotentClaimCache.key(null, record.getClaimId());
+    }
+
+    /**
+     * Run a claim through its scheduling lane and wait for the result. The
+     * claim only starts once its submission is durable in the journal, and
+     * the decision is returned once it is durable too.
+     *
+     * @param key idempotency key journaled with the claim, or null
+     * @throws RejectedExecutionException if the claim's lane is full
+     */
+    public ClaimResponse process(ClaimRequest request, String priority, String key) {
+        ClaimScheduler.Reservation reservation;
+        try {
+            reservation = scheduler.reserve(request, priority);
+        } catch (RejectedExecutionException e) {
+            statusStore.turnedAway(request.getClaimId(), e.getMessage(), System.currentTimeMillis());
+            throw e;
+        }
+        CompletableFuture<ClaimResponse> result;
+        try {
+            // Tracked before it starts, so stage updates from the worker are never missed
+            statusStore.received(request);
+            if (journal != null) {
+                journal.awaitDurable(journal.appendSubmitted(request, key));
+            }
+            result = reservation.start();
+        } catch (RuntimeException e) {
+            reservation.cancel();
+            statusStore.abandon(request.getClaimId(), "Error processing claim: " + e.getMessage(),
+                    System.currentTimeMillis());
+            throw e;
+        }
+
+        ClaimResponse response;
+        try {
+            response = result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        if (journal != null) {
+            journal.awaitDurable(journal.appendDecision(response, key));
+        }
+        statusStore.onDecision(response);
+        return response;
+    }
+
+    /**
+     * Queue a claim without waiting for it; returns once the submission is
+     * durable in the journal, and only then may the claim start. The decision
+     * is journaled, then stored under the ticket's key and shown by the
+     * status store.
+     *
+     * @param ticket ownership of the claim's idempotency key, from {@link IdempotentClaimCache#begin}, or null
+     * @throws RejectedExecutionException if the claim's lane is full
+     */
+    public void enqueue(ClaimRequest request, String priority, IdempotentClaimCache.Ticket ticket) {
+        String key = ticket != null ? ticket.getKey() : null;
+        ClaimScheduler.Reservation reservation;
+        try {
+            reservation = scheduler.reserve(request, priority);
+        } catch (RejectedExecutionException e) {
+            statusStore.turnedAway(request.getClaimId(), e.getMessage(), System.currentTimeMillis());
+            if (ticket != null) {
+                ticket.fail(e);
+            }
+            throw e;
+        }
+        CompletableFuture<ClaimResponse> result;
+        try {
+            statusStore.received(request);
+            if (journal != null) {
+                journal.awaitDurable(journal.appendSubmitted(request, key));
+            }
+            result = reservation.start();
+        } catch (RuntimeException e) {
+            reservation.cancel();
+            statusStore.abandon(request.getClaimId(), "Error processing claim: " + e.getMessage(),
+                    System.currentTimeMillis());
+            if (ticket != null) {
+                ticket.fail(e);
+            }
+            throw e;
+        }
+        whenDecided(request, key, ticket, result);
+    }
+
+    /**
+     * Journal the decision of a queued claim and publish it once durable
+     */
+    private void whenDecided(ClaimRequest request, String key, IdempotentClaimCache.Ticket ticket,
+                             CompletableFuture<ClaimResponse> result) {
+        result.whenComplete((response, error) -> {
+            ClaimResponse decision = response != null ? response
+                    : new ClaimResponse(request.getClaimId(), "ERROR",
+                    "Error processing claim: " + error.getMessage(), getCurrentTimestamp());
+            if (journal == null) {
+                publish(decision, key, ticket);
+                return;
+            }
+            CompletableFuture<Void> durable;
+            try {
+                durable = journal.whenDurable(journal.appendDecision(decision, key));
+            } catch (RuntimeException e) {
+                // Journal closed or stopped: the decision is not durable, so the key is released
+                durable = new CompletableFuture<>();
+                durable.completeExceptionally(e);
+            }
+            // Published by the flusher once durable; the lane worker moves on meanwhile
+            durable.whenComplete((ignored, failure) -> {
+                if (failure != null) {
+                    EventLog.warn("claim.decision.notDurable", "claimId", decision.getClaimId(),
+                            "reason", failure.getMessage());
+                    if (ticket != null) {
+                        ticket.fail(failure);
+                    }
+                    return;
+                }
+                publish(decision, key, ticket);
+            });
+        });
+    }
+
+    /**
+     * Make a durable decision visible to status lookups and repeated submissions
+     */
+    private void publish(ClaimResponse decision, String key, IdempotentClaimCache.Ticket ticket) {
+        statusStore.onDecision(decision);
+        if (ticket != null) {
+            ticket.complete(decision);
+        } else if (key != null) {
+            idempotencyCache.restore(key, decision, 0);
+        }
+    }
+
+    public InsuranceClaimOrchestrator getOrchestrator() {
+        return orchestrator;
+    }
+
+    public ClaimScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public IdempotentClaimCache getIdempotencyCache() {
+        return idempotencyCache;
+    }
+
+    /**
+     * The claim journal, or null if journal.enabled=false
+     */
+    public ClaimJournal getJournal() {
+        return journal;
+    }
+
+    public ClaimStatusStore getStatusStore() {
+        return statusStore;
+    }
+
+    private static String getCurrentTimestamp() {
+        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+    }
+}
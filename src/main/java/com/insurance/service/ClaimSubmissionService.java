@@ -2,46 +2,200 @@ package com.insurance.service;
 
 import com.insurance.dto.ClaimRequest;
 import com.insurance.dto.ClaimResponse;
-import com.insurance.orchestrator.InsuranceClaimOrchestrator;
+import com.insurance.health.Readiness;
+import com.insurance.journal.ClaimJournal;
+import com.insurance.logging.EventLog;
+import com.insurance.orchestrator.ClaimScheduler;
+import com.insurance.orchestrator.SchedulingLane;
+import com.insurance.metrics.MetricsRegistry;
+import com.insurance.status.ClaimStatus;
+import com.insurance.status.ClaimStatusStore;
+import com.insurance.tracing.Span;
+import com.insurance.tracing.TraceContext;
+import com.insurance.tracing.Tracer;
 
+import javax.inject.Singleton;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriBuilder;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST Service for Insurance Claim Submission
  * Endpoint: /api/claims
+ * Claims go through the shared {@link ClaimIntake}: claims and decisions
+ * are written to the {@link ClaimJournal}, and a decision is only returned
+ * once it is durable. Claim states are tracked in the
+ * {@link ClaimStatusStore}. Until the intake has been rebuilt from the
+ * journal on startup, submissions and status lookups get 503.
  */
 @Path("/claims")
+@Singleton
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class ClaimSubmissionService {
 
-    private InsuranceClaimOrchestrator orchestrator = new InsuranceClaimOrchestrator();
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+    static final String PRIORITY_HEADER = "X-Claim-Priority";
+    static final String TRACE_ID_HEADER = "X-Trace-Id";
+    static final String MODE_ASYNC = "async";
+
+    // HTTP 429, not in the JAX-RS 2.1 Status enum
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final ClaimIntake intake = ClaimIntake.shared();
+
+    private final ClaimScheduler scheduler = intake.getScheduler();
+
+    private final AdmissionController admission = AdmissionController.shared();
+
+    private final IdempotentClaimCache idempotencyCache = intake.getIdempotencyCache();
+
+    private final ClaimJournal journal = intake.getJournal();
+
+    private final ClaimStatusStore statusStore = intake.getStatusStore();
+
+    public ClaimSubmissionService() {
+        registerGauges(MetricsRegistry.shared());
+    }
+
+    /**
+     * Expose admission, event log, idempotency and scheduling lane state at /api/metrics
+     */
+    private void registerGauges(MetricsRegistry metrics) {
+        metrics.gauge("admission_in_flight", "Claims currently admitted", admission::getInFlight);
+        metrics.counter("admission_admitted_total", "Claims admitted since start", admission::getAdmitted);
+        metrics.counter("admission_rejected_total", "Claims rejected by admission control since start",
+                admission::getRejected);
+        metrics.counter("event_log_written_total", "Log events written by the async event log", EventLog::getWritten);
+        metrics.counter("event_log_dropped_total", "Log events dropped because the log buffer was full",
+                EventLog::getDropped);
+        metrics.counter("event_log_sampled_out_total", "Log events skipped by sampling", EventLog::getSampledOut);
+        if (journal != null) {
+            metrics.counter("journal_records_appended_total", "Records appended to the claim journal",
+                    journal::getAppended);
+            metrics.counter("journal_syncs_total", "Claim journal disk syncs (group commits)", journal::getSyncs);
+            metrics.gauge("journal_segments", "Claim journal segment files", journal::getSegmentCount);
+            metrics.counter("journal_segments_retired_total", "Journal segments deleted by retention",
+                    journal::getRetired);
+        }
+        metrics.gauge("claim_status_hot_entries", "Claim states held in memory", statusStore::getHotEntries);
+        metrics.gauge("claim_status_cold_entries", "Claim states spilled to disk", statusStore::getColdEntries);
+        metrics.counter("claim_status_cold_reads_total", "Status lookups served from the spill file",
+                statusStore::getColdReads);
+        metrics.gauge("idempotency_cache_entries", "Stored idempotent responses", idempotencyCache::size);
+        metrics.counter("idempotency_replays_total", "Submissions answered from the idempotency cache",
+                () -> idempotencyCache.getReplays() + idempotencyCache.getCoalesced());
+        for (SchedulingLane lane : scheduler.getLanes()) {
+            String name = lane.getName();
+            metrics.gauge("claim_lane_queued", "Claims waiting in a scheduling lane",
+                    () -> scheduler.getQueued(lane), "lane", name);
+            metrics.gauge("claim_lane_running", "Claims being processed per scheduling lane",
+                    () -> scheduler.getRunning(lane), "lane", name);
+            metrics.counter("claim_lane_rejected_total", "Claims rejected because the lane was full",
+                    lane::getRejected, "lane", name);
+            metrics.gauge("claim_lane_wait_mean_seconds", "Mean queue wait per scheduling lane",
+                    () -> lane.getMeanWaitMillis() / 1000.0, "lane", name);
+        }
+    }
 
     /**
      * Submit a new insurance claim
      * POST /api/claims/submit
+     * Accepts and returns JSON (default) or protobuf (application/x-protobuf)
      */
     @POST
     @Path("/submit")
-    public Response submitClaim(ClaimRequest request) {
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufClaimProvider.APPLICATION_PROTOBUF})
+    @Produces({MediaType.APPLICATION_JSON, ProtobufClaimProvider.APPLICATION_PROTOBUF + ";qs=0.5"})
+    public Response submitClaim(ClaimRequest request,
+                                @HeaderParam(IDEMPOTENCY_KEY_HEADER) String idempotencyKey,
+                                @HeaderParam(CLIENT_ID_HEADER) String clientId,
+                                @HeaderParam(PRIORITY_HEADER) String priority,
+                                @HeaderParam(TraceContext.TRACEPARENT) String traceparent,
+                                @QueryParam("mode") String mode) {
+        // Root span of the claim's trace (or a child of the caller's), returned as X-Trace-Id
+        try (Span span = Tracer.startSpan("rest.submitClaim", TraceContext.parse(traceparent))) {
+            span.setAttribute("claimId", request.getClaimId());
+            Response response = submit(request, idempotencyKey, clientId, priority,
+                    MODE_ASYNC.equalsIgnoreCase(mode));
+            span.setAttribute("httpStatus", response.getStatus());
+            return Response.fromResponse(response)
+                    .header(TRACE_ID_HEADER, span.context().getTraceId())
+                    .build();
+        }
+    }
+
+    private Response submit(ClaimRequest request, String idempotencyKey, String clientId, String priority,
+                            boolean async) {
+        if (!intake.isRecovered()) {
+            return notRecovered(request.getClaimId());
+        }
+        // The claimId is where the client polls for the decision
+        if (async && (request.getClaimId() == null || request.getClaimId().trim().isEmpty())) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity("{\"error\":\"claimId is required for asynchronous submission\"}")
+                    .build();
+        }
+        // Shed load before any work is done for the claim
+        AdmissionController.Decision decision = admission.tryAdmit(request.getUserId(),
+                clientId != null ? clientId : "anonymous");
+        if (!decision.isAdmitted()) {
+            ClaimResponse throttled = new ClaimResponse(request.getClaimId(), "THROTTLED",
+                    decision.getReason(), getCurrentTimestamp());
+            return Response.status(TOO_MANY_REQUESTS)
+                    .header("Retry-After", decision.getRetryAfterSeconds())
+                    .entity(throttled)
+                    .build();
+        }
+
+        boolean releaseSlot = true;
         try {
-            System.out.println("=== REST Service: Received Claim Submission ===");
-            System.out.println("Claim ID: " + request.getClaimId());
-            System.out.println("User ID: " + request.getUserId());
-            System.out.println("Claim Type: " + request.getClaimType());
-            System.out.println("Amount: $" + request.getClaimAmount());
+            EventLog.info("rest.claim.received", "claimId", request.getClaimId(), "userId", request.getUserId(),
+                    "claimType", request.getClaimType(), "amount", request.getClaimAmount());
+
+            // Retries of the same claim (or Idempotency-Key) are answered without re-orchestration
+            String key = IdempotentClaimCache.key(idempotencyKey, request.getClaimId());
+            if (async) {
+                IdempotentClaimCache.Ticket ticket = beginAsync(key);
+                if (ticket.isOwner()) {
+                    // A queued claim keeps its admission slot until it is decided (or fails to queue)
+                    ticket.getFuture().whenComplete((response, error) -> admission.release());
+                    releaseSlot = false;
+                }
+                return submitAsync(request, ticket, priority);
+            }
+            if (key == null) {
+                return Response.ok(intake.process(request, priority, null)).build();
+            }
 
-            // Orchestrate the claim processing
-            ClaimResponse response = orchestrator.processClaim(request);
+            IdempotentClaimCache.Outcome outcome =
+                    idempotencyCache.execute(key, () -> intake.process(request, priority, key));
+            if (outcome.isReplayed()) {
+                EventLog.info("rest.claim.replayed", "claimId", request.getClaimId());
+                return Response.ok(outcome.getResponse()).header(REPLAYED_HEADER, "true").build();
+            }
+            return Response.ok(outcome.getResponse()).build();
 
-            return Response.ok(response).build();
+        } catch (RejectedExecutionException e) {
+            // Scheduling lane is full; the claim was not started
+            ClaimResponse busy = new ClaimResponse(request.getClaimId(), "THROTTLED",
+                    e.getMessage(), getCurrentTimestamp());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", 1)
+                    .entity(busy)
+                    .build();
 
         } catch (Exception e) {
-            e.printStackTrace();
+            EventLog.error("rest.claim.failed", e, "claimId", request.getClaimId());
             ClaimResponse errorResponse = new ClaimResponse();
             errorResponse.setClaimId(request.getClaimId());
             errorResponse.setStatus("ERROR");
@@ -51,43 +205,109 @@ public class ClaimSubmissionService {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(errorResponse)
                     .build();
+        } finally {
+            if (releaseSlot) {
+                admission.release();
+            }
         }
     }
 
     /**
-     * Get claim status
+     * Claim the key of an asynchronous submission. A failed submission
+     * releases its key before it fails its future, so a key found with a
+     * failed future is free again and one more attempt takes it (or finds a
+     * newer submission).
+     */
+    private IdempotentClaimCache.Ticket beginAsync(String key) {
+        IdempotentClaimCache.Ticket ticket = idempotencyCache.begin(key);
+        if (!ticket.isOwner() && ticket.getFuture() != null && ticket.getFuture().isCompletedExceptionally()) {
+            ticket = idempotencyCache.begin(key);
+        }
+        return ticket;
+    }
+
+    /**
+     * Accept a claim for background processing: 202 with the status URL once
+     * the claim is queued and journaled, 200 if it was already decided.
+     * The key is claimed atomically, so a duplicate that arrives while the
+     * claim is queued or in progress is not queued twice.
+     */
+    private Response submitAsync(ClaimRequest request, IdempotentClaimCache.Ticket ticket, String priority) {
+        ClaimResponse decided = ticket.getStored() != null ? ticket.getStored()
+                : ticket.isOwner() ? null : ticket.getFuture().getNow(null);
+        if (decided != null) {
+            return Response.ok(decided).header(REPLAYED_HEADER, "true").build();
+        }
+        if (ticket.isOwner()) {
+            intake.enqueue(request, priority, ticket);
+        }
+
+        URI statusUri = UriBuilder.fromPath("claims/{claimId}").build(request.getClaimId());
+        ClaimResponse accepted = new ClaimResponse(request.getClaimId(), "ACCEPTED",
+                "Claim queued for processing; poll /api/" + statusUri + " for the decision", getCurrentTimestamp());
+        EventLog.info("rest.claim.accepted", "claimId", request.getClaimId());
+        return Response.accepted(accepted).location(statusUri).build();
+    }
+
+    /**
+     * Get claim status: the decision once the claim is decided, otherwise
+     * its current stage (RECEIVED, VERIFYING, SCORING or VALIDATING)
      * GET /api/claims/{claimId}
      */
     @GET
     @Path("/{claimId}")
+    @Produces({MediaType.APPLICATION_JSON, ProtobufClaimProvider.APPLICATION_PROTOBUF + ";qs=0.5"})
     public Response getClaimStatus(@PathParam("claimId") String claimId) {
-        try {
-            System.out.println("=== REST Service: Checking Claim Status ===");
-            System.out.println("Claim ID: " + claimId);
-
-            ClaimResponse response = new ClaimResponse();
-            response.setClaimId(claimId);
-            response.setStatus("PENDING");
-            response.setMessage("Claim is being processed");
-            response.setTimestamp(getCurrentTimestamp());
-
-            return Response.ok(response).build();
+        EventLog.debug("rest.claim.status", "claimId", claimId);
+        if (!intake.isRecovered()) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", 1)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity("{\"error\":\"Claim states are being restored from the journal\"}")
+                    .build();
+        }
 
-        } catch (Exception e) {
+        ClaimStatus status = statusStore.get(claimId);
+        if (status == null) {
             return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Claim not found: " + claimId)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(Collections.singletonMap("error", "Claim not found: " + claimId))
                     .build();
         }
+        if (status.getResponse() != null) {
+            return Response.ok(status.getResponse()).build();
+        }
+
+        ClaimResponse response = new ClaimResponse();
+        response.setClaimId(claimId);
+        response.setStatus(status.getState().name());
+        response.setMessage("Claim is being processed");
+        response.setTimestamp(getCurrentTimestamp());
+        return Response.ok(response).build();
     }
 
     /**
-     * Health check endpoint
+     * Health check endpoint; see /api/health/ready for the dependency checks
      * GET /api/claims/health
      */
     @GET
     @Path("/health")
     public Response healthCheck() {
-        return Response.ok("{\"status\":\"UP\",\"service\":\"ClaimSubmissionService\"}")
+        return Response.ok("{\"status\":\"UP\",\"service\":\"ClaimSubmissionService\",\"readiness\":\""
+                + Readiness.shared().getState() + "\"}")
+                .build();
+    }
+
+    /**
+     * Refuse a submission made before the journal has been replayed, which
+     * could otherwise process a claim already decided before the restart
+     */
+    private Response notRecovered(String claimId) {
+        ClaimResponse busy = new ClaimResponse(claimId, "THROTTLED",
+                "Recovering claims from the journal; retry shortly", getCurrentTimestamp());
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", 1)
+                .entity(busy)
                 .build();
     }
 
@@ -0,0 +1,42 @@
+package com.insurance.service;
+
+import com.insurance.health.Readiness;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Liveness and readiness probes
+ * Endpoint: /api/health
+ */
+@Path("/health")
+@Produces(MediaType.APPLICATION_JSON)
+public class HealthService {
+
+    /**
+     * The JVM is up and serving requests; no dependency is checked
+     * GET /api/health/live
+     */
+    @GET
+    @Path("/live")
+    public Response live() {
+        return Response.ok("{\"status\":\"UP\"}").build();
+    }
+
+    /**
+     * 200 once warm-up has finished and all downstream services pass their
+     * deep checks, 503 (with the failing checks) otherwise
+     * GET /api/health/ready
+     */
+    @GET
+    @Path("/ready")
+    public Response ready() {
+        Readiness.Report report = Readiness.shared().evaluate();
+        return Response.status(report.isReady() ? Response.Status.OK : Response.Status.SERVICE_UNAVAILABLE)
+                .entity(report)
+                .build();
+    }
+}
@@ -0,0 +1,246 @@
+package com.insurance.service;
+
+import com.insurance.cache.BoundedCache;
+import com.insurance.dto.ClaimResponse;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Makes claim submission idempotent.
+ *
+ * Submissions are keyed by the Idempotency-Key header or, without one, by
+ * claimId. A duplicate that arrives while the first submission is still
+ * being processed waits for that same result; a duplicate that arrives
+ * later gets the stored response. Asynchronous submissions claim the key
+ * with {@link #begin} and complete it when the decision is made, so the
+ * same rules hold for them. Only final outcomes (not ERROR) are
+ * stored, so a failed submission can be retried. The store is a
+ * {@link BoundedCache}: least recently used responses are dropped beyond
+ * maxEntries, and entries expire after a TTL.
+ */
+public class IdempotentClaimCache {
+
+    private final long ttlNanos;
+
+    private final BoundedCache<String, ClaimResponse> completed;
+    private final Map<String, CompletableFuture<ClaimResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+
+    public IdempotentClaimCache(long ttl, TimeUnit unit, int maxEntries) {
+        this.ttlNanos = unit.toNanos(ttl);
+        this.completed = new BoundedCache<>(maxEntries);
+    }
+
+    /**
+     * Result of a submission and whether it was answered without processing
+     */
+    public static final class Outcome {
+        private final ClaimResponse response;
+        private final boolean replayed;
+
+        Outcome(ClaimResponse response, boolean replayed) {
+            this.response = response;
+            this.replayed = replayed;
+        }
+
+        public ClaimResponse getResponse() {
+            return response;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+
+    /**
+     * Cache key for a submission, or null if it cannot be deduplicated
+     */
+    public static String key(String idempotencyKey, String claimId) {
+        if (idempotencyKey != null && !idempotencyKey.trim().isEmpty()) {
+            return "key:" + idempotencyKey.trim();
+        }
+        if (claimId != null && !claimId.isEmpty()) {
+            return "claim:" + claimId;
+        }
+        return null;
+    }
+
+    /**
+     * A key claimed by {@link #begin}: either the stored response, another
+     * submission in flight, or ownership of the key
+     */
+    public final class Ticket {
+        private final String key;
+        private final ClaimResponse stored;
+        private final CompletableFuture<ClaimResponse> future;
+        private final boolean owner;
+
+        private Ticket(String key, ClaimResponse stored, CompletableFuture<ClaimResponse> future, boolean owner) {
+            this.key = key;
+            this.stored = stored;
+            this.future = future;
+            this.owner = owner;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Response stored for the key, or null
+         */
+        public ClaimResponse getStored() {
+            return stored;
+        }
+
+        /**
+         * Whether the caller now owns the key and must {@link #complete} or {@link #fail} it
+         */
+        public boolean isOwner() {
+            return owner;
+        }
+
+        /**
+         * Result of the submission in flight for the key (the caller's own, if it is the owner)
+         */
+        public CompletableFuture<ClaimResponse> getFuture() {
+            return future;
+        }
+
+        /**
+         * Store the outcome and release the key; duplicates waiting on it get the same response
+         */
+        public void complete(ClaimResponse response) {
+            restore(key, response, 0);
+            future.complete(response);
+            inFlight.remove(key, future);
+        }
+
+        /**
+         * Release the key without storing anything, so the submission can be
+         * retried. The key is released first: a caller that sees the failed
+         * future and begins again owns the key.
+         */
+        public void fail(Throwable error) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Claim key for a submission: the stored response if there is one, else
+     * the submission already in flight for it, else ownership of the key
+     * (checked and taken atomically)
+     */
+    public Ticket begin(String key) {
+        ClaimResponse stored = completed.get(key, System.nanoTime());
+        if (stored != null) {
+            replays.increment();
+            return new Ticket(key, stored, null, false);
+        }
+
+        CompletableFuture<ClaimResponse> mine = new CompletableFuture<>();
+        CompletableFuture<ClaimResponse> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return new Ticket(key, null, existing, false);
+        }
+
+        // A submission that finished between the lookup above and putIfAbsent
+        // stored its response before leaving inFlight, so it is visible now
+        stored = completed.get(key, System.nanoTime());
+        if (stored != null) {
+            replays.increment();
+            mine.complete(stored);
+            inFlight.remove(key, mine);
+            return new Ticket(key, stored, null, false);
+        }
+        return new Ticket(key, null, mine, true);
+    }
+
+    /**
+     * Return the stored or in-flight result for key, or run the submission
+     */
+    public Outcome execute(String key, Supplier<ClaimResponse> submission) {
+        Ticket ticket = begin(key);
+        if (ticket.getStored() != null) {
+            return new Outcome(ticket.getStored(), true);
+        }
+        if (!ticket.isOwner()) {
+            try {
+                return new Outcome(ticket.getFuture().join(), true);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        executions.increment();
+        ClaimResponse response;
+        try {
+            response = submission.get();
+        } catch (RuntimeException e) {
+            ticket.fail(e);
+            throw e;
+        }
+        ticket.complete(response);
+        return new Outcome(response, false);
+    }
+
+    /**
+     * Stored response for key without running anything, or null
+     */
+    public ClaimResponse getCompleted(String key) {
+        ClaimResponse stored = completed.get(key, System.nanoTime());
+        if (stored != null) {
+            replays.increment();
+        }
+        return stored;
+    }
+
+    /**
+     * Store a final outcome, aged by the time since it was decided. Used by
+     * {@link #execute} and for outcomes produced elsewhere (asynchronous
+     * submissions, or recovered from the claim journal).
+     */
+    public void restore(String key, ClaimResponse response, long ageNanos) {
+        if (response == null || "ERROR".equals(response.getStatus()) || ageNanos >= ttlNanos) {
+            return;
+        }
+        completed.put(key, response, System.nanoTime() + ttlNanos - ageNanos);
+    }
+
+    public long getReplays() {
+        return replays.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    public int size() {
+        return completed.size();
+    }
+
+    @Override
+    public String toString() {
+        return "IdempotentClaimCache{" +
+                "size=" + size() +
+                ", executions=" + getExecutions() +
+                ", replays=" + getReplays() +
+                ", coalesced=" + getCoalesced() +
+                '}';
+    }
+}
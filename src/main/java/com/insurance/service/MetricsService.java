@@ -0,0 +1,27 @@
+package com.insurance.service;
+
+import com.insurance.metrics.MetricsRegistry;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+/**
+ * Prometheus scrape endpoint
+ * Endpoint: /api/metrics
+ */
+@Path("/metrics")
+public class MetricsService {
+
+    static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * All metrics of this JVM in the Prometheus text format
+     * GET /api/metrics
+     */
+    @GET
+    @Produces(PROMETHEUS_TEXT)
+    public String scrape() {
+        return MetricsRegistry.shared().scrape();
+    }
+}
@@ -0,0 +1,77 @@
+package com.insurance.service;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.insurance.dto.ClaimProtobuf;
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+import com.insurance.dto.proto.ClaimRequestMessage;
+import com.insurance.dto.proto.ClaimResponseMessage;
+
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes the claim DTOs as protobuf (application/x-protobuf).
+ * Selected by Jersey from the Content-Type and Accept headers; JSON stays
+ * the default for clients that do not ask for protobuf.
+ */
+@Provider
+@Consumes(ProtobufClaimProvider.APPLICATION_PROTOBUF)
+@Produces(ProtobufClaimProvider.APPLICATION_PROTOBUF)
+public class ProtobufClaimProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    public static final String APPLICATION_PROTOBUF = "application/x-protobuf";
+    public static final MediaType APPLICATION_PROTOBUF_TYPE = new MediaType("application", "x-protobuf");
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == ClaimRequest.class || type == ClaimResponse.class;
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders, InputStream entityStream)
+            throws IOException {
+        try {
+            if (ClaimRequest.class.equals(type)) {
+                return ClaimProtobuf.fromMessage(ClaimRequestMessage.parseFrom(entityStream));
+            }
+            return ClaimProtobuf.fromMessage(ClaimResponseMessage.parseFrom(entityStream));
+        } catch (InvalidProtocolBufferException e) {
+            throw new BadRequestException("Invalid protobuf " + type.getSimpleName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == ClaimRequest.class || type == ClaimResponse.class;
+    }
+
+    @Override
+    public long getSize(Object entity, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(Object entity, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType, MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException {
+        if (entity instanceof ClaimRequest) {
+            ClaimProtobuf.toMessage((ClaimRequest) entity).writeTo(entityStream);
+        } else {
+            ClaimProtobuf.toMessage((ClaimResponse) entity).writeTo(entityStream);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.insurance.service;
+
+import com.insurance.metrics.Counter;
+import com.insurance.metrics.LatencyHistogram;
+import com.insurance.metrics.MetricsRegistry;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records latency and status class of every REST resource method
+ * (http_server_duration_seconds, http_server_responses_total).
+ * Metric handles are resolved once per resource method and status class.
+ */
+@Provider
+public class RestMetricsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String START_PROPERTY = RestMetricsFilter.class.getName() + ".start";
+
+    // Resource methods are a fixed set, so this map stays small
+    private static final Map<Method, EndpointMetrics> ENDPOINTS = new ConcurrentHashMap<>();
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        request.setProperty(START_PROPERTY, System.nanoTime());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        Object start = request.getProperty(START_PROPERTY);
+        Method method = resourceInfo.getResourceMethod();
+        if (!(start instanceof Long) || method == null) {
+            return;
+        }
+        EndpointMetrics endpoint = ENDPOINTS.get(method);
+        if (endpoint == null) {
+            endpoint = ENDPOINTS.computeIfAbsent(method, m -> new EndpointMetrics(
+                    resourceInfo.getResourceClass().getSimpleName() + "." + m.getName()));
+        }
+        endpoint.duration.recordSince((Long) start);
+        endpoint.responses(response.getStatus()).increment();
+    }
+
+    /**
+     * Latency histogram and per-status-class counters of one resource method
+     */
+    private static final class EndpointMetrics {
+        final String endpoint;
+        final LatencyHistogram duration;
+        // Index 1..5 for 1xx..5xx, 0 for anything else
+        final AtomicReferenceArray<Counter> responses = new AtomicReferenceArray<>(6);
+
+        EndpointMetrics(String endpoint) {
+            this.endpoint = endpoint;
+            this.duration = MetricsRegistry.shared().histogram("http_server_duration_seconds",
+                    "REST request latency by resource method", "endpoint", endpoint);
+        }
+
+        Counter responses(int status) {
+            int statusClass = status / 100;
+            int index = statusClass >= 1 && statusClass <= 5 ? statusClass : 0;
+            Counter counter = responses.get(index);
+            if (counter == null) {
+                // The registry returns the same counter to racing callers
+                counter = MetricsRegistry.shared().counter("http_server_responses_total",
+                        "REST responses by resource method and status class",
+                        "endpoint", endpoint, "status", index > 0 ? statusClass + "xx" : "other");
+                responses.set(index, counter);
+            }
+            return counter;
+        }
+    }
+}
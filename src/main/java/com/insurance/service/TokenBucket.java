@@ -0,0 +1,76 @@
+package com.insurance.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as a generic cell rate algorithm.
+ *
+ * Instead of a token count the bucket stores one timestamp: the theoretical
+ * arrival time (TAT) of the next request if the caller sent at exactly the
+ * allowed rate. A request is admitted if TAT is no further ahead of now than
+ * the burst allows, and then pushes TAT forward by one emission interval.
+ * The single AtomicLong is updated with compare-and-set.
+ *
+ * Rate and burst are passed on every call, so limits can change at runtime
+ * without rebuilding buckets.
+ */
+public class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+    private volatile long lastUsedNanos;
+
+    public TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+        this.lastUsedNanos = nowNanos;
+    }
+
+    /**
+     * Try to take one token
+     *
+     * @param nowNanos current System.nanoTime()
+     * @param ratePerSecond sustained rate
+     * @param burst maximum number of back-to-back requests
+     * @return 0 if admitted, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(long nowNanos, double ratePerSecond, int burst) {
+        lastUsedNanos = nowNanos;
+        if (ratePerSecond <= 0) {
+            return Long.MAX_VALUE;
+        }
+        long interval = (long) (1_000_000_000L / ratePerSecond);
+        long tolerance = interval * Math.max(0, burst - 1);
+
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long start = Math.max(tat, nowNanos);
+            long ahead = start - nowNanos;
+            if (ahead > tolerance) {
+                return ahead - tolerance;
+            }
+            if (theoreticalArrival.compareAndSet(tat, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back a token taken by {@link #tryAcquire} for a request that was
+     * then rejected by a later check, so it does not count against the limit
+     *
+     * @param ratePerSecond the rate the token was taken at
+     */
+    public void refund(double ratePerSecond) {
+        if (ratePerSecond <= 0) {
+            return;
+        }
+        long interval = (long) (1_000_000_000L / ratePerSecond);
+        theoreticalArrival.addAndGet(-interval);
+    }
+
+    /**
+     * When this bucket was last asked for a token
+     */
+    public long getLastUsedNanos() {
+        return lastUsedNanos;
+    }
+}
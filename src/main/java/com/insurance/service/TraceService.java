@@ -0,0 +1,87 @@
+package com.insurance.service;
+
+import com.insurance.tracing.SpanCollector;
+import com.insurance.tracing.Trace;
+
+import javax.ws.rs.*;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query and export recently collected traces
+ * Endpoint: /api/traces
+ *
+ * Exporting writes to the server's disk, so it requires
+ * "Authorization: Bearer <token>" matching -Dtracing.admin.token and is
+ * refused without that property.
+ */
+@Path("/traces")
+@Produces(MediaType.APPLICATION_JSON)
+public class TraceService {
+
+    private static final int MAX_LIMIT = 100;
+
+    /**
+     * Slowest recent traces with all their spans
+     * GET /api/traces/slowest?limit=10
+     */
+    @GET
+    @Path("/slowest")
+    public List<Trace> getSlowestTraces(@QueryParam("limit") @DefaultValue("10") int limit) {
+        return SpanCollector.shared().slowestTraces(Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    /**
+     * One trace by id (the X-Trace-Id response header of a claim submission)
+     * GET /api/traces/{traceId}
+     */
+    @GET
+    @Path("/{traceId}")
+    public Response getTrace(@PathParam("traceId") String traceId) {
+        Trace trace = SpanCollector.shared().getTrace(traceId);
+        if (trace == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Collections.singletonMap("error", "Trace not found: " + traceId))
+                    .build();
+        }
+        return Response.ok(trace).build();
+    }
+
+    /**
+     * Write all held spans as JSON lines to a new file in -Dtracing.exportDir
+     * POST /api/traces/export
+     */
+    @POST
+    @Path("/export")
+    public Response export(@HeaderParam(HttpHeaders.AUTHORIZATION) String authorization) {
+        Response refusal = AdminToken.refusal(authorization, "tracing.admin.token", "Trace export");
+        if (refusal != null) {
+            return refusal;
+        }
+        java.nio.file.Path dir = Paths.get(System.getProperty("tracing.exportDir", System.getProperty("java.io.tmpdir")));
+        java.nio.file.Path file = dir.resolve("traces-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS")) + ".jsonl");
+        try {
+            Files.createDirectories(dir);
+            int spans = SpanCollector.shared().exportTo(file);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("file", file.toAbsolutePath().toString());
+            result.put("spans", spans);
+            return Response.ok(result).build();
+        } catch (IOException e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Collections.singletonMap("error", "Export failed: " + e.getMessage()))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.insurance.soap;
+
+/**
+ * One entry of a batch identity verification request
+ * Used by SOAP IdentityVerificationService.verifyIdentities
+ */
+public class IdentityCheck {
+    private String userId;
+    private String name;
+    private String documentId;
+
+    // Default constructor
+    public IdentityCheck() {
+    }
+
+    // Parameterized constructor
+    public IdentityCheck(String userId, String name, String documentId) {
+        this.userId = userId;
+        this.name = name;
+        this.documentId = documentId;
+    }
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(String documentId) {
+        this.documentId = documentId;
+    }
+
+    @Override
+    public String toString() {
+        return "IdentityCheck{" +
+                "userId='" + userId + '\'' +
+                ", name='" + name + '\'' +
+                ", documentId='" + documentId + '\'' +
+                '}';
+    }
+}
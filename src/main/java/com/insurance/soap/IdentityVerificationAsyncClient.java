@@ -0,0 +1,63 @@
+package com.insurance.soap;
+
+import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
+import javax.xml.ws.Dispatch;
+import javax.xml.ws.Service;
+import javax.xml.ws.soap.SOAPBinding;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Non-blocking client for the identity verification SOAP endpoints.
+ *
+ * Calls go through a JAX-WS Dispatch with invokeAsync, so no caller thread
+ * waits for the response. Works against both the synchronous endpoint
+ * (/services/IdentityVerification) and the async one
+ * (/services/IdentityVerificationAsync), since they share the same messages.
+ */
+public class IdentityVerificationAsyncClient {
+
+    private static final QName SERVICE_NAME =
+            new QName(IdentityVerificationXml.NAMESPACE, "IdentityVerificationAsyncService");
+    private static final QName PORT_NAME =
+            new QName(IdentityVerificationXml.NAMESPACE, "IdentityVerificationAsyncPort");
+
+    private final Dispatch<Source> dispatch;
+
+    /**
+     * @param endpointUrl e.g. http://localhost:8080/claim-processing/services/IdentityVerificationAsync
+     */
+    public IdentityVerificationAsyncClient(String endpointUrl) {
+        this(endpointUrl, SoapEncoding.TEXT);
+    }
+
+    public IdentityVerificationAsyncClient(String endpointUrl, SoapEncoding encoding) {
+        Service service = Service.create(SERVICE_NAME);
+        service.addPort(PORT_NAME, SOAPBinding.SOAP11HTTP_BINDING, endpointUrl);
+        this.dispatch = service.createDispatch(PORT_NAME, Source.class, Service.Mode.PAYLOAD);
+        encoding.configure(dispatch);
+    }
+
+    /**
+     * Verify an identity; the future completes when the response arrives
+     */
+    public CompletableFuture<VerificationResult> verifyIdentity(String userId, String name, String documentId) {
+        CompletableFuture<VerificationResult> future = new CompletableFuture<>();
+        Source request = IdentityVerificationXml.verifyIdentityRequest(userId, name, documentId);
+
+        dispatch.invokeAsync(request, response -> {
+            try {
+                future.complete(IdentityVerificationXml.readVerificationResult(response.get()));
+            } catch (ExecutionException e) {
+                future.completeExceptionally(e.getCause() != null ? e.getCause() : e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+}
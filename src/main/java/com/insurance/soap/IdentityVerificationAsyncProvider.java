@@ -0,0 +1,104 @@
+package com.insurance.soap;
+
+import com.sun.xml.ws.api.server.AsyncProvider;
+import com.sun.xml.ws.api.server.AsyncProviderCallback;
+
+import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
+import javax.xml.ws.Service;
+import javax.xml.ws.ServiceMode;
+import javax.xml.ws.WebServiceContext;
+import javax.xml.ws.WebServiceException;
+import javax.xml.ws.WebServiceProvider;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous SOAP endpoint for identity verification.
+ *
+ * Accepts the same verifyIdentity / getServiceStatus messages as
+ * {@link IdentityVerificationService}, but returns the container thread
+ * immediately: the verification runs on a worker pool and the response is
+ * sent from its completion callback. Deployed through WSServlet at
+ * /services/IdentityVerificationAsync (see sun-jaxws.xml).
+ */
+@WebServiceProvider(
+        serviceName = "IdentityVerificationAsyncService",
+        portName = "IdentityVerificationAsyncPort",
+        targetNamespace = IdentityVerificationXml.NAMESPACE)
+@ServiceMode(Service.Mode.PAYLOAD)
+public class IdentityVerificationAsyncProvider implements AsyncProvider<Source> {
+
+    // Verification workers, shared by all endpoint instances
+    private static final ExecutorService VERIFY_POOL = Executors.newFixedThreadPool(
+            Integer.getInteger("identity.async.threads", Runtime.getRuntime().availableProcessors() * 4),
+            new DaemonThreadFactory());
+
+    private final IdentityVerificationService service = new IdentityVerificationService();
+
+    @Override
+    public void invoke(Source request, AsyncProviderCallback<Source> callback, WebServiceContext context) {
+        IdentityVerificationXml.Call call;
+        try {
+            call = IdentityVerificationXml.readCall(request);
+        } catch (RuntimeException e) {
+            callback.sendError(e);
+            return;
+        }
+
+        QName operation = call.operation;
+        if (!IdentityVerificationXml.NAMESPACE.equals(operation.getNamespaceURI())) {
+            callback.sendError(new WebServiceException("Unknown operation: " + operation));
+            return;
+        }
+
+        switch (operation.getLocalPart()) {
+            case IdentityVerificationXml.VERIFY_IDENTITY:
+                verifyIdentity(call.parts, callback);
+                break;
+            case IdentityVerificationXml.GET_SERVICE_STATUS:
+                callback.send(IdentityVerificationXml.serviceStatusResponse(service.getServiceStatus()));
+                break;
+            default:
+                callback.sendError(new WebServiceException("Unknown operation: " + operation));
+        }
+    }
+
+    /**
+     * Run the verification off the request thread and answer from its callback
+     */
+    private void verifyIdentity(Map<String, String> parts, AsyncProviderCallback<Source> callback) {
+        String userId = parts.get("userId");
+        String name = parts.get("name");
+        String documentId = parts.get("documentId");
+
+        CompletableFuture
+                .supplyAsync(() -> service.verifyIdentity(userId, name, documentId), VERIFY_POOL)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        callback.sendError(cause);
+                    } else {
+                        callback.send(IdentityVerificationXml.verifyIdentityResponse(result));
+                    }
+                });
+    }
+
+    /**
+     * Daemon threads for the verification pool
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "identity-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.insurance.soap;
+
+import javax.jws.WebMethod;
+import javax.jws.WebParam;
+import javax.jws.WebService;
+import javax.jws.soap.SOAPBinding;
+import javax.jws.soap.SOAPBinding.Style;
+
+/**
+ * Service endpoint interface of IdentityVerificationService, used to create
+ * remote JAX-WS port proxies. Must stay in sync with the @WebMethods of the
+ * service implementation.
+ */
+@WebService(name = "IdentityVerificationService", targetNamespace = IdentityVerificationXml.NAMESPACE)
+@SOAPBinding(style = Style.RPC)
+public interface IdentityVerificationPort {
+
+    @WebMethod
+    VerificationResult verifyIdentity(
+            @WebParam(name = "userId") String userId,
+            @WebParam(name = "name") String name,
+            @WebParam(name = "documentId") String documentId);
+
+    @WebMethod
+    VerificationResult[] verifyIdentities(@WebParam(name = "checks") IdentityCheck[] checks);
+
+    @WebMethod
+    VerificationResult verifyIdentityDocument(
+            @WebParam(name = "userId") String userId,
+            @WebParam(name = "name") String name,
+            @WebParam(name = "documentId") String documentId,
+            @WebParam(name = "documentImage") byte[] documentImage);
+
+    @WebMethod
+    String getServiceStatus();
+}
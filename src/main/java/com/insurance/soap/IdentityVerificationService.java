@@ -1,19 +1,57 @@
 package com.insurance.soap;
 
+import com.insurance.logging.EventLog;
+
+import javax.jws.HandlerChain;
 import javax.jws.WebMethod;
 import javax.jws.WebParam;
 import javax.jws.WebService;
 import javax.jws.soap.SOAPBinding;
 import javax.jws.soap.SOAPBinding.Style;
+import javax.xml.ws.soap.MTOM;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * SOAP Web Service for Identity Verification
  * Uses JAX-WS for SOAP implementation
+ *
+ * Plain text XML is the default encoding. Callers may opt into Fast Infoset
+ * (negotiated by the JAX-WS RI through the Accept header) or MTOM for binary
+ * document attachments; see {@link SoapEncoding}.
  */
 @WebService
 @SOAPBinding(style = Style.RPC)
+@HandlerChain(file = "tracing-handlers.xml")
+@MTOM(threshold = IdentityVerificationService.MTOM_THRESHOLD_BYTES)
 public class IdentityVerificationService {
 
+    // Binary content above this size is sent as an MTOM attachment
+    static final int MTOM_THRESHOLD_BYTES = 1024;
+
+    private static final int MAX_DOCUMENT_IMAGE_BYTES = 10 * 1024 * 1024;
+
+    // Shared across endpoint instances and in-process callers
+    private static final VerificationCache CACHE = new VerificationCache(
+            Long.getLong("identity.cache.positiveTtlSeconds", 600),
+            Long.getLong("identity.cache.negativeTtlSeconds", 30),
+            TimeUnit.SECONDS,
+            Integer.getInteger("identity.cache.maxEntries", 100000));
+
+    // Larger verifyIdentities batches are rejected; callers split to this size
+    public static final int MAX_BATCH_SIZE = Integer.getInteger("identity.batch.maxSize", 500);
+
+    // Worker pool for batch verification
+    private static final ExecutorService BATCH_POOL = Executors.newFixedThreadPool(
+            Integer.getInteger("identity.batch.threads", Runtime.getRuntime().availableProcessors() * 2),
+            new DaemonThreadFactory());
+
     /**
      * Verify user identity for insurance claim
      *
@@ -28,11 +66,93 @@ public class IdentityVerificationService {
             @WebParam(name = "name") String name,
             @WebParam(name = "documentId") String documentId) {
 
-        System.out.println("\n=== SOAP Service: Identity Verification ===");
-        System.out.println("User ID: " + userId);
-        System.out.println("Name: " + name);
-        System.out.println("Document ID: " + documentId);
+        EventLog.info("soap.identity.verify", "userId", userId);
+
+        // Incomplete requests are rejected without touching the cache
+        if (userId == null || documentId == null || name == null || name.isEmpty()) {
+            return performVerification(userId, name, documentId);
+        }
+        return CACHE.get(userId, documentId, () -> performVerification(userId, name, documentId));
+    }
+
+    /**
+     * Verify a batch of identities in one SOAP call.
+     * Checks run in parallel (through the verification cache); results are
+     * returned in the same order as the checks.
+     *
+     * @param checks (userId, name, documentId) entries
+     * @return one VerificationResult per check
+     */
+    @WebMethod
+    public VerificationResult[] verifyIdentities(@WebParam(name = "checks") IdentityCheck[] checks) {
+        if (checks == null || checks.length == 0) {
+            return new VerificationResult[0];
+        }
+        if (checks.length > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch exceeds maximum of " + MAX_BATCH_SIZE + " checks");
+        }
+
+        EventLog.info("soap.identity.verifyBatch", "checks", checks.length);
+
+        List<CompletableFuture<VerificationResult>> futures = new ArrayList<>(checks.length);
+        for (IdentityCheck check : checks) {
+            futures.add(CompletableFuture.supplyAsync(() -> verifyIdentity(
+                    check.getUserId(), check.getName(), check.getDocumentId()), BATCH_POOL));
+        }
+
+        VerificationResult[] results = new VerificationResult[checks.length];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = futures.get(i).join();
+        }
+        return results;
+    }
 
+    /**
+     * Verify user identity with a scanned document image.
+     * The image travels as an MTOM attachment when the caller enables MTOM.
+     *
+     * @param userId User identifier
+     * @param name User's full name
+     * @param documentId Government-issued document ID
+     * @param documentImage Scanned image of the document
+     * @return VerificationResult with verification status
+     */
+    @WebMethod
+    public VerificationResult verifyIdentityDocument(
+            @WebParam(name = "userId") String userId,
+            @WebParam(name = "name") String name,
+            @WebParam(name = "documentId") String documentId,
+            @WebParam(name = "documentImage") byte[] documentImage) {
+
+        EventLog.info("soap.identity.verifyDocument", "userId", userId,
+                "imageBytes", documentImage != null ? documentImage.length : 0);
+
+        if (documentImage == null || documentImage.length == 0
+                || documentImage.length > MAX_DOCUMENT_IMAGE_BYTES) {
+            VerificationResult result = new VerificationResult();
+            result.setUserId(userId);
+            result.setVerified(false);
+            result.setConfidenceScore(0.0);
+            result.setMessage("Document image missing or larger than "
+                    + MAX_DOCUMENT_IMAGE_BYTES + " bytes");
+            result.setVerificationMethod("DOCUMENT_IMAGE_CHECK");
+            return result;
+        }
+
+        VerificationResult idCheck = verifyIdentity(userId, name, documentId);
+        VerificationResult result = new VerificationResult(idCheck.getUserId(), idCheck.isVerified(),
+                idCheck.getConfidenceScore(), idCheck.getMessage(), "DOCUMENT_IMAGE_CHECK");
+        if (result.isVerified()) {
+            // A matching document image raises confidence over the ID check alone
+            result.setConfidenceScore(Math.min(1.0, result.getConfidenceScore() + 0.04));
+        }
+        return result;
+    }
+
+    /**
+     * Run the (in production, remote and slow) identity check
+     */
+    private VerificationResult performVerification(String userId, String name, String documentId) {
         VerificationResult result = new VerificationResult();
         result.setUserId(userId);
 
@@ -58,8 +178,8 @@ public class IdentityVerificationService {
             result.setVerificationMethod("NONE");
         }
 
-        System.out.println("Verification Result: " + (result.isVerified() ? "PASSED" : "FAILED"));
-        System.out.println("Confidence Score: " + result.getConfidenceScore());
+        EventLog.info("soap.identity.result", "userId", userId, "documentId", documentId,
+                "verified", result.isVerified(), "confidence", result.getConfidenceScore());
 
         return result;
     }
@@ -71,4 +191,33 @@ public class IdentityVerificationService {
     public String getServiceStatus() {
         return "Identity Verification Service is running";
     }
+
+    /**
+     * Verification cache statistics (size, hits, misses, hit rate)
+     */
+    @WebMethod
+    public String getCacheStatistics() {
+        return CACHE.toString();
+    }
+
+    /**
+     * Shared verification cache, for metrics and invalidation
+     */
+    public static VerificationCache getVerificationCache() {
+        return CACHE;
+    }
+
+    /**
+     * Daemon threads for the batch pool
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "identity-verify-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
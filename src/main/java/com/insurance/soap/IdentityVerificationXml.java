@@ -0,0 +1,183 @@
+package com.insurance.soap;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.ws.WebServiceException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SOAP body payloads of the identity verification operations.
+ *
+ * Mirrors the RPC/literal messages of {@link IdentityVerificationService}
+ * (wrapper element in the service namespace, unqualified parts), so the async
+ * endpoint and client are wire-compatible with the synchronous one.
+ */
+final class IdentityVerificationXml {
+
+    static final String NAMESPACE = "http://soap.insurance.com/";
+
+    static final String VERIFY_IDENTITY = "verifyIdentity";
+    static final String GET_SERVICE_STATUS = "getServiceStatus";
+
+    private static final ThreadLocal<DocumentBuilder> BUILDER = ThreadLocal.withInitial(() -> {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            return factory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("XML parser not available", e);
+        }
+    });
+
+    private static final ThreadLocal<Transformer> TRANSFORMER = ThreadLocal.withInitial(() -> {
+        try {
+            return TransformerFactory.newInstance().newTransformer();
+        } catch (TransformerException e) {
+            throw new IllegalStateException("XML transformer not available", e);
+        }
+    });
+
+    private IdentityVerificationXml() {
+    }
+
+    /**
+     * Operation name and parts of a request payload
+     */
+    static final class Call {
+        final QName operation;
+        final Map<String, String> parts;
+
+        Call(QName operation, Map<String, String> parts) {
+            this.operation = operation;
+            this.parts = parts;
+        }
+    }
+
+    static Source verifyIdentityRequest(String userId, String name, String documentId) {
+        Document document = BUILDER.get().newDocument();
+        Element wrapper = document.createElementNS(NAMESPACE, "ns:" + VERIFY_IDENTITY);
+        appendText(wrapper, "userId", userId);
+        appendText(wrapper, "name", name);
+        appendText(wrapper, "documentId", documentId);
+        document.appendChild(wrapper);
+        return new DOMSource(document);
+    }
+
+    static Source verifyIdentityResponse(VerificationResult result) {
+        Document document = BUILDER.get().newDocument();
+        Element wrapper = document.createElementNS(NAMESPACE, "ns:" + VERIFY_IDENTITY + "Response");
+        Element ret = document.createElementNS(null, "return");
+        appendText(ret, "confidenceScore", Double.toString(result.getConfidenceScore()));
+        appendText(ret, "message", result.getMessage());
+        appendText(ret, "userId", result.getUserId());
+        appendText(ret, "verificationMethod", result.getVerificationMethod());
+        appendText(ret, "verified", Boolean.toString(result.isVerified()));
+        wrapper.appendChild(ret);
+        document.appendChild(wrapper);
+        return new DOMSource(document);
+    }
+
+    static Source serviceStatusResponse(String status) {
+        Document document = BUILDER.get().newDocument();
+        Element wrapper = document.createElementNS(NAMESPACE, "ns:" + GET_SERVICE_STATUS + "Response");
+        appendText(wrapper, "return", status);
+        document.appendChild(wrapper);
+        return new DOMSource(document);
+    }
+
+    /**
+     * Read the wrapper element and its child parts from a request payload
+     */
+    static Call readCall(Source payload) {
+        Element wrapper = toElement(payload);
+        QName operation = new QName(wrapper.getNamespaceURI(), wrapper.getLocalName());
+        return new Call(operation, childText(wrapper));
+    }
+
+    /**
+     * Read a verifyIdentityResponse payload
+     */
+    static VerificationResult readVerificationResult(Source payload) {
+        Element wrapper = toElement(payload);
+        Element ret = firstChildElement(wrapper);
+        if (ret == null) {
+            throw new WebServiceException("Empty " + wrapper.getLocalName() + " payload");
+        }
+        Map<String, String> fields = childText(ret);
+        VerificationResult result = new VerificationResult();
+        result.setUserId(fields.get("userId"));
+        result.setVerified(Boolean.parseBoolean(fields.get("verified")));
+        String score = fields.get("confidenceScore");
+        result.setConfidenceScore(score != null ? Double.parseDouble(score) : 0.0);
+        result.setMessage(fields.get("message"));
+        result.setVerificationMethod(fields.get("verificationMethod"));
+        return result;
+    }
+
+    private static Element toElement(Source payload) {
+        Node node;
+        if (payload instanceof DOMSource) {
+            node = ((DOMSource) payload).getNode();
+        } else {
+            DOMResult result = new DOMResult();
+            try {
+                TRANSFORMER.get().transform(payload, result);
+            } catch (TransformerException e) {
+                throw new WebServiceException("Unreadable SOAP payload", e);
+            }
+            node = result.getNode();
+        }
+        if (node instanceof Document) {
+            node = ((Document) node).getDocumentElement();
+        }
+        if (!(node instanceof Element)) {
+            throw new WebServiceException("Empty SOAP payload");
+        }
+        return (Element) node;
+    }
+
+    private static Map<String, String> childText(Element parent) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                String name = child.getLocalName() != null ? child.getLocalName() : child.getNodeName();
+                values.put(name, child.getTextContent());
+            }
+        }
+        return values;
+    }
+
+    private static Element firstChildElement(Element parent) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                return (Element) child;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Append an unqualified text element; null values are left out, as JAXB does
+     */
+    private static void appendText(Element parent, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        Element element = parent.getOwnerDocument().createElementNS(null, name);
+        element.setTextContent(value);
+        parent.appendChild(element);
+    }
+}
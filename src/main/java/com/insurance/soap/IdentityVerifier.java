@@ -0,0 +1,36 @@
+package com.insurance.soap;
+
+/**
+ * Client-side view of identity verification.
+ * Implementations call the SOAP service either in-process or over HTTP;
+ * see {@link IdentityVerifiers} for how the mode is selected.
+ * Implementations are thread-safe.
+ */
+public interface IdentityVerifier {
+
+    /**
+     * Verify one identity
+     */
+    VerificationResult verifyIdentity(String userId, String name, String documentId);
+
+    /**
+     * Verify a batch of identities; results are in the same order as the checks
+     */
+    VerificationResult[] verifyIdentities(IdentityCheck[] checks);
+
+    /**
+     * Verify one identity with a scanned document image
+     */
+    VerificationResult verifyIdentityDocument(String userId, String name, String documentId, byte[] documentImage);
+
+    /**
+     * Status message of the verification service; throws if it cannot be reached
+     */
+    String getServiceStatus();
+
+    /**
+     * Release connections and other resources held by this verifier.
+     * Does nothing on the shared {@link IdentityVerifiers#getDefault()} instance.
+     */
+    void close();
+}
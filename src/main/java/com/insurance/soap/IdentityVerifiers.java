@@ -0,0 +1,100 @@
+package com.insurance.soap;
+
+/**
+ * Creates identity verifiers from system properties:
+ *
+ *   identity.client.mode               inprocess (default) or remote
+ *   identity.client.url                endpoint URL, required in remote mode
+ *   identity.client.poolSize           pooled ports (default 16)
+ *   identity.client.connectTimeoutMs   default 2000
+ *   identity.client.requestTimeoutMs   default 10000
+ *   identity.client.acquireTimeoutMs   wait for a free port (default 5000)
+ *   identity.client.encoding           TEXT (default), FAST_INFOSET or MTOM
+ *
+ * In remote mode also set the JDK's -Dhttp.maxConnections to at least the
+ * pool size, or the connections above its default of 5 are not kept alive.
+ */
+public final class IdentityVerifiers {
+
+    private IdentityVerifiers() {
+    }
+
+    /**
+     * Verifier shared by every orchestrator in this JVM. Its close() does
+     * nothing, so one user cannot take the port pool away from the others.
+     */
+    public static IdentityVerifier getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Create a new verifier from the current system properties
+     */
+    public static IdentityVerifier fromSystemProperties() {
+        String mode = System.getProperty("identity.client.mode", "inprocess");
+        if ("inprocess".equalsIgnoreCase(mode)) {
+            return new InProcessIdentityVerifier();
+        }
+        if (!"remote".equalsIgnoreCase(mode)) {
+            throw new IllegalArgumentException("Unknown identity.client.mode: " + mode);
+        }
+
+        String url = System.getProperty("identity.client.url");
+        if (url == null || url.trim().isEmpty()) {
+            throw new IllegalArgumentException("identity.client.url is required in remote mode");
+        }
+        return new RemoteIdentityVerifier(
+                url.trim(),
+                Integer.getInteger("identity.client.poolSize", 16),
+                Integer.getInteger("identity.client.connectTimeoutMs", 2000),
+                Integer.getInteger("identity.client.requestTimeoutMs", 10000),
+                Long.getLong("identity.client.acquireTimeoutMs", 5000),
+                SoapEncoding.parse(System.getProperty("identity.client.encoding")));
+    }
+
+    private static final class DefaultHolder {
+        static final IdentityVerifier INSTANCE = new Shared(fromSystemProperties());
+    }
+
+    /**
+     * Delegates everything except close()
+     */
+    private static final class Shared implements IdentityVerifier {
+        private final IdentityVerifier delegate;
+
+        Shared(IdentityVerifier delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public VerificationResult verifyIdentity(String userId, String name, String documentId) {
+            return delegate.verifyIdentity(userId, name, documentId);
+        }
+
+        @Override
+        public VerificationResult[] verifyIdentities(IdentityCheck[] checks) {
+            return delegate.verifyIdentities(checks);
+        }
+
+        @Override
+        public VerificationResult verifyIdentityDocument(String userId, String name, String documentId,
+                                                         byte[] documentImage) {
+            return delegate.verifyIdentityDocument(userId, name, documentId, documentImage);
+        }
+
+        @Override
+        public String getServiceStatus() {
+            return delegate.getServiceStatus();
+        }
+
+        @Override
+        public void close() {
+            // Shared for the lifetime of the JVM
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.insurance.soap;
+
+/**
+ * Calls IdentityVerificationService directly in the same JVM
+ */
+public class InProcessIdentityVerifier implements IdentityVerifier {
+
+    private final IdentityVerificationService service;
+
+    public InProcessIdentityVerifier() {
+        this(new IdentityVerificationService());
+    }
+
+    public InProcessIdentityVerifier(IdentityVerificationService service) {
+        this.service = service;
+    }
+
+    @Override
+    public VerificationResult verifyIdentity(String userId, String name, String documentId) {
+        return service.verifyIdentity(userId, name, documentId);
+    }
+
+    @Override
+    public VerificationResult[] verifyIdentities(IdentityCheck[] checks) {
+        return service.verifyIdentities(checks);
+    }
+
+    @Override
+    public VerificationResult verifyIdentityDocument(String userId, String name, String documentId,
+                                                     byte[] documentImage) {
+        return service.verifyIdentityDocument(userId, name, documentId, documentImage);
+    }
+
+    @Override
+    public String getServiceStatus() {
+        return service.getServiceStatus();
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    @Override
+    public String toString() {
+        return "InProcessIdentityVerifier";
+    }
+}
@@ -0,0 +1,153 @@
+package com.insurance.soap;
+
+import com.insurance.logging.EventLog;
+
+import javax.xml.namespace.QName;
+import javax.xml.ws.BindingProvider;
+import javax.xml.ws.Service;
+import javax.xml.ws.WebServiceException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Calls a remote IdentityVerificationService over SOAP/HTTP.
+ *
+ * All port proxies are created up front and kept in a pool. A caller borrows
+ * a port for the duration of one call, so each proxy (and its request
+ * context) is only ever used by one thread at a time. The RI sends requests
+ * through HttpURLConnection, which keeps connections alive between calls.
+ *
+ * How many idle connections per host the JDK keeps is the JVM-wide
+ * -Dhttp.maxConnections (default 5) and cannot be set per port, so it is a
+ * deployment setting: give it at least the pool size on the command line.
+ */
+public class RemoteIdentityVerifier implements IdentityVerifier {
+
+    // JAX-WS RI request context properties, in milliseconds
+    static final String CONNECT_TIMEOUT_PROPERTY = "com.sun.xml.ws.connect.timeout";
+    static final String REQUEST_TIMEOUT_PROPERTY = "com.sun.xml.ws.request.timeout";
+
+    private static final QName SERVICE_NAME =
+            new QName(IdentityVerificationXml.NAMESPACE, "IdentityVerificationServiceService");
+    private static final QName PORT_NAME =
+            new QName(IdentityVerificationXml.NAMESPACE, "IdentityVerificationServicePort");
+
+    private final String endpointUrl;
+    private final int poolSize;
+    private final long acquireTimeoutMs;
+    private final BlockingQueue<IdentityVerificationPort> ports;
+    private volatile boolean closed;
+
+    /**
+     * @param endpointUrl e.g. http://identity-host:8080/claim-processing/services/IdentityVerification
+     * @param poolSize number of pre-created ports (maximum concurrent calls)
+     * @param connectTimeoutMs TCP connect timeout
+     * @param requestTimeoutMs response read timeout
+     * @param acquireTimeoutMs how long a caller waits for a free port
+     * @param encoding wire encoding used by every port
+     */
+    public RemoteIdentityVerifier(String endpointUrl, int poolSize, int connectTimeoutMs,
+                                  int requestTimeoutMs, long acquireTimeoutMs, SoapEncoding encoding) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("poolSize must be at least 1");
+        }
+        this.endpointUrl = endpointUrl;
+        this.poolSize = poolSize;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.ports = new ArrayBlockingQueue<>(poolSize);
+
+        // Connections beyond http.maxConnections are closed after each call instead of reused
+        int keepAlive = Integer.getInteger("http.maxConnections", 5);
+        if (keepAlive < poolSize) {
+            EventLog.warn("identity.remote.keepAlive", "httpMaxConnections", keepAlive, "poolSize", poolSize,
+                    "hint", "start the JVM with -Dhttp.maxConnections=" + poolSize);
+        }
+
+        Service service = Service.create(SERVICE_NAME);
+        for (int i = 0; i < poolSize; i++) {
+            IdentityVerificationPort port = service.getPort(PORT_NAME, IdentityVerificationPort.class);
+            BindingProvider bindingProvider = (BindingProvider) port;
+            bindingProvider.getRequestContext().put(BindingProvider.ENDPOINT_ADDRESS_PROPERTY, endpointUrl);
+            bindingProvider.getRequestContext().put(CONNECT_TIMEOUT_PROPERTY, connectTimeoutMs);
+            bindingProvider.getRequestContext().put(REQUEST_TIMEOUT_PROPERTY, requestTimeoutMs);
+            encoding.configure(bindingProvider);
+            TraceHeaderClientHandler.install(bindingProvider);
+            ports.add(port);
+        }
+
+        EventLog.info("identity.remote.created", "ports", poolSize, "url", endpointUrl);
+    }
+
+    @Override
+    public VerificationResult verifyIdentity(String userId, String name, String documentId) {
+        return call(port -> port.verifyIdentity(userId, name, documentId));
+    }
+
+    @Override
+    public VerificationResult[] verifyIdentities(IdentityCheck[] checks) {
+        return call(port -> port.verifyIdentities(checks));
+    }
+
+    @Override
+    public VerificationResult verifyIdentityDocument(String userId, String name, String documentId,
+                                                     byte[] documentImage) {
+        return call(port -> port.verifyIdentityDocument(userId, name, documentId, documentImage));
+    }
+
+    @Override
+    public String getServiceStatus() {
+        return call(IdentityVerificationPort::getServiceStatus);
+    }
+
+    /**
+     * Number of ports currently not in use
+     */
+    public int getIdlePorts() {
+        return ports.size();
+    }
+
+    /**
+     * Stop handing out ports. Proxies hold no resources of their own; idle
+     * connections are closed by the JDK keep-alive cache.
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public String toString() {
+        return "RemoteIdentityVerifier{" +
+                "endpointUrl='" + endpointUrl + '\'' +
+                ", poolSize=" + poolSize +
+                ", idlePorts=" + getIdlePorts() +
+                '}';
+    }
+
+    /**
+     * Borrow a port, run the call on it and give it back
+     */
+    private <T> T call(Function<IdentityVerificationPort, T> operation) {
+        if (closed) {
+            throw new WebServiceException("Identity verifier for " + endpointUrl + " is closed");
+        }
+        IdentityVerificationPort port;
+        try {
+            port = ports.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebServiceException("Interrupted while waiting for an identity verification port", e);
+        }
+        if (port == null) {
+            throw new WebServiceException("No identity verification port available within "
+                    + acquireTimeoutMs + " ms (pool size " + poolSize + ")");
+        }
+        try {
+            return operation.apply(port);
+        } finally {
+            ports.offer(port);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.insurance.soap;
+
+import javax.xml.ws.BindingProvider;
+import javax.xml.ws.soap.SOAPBinding;
+
+/**
+ * Wire encodings a SOAP client can opt into when calling
+ * IdentityVerificationService.
+ *
+ * TEXT is plain XML and stays the default. FAST_INFOSET asks the JAX-WS RI to
+ * negotiate binary XML (application/fastinfoset) with the endpoint. MTOM sends
+ * binary content such as document images as raw MIME attachments instead of
+ * inlined base64.
+ */
+public enum SoapEncoding {
+    TEXT,
+    FAST_INFOSET,
+    MTOM;
+
+    /**
+     * JAX-WS RI request context property that enables Fast Infoset content negotiation
+     */
+    public static final String CONTENT_NEGOTIATION_PROPERTY = "com.sun.xml.ws.client.ContentNegotiation";
+
+    /**
+     * Apply this encoding to a JAX-WS port or Dispatch
+     */
+    public void configure(BindingProvider bindingProvider) {
+        switch (this) {
+            case FAST_INFOSET:
+                // "pessimistic": the first request is plain XML advertising Fast Infoset;
+                // once the endpoint answers in Fast Infoset, later requests use it too
+                bindingProvider.getRequestContext().put(CONTENT_NEGOTIATION_PROPERTY, "pessimistic");
+                break;
+            case MTOM:
+                ((SOAPBinding) bindingProvider.getBinding()).setMTOMEnabled(true);
+                break;
+            default:
+                bindingProvider.getRequestContext().remove(CONTENT_NEGOTIATION_PROPERTY);
+                break;
+        }
+    }
+
+    /**
+     * Parse an encoding name, defaulting to TEXT
+     */
+    public static SoapEncoding parse(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return TEXT;
+        }
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
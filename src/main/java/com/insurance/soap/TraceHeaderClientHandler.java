@@ -0,0 +1,59 @@
+package com.insurance.soap;
+
+import com.insurance.tracing.TraceContext;
+import com.insurance.tracing.Tracer;
+
+import javax.xml.namespace.QName;
+import javax.xml.soap.SOAPException;
+import javax.xml.ws.BindingProvider;
+import javax.xml.ws.handler.Handler;
+import javax.xml.ws.handler.MessageContext;
+import javax.xml.ws.handler.soap.SOAPHandler;
+import javax.xml.ws.handler.soap.SOAPMessageContext;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Client handler that adds the caller's trace context to outgoing requests
+ * as a SOAP header. Requests made outside a trace are sent unchanged.
+ */
+public class TraceHeaderClientHandler implements SOAPHandler<SOAPMessageContext> {
+
+    /**
+     * Append this handler to the handler chain of a port or dispatch
+     */
+    @SuppressWarnings("rawtypes")
+    static void install(BindingProvider bindingProvider) {
+        List<Handler> chain = bindingProvider.getBinding().getHandlerChain();
+        chain.add(new TraceHeaderClientHandler());
+        bindingProvider.getBinding().setHandlerChain(chain);
+    }
+
+    @Override
+    public boolean handleMessage(SOAPMessageContext context) {
+        TraceContext trace = Tracer.current();
+        if (trace != null && Boolean.TRUE.equals(context.get(MessageContext.MESSAGE_OUTBOUND_PROPERTY))) {
+            try {
+                TraceHeaders.write(context.getMessage(), trace);
+            } catch (SOAPException e) {
+                // Tracing must never fail the call
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean handleFault(SOAPMessageContext context) {
+        return true;
+    }
+
+    @Override
+    public void close(MessageContext context) {
+    }
+
+    @Override
+    public Set<QName> getHeaders() {
+        return Collections.emptySet();
+    }
+}
@@ -0,0 +1,72 @@
+package com.insurance.soap;
+
+import com.insurance.tracing.Span;
+import com.insurance.tracing.TraceContext;
+import com.insurance.tracing.Tracer;
+
+import javax.xml.namespace.QName;
+import javax.xml.soap.SOAPException;
+import javax.xml.ws.handler.MessageContext;
+import javax.xml.ws.handler.soap.SOAPHandler;
+import javax.xml.ws.handler.soap.SOAPMessageContext;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Endpoint handler that continues the caller's trace (trace SOAP header)
+ * with a server span around the web method. The span is current while the
+ * endpoint runs, which for synchronous endpoints is the handler's thread.
+ */
+public class TraceHeaderServerHandler implements SOAPHandler<SOAPMessageContext> {
+
+    private static final String SPAN_PROPERTY = TraceHeaderServerHandler.class.getName() + ".span";
+
+    @Override
+    public boolean handleMessage(SOAPMessageContext context) {
+        if (Boolean.TRUE.equals(context.get(MessageContext.MESSAGE_OUTBOUND_PROPERTY))) {
+            endSpan(context);
+        } else {
+            startSpan(context);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean handleFault(SOAPMessageContext context) {
+        Span span = (Span) context.get(SPAN_PROPERTY);
+        if (span != null) {
+            span.setAttribute("fault", true);
+        }
+        endSpan(context);
+        return true;
+    }
+
+    @Override
+    public void close(MessageContext context) {
+        endSpan(context);
+    }
+
+    @Override
+    public Set<QName> getHeaders() {
+        return Collections.singleton(TraceHeaders.TRACEPARENT);
+    }
+
+    private void startSpan(SOAPMessageContext context) {
+        TraceContext parent;
+        try {
+            parent = TraceHeaders.read(context.getMessage());
+        } catch (SOAPException e) {
+            parent = null;
+        }
+        Object operation = context.get(MessageContext.WSDL_OPERATION);
+        String name = "soap.server/" + (operation instanceof QName ? ((QName) operation).getLocalPart() : "unknown");
+        context.put(SPAN_PROPERTY, Tracer.startSpan(name, parent));
+    }
+
+    private void endSpan(MessageContext context) {
+        Span span = (Span) context.remove(SPAN_PROPERTY);
+        if (span != null) {
+            span.close();
+        }
+    }
+}
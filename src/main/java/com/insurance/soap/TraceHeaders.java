@@ -0,0 +1,50 @@
+package com.insurance.soap;
+
+import com.insurance.tracing.TraceContext;
+
+import javax.xml.namespace.QName;
+import javax.xml.soap.SOAPException;
+import javax.xml.soap.SOAPHeader;
+import javax.xml.soap.SOAPHeaderElement;
+import javax.xml.soap.SOAPMessage;
+import java.util.Iterator;
+
+/**
+ * Reads and writes the trace context SOAP header:
+ * {@code <trace:traceparent xmlns:trace="http://tracing.insurance.com/">00-...-01</trace:traceparent>}
+ */
+final class TraceHeaders {
+
+    static final QName TRACEPARENT = new QName("http://tracing.insurance.com/", TraceContext.TRACEPARENT, "trace");
+
+    private TraceHeaders() {
+    }
+
+    static void write(SOAPMessage message, TraceContext context) throws SOAPException {
+        SOAPHeader header = message.getSOAPPart().getEnvelope().getHeader();
+        if (header == null) {
+            header = message.getSOAPPart().getEnvelope().addHeader();
+        }
+        header.addHeaderElement(TRACEPARENT).addTextNode(context.toTraceparent());
+        message.saveChanges();
+    }
+
+    /**
+     * Trace context from the message header, or null if there is none
+     */
+    static TraceContext read(SOAPMessage message) throws SOAPException {
+        SOAPHeader header = message.getSOAPPart().getEnvelope().getHeader();
+        if (header == null) {
+            return null;
+        }
+        Iterator<?> elements = header.examineAllHeaderElements();
+        while (elements.hasNext()) {
+            SOAPHeaderElement element = (SOAPHeaderElement) elements.next();
+            if (TRACEPARENT.getNamespaceURI().equals(element.getNamespaceURI())
+                    && TRACEPARENT.getLocalPart().equals(element.getLocalName())) {
+                return TraceContext.parse(element.getValue());
+            }
+        }
+        return null;
+    }
+}
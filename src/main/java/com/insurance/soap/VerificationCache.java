@@ -0,0 +1,146 @@
+package com.insurance.soap;
+
+import com.insurance.cache.BoundedCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache of identity verification results keyed by userId and a hash of the
+ * document ID (raw document IDs are never kept in memory).
+ *
+ * Positive and negative results have separate TTLs, the cache is a
+ * size-bounded {@link BoundedCache}, and concurrent lookups for the same key
+ * share a single in-flight verification.
+ */
+public class VerificationCache {
+
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+
+    private final BoundedCache<String, VerificationResult> entries;
+    private final Map<String, CompletableFuture<VerificationResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public VerificationCache(long positiveTtl, long negativeTtl, TimeUnit unit, int maxEntries) {
+        this.positiveTtlNanos = unit.toNanos(positiveTtl);
+        this.negativeTtlNanos = unit.toNanos(negativeTtl);
+        this.entries = new BoundedCache<>(maxEntries);
+    }
+
+    /**
+     * Return the cached result for (userId, documentId), or run the verifier.
+     * Concurrent callers for the same key wait for the same verification.
+     */
+    public VerificationResult get(String userId, String documentId, Supplier<VerificationResult> verifier) {
+        String key = key(userId, documentId);
+
+        VerificationResult cached = entries.get(key, System.nanoTime());
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        CompletableFuture<VerificationResult> mine = new CompletableFuture<>();
+        CompletableFuture<VerificationResult> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.join();
+        }
+
+        try {
+            // A verification that finished between the lookup above and putIfAbsent
+            // stored its result before leaving inFlight, so it is visible now
+            cached = entries.get(key, System.nanoTime());
+            if (cached != null) {
+                hits.increment();
+                mine.complete(cached);
+                return cached;
+            }
+
+            misses.increment();
+            VerificationResult result = verifier.get();
+            long ttl = result.isVerified() ? positiveTtlNanos : negativeTtlNanos;
+            if (ttl > 0) {
+                entries.put(key, result, System.nanoTime() + ttl);
+            }
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Drop every cached result for a user
+     */
+    public void invalidate(String userId) {
+        String prefix = userId + ":";
+        entries.removeIf(key -> key.startsWith(prefix));
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getEvictions() {
+        return entries.getEvictions();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Fraction of lookups answered without running a verification
+     */
+    public double getHitRate() {
+        long answered = hits.sum() + coalesced.sum();
+        long total = answered + misses.sum();
+        return total == 0 ? 0.0 : (double) answered / total;
+    }
+
+    @Override
+    public String toString() {
+        return "VerificationCache{" +
+                "size=" + size() +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", coalesced=" + getCoalesced() +
+                ", evictions=" + getEvictions() +
+                ", hitRate=" + String.format("%.3f", getHitRate()) +
+                '}';
+    }
+
+    private static String key(String userId, String documentId) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(documentId.getBytes(StandardCharsets.UTF_8));
+            return userId + ":" + Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.insurance.status;
+
+import com.insurance.dto.ClaimResponse;
+
+/**
+ * Receives the progress of claims through the orchestrator
+ */
+public interface ClaimProgressListener {
+
+    ClaimProgressListener NONE = new ClaimProgressListener() {
+        @Override
+        public void onStage(String claimId, ClaimState state) {
+        }
+
+        @Override
+        public void onDecision(ClaimResponse response) {
+        }
+    };
+
+    /**
+     * The claim entered a pipeline stage (VERIFYING, SCORING or VALIDATING)
+     */
+    void onStage(String claimId, ClaimState state);
+
+    /**
+     * The orchestrator finished the claim
+     */
+    void onDecision(ClaimResponse response);
+}
@@ -0,0 +1,25 @@
+package com.insurance.status;
+
+/**
+ * Lifecycle of a claim: RECEIVED, then one state per pipeline stage, then a final decision
+ */
+public enum ClaimState {
+    RECEIVED, VERIFYING, SCORING, VALIDATING, APPROVED, REJECTED, ERROR;
+
+    public boolean isFinal() {
+        return this == APPROVED || this == REJECTED || this == ERROR;
+    }
+
+    /**
+     * Final state for a ClaimResponse status; anything unexpected counts as ERROR
+     */
+    public static ClaimState ofDecision(String status) {
+        if ("APPROVED".equals(status)) {
+            return APPROVED;
+        }
+        if ("REJECTED".equals(status)) {
+            return REJECTED;
+        }
+        return ERROR;
+    }
+}
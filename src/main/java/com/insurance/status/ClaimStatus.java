@@ -0,0 +1,42 @@
+package com.insurance.status;
+
+import com.insurance.dto.ClaimResponse;
+
+/**
+ * Immutable snapshot of a claim's state.
+ * The response is set once the claim is decided.
+ */
+public final class ClaimStatus {
+
+    private final String claimId;
+    private final ClaimState state;
+    private final ClaimResponse response;
+    private final long updatedMillis;
+
+    public ClaimStatus(String claimId, ClaimState state, ClaimResponse response, long updatedMillis) {
+        this.claimId = claimId;
+        this.state = state;
+        this.response = response;
+        this.updatedMillis = updatedMillis;
+    }
+
+    public String getClaimId() {
+        return claimId;
+    }
+
+    public ClaimState getState() {
+        return state;
+    }
+
+    public ClaimResponse getResponse() {
+        return response;
+    }
+
+    public long getUpdatedMillis() {
+        return updatedMillis;
+    }
+
+    ClaimStatus withState(ClaimState newState, long nowMillis) {
+        return new ClaimStatus(claimId, newState, response, nowMillis);
+    }
+}
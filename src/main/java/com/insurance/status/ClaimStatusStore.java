@@ -0,0 +1,488 @@
+package com.insurance.status;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+import com.insurance.logging.EventLog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Current state of every claim, by claimId.
+ *
+ * Recent and in-progress claims are kept in a concurrent map of immutable
+ * {@link ClaimStatus} snapshots, so lookups are a single lock-free map read.
+ * When the map grows past status.maxHotEntries, a background thread spills
+ * the oldest decided claims to an append-only file and only a 64-bit
+ * claimId hash and file offset stay in memory ({@link ColdIndex}); a lookup
+ * of a spilled claim is one positional read. Request threads never write
+ * the file, so the map can briefly exceed its bound while the spiller
+ * catches up.
+ *
+ * Spilled claims are kept in two generations, spillFile.0 and spillFile.1.
+ * When the current one is older than status.spillRetentionSeconds or holds
+ * half of status.maxSpillBytes, the previous generation is deleted and a
+ * new one started, so a spilled claim stays findable for at least the
+ * retention (unless the size bound is reached first) and disk and index
+ * use stay bounded. The spill files are scratch space: they are recreated
+ * on startup and the store is rebuilt from the claim journal.
+ *
+ * Only claims registered with {@link #received} are tracked; progress
+ * reported for other claims (warm-up, batch) is ignored.
+ */
+public class ClaimStatusStore implements ClaimProgressListener, AutoCloseable {
+
+    private static final int SPILL_BATCH = 1024;
+
+    private final int maxHotEntries;
+    private final Path spillFile;
+    private final long maxGenerationBytes;
+    private final long generationMillis;
+
+    private final Map<String, ClaimStatus> hot = new ConcurrentHashMap<>();
+    private final AtomicInteger hotCount = new AtomicInteger();
+    private final Queue<String> decidedOrder = new ConcurrentLinkedQueue<>();
+    // Written by the spiller under spillLock; read lock-free by lookups
+    private final ReentrantLock spillLock = new ReentrantLock();
+    private volatile SpillGeneration current;
+    private volatile SpillGeneration previous;
+    private int generations;
+
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder coldReads = new LongAdder();
+    private final Thread spiller;
+    private volatile boolean closed;
+
+    public ClaimStatusStore(Path spillFile, int maxHotEntries) {
+        this(spillFile, maxHotEntries, Long.MAX_VALUE, 0);
+    }
+
+    /**
+     * @param maxSpillBytes bound of both spill generations together
+     * @param spillRetentionSeconds minimum time a spilled claim is kept, or 0 to keep it until the size bound
+     */
+    public ClaimStatusStore(Path spillFile, int maxHotEntries, long maxSpillBytes, long spillRetentionSeconds) {
+        this.spillFile = spillFile;
+        this.maxHotEntries = maxHotEntries;
+        this.maxGenerationBytes = Math.max(1, maxSpillBytes / 2);
+        this.generationMillis = TimeUnit.SECONDS.toMillis(spillRetentionSeconds);
+        try {
+            Path parent = spillFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            // Leftovers of the previous run, including a single-file spill from older versions
+            Files.deleteIfExists(generationFile(1));
+            Files.deleteIfExists(spillFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open claim status spill file " + spillFile, e);
+        }
+        this.current = SpillGeneration.open(generationFile(0));
+        this.spiller = new Thread(this::spillLoop, "claim-status-spiller");
+        spiller.setDaemon(true);
+        spiller.start();
+    }
+
+    /**
+     * Store shared by the claim resources, configured by status.spillFile and status.maxHotEntries
+     */
+    public static ClaimStatusStore shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    private static final class SharedHolder {
+        static final ClaimStatusStore INSTANCE = new ClaimStatusStore(
+                Paths.get(System.getProperty("status.spillFile",
+                        System.getProperty("java.io.tmpdir") + "/insurance-claim-status.spill")),
+                Integer.getInteger("status.maxHotEntries", 100000),
+                Long.getLong("status.maxSpillBytes", 1024L * 1024 * 1024),
+                Long.getLong("status.spillRetentionSeconds", 86400));
+    }
+
+    /**
+     * Start tracking a claim accepted for processing
+     */
+    public void received(ClaimRequest request) {
+        if (request.getClaimId() == null) {
+            return;
+        }
+        put(new ClaimStatus(request.getClaimId(), ClaimState.RECEIVED, null, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void onStage(String claimId, ClaimState state) {
+        if (claimId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        hot.computeIfPresent(claimId, (id, current) -> current.getState().isFinal() ? current : current.withState(state, now));
+    }
+
+    @Override
+    public void onDecision(ClaimResponse response) {
+        if (response.getClaimId() != null && hot.containsKey(response.getClaimId())) {
+            decide(response, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Reinstate a decision replayed from the claim journal
+     */
+    public void restore(ClaimResponse response, long decidedMillis) {
+        if (response.getClaimId() == null) {
+            return;
+        }
+        decide(response, decidedMillis);
+    }
+
+    /**
+     * Record a claim that was turned away before processing because its lane
+     * was full. It shows as REJECTED with a message saying it may be
+     * submitted again; a claim already tracked keeps its state.
+     */
+    public void turnedAway(String claimId, String reason, long atMillis) {
+        if (claimId == null || get(claimId) != null) {
+            return;
+        }
+        decide(new ClaimResponse(claimId, "REJECTED", "Not processed, retry later: " + reason, null), atMillis);
+    }
+
+    /**
+     * Mark a claim whose processing was cut off (e.g. by a restart) as failed
+     */
+    public void abandon(String claimId, String reason, long atMillis) {
+        if (claimId == null) {
+            return;
+        }
+        ClaimResponse response = new ClaimResponse(claimId, "ERROR", reason, null);
+        decide(response, atMillis);
+    }
+
+    /**
+     * Current status of a claim, or null if it is unknown
+     */
+    public ClaimStatus get(String claimId) {
+        if (claimId == null) {
+            return null;
+        }
+        ClaimStatus status = hot.get(claimId);
+        if (status != null) {
+            return status;
+        }
+        // The current generation holds the newer state of a claim spilled twice
+        long hash = ColdIndex.hash(claimId);
+        status = getSpilled(current, claimId, hash);
+        return status != null ? status : getSpilled(previous, claimId, hash);
+    }
+
+    public int getHotEntries() {
+        return hotCount.get();
+    }
+
+    public int getColdEntries() {
+        spillLock.lock();
+        try {
+            SpillGeneration older = previous;
+            return current.index.size() + (older != null ? older.index.size() : 0);
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    public long getSpilled() {
+        return spilled.sum();
+    }
+
+    public long getColdReads() {
+        return coldReads.sum();
+    }
+
+    /**
+     * Stop the spiller and close the spill files
+     */
+    @Override
+    public void close() {
+        closed = true;
+        spiller.interrupt();
+        spillLock.lock();
+        try {
+            current.close();
+            if (previous != null) {
+                previous.close();
+            }
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ClaimStatusStore{" +
+                "hot=" + getHotEntries() +
+                ", cold=" + getColdEntries() +
+                ", spilled=" + getSpilled() +
+                ", coldReads=" + getColdReads() +
+                '}';
+    }
+
+    private void decide(ClaimResponse response, long nowMillis) {
+        put(new ClaimStatus(response.getClaimId(), ClaimState.ofDecision(response.getStatus()), response, nowMillis));
+        decidedOrder.add(response.getClaimId());
+        if (hotCount.get() > maxHotEntries) {
+            LockSupport.unpark(spiller);
+        }
+    }
+
+    private void put(ClaimStatus status) {
+        if (hot.put(status.getClaimId(), status) == null) {
+            hotCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Spill when woken by a decision over the bound, and check once a second
+     * whether the spill generation is due for rotation
+     */
+    private void spillLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            if (closed) {
+                return;
+            }
+            spillLock.lock();
+            try {
+                if (hotCount.get() > maxHotEntries) {
+                    spillOldest();
+                }
+                rotateIfDue();
+            } catch (RuntimeException e) {
+                EventLog.error("status.spill.failed", e, "file", spillFile);
+            } finally {
+                spillLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Drop the previous generation and start a new one once the current one
+     * is full or old enough. Caller holds the spill lock.
+     */
+    private void rotateIfDue() {
+        SpillGeneration full = current;
+        boolean expired = generationMillis > 0 && full.position > 0
+                && System.currentTimeMillis() - full.createdMillis >= generationMillis;
+        if (full.position < maxGenerationBytes && !expired) {
+            return;
+        }
+        SpillGeneration dropped = previous;
+        // The dropped generation's file is reused; lookups still reading it find nothing
+        if (dropped != null) {
+            dropped.close();
+        }
+        // Publish the full generation as previous before replacing current, so no lookup misses both
+        previous = full;
+        current = SpillGeneration.open(generationFile(++generations));
+        EventLog.info("status.spill.rotated", "file", current.file,
+                "dropped", dropped != null ? dropped.index.size() : 0);
+    }
+
+    private Path generationFile(int generation) {
+        return spillFile.resolveSibling(spillFile.getFileName() + "." + (generation & 1));
+    }
+
+    /**
+     * Move the oldest decided claims to the spill file until the hot map is
+     * back to 90% of its bound. Caller holds the spill lock.
+     */
+    private void spillOldest() {
+        SpillGeneration spill = current;
+        int target = maxHotEntries - maxHotEntries / 10;
+        ByteArrayOutputStream batch = new ByteArrayOutputStream(64 * 1024);
+        String[] ids = new String[SPILL_BATCH];
+        ClaimStatus[] statuses = new ClaimStatus[SPILL_BATCH];
+        long[] offsets = new long[SPILL_BATCH];
+        try {
+            while (hotCount.get() > target) {
+                int count = 0;
+                batch.reset();
+                while (count < SPILL_BATCH && hotCount.get() - count > target) {
+                    String claimId = decidedOrder.poll();
+                    if (claimId == null) {
+                        break;
+                    }
+                    ClaimStatus status = hot.get(claimId);
+                    if (status == null || !status.getState().isFinal()) {
+                        // Already spilled, or resubmitted and in progress again
+                        continue;
+                    }
+                    offsets[count] = spill.position + batch.size();
+                    write(batch, status);
+                    ids[count] = claimId;
+                    statuses[count] = status;
+                    count++;
+                }
+                if (count == 0) {
+                    return;
+                }
+
+                ByteBuffer bytes = ByteBuffer.wrap(batch.toByteArray());
+                while (bytes.hasRemaining()) {
+                    spill.position += spill.channel.write(bytes, spill.position);
+                }
+                // Index before removing from the hot map, so a reader always finds one of them
+                for (int i = 0; i < count; i++) {
+                    spill.index.put(ColdIndex.hash(ids[i]), offsets[i]);
+                    if (hot.remove(ids[i], statuses[i])) {
+                        hotCount.decrementAndGet();
+                    }
+                }
+                spilled.add(count);
+                if (spill.position >= maxGenerationBytes) {
+                    rotateIfDue();
+                    spill = current;
+                }
+            }
+        } catch (IOException e) {
+            EventLog.error("status.spill.failed", e, "file", spillFile);
+        }
+    }
+
+    /**
+     * Record layout: [int length][state][updatedMillis][claimId][response fields]
+     */
+    private static void write(ByteArrayOutputStream batch, ClaimStatus status) throws IOException {
+        ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(record);
+        ClaimResponse response = status.getResponse();
+        out.writeByte(status.getState().ordinal());
+        out.writeLong(status.getUpdatedMillis());
+        out.writeUTF(status.getClaimId());
+        writeNullable(out, response.getStatus());
+        writeNullable(out, response.getMessage());
+        writeNullable(out, response.getTimestamp());
+        out.writeBoolean(response.isIdentityVerified());
+        out.writeBoolean(response.isFraudCheckPassed());
+        writeNullable(out, response.getPolicyStatus());
+        out.flush();
+
+        new DataOutputStream(batch).writeInt(record.size());
+        record.writeTo(batch);
+    }
+
+    private ClaimStatus getSpilled(SpillGeneration generation, String claimId, long hash) {
+        if (generation == null) {
+            return null;
+        }
+        long offset = generation.index.get(hash);
+        if (offset < 0) {
+            return null;
+        }
+        coldReads.increment();
+        ClaimStatus status = read(generation, offset);
+        // Another claimId with the same 64-bit hash would have replaced the entry
+        return status != null && claimId.equals(status.getClaimId()) ? status : null;
+    }
+
+    private ClaimStatus read(SpillGeneration generation, long offset) {
+        try {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            readFully(generation.channel, length, offset);
+            ByteBuffer record = ByteBuffer.allocate(length.getInt(0));
+            readFully(generation.channel, record, offset + 4);
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.array()));
+            ClaimState state = ClaimState.values()[in.readByte()];
+            long updatedMillis = in.readLong();
+            String claimId = in.readUTF();
+            ClaimResponse response = new ClaimResponse();
+            response.setClaimId(claimId);
+            response.setStatus(readNullable(in));
+            response.setMessage(readNullable(in));
+            response.setTimestamp(readNullable(in));
+            response.setIdentityVerified(in.readBoolean());
+            response.setFraudCheckPassed(in.readBoolean());
+            response.setPolicyStatus(readNullable(in));
+            return new ClaimStatus(claimId, state, response, updatedMillis);
+        } catch (ClosedChannelException e) {
+            // The generation was dropped by retention
+            return null;
+        } catch (IOException e) {
+            EventLog.error("status.spill.readFailed", e, "offset", offset);
+            return null;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of spill file at " + position);
+            }
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * One spill file with the index of the claims in it
+     */
+    private static final class SpillGeneration {
+        final Path file;
+        final FileChannel channel;
+        final ColdIndex index = new ColdIndex();
+        final long createdMillis = System.currentTimeMillis();
+        // Written by the spiller only
+        long position;
+
+        private SpillGeneration(Path file, FileChannel channel) {
+            this.file = file;
+            this.channel = channel;
+        }
+
+        static SpillGeneration open(Path file) {
+            try {
+                return new SpillGeneration(file, FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open claim status spill file " + file, e);
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                EventLog.warn("status.spill.closeFailed", "file", file, "reason", e.getMessage());
+            }
+        }
+    }
+}
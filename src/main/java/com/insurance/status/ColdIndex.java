@@ -0,0 +1,105 @@
+package com.insurance.status;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Open-addressing map from a 64-bit claimId hash to a spill file offset.
+ *
+ * 16 bytes per entry instead of a String key and boxed value. There is a
+ * single writer (the spiller, under its lock); readers never lock. A writer
+ * stores the offset before the key, so a reader that finds the key also
+ * sees its offset, and a resize publishes a fully built table.
+ */
+final class ColdIndex {
+
+    private static final long EMPTY = 0L;
+
+    private volatile Table table = new Table(1024);
+    private int size;
+
+    /**
+     * 64-bit hash of a claimId; never 0, which marks an empty slot
+     */
+    static long hash(String claimId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < claimId.length(); i++) {
+            h ^= claimId.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h != EMPTY ? h : 1L;
+    }
+
+    /**
+     * Spill file offset for the hash, or -1
+     */
+    long get(long hash) {
+        Table current = table;
+        int mask = current.keys.length() - 1;
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            long key = current.keys.get(slot);
+            if (key == hash) {
+                return current.offsets.get(slot);
+            }
+            if (key == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Insert or replace. Single writer only.
+     */
+    void put(long hash, long offset) {
+        if ((size + 1) * 2 > table.keys.length()) {
+            resize();
+        }
+        if (insert(table, hash, offset)) {
+            size++;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static boolean insert(Table target, long hash, long offset) {
+        int mask = target.keys.length() - 1;
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            long key = target.keys.get(slot);
+            if (key == hash) {
+                target.offsets.set(slot, offset);
+                return false;
+            }
+            if (key == EMPTY) {
+                target.offsets.set(slot, offset);
+                target.keys.set(slot, hash);
+                return true;
+            }
+        }
+    }
+
+    private void resize() {
+        Table old = table;
+        Table bigger = new Table(old.keys.length() * 2);
+        for (int slot = 0; slot < old.keys.length(); slot++) {
+            long key = old.keys.get(slot);
+            if (key != EMPTY) {
+                insert(bigger, key, old.offsets.get(slot));
+            }
+        }
+        table = bigger;
+    }
+
+    private static final class Table {
+        final AtomicLongArray keys;
+        final AtomicLongArray offsets;
+
+        Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.offsets = new AtomicLongArray(capacity);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.insurance.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A timed operation within a trace.
+ *
+ * Spans from {@link Tracer#startSpan} are current on the starting thread
+ * until closed; detached spans can be ended from any thread. A span is
+ * handed to the {@link SpanCollector} once, when it ends.
+ */
+public final class Span implements AutoCloseable {
+
+    private final TraceContext context;
+    private final String parentSpanId;
+    private final String name;
+    private final long startNanos;
+    private final TraceContext previous;
+    private final boolean activated;
+    private final Map<String, String> attributes = new LinkedHashMap<>(4);
+
+    private volatile long endNanos;
+    private volatile String error;
+
+    Span(TraceContext context, String parentSpanId, String name, long startNanos,
+         TraceContext previous, boolean activated) {
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.startNanos = startNanos;
+        this.previous = previous;
+        this.activated = activated;
+    }
+
+    public TraceContext context() {
+        return context;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        synchronized (attributes) {
+            attributes.put(key, String.valueOf(value));
+        }
+        return this;
+    }
+
+    public Span setError(Throwable throwable) {
+        this.error = throwable.getClass().getSimpleName() + ": " + throwable.getMessage();
+        return this;
+    }
+
+    /**
+     * End the span (only the first call counts) without touching the current context
+     */
+    public void end() {
+        end(System.nanoTime());
+    }
+
+    void end(long nanos) {
+        synchronized (this) {
+            if (endNanos != 0) {
+                return;
+            }
+            endNanos = nanos;
+        }
+        if (context.isSampled() && Tracer.isEnabled()) {
+            SpanCollector.shared().add(this);
+        }
+    }
+
+    /**
+     * End the span and, if it was made current when started, restore the previous context
+     */
+    @Override
+    public void close() {
+        end();
+        if (activated) {
+            Tracer.restore(previous);
+        }
+    }
+
+    public String getTraceId() {
+        return context.getTraceId();
+    }
+
+    public String getSpanId() {
+        return context.getSpanId();
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getStartEpochMicros() {
+        return Tracer.toEpochMicros(startNanos);
+    }
+
+    public long getDurationMicros() {
+        long end = endNanos;
+        return ((end != 0 ? end : System.nanoTime()) - startNanos) / 1000;
+    }
+
+    public Map<String, String> getAttributes() {
+        synchronized (attributes) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+        }
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "Span{" +
+                "name='" + name + '\'' +
+                ", traceId=" + getTraceId() +
+                ", spanId=" + getSpanId() +
+                ", parentSpanId=" + parentSpanId +
+                ", durationMicros=" + getDurationMicros() +
+                '}';
+    }
+}
@@ -0,0 +1,140 @@
+package com.insurance.tracing;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory store of recently finished spans, grouped by trace.
+ *
+ * Holds at most -Dtracing.maxTraces traces (default 1000) with at most
+ * -Dtracing.maxSpansPerTrace spans each (default 128); the oldest traces
+ * are evicted first. Can be queried for the slowest traces and exported
+ * to a JSON-lines file (one span per line).
+ */
+public class SpanCollector {
+
+    private static final SpanCollector SHARED = new SpanCollector(
+            Integer.getInteger("tracing.maxTraces", 1000),
+            Integer.getInteger("tracing.maxSpansPerTrace", 128));
+
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+    private final Map<String, Trace> traces = new ConcurrentHashMap<>();
+    private final Queue<String> arrivalOrder = new ConcurrentLinkedQueue<>();
+    private final LongAdder collectedSpans = new LongAdder();
+    private final LongAdder evictedTraces = new LongAdder();
+
+    public SpanCollector(int maxTraces, int maxSpansPerTrace) {
+        this.maxTraces = maxTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+    }
+
+    public static SpanCollector shared() {
+        return SHARED;
+    }
+
+    void add(Span span) {
+        Trace trace = traces.get(span.getTraceId());
+        if (trace == null) {
+            trace = traces.computeIfAbsent(span.getTraceId(), id -> {
+                arrivalOrder.add(id);
+                return new Trace(id, maxSpansPerTrace);
+            });
+            while (traces.size() > maxTraces) {
+                String oldest = arrivalOrder.poll();
+                if (oldest == null) {
+                    break;
+                }
+                if (traces.remove(oldest) != null) {
+                    evictedTraces.increment();
+                }
+            }
+        }
+        trace.add(span);
+        collectedSpans.increment();
+    }
+
+    public Trace getTrace(String traceId) {
+        return traces.get(traceId);
+    }
+
+    /**
+     * The slowest traces currently held, slowest first
+     */
+    public List<Trace> slowestTraces(int limit) {
+        List<Trace> all = new ArrayList<>(traces.values());
+        all.sort(Comparator.comparingLong(Trace::getDurationMicros).reversed());
+        return all.size() > limit ? new ArrayList<>(all.subList(0, limit)) : all;
+    }
+
+    /**
+     * Write every held span as one JSON object per line
+     *
+     * @return number of spans written
+     */
+    public int exportTo(Path file) throws IOException {
+        Gson gson = new Gson();
+        int count = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Trace trace : new ArrayList<>(traces.values())) {
+                for (Span span : trace.getSpans()) {
+                    Map<String, Object> line = new LinkedHashMap<>();
+                    line.put("traceId", span.getTraceId());
+                    line.put("spanId", span.getSpanId());
+                    line.put("parentSpanId", span.getParentSpanId());
+                    line.put("name", span.getName());
+                    line.put("startEpochMicros", span.getStartEpochMicros());
+                    line.put("durationMicros", span.getDurationMicros());
+                    line.put("attributes", span.getAttributes());
+                    if (span.getError() != null) {
+                        line.put("error", span.getError());
+                    }
+                    writer.write(gson.toJson(line));
+                    writer.newLine();
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    public int getTraceCount() {
+        return traces.size();
+    }
+
+    public long getCollectedSpans() {
+        return collectedSpans.sum();
+    }
+
+    public long getEvictedTraces() {
+        return evictedTraces.sum();
+    }
+
+    public void clear() {
+        traces.clear();
+        arrivalOrder.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "SpanCollector{" +
+                "traces=" + getTraceCount() +
+                ", collectedSpans=" + getCollectedSpans() +
+                ", evictedTraces=" + getEvictedTraces() +
+                '}';
+    }
+}
@@ -0,0 +1,78 @@
+package com.insurance.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Spans collected for one trace id
+ */
+public final class Trace {
+
+    private final String traceId;
+    private final int maxSpans;
+    private final List<Span> spans = new ArrayList<>();
+    private long startEpochMicros = Long.MAX_VALUE;
+    private long endEpochMicros = Long.MIN_VALUE;
+    private int droppedSpans;
+
+    Trace(String traceId, int maxSpans) {
+        this.traceId = traceId;
+        this.maxSpans = maxSpans;
+    }
+
+    synchronized void add(Span span) {
+        if (spans.size() >= maxSpans) {
+            droppedSpans++;
+            return;
+        }
+        spans.add(span);
+        long start = span.getStartEpochMicros();
+        startEpochMicros = Math.min(startEpochMicros, start);
+        endEpochMicros = Math.max(endEpochMicros, start + span.getDurationMicros());
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public synchronized long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+
+    /**
+     * From the earliest span start to the latest span end
+     */
+    public synchronized long getDurationMicros() {
+        return spans.isEmpty() ? 0 : endEpochMicros - startEpochMicros;
+    }
+
+    /**
+     * Name of the root span, or of the earliest span if the root is not collected here
+     */
+    public synchronized String getRootName() {
+        Span earliest = null;
+        for (Span span : spans) {
+            if (span.getParentSpanId() == null) {
+                return span.getName();
+            }
+            if (earliest == null || span.getStartEpochMicros() < earliest.getStartEpochMicros()) {
+                earliest = span;
+            }
+        }
+        return earliest != null ? earliest.getName() : null;
+    }
+
+    /**
+     * Spans ordered by start time
+     */
+    public synchronized List<Span> getSpans() {
+        List<Span> sorted = new ArrayList<>(spans);
+        sorted.sort(Comparator.comparingLong(Span::getStartEpochMicros));
+        return sorted;
+    }
+
+    public synchronized int getDroppedSpans() {
+        return droppedSpans;
+    }
+}
@@ -0,0 +1,88 @@
+package com.insurance.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Identifies a span within a trace; propagated between services in the
+ * W3C traceparent format ("00-{traceId}-{spanId}-{flags}")
+ */
+public final class TraceContext {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    private final String traceId;
+    private final String spanId;
+    private final boolean sampled;
+
+    TraceContext(String traceId, String spanId, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.sampled = sampled;
+    }
+
+    /**
+     * Context for the root span of a new trace
+     */
+    static TraceContext newTrace(boolean sampled) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new TraceContext(hex(random.nextLong()) + hex(random.nextLong()), hex(random.nextLong()), sampled);
+    }
+
+    /**
+     * Context for a child span in the same trace
+     */
+    TraceContext child() {
+        return new TraceContext(traceId, hex(ThreadLocalRandom.current().nextLong()), sampled);
+    }
+
+    /**
+     * Parse a traceparent header; returns null if absent or malformed
+     */
+    public static TraceContext parse(String traceparent) {
+        if (traceparent == null) {
+            return null;
+        }
+        String[] parts = traceparent.trim().split("-");
+        if (parts.length < 4 || parts[1].length() != 32 || parts[2].length() != 16 || parts[3].length() != 2
+                || !isHex(parts[1]) || !isHex(parts[2]) || !isHex(parts[3])) {
+            return null;
+        }
+        boolean sampled = (Integer.parseInt(parts[3], 16) & 1) != 0;
+        return new TraceContext(parts[1].toLowerCase(), parts[2].toLowerCase(), sampled);
+    }
+
+    public String toTraceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    @Override
+    public String toString() {
+        return toTraceparent();
+    }
+
+    private static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return "0000000000000000".substring(digits.length()) + digits;
+    }
+
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,131 @@
+package com.insurance.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates spans and tracks the current trace context of each thread.
+ *
+ * Typical use:
+ *   try (Span span = Tracer.startSpan("orchestrator.processClaim")) { ... }
+ *
+ * Code that hands work to another thread captures {@link #current()} and
+ * re-activates it there with {@link #activate}. Protocol adapters (gRPC
+ * interceptors, SOAP handlers, the GraphQL context) carry the context
+ * between services as a traceparent value.
+ *
+ * Configuration: -Dtracing.enabled (default true),
+ * -Dtracing.sampleRate (fraction of new traces collected, default 1.0).
+ */
+public final class Tracer {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("tracing.enabled", "true"));
+    private static final double SAMPLE_RATE = Double.parseDouble(System.getProperty("tracing.sampleRate", "1.0"));
+
+    // Converts System.nanoTime() readings to wall-clock microseconds
+    private static final long EPOCH_OFFSET_MICROS = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis())
+            - TimeUnit.NANOSECONDS.toMicros(System.nanoTime());
+
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+    private Tracer() {
+    }
+
+    /**
+     * Trace context of the current thread, or null outside a trace
+     */
+    public static TraceContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Start a span as a child of the current context (or as a new trace)
+     * and make it current until it is closed
+     */
+    public static Span startSpan(String name) {
+        return startSpan(name, CURRENT.get());
+    }
+
+    /**
+     * Start a span as a child of parent (or as a new trace if parent is null)
+     * and make it current until it is closed
+     */
+    public static Span startSpan(String name, TraceContext parent) {
+        TraceContext previous = CURRENT.get();
+        Span span = newSpan(name, parent, System.nanoTime(), previous, true);
+        CURRENT.set(span.context());
+        return span;
+    }
+
+    /**
+     * Start a span that is not made current, for operations that end on another thread
+     */
+    public static Span startDetachedSpan(String name, TraceContext parent) {
+        return newSpan(name, parent, System.nanoTime(), null, false);
+    }
+
+    /**
+     * Record an already finished child span of the current context,
+     * e.g. time spent waiting in a queue
+     */
+    public static void recordSpan(String name, long startNanos, long endNanos) {
+        TraceContext parent = CURRENT.get();
+        if (parent != null && ENABLED) {
+            newSpan(name, parent, startNanos, null, false).end(endNanos);
+        }
+    }
+
+    /**
+     * Make context current on this thread until the returned scope is closed
+     */
+    public static Scope activate(TraceContext context) {
+        TraceContext previous = CURRENT.get();
+        CURRENT.set(context);
+        return new Scope(previous);
+    }
+
+    /**
+     * Restores the previous context when closed
+     */
+    public static final class Scope implements AutoCloseable {
+        private final TraceContext previous;
+
+        private Scope(TraceContext previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            restore(previous);
+        }
+    }
+
+    static void restore(TraceContext previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    static long toEpochMicros(long nanos) {
+        return EPOCH_OFFSET_MICROS + TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static Span newSpan(String name, TraceContext parent, long startNanos,
+                                TraceContext previous, boolean activate) {
+        TraceContext context;
+        if (parent != null) {
+            context = parent.child();
+        } else {
+            // Unsampled traces still propagate ids but are never collected
+            context = TraceContext.newTrace(ENABLED
+                    && (SAMPLE_RATE >= 1.0 || ThreadLocalRandom.current().nextDouble() < SAMPLE_RATE));
+        }
+        return new Span(context, parent != null ? parent.getSpanId() : null, name, startNanos, previous, activate);
+    }
+}
@@ -0,0 +1,103 @@
+package com.insurance.workload;
+
+import com.insurance.dto.ClaimRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Weighted mix of synthetic claims.
+ *
+ * Spec format: TYPE:weight:minAmount-maxAmount, comma separated, e.g.
+ * "AUTO:50:500-60000,HOME:30:1000-250000,ACCIDENT:20:5000-150000".
+ * Claims are drawn from a seeded Random, so a given seed and spec always
+ * produce the same sequence of claims.
+ */
+public class ClaimMix {
+
+    public static final String DEFAULT_SPEC = "AUTO:50:500-60000,HOME:30:1000-250000,ACCIDENT:20:5000-150000";
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final int totalWeight;
+    private final int users;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ClaimMix(String spec, int users) {
+        int weight = 0;
+        for (String part : spec.split(",")) {
+            String[] fields = part.trim().split(":");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Invalid claim mix entry: " + part);
+            }
+            String[] range = fields[2].split("-");
+            if (range.length != 2) {
+                throw new IllegalArgumentException("Invalid amount range: " + fields[2]);
+            }
+            Entry entry = new Entry(fields[0].trim().toUpperCase(), Integer.parseInt(fields[1].trim()),
+                    Double.parseDouble(range[0].trim()), Double.parseDouble(range[1].trim()));
+            if (entry.weight <= 0 || entry.maxAmount < entry.minAmount) {
+                throw new IllegalArgumentException("Invalid claim mix entry: " + part);
+            }
+            weight += entry.weight;
+            entries.add(entry);
+        }
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Empty claim mix");
+        }
+        this.totalWeight = weight;
+        this.users = Math.max(1, users);
+    }
+
+    /**
+     * Draw the next synthetic claim
+     */
+    public ClaimRequest next(Random random) {
+        int pick = random.nextInt(totalWeight);
+        Entry entry = entries.get(0);
+        for (Entry candidate : entries) {
+            if (pick < candidate.weight) {
+                entry = candidate;
+                break;
+            }
+            pick -= candidate.weight;
+        }
+
+        double amount = entry.minAmount + random.nextDouble() * (entry.maxAmount - entry.minAmount);
+        amount = Math.round(amount * 100) / 100.0;
+        String userId = String.format("USR-%03d", random.nextInt(users));
+        String claimId = String.format("CLM-LOAD-%08d", sequence.incrementAndGet());
+
+        return new ClaimRequest(claimId, userId, entry.claimType, amount,
+                "Synthetic " + entry.claimType.toLowerCase() + " claim", "2024-01-15");
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Entry entry : entries) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(entry.claimType).append(' ')
+                    .append(String.format("%.0f%%", 100.0 * entry.weight / totalWeight))
+                    .append(String.format(" $%.0f-$%.0f", entry.minAmount, entry.maxAmount));
+        }
+        return sb.toString();
+    }
+
+    private static final class Entry {
+        final String claimType;
+        final int weight;
+        final double minAmount;
+        final double maxAmount;
+
+        Entry(String claimType, int weight, double minAmount, double maxAmount) {
+            this.claimType = claimType;
+            this.weight = weight;
+            this.minAmount = minAmount;
+            this.maxAmount = maxAmount;
+        }
+    }
+}
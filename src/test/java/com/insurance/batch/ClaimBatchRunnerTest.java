@@ -0,0 +1,95 @@
+package com.insurance.batch;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+import com.insurance.orchestrator.InsuranceClaimOrchestrator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClaimBatchRunnerTest {
+
+    private static final String HEADER = "claimId,userId,claimType,claimAmount,description,incidentDate\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void resumedRunProducesTheSameOutputAsAnUninterruptedOne() throws IOException {
+        String firstPart = HEADER + lines(1, 4);
+        String rest = lines(5, 9);
+
+        Path fullInput = write("full.csv", firstPart + rest);
+        Path fullOutput = dir.resolve("full.ndjson");
+        assertEquals(9, runner(null).run(fullInput, ClaimFileReader.Format.CSV, fullOutput,
+                dir.resolve("full.checkpoint"), true));
+
+        // First run stops after record 4 with a checkpoint, then leaves half a record behind
+        Path input = write("claims.csv", firstPart);
+        Path output = dir.resolve("claims.ndjson");
+        Path checkpoint = dir.resolve("claims.checkpoint");
+        assertEquals(4, runner(null).run(input, ClaimFileReader.Format.CSV, output, checkpoint, false));
+        Files.write(input, rest.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        Files.write(output, "{\"inputLine\":6,\"sta".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertEquals(5, runner(null).run(input, ClaimFileReader.Format.CSV, output, checkpoint, false));
+        assertEquals(Files.readAllLines(fullOutput), Files.readAllLines(output));
+        assertEquals(9, BatchCheckpoint.load(checkpoint).getRecords());
+    }
+
+    @Test
+    void failedClaimIsWrittenAsErrorAndTheRunContinues() throws IOException {
+        Path input = write("claims.csv", HEADER + lines(1, 5));
+        Path output = dir.resolve("claims.ndjson");
+
+        assertEquals(5, runner("C3").run(input, ClaimFileReader.Format.CSV, output,
+                dir.resolve("claims.checkpoint"), true));
+
+        List<String> records = Files.readAllLines(output);
+        assertEquals(5, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            JsonObject record = JsonParser.parseString(records.get(i)).getAsJsonObject();
+            assertEquals("C" + (i + 1), record.get("claimId").getAsString());
+            assertEquals(i == 2 ? "ERROR" : "APPROVED", record.get("status").getAsString());
+        }
+    }
+
+    /**
+     * Runner whose orchestrator approves every claim, except that it throws for failingClaimId
+     */
+    private static ClaimBatchRunner runner(String failingClaimId) {
+        InsuranceClaimOrchestrator orchestrator = new InsuranceClaimOrchestrator(null, null) {
+            @Override
+            public ClaimResponse processClaim(ClaimRequest request) {
+                if (request.getClaimId().equals(failingClaimId)) {
+                    throw new IllegalStateException("fraud detection unavailable");
+                }
+                return new ClaimResponse(request.getClaimId(), "APPROVED", "Claim approved", null);
+            }
+        };
+        return new ClaimBatchRunner(orchestrator, 2, 4, 2);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.write(dir.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String lines(int from, int to) {
+        StringBuilder csv = new StringBuilder();
+        for (int i = from; i <= to; i++) {
+            csv.append("C").append(i).append(",USER001,AUTO,").append(500 * i)
+                    .append(",Claim ").append(i).append(",2024-01-15\n");
+        }
+        return csv.toString();
+    }
+}
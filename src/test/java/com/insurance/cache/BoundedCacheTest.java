@@ -0,0 +1,94 @@
+package com.insurance.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedCacheTest {
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedFirst() {
+        BoundedCache<String, String> cache = new BoundedCache<>(3);
+        cache.put("a", "A", BoundedCache.NEVER);
+        cache.put("b", "B", BoundedCache.NEVER);
+        cache.put("c", "C", BoundedCache.NEVER);
+
+        cache.get("a", 0);
+        cache.put("d", "D", BoundedCache.NEVER);
+
+        assertEquals("A", cache.get("a", 0));
+        assertNull(cache.get("b", 0));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void expiredEntryIsDroppedOnLookup() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10);
+        cache.put("a", "A", 100);
+
+        assertEquals("A", cache.get("a", 99));
+        assertNull(cache.get("a", 100));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void computeKeepsTheExpiryOfAnUnchangedValue() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10);
+        cache.put("a", "A", 100);
+
+        cache.compute("a", 50, 1000, current -> current);
+        assertNull(cache.get("a", 100));
+
+        cache.compute("b", 50, 1000, current -> current == null ? "B" : current + "!");
+        cache.compute("b", 60, 1000, current -> current == null ? "B" : current + "!");
+        assertEquals("B!", cache.get("b", 999));
+
+        cache.compute("b", 70, 1000, current -> null);
+        assertNull(cache.get("b", 70));
+    }
+
+    @Test
+    void purgeStopsAtTheFirstEntryToKeep() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+        cache.put("old-1", 1, BoundedCache.NEVER);
+        cache.put("old-2", 2, BoundedCache.NEVER);
+        cache.put("new", 10, BoundedCache.NEVER);
+        cache.put("old-3", 3, BoundedCache.NEVER);
+
+        int removed = cache.purge(0, value -> value < 5);
+
+        assertEquals(2, removed);
+        assertNull(cache.get("old-1", 0));
+        assertEquals(Integer.valueOf(3), cache.get("old-3", 0));
+    }
+
+    @Test
+    void shrinkingTheBoundDropsTheOldestEntries() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i, BoundedCache.NEVER);
+        }
+
+        cache.setMaxEntries(100);
+
+        assertTrue(cache.size() <= 112, "size " + cache.size());
+        assertEquals(Integer.valueOf(999), cache.get(999, 0));
+        assertThrows(IllegalArgumentException.class, () -> cache.setMaxEntries(0));
+    }
+
+    @Test
+    void removeIfVisitsEverySegment() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10000);
+        for (int i = 0; i < 500; i++) {
+            cache.put("user-" + (i % 2) + ":" + i, "v", BoundedCache.NEVER);
+        }
+
+        cache.removeIf(key -> key.startsWith("user-1:"));
+
+        assertEquals(250, cache.size());
+    }
+}
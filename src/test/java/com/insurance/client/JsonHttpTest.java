@@ -0,0 +1,109 @@
+package com.insurance.client;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonHttpTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/claims", exchange -> {
+            receivedBody.set(readBody(exchange));
+            respond(exchange, 200, "{\"claimId\":\"CLM-1\",\"status\":\"APPROVED\",\"message\":\"Claim approved\"}");
+        });
+        server.createContext("/busy", exchange -> {
+            exchange.getResponseHeaders().set("Retry-After", "7");
+            respond(exchange, 503, "{\"status\":\"REJECTED\",\"message\":\"Too many requests\"}");
+        });
+        server.createContext("/missing", exchange -> respond(exchange, 404, "{\"error\":\"Claim not found\"}"));
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void postSendsTheBodyAsJsonAndParsesTheResponse() throws Exception {
+        ClaimRequest request = new ClaimRequest();
+        request.setClaimId("CLM-1");
+        request.setClaimAmount(1500.0);
+
+        ClaimResponse response = JsonHttp.send(JsonHttp.post(baseUrl + "/claims", request), ClaimResponse.class);
+
+        assertEquals("CLM-1", response.getClaimId());
+        assertEquals("APPROVED", response.getStatus());
+        assertTrue(receivedBody.get().contains("\"claimId\":\"CLM-1\""));
+    }
+
+    @Test
+    void asyncSendParsesTheResponse() throws Exception {
+        ClaimResponse response = JsonHttp.sendAsync(JsonHttp.get(baseUrl + "/claims"), ClaimResponse.class)
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals("Claim approved", response.getMessage());
+    }
+
+    @Test
+    void errorStatusFailsWithTheStatusAndRetryAfter() {
+        HttpStatusException error = assertThrows(HttpStatusException.class,
+                () -> JsonHttp.send(JsonHttp.get(baseUrl + "/busy"), ClaimResponse.class));
+
+        assertEquals(503, error.getStatusCode());
+        assertEquals(7, error.getRetryAfterSeconds());
+        assertTrue(error.getMessage().contains("Too many requests"), error.getMessage());
+    }
+
+    @Test
+    void asyncErrorStatusFailsTheFuture() {
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> JsonHttp.sendAsync(JsonHttp.get(baseUrl + "/missing"), ClaimResponse.class)
+                        .get(10, TimeUnit.SECONDS));
+
+        HttpStatusException status = assertInstanceOf(HttpStatusException.class, error.getCause());
+        assertEquals(404, status.getStatusCode());
+        assertEquals(-1, status.getRetryAfterSeconds());
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.insurance.graphql;
+
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.language.Document;
+import graphql.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CachingDocumentProviderTest {
+
+    private final AtomicInteger parses = new AtomicInteger();
+
+    private final Function<ExecutionInput, PreparsedDocumentEntry> parse = input -> {
+        parses.incrementAndGet();
+        Document document = new Parser().parseDocument(input.getQuery());
+        return new PreparsedDocumentEntry(document);
+    };
+
+    @Test
+    void repeatedQueryIsParsedOnce() {
+        CachingDocumentProvider provider = new CachingDocumentProvider(16);
+        ExecutionInput input = ExecutionInput.newExecutionInput("{ allPolicies { policyId } }").build();
+
+        PreparsedDocumentEntry first = provider.getDocumentAsync(input, parse).join();
+        PreparsedDocumentEntry second = provider.getDocumentAsync(input, parse).join();
+
+        assertSame(first, second);
+        assertEquals(1, parses.get());
+    }
+
+    @Test
+    void documentWithErrorsIsNotCached() {
+        CachingDocumentProvider provider = new CachingDocumentProvider(16);
+        ExecutionInput input = ExecutionInput.newExecutionInput("{ nope }").build();
+        Function<ExecutionInput, PreparsedDocumentEntry> invalid = in -> {
+            parses.incrementAndGet();
+            return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError().message("invalid").build());
+        };
+
+        provider.getDocumentAsync(input, invalid).join();
+        provider.getDocumentAsync(input, invalid).join();
+
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    void leastRecentlyUsedQueryIsEvicted() {
+        CachingDocumentProvider provider = new CachingDocumentProvider(1);
+        ExecutionInput a = ExecutionInput.newExecutionInput("{ allPolicies { policyId } }").build();
+        ExecutionInput b = ExecutionInput.newExecutionInput("{ allPolicies { status } }").build();
+
+        provider.getDocumentAsync(a, parse).join();
+        provider.getDocumentAsync(b, parse).join();
+        provider.getDocumentAsync(a, parse).join();
+
+        assertEquals(3, parses.get());
+    }
+}
@@ -0,0 +1,63 @@
+package com.insurance.graphql;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import graphql.ExecutionInput;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphQLRequestTest {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    void operationIsBoundFromTheStream() throws IOException {
+        GraphQLRequest request = read("{\"query\":\"query P($id: String!) { policy(policyId: $id) { status } }\","
+                + "\"operationName\":\"P\",\"variables\":{\"id\":\"POL-001\"},\"ignored\":[1,{\"a\":2}]}");
+
+        assertEquals("query P($id: String!) { policy(policyId: $id) { status } }", request.getQuery());
+        assertEquals("P", request.getOperationName());
+        assertEquals("POL-001", request.getVariables().get("id"));
+        assertNull(request.getPersistedQueryHash());
+
+        ExecutionInput input = request.toExecutionInput();
+        assertEquals("P", input.getOperationName());
+        assertEquals("POL-001", input.getVariables().get("id"));
+    }
+
+    @Test
+    void nullMembersKeepTheirDefaults() throws IOException {
+        GraphQLRequest request = read("{\"query\":\"{ a }\",\"operationName\":null,\"variables\":null,\"extensions\":null}");
+
+        assertNull(request.getOperationName());
+        assertTrue(request.getVariables().isEmpty());
+        assertTrue(request.getExtensions().isEmpty());
+    }
+
+    @Test
+    void persistedQueryHashIsReadFromTheExtensions() throws IOException {
+        GraphQLRequest request = read("{\"extensions\":{\"persistedQuery\":{\"version\":1,\"sha256Hash\":\"abc123\"}}}");
+
+        assertNull(request.getQuery());
+        assertEquals("abc123", request.getPersistedQueryHash());
+    }
+
+    @Test
+    void readerIsLeftAfterTheOperation() throws IOException {
+        JsonReader reader = new JsonReader(new StringReader("[{\"query\":\"{ a }\"},{\"query\":\"{ b }\"}]"));
+        reader.beginArray();
+        assertEquals("{ a }", GraphQLRequest.read(reader, gson).getQuery());
+        assertEquals("{ b }", GraphQLRequest.read(reader, gson).getQuery());
+        reader.endArray();
+    }
+
+    private GraphQLRequest read(String json) throws IOException {
+        return GraphQLRequest.read(new JsonReader(new StringReader(json)), gson);
+    }
+}
@@ -0,0 +1,76 @@
+package com.insurance.graphql;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistedQueryRegistryTest {
+
+    private static final String POLICY_QUERY = "query { policy(policyId: \"POL-001\") { policyId status } }";
+
+    @Test
+    void registeredDocumentIsFoundByItsHash() {
+        PersistedQueryRegistry registry = new PersistedQueryRegistry(10);
+        String hash = PersistedQueryRegistry.sha256(POLICY_QUERY);
+
+        assertNull(registry.lookup(hash));
+        assertTrue(registry.register(hash, POLICY_QUERY));
+        assertEquals(POLICY_QUERY, registry.lookup(hash));
+        assertEquals(POLICY_QUERY, registry.lookup(hash.toUpperCase()));
+    }
+
+    @Test
+    void documentNotMatchingItsHashIsRefused() {
+        PersistedQueryRegistry registry = new PersistedQueryRegistry(10);
+        String hash = PersistedQueryRegistry.sha256(POLICY_QUERY);
+
+        assertFalse(registry.register(hash, "query { policiesByUser(userId: \"USR-123\") { policyId } }"));
+        assertNull(registry.lookup(hash));
+    }
+
+    @Test
+    void registeredDocumentsAreEvictedLeastRecentlyUsedFirst() {
+        PersistedQueryRegistry registry = new PersistedQueryRegistry(2);
+        String first = "query { a }";
+        String second = "query { b }";
+        String third = "query { c }";
+        registry.register(PersistedQueryRegistry.sha256(first), first);
+        registry.register(PersistedQueryRegistry.sha256(second), second);
+        registry.lookup(PersistedQueryRegistry.sha256(first));
+        registry.register(PersistedQueryRegistry.sha256(third), third);
+
+        assertEquals(first, registry.lookup(PersistedQueryRegistry.sha256(first)));
+        assertNull(registry.lookup(PersistedQueryRegistry.sha256(second)));
+        assertEquals(third, registry.lookup(PersistedQueryRegistry.sha256(third)));
+    }
+
+    @Test
+    void preloadedDocumentsAreNeverEvicted() {
+        PersistedQueryRegistry registry = new PersistedQueryRegistry(1);
+        assertEquals(1, registry.load(json("[\"" + POLICY_QUERY.replace("\"", "\\\"") + "\"]")));
+        registry.register(PersistedQueryRegistry.sha256("query { a }"), "query { a }");
+        registry.register(PersistedQueryRegistry.sha256("query { b }"), "query { b }");
+
+        assertTrue(registry.isPreloaded(POLICY_QUERY));
+        assertEquals(POLICY_QUERY, registry.lookup(PersistedQueryRegistry.sha256(POLICY_QUERY)));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void bundledDocumentsLoad() {
+        PersistedQueryRegistry registry = new PersistedQueryRegistry(10);
+        InputStream bundled = getClass().getClassLoader().getResourceAsStream("persisted-queries.json");
+        assertTrue(registry.load(bundled) > 0);
+    }
+
+    private static InputStream json(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,152 @@
+package com.insurance.graphql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PolicyCacheTest {
+
+    private final InMemoryBackend backend = new InMemoryBackend();
+
+    @Test
+    void policyIsLoadedOnceAndThenServedFromTheCache() {
+        backend.create(policy("POL-001", "ACTIVE"));
+        PolicyCache cache = new PolicyCache(backend, 100, 1, TimeUnit.HOURS);
+
+        assertEquals("ACTIVE", cache.get("POL-001").getStatus());
+        assertEquals("ACTIVE", cache.get("POL-001").getStatus());
+        assertEquals(1, backend.reads.get());
+    }
+
+    @Test
+    void expiredEntryIsLoadedAgain() {
+        backend.create(policy("POL-001", "ACTIVE"));
+        PolicyCache cache = new PolicyCache(backend, 100, 0, TimeUnit.SECONDS);
+
+        cache.get("POL-001");
+        backend.update("POL-001", null, p -> p.setStatus("SUSPENDED"));
+        assertEquals("SUSPENDED", cache.get("POL-001").getStatus());
+        assertEquals(2, backend.reads.get());
+    }
+
+    @Test
+    void writeReplacesTheCachedVersion() {
+        backend.create(policy("POL-001", "ACTIVE"));
+        PolicyCache cache = new PolicyCache(backend, 100, 1, TimeUnit.HOURS);
+        cache.get("POL-001");
+
+        cache.invalidate(backend.update("POL-001", 1L, p -> p.setStatus("SUSPENDED")));
+
+        Policy cached = cache.get("POL-001");
+        assertEquals("SUSPENDED", cached.getStatus());
+        assertEquals(2, cached.getVersion());
+        assertEquals(1, backend.reads.get());
+    }
+
+    @Test
+    void olderVersionNeverReplacesANewerOne() {
+        PolicyCache cache = new PolicyCache(backend, 100, 1, TimeUnit.HOURS);
+        Policy newer = policy("POL-001", "CANCELLED");
+        newer.setVersion(3);
+        Policy older = policy("POL-001", "ACTIVE");
+        older.setVersion(2);
+
+        cache.invalidate(newer);
+        cache.invalidate(older);
+
+        assertEquals("CANCELLED", cache.get("POL-001").getStatus());
+    }
+
+    @Test
+    void missingPolicyIsNotCached() {
+        PolicyCache cache = new PolicyCache(backend, 100, 1, TimeUnit.HOURS);
+
+        assertNull(cache.get("POL-404"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void cacheStaysWithinItsBound() {
+        PolicyCache cache = new PolicyCache(backend, 10, 1, TimeUnit.HOURS);
+        for (int i = 0; i < 50; i++) {
+            Policy written = policy("POL-" + i, "ACTIVE");
+            written.setVersion(1);
+            cache.invalidate(written);
+        }
+        assertTrue(cache.size() <= 10);
+    }
+
+    private static Policy policy(String policyId, String status) {
+        return new Policy(policyId, "USR-123", "AUTO", status, 50000.0, 1200.0,
+                "2024-01-01", "2025-01-01", "ACTIVE".equals(status));
+    }
+
+    /**
+     * Map-backed policies, counting reads by ID
+     */
+    private static final class InMemoryBackend implements PolicyBackend {
+        final AtomicInteger reads = new AtomicInteger();
+        private final Map<String, Policy> policies = new ConcurrentHashMap<>();
+
+        @Override
+        public Policy findById(String policyId) {
+            reads.incrementAndGet();
+            Policy policy = policies.get(policyId);
+            return policy != null ? new Policy(policy) : null;
+        }
+
+        @Override
+        public List<Policy> findByUserId(String userId) {
+            List<Policy> found = new ArrayList<>();
+            for (Policy policy : policies.values()) {
+                if (policy.getUserId().equals(userId)) {
+                    found.add(new Policy(policy));
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public List<Policy> findAll() {
+            List<Policy> all = new ArrayList<>();
+            for (Policy policy : policies.values()) {
+                all.add(new Policy(policy));
+            }
+            return all;
+        }
+
+        @Override
+        public Policy create(Policy policy) {
+            Policy stored = new Policy(policy);
+            stored.setVersion(1);
+            if (policies.putIfAbsent(stored.getPolicyId(), stored) != null) {
+                throw new IllegalArgumentException("Policy already exists: " + policy.getPolicyId());
+            }
+            return new Policy(stored);
+        }
+
+        @Override
+        public synchronized Policy update(String policyId, Long expectedVersion, Consumer<Policy> change) {
+            Policy stored = policies.get(policyId);
+            if (stored == null) {
+                throw new IllegalArgumentException("Policy not found: " + policyId);
+            }
+            if (expectedVersion != null && expectedVersion != stored.getVersion()) {
+                throw new IllegalStateException("Version conflict on " + policyId);
+            }
+            change.accept(stored);
+            stored.setVersion(stored.getVersion() + 1);
+            return new Policy(stored);
+        }
+    }
+}
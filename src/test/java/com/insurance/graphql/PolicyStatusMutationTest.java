@@ -0,0 +1,63 @@
+package com.insurance.graphql;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PolicyStatusMutationTest {
+
+    private FilePolicyBackend backend;
+    private GraphQL graphQL;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        backend = new FilePolicyBackend(null);
+        PolicyDataFetcher.configure(backend);
+
+        String schema;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("schema.graphql")) {
+            schema = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                .type("Mutation", builder -> builder
+                        .dataFetcher("updatePolicyStatus", PolicyDataFetcher.updatePolicyStatus()))
+                .build();
+        graphQL = GraphQL.newGraphQL(new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(schema), wiring))
+                .build();
+    }
+
+    @Test
+    void knownStatusIsApplied() {
+        ExecutionResult result = graphQL.execute(
+                "mutation { updatePolicyStatus(policyId: \"POL-001\", status: \"SUSPENDED\") { policyId status } }");
+
+        assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+        Map<String, Map<String, Object>> data = result.getData();
+        assertEquals("SUSPENDED", data.get("updatePolicyStatus").get("status"));
+        assertEquals("SUSPENDED", backend.findById("POL-001").getStatus());
+    }
+
+    @Test
+    void unknownStatusIsRejectedAndThePolicyIsLeftAlone() {
+        ExecutionResult result = graphQL.execute(
+                "mutation { updatePolicyStatus(policyId: \"POL-001\", status: \"BOGUS\") { policyId status } }");
+
+        assertEquals(1, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).getMessage().contains("Invalid status: BOGUS"));
+        assertEquals("BAD_USER_INPUT", result.getErrors().get(0).getExtensions().get("code"));
+        assertEquals("ACTIVE", backend.findById("POL-001").getStatus());
+        assertTrue(backend.findById("POL-001").isActive());
+    }
+}
@@ -0,0 +1,78 @@
+package com.insurance.health;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadinessTest {
+
+    @Test
+    void notReadyUntilStartupCompletes() {
+        Readiness readiness = new Readiness(0, 1000);
+        readiness.register("soap", () -> "up");
+
+        assertFalse(readiness.evaluate().isReady());
+        readiness.setState(Readiness.State.WARMING_UP, "Warming up");
+        assertFalse(readiness.evaluate().isReady());
+        readiness.setState(Readiness.State.READY, "Ready");
+
+        Readiness.Report report = readiness.evaluate();
+        assertTrue(report.isReady());
+        assertEquals("READY", report.getStatus());
+        assertEquals("up", report.getChecks().get("soap").getDetail());
+    }
+
+    @Test
+    void failingCheckMakesTheApplicationNotReady() {
+        Readiness readiness = new Readiness(0, 1000);
+        readiness.setState(Readiness.State.READY, "Ready");
+        readiness.register("soap", () -> "up");
+        readiness.register("grpc", () -> {
+            throw new IllegalStateException("connection refused");
+        });
+
+        Readiness.Report report = readiness.evaluate();
+
+        assertFalse(report.isReady());
+        assertEquals("NOT_READY", report.getStatus());
+        assertTrue(report.getChecks().get("soap").isUp());
+        assertEquals("IllegalStateException: connection refused", report.getChecks().get("grpc").getDetail());
+    }
+
+    @Test
+    void slowCheckTimesOut() {
+        CountDownLatch never = new CountDownLatch(1);
+        Readiness readiness = new Readiness(0, 100);
+        readiness.setState(Readiness.State.READY, "Ready");
+        readiness.register("graphql", () -> {
+            never.await();
+            return "up";
+        });
+
+        Readiness.CheckResult result = readiness.evaluate().getChecks().get("graphql");
+
+        assertFalse(result.isUp());
+        assertEquals("Timed out after 100 ms", result.getDetail());
+    }
+
+    @Test
+    void reportIsCachedUntilTheStateChanges() {
+        AtomicInteger runs = new AtomicInteger();
+        Readiness readiness = new Readiness(60_000, 1000);
+        readiness.register("soap", () -> "run " + runs.incrementAndGet());
+
+        Readiness.Report first = readiness.evaluate();
+        assertSame(first, readiness.evaluate());
+        assertEquals(1, runs.get());
+
+        readiness.setState(Readiness.State.READY, "Ready");
+        assertTrue(readiness.evaluate().isReady());
+        assertEquals(2, runs.get());
+    }
+}
@@ -0,0 +1,197 @@
+package com.insurance.journal;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClaimJournalTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replayReturnsRecordsInAppendOrderAcrossSegments() {
+        try (ClaimJournal journal = new ClaimJournal(dir, SEGMENT_BYTES, 0)) {
+            for (int i = 0; i < 100; i++) {
+                journal.appendSubmitted(claim("C" + i), "key:K" + i);
+                journal.appendDecision(approved("C" + i), "key:K" + i);
+            }
+            journal.awaitDurable(199);
+            assertTrue(journal.getSegmentCount() > 1, "expected the journal to roll over");
+        }
+
+        List<JournalRecord> records = replay(new ClaimJournal(dir, SEGMENT_BYTES, 0));
+        assertEquals(200, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            JournalRecord record = records.get(i);
+            assertEquals(i, record.getSequence());
+            assertEquals(i % 2 == 0 ? JournalRecord.Type.SUBMITTED : JournalRecord.Type.DECIDED, record.getType());
+            assertEquals("C" + i / 2, record.getClaimId());
+            assertEquals("key:K" + i / 2, record.getIdempotencyKey());
+        }
+    }
+
+    @Test
+    void tornTailIsDiscardedAndAppendingContinuesAfterIt() throws IOException {
+        try (ClaimJournal journal = new ClaimJournal(dir, SEGMENT_BYTES, 0)) {
+            journal.appendSubmitted(claim("C1"), null);
+            journal.appendSubmitted(claim("C2"), null);
+            journal.awaitDurable(journal.appendDecision(approved("C1"), null));
+        }
+        // A crash mid-append: a frame header promising a body that never made it
+        writeTornFrame(dir.resolve("claims-00000000.journal"));
+
+        try (ClaimJournal journal = new ClaimJournal(dir, SEGMENT_BYTES, 0)) {
+            List<JournalRecord> records = new ArrayList<>();
+            journal.replay(records::add);
+            assertEquals(3, records.size());
+            journal.awaitDurable(journal.appendDecision(approved("C2"), null));
+        }
+
+        List<JournalRecord> records = replay(new ClaimJournal(dir, SEGMENT_BYTES, 0));
+        assertEquals(4, records.size());
+        assertEquals(3, records.get(3).getSequence());
+        assertEquals("C2", records.get(3).getClaimId());
+    }
+
+    @Test
+    void retentionKeepsUndecidedClaimsWithTheirKeys() throws InterruptedException {
+        try (ClaimJournal journal = new ClaimJournal(dir, SEGMENT_BYTES, 0, 1)) {
+            for (int i = 0; i < 60; i++) {
+                journal.appendSubmitted(claim("C" + i), "key:K" + i);
+                if (i % 2 == 0) {
+                    journal.appendDecision(approved("C" + i), "key:K" + i);
+                }
+            }
+            journal.awaitDurable(89);
+            assertTrue(journal.getSegmentCount() > 1, "expected the journal to roll over");
+
+            // Carrying open claims forward may roll a new segment, so check the oldest one went
+            TimeUnit.MILLISECONDS.sleep(1100);
+            journal.retireExpired();
+            assertTrue(journal.getRetired() > 0);
+            assertFalse(Files.exists(dir.resolve("claims-00000000.journal")));
+        }
+
+        Map<String, String> open = new LinkedHashMap<>();
+        for (JournalRecord record : replay(new ClaimJournal(dir, SEGMENT_BYTES, 0))) {
+            if (record.getType() == JournalRecord.Type.SUBMITTED) {
+                open.put(record.getClaimId(), record.getIdempotencyKey());
+            } else {
+                open.remove(record.getClaimId());
+            }
+        }
+        assertEquals(30, open.size());
+        for (int i = 1; i < 60; i += 2) {
+            assertEquals("key:K" + i, open.get("C" + i));
+        }
+    }
+
+    @Test
+    void whenDurableCompletesAfterTheSync() throws Exception {
+        try (ClaimJournal journal = new ClaimJournal(dir, SEGMENT_BYTES, 200)) {
+            long sequence = journal.appendDecision(approved("C1"), null);
+            journal.whenDurable(sequence).get(5, TimeUnit.SECONDS);
+            assertTrue(journal.whenDurable(sequence).isDone());
+        }
+    }
+
+    @Test
+    void failedSyncReleasesWaitersAndStopsTheJournal() throws Exception {
+        AtomicBoolean diskFull = new AtomicBoolean();
+        try (ClaimJournal journal = new ClaimJournal(dir, SEGMENT_BYTES, 0) {
+            @Override
+            void force(JournalSegment segment) {
+                if (diskFull.get()) {
+                    throw new UncheckedIOException(new IOException("No space left on device"));
+                }
+                super.force(segment);
+            }
+        }) {
+            journal.awaitDurable(journal.appendSubmitted(claim("C1"), null));
+
+            diskFull.set(true);
+            long sequence = journal.appendDecision(approved("C1"), null);
+            ExecutionException failed = assertThrows(ExecutionException.class,
+                    () -> journal.whenDurable(sequence).get(5, TimeUnit.SECONDS));
+            assertTrue(failed.getCause().getCause() instanceof UncheckedIOException);
+
+            IllegalStateException waiting = assertThrows(IllegalStateException.class,
+                    () -> journal.awaitDurable(sequence));
+            assertTrue(waiting.getCause() instanceof UncheckedIOException);
+            assertThrows(IllegalStateException.class, () -> journal.appendSubmitted(claim("C2"), null));
+            assertThrows(IllegalStateException.class, journal::checkWritable);
+        }
+    }
+
+    private static List<JournalRecord> replay(ClaimJournal journal) {
+        List<JournalRecord> records = new ArrayList<>();
+        try {
+            journal.replay(records::add);
+        } finally {
+            journal.close();
+        }
+        return records;
+    }
+
+    /**
+     * Write a frame header with a bad CRC right after the last record of the segment
+     */
+    private static void writeTornFrame(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(JournalCodec.FRAME_HEADER_BYTES);
+            long position = 0;
+            while (true) {
+                header.clear();
+                channel.read(header, position);
+                int length = header.getInt(0);
+                if (length == 0) {
+                    break;
+                }
+                position += JournalCodec.FRAME_HEADER_BYTES + length;
+            }
+            header.clear();
+            header.putInt(64).putInt(12345).flip();
+            channel.write(header, position);
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5}), position + JournalCodec.FRAME_HEADER_BYTES);
+        }
+    }
+
+    private static ClaimRequest claim(String claimId) {
+        ClaimRequest request = new ClaimRequest();
+        request.setClaimId(claimId);
+        request.setUserId("USER001");
+        request.setClaimType("AUTO");
+        request.setClaimAmount(1500.0);
+        request.setDescription("Rear bumper damage");
+        request.setIncidentDate("2024-01-15");
+        return request;
+    }
+
+    private static ClaimResponse approved(String claimId) {
+        return new ClaimResponse(claimId, "APPROVED", "Claim approved", "2024-01-16 10:00:00");
+    }
+}
@@ -0,0 +1,60 @@
+package com.insurance.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EndpointStatsTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void responseTimeIncludesTheTimeSpentWaitingToBeSent() {
+        EndpointStats stats = new EndpointStats("rest");
+
+        // Scheduled at 0, sent 40 ms late, answered 10 ms after sending
+        stats.record(0, 40 * MS, 50 * MS, true);
+
+        Histogram response = stats.takeResponseTimes();
+        Histogram service = stats.takeServiceTimes();
+        assertEquals(1, response.getTotalCount());
+        // Recorded in microseconds with three significant digits
+        assertEquals(50.0, response.getMaxValue() / 1000.0, 0.1);
+        assertEquals(10.0, service.getMaxValue() / 1000.0, 0.1);
+    }
+
+    @Test
+    void failedRequestsAreCountedAsErrors() {
+        EndpointStats stats = new EndpointStats("grpc");
+
+        stats.record(0, 0, 5 * MS, true);
+        stats.record(0, 0, 5 * MS, false);
+
+        assertEquals(1, stats.getErrors());
+        assertEquals(2, stats.takeResponseTimes().getTotalCount());
+    }
+
+    @Test
+    void abandonedRequestIsATimeoutWithTheTimeItHadWaited() {
+        EndpointStats stats = new EndpointStats("rest");
+
+        stats.recordTimeout(0, 200 * MS);
+
+        assertEquals(1, stats.getTimeouts());
+        assertEquals(1, stats.getErrors());
+        assertEquals(200.0, stats.takeResponseTimes().getMaxValue() / 1000.0, 0.5);
+        assertEquals(0, stats.takeServiceTimes().getTotalCount());
+    }
+
+    @Test
+    void takingTheHistogramStartsANewInterval() {
+        EndpointStats stats = new EndpointStats("graphql");
+        stats.record(0, 0, 5 * MS, true);
+
+        assertEquals(1, stats.takeResponseTimes().getTotalCount());
+        assertEquals(0, stats.takeResponseTimes().getTotalCount());
+    }
+}
@@ -0,0 +1,64 @@
+package com.insurance.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventLogTest {
+
+    private static String text(LogEvent event) {
+        StringBuilder out = new StringBuilder();
+        EventLog.formatText(event, out);
+        return out.toString();
+    }
+
+    private static String json(LogEvent event) {
+        StringBuilder out = new StringBuilder();
+        EventLog.formatJson(event, out);
+        return out.toString();
+    }
+
+    @Test
+    void plainValuesAreWrittenAsIs() {
+        String line = text(new LogEvent(Level.INFO, "claim.submitted", new Object[]{"claimId", "C-1", "amount", 250}, null));
+
+        assertTrue(line.endsWith(" claim.submitted claimId=C-1 amount=250" + System.lineSeparator()), line);
+    }
+
+    @Test
+    void lineBreaksInAValueCannotForgeAnotherEvent() {
+        String forged = "C-1\r\n2026-01-01T00:00:00.000Z INFO  [main] admission.updated";
+        String line = text(new LogEvent(Level.INFO, "claim.submitted", new Object[]{"claimId", forged}, null));
+
+        assertEquals(1, line.split("\\R").length, line);
+        assertTrue(line.contains("claimId=\"C-1\\r\\n2026-01-01T00:00:00.000Z INFO  [main] admission.updated\""), line);
+    }
+
+    @Test
+    void otherControlCharactersAreEscaped() {
+        String line = text(new LogEvent(Level.WARN, "x", new Object[]{"a", "b\u001bc", "d", "e\\f"}, null));
+
+        assertTrue(line.contains("a=\"b\\u001bc\" d=\"e\\\\f\""), line);
+    }
+
+    @Test
+    void stackTraceLinesAreIndentedUnderTheirEvent() {
+        String line = text(new LogEvent(Level.ERROR, "claim.failed", new Object[0],
+                new IllegalStateException("bad\nthing")));
+
+        String[] lines = line.split("\\R");
+        assertTrue(lines[0].endsWith("claim.failed error=\"bad\\nthing\""), lines[0]);
+        for (int i = 1; i < lines.length; i++) {
+            assertTrue(lines[i].startsWith("\t"), lines[i]);
+        }
+    }
+
+    @Test
+    void jsonEscapesControlCharacters() {
+        String line = json(new LogEvent(Level.INFO, "x", new Object[]{"claimId", "a\"b\nc\u007f"}, null));
+
+        assertTrue(line.contains("\"claimId\":\"a\\\"b\\nc\\u007f\""), line);
+        assertEquals(1, line.split("\\R").length, line);
+    }
+}
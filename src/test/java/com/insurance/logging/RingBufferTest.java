@@ -0,0 +1,93 @@
+package com.insurance.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    private static final int PRODUCERS = 8;
+    private static final int PER_PRODUCER = 20000;
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(2, new RingBuffer<String>(1).capacity());
+        assertEquals(8, new RingBuffer<String>(5).capacity());
+        assertEquals(8192, new RingBuffer<String>(8192).capacity());
+    }
+
+    @Test
+    void elementsComeOutInOrderAndAFullBufferRefusesMore() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+
+        assertEquals(Integer.valueOf(0), buffer.poll());
+        assertTrue(buffer.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(Integer.valueOf(i), buffer.poll());
+        }
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void concurrentProducersLoseNothingThatWasAccepted() throws Exception {
+        RingBuffer<Long> buffer = new RingBuffer<>(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] accepted = new long[PRODUCERS];
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < PER_PRODUCER; i++) {
+                    while (!buffer.offer((long) producer * PER_PRODUCER + i)) {
+                        Thread.yield();
+                    }
+                    accepted[producer]++;
+                }
+            });
+            thread.start();
+            producers.add(thread);
+        }
+
+        Set<Long> received = new HashSet<>();
+        long[] lastPerProducer = new long[PRODUCERS];
+        java.util.Arrays.fill(lastPerProducer, -1);
+        start.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received.size() < PRODUCERS * PER_PRODUCER && System.nanoTime() < deadline) {
+            Long value = buffer.poll();
+            if (value == null) {
+                Thread.yield();
+                continue;
+            }
+            assertTrue(received.add(value), "duplicate " + value);
+            int producer = (int) (value / PER_PRODUCER);
+            assertTrue(value > lastPerProducer[producer], "out of order for producer " + producer);
+            lastPerProducer[producer] = value;
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertEquals(PRODUCERS * PER_PRODUCER, received.size());
+        assertNull(buffer.poll());
+    }
+}
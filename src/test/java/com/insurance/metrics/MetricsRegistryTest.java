@@ -0,0 +1,88 @@
+package com.insurance.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry(3);
+
+    @Test
+    void histogramIsExportedWithCumulativeBuckets() {
+        LatencyHistogram histogram = registry.histogram("stage_duration_seconds", "Stage latency",
+                "stage", "fraud_detection");
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(50));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        histogram.record(TimeUnit.SECONDS.toNanos(30));
+
+        String text = registry.scrape();
+
+        assertTrue(text.contains("# TYPE stage_duration_seconds histogram\n"));
+        assertTrue(text.contains("stage_duration_seconds_bucket{stage=\"fraud_detection\",le=\"0.0001\"} 1\n"));
+        assertTrue(text.contains("stage_duration_seconds_bucket{stage=\"fraud_detection\",le=\"0.005\"} 2\n"));
+        assertTrue(text.contains("stage_duration_seconds_bucket{stage=\"fraud_detection\",le=\"10\"} 2\n"));
+        assertTrue(text.contains("stage_duration_seconds_bucket{stage=\"fraud_detection\",le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("stage_duration_seconds_count{stage=\"fraud_detection\"} 3\n"));
+        assertEquals(3, histogram.getCount());
+    }
+
+    @Test
+    void sameNameAndLabelsGiveTheSameSeries() {
+        Counter first = registry.counter("claims_total", "Claims", "status", "APPROVED");
+        Counter second = registry.counter("claims_total", "Claims", "status", "APPROVED");
+        first.increment();
+        second.add(2);
+
+        assertSame(first, second);
+        assertTrue(registry.scrape().contains("claims_total{status=\"APPROVED\"} 3\n"));
+    }
+
+    @Test
+    void gaugeIsReadAtExportTime() {
+        int[] queued = {4};
+        registry.gauge("lane_queued", "Queued claims", () -> queued[0], "lane", "express");
+        queued[0] = 7;
+
+        assertTrue(registry.scrape().contains("lane_queued{lane=\"express\"} 7\n"));
+    }
+
+    @Test
+    void runningTotalKeptElsewhereIsExportedAsACounter() {
+        long[] syncs = {41};
+        registry.counter("journal_syncs_total", "Journal syncs", () -> syncs[0]);
+        syncs[0]++;
+
+        String text = registry.scrape();
+        assertTrue(text.contains("# TYPE journal_syncs_total counter\n"));
+        assertTrue(text.contains("journal_syncs_total 42\n"));
+    }
+
+    @Test
+    void labelValuesAreEscaped() {
+        registry.counter("requests_total", "Requests", "path", "/a\"b\\c\nd").increment();
+
+        assertTrue(registry.scrape().contains("requests_total{path=\"/a\\\"b\\\\c\\nd\"} 1\n"));
+    }
+
+    @Test
+    void seriesBeyondTheCapAreCountedAsOther() {
+        for (int i = 0; i < 10; i++) {
+            registry.counter("operations_total", "Operations", "operation", "op" + i).increment();
+        }
+
+        assertTrue(registry.scrape().contains("operations_total{operation=\"other\"} 7\n"));
+    }
+
+    @Test
+    void nameCannotBeReusedForAnotherType() {
+        registry.counter("claims_total", "Claims");
+
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("claims_total", "Claims"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.insurance.orchestrator;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClaimSchedulerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ClaimScheduler scheduler;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void claimsAreSortedIntoLanesByAmountAndType() {
+        scheduler = new ClaimScheduler(orchestrator(null, null),
+                ClaimScheduler.parseLanes(ClaimScheduler.DEFAULT_LANES, 10));
+
+        assertEquals("express", scheduler.laneFor(claim("C1", "AUTO", 5000), null).getName());
+        assertEquals("standard", scheduler.laneFor(claim("C2", "PROPERTY", 5000), null).getName());
+        assertEquals("standard", scheduler.laneFor(claim("C3", "AUTO", 50000), null).getName());
+        assertEquals("large", scheduler.laneFor(claim("C4", "HEALTH", 500000), null).getName());
+        assertEquals("large", scheduler.laneFor(claim("C5", "AUTO", 100), " LARGE ").getName());
+        assertEquals("express", scheduler.laneFor(claim("C6", "AUTO", 100), "unknown").getName());
+    }
+
+    @Test
+    void invalidLaneSpecIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ClaimScheduler.parseLanes("express:6:16", 10));
+    }
+
+    @Test
+    void fullLaneRejectsFurtherClaims() throws Exception {
+        scheduler = new ClaimScheduler(orchestrator(release, null), ClaimScheduler.parseLanes("only:1:1:*", 1));
+        SchedulingLane lane = scheduler.getLanes().get(0);
+
+        CompletableFuture<ClaimResponse> running = scheduler.submit(claim("C1", "AUTO", 100), null);
+        awaitRunning(lane, 1);
+        CompletableFuture<ClaimResponse> queued = scheduler.submit(claim("C2", "AUTO", 100), null);
+
+        assertThrows(RejectedExecutionException.class, () -> scheduler.submit(claim("C3", "AUTO", 100), null));
+        assertEquals(1, lane.getRejected());
+
+        release.countDown();
+        assertEquals("C1", running.get(5, TimeUnit.SECONDS).getClaimId());
+        assertEquals("C2", queued.get(5, TimeUnit.SECONDS).getClaimId());
+    }
+
+    @Test
+    void busyLaneDoesNotHoldUpAnother() throws Exception {
+        List<SchedulingLane> lanes = ClaimScheduler.parseLanes("slow:1:1:*:PROPERTY,fast:1:1:*", 10);
+        scheduler = new ClaimScheduler(orchestrator(release, "PROPERTY"), lanes);
+
+        CompletableFuture<ClaimResponse> blocked = scheduler.submit(claim("C1", "PROPERTY", 100), null);
+        scheduler.submit(claim("C2", "PROPERTY", 100), null);
+
+        assertEquals("APPROVED", scheduler.submit(claim("C3", "AUTO", 100), null)
+                .get(5, TimeUnit.SECONDS).getStatus());
+        assertFalse(blocked.isDone());
+    }
+
+    /**
+     * Orchestrator approving every claim; claims of blockedType (all claims if
+     * null) wait for release first, unless release is null
+     */
+    private static InsuranceClaimOrchestrator orchestrator(CountDownLatch release, String blockedType) {
+        return new InsuranceClaimOrchestrator(null, null) {
+            @Override
+            public ClaimResponse processClaim(ClaimRequest request) {
+                if (release != null && (blockedType == null || blockedType.equals(request.getClaimType()))) {
+                    await(release);
+                }
+                return new ClaimResponse(request.getClaimId(), "APPROVED", "Claim approved", null);
+            }
+        };
+    }
+
+    private void awaitRunning(SchedulingLane lane, int running) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.getRunning(lane) < running && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ClaimRequest claim(String claimId, String claimType, double amount) {
+        ClaimRequest request = new ClaimRequest();
+        request.setClaimId(claimId);
+        request.setUserId("USER001");
+        request.setClaimType(claimType);
+        request.setClaimAmount(amount);
+        request.setDescription("Test claim");
+        request.setIncidentDate("2024-01-15");
+        return request;
+    }
+}
@@ -0,0 +1,91 @@
+package com.insurance.orchestrator;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+import com.insurance.soap.IdentityCheck;
+import com.insurance.soap.IdentityVerificationService;
+import com.insurance.soap.IdentityVerifier;
+import com.insurance.soap.VerificationResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProcessClaimsTest {
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger singleChecks = new AtomicInteger();
+
+    @Test
+    void batchLargerThanTheServiceLimitIsVerifiedInChunks() {
+        int max = IdentityVerificationService.MAX_BATCH_SIZE;
+        List<ClaimRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 2 * max + 1; i++) {
+            requests.add(new ClaimRequest("CLM-" + i, "USR-123", "AUTO", 1000.0, "test", "2024-01-15"));
+        }
+
+        List<ClaimResponse> responses = new InsuranceClaimOrchestrator(new LimitedVerifier(max), null)
+                .processClaims(requests);
+
+        assertEquals(Arrays.asList(max, max, 1), batchSizes);
+        assertEquals(0, singleChecks.get());
+        assertEquals(requests.size(), responses.size());
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals("CLM-" + i, responses.get(i).getClaimId());
+        }
+    }
+
+    /**
+     * Verifier that, like the SOAP service, rejects batches above a maximum size
+     */
+    private final class LimitedVerifier implements IdentityVerifier {
+        private final int maxBatchSize;
+
+        LimitedVerifier(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        @Override
+        public VerificationResult verifyIdentity(String userId, String name, String documentId) {
+            singleChecks.incrementAndGet();
+            return verified(userId);
+        }
+
+        @Override
+        public VerificationResult[] verifyIdentities(IdentityCheck[] checks) {
+            if (checks.length > maxBatchSize) {
+                throw new IllegalArgumentException("Batch exceeds maximum of " + maxBatchSize + " checks");
+            }
+            batchSizes.add(checks.length);
+            VerificationResult[] results = new VerificationResult[checks.length];
+            for (int i = 0; i < checks.length; i++) {
+                results[i] = verified(checks[i].getUserId());
+            }
+            return results;
+        }
+
+        @Override
+        public VerificationResult verifyIdentityDocument(String userId, String name, String documentId,
+                                                         byte[] documentImage) {
+            return verified(userId);
+        }
+
+        @Override
+        public String getServiceStatus() {
+            return "ok";
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private VerificationResult verified(String userId) {
+            return new VerificationResult(userId, true, 0.95, "Identity verified successfully", "TEST");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.insurance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.Response;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AdmissionAdminServiceTest {
+
+    private final AdmissionAdminService service = new AdmissionAdminService();
+
+    @AfterEach
+    void clearToken() {
+        System.clearProperty("admission.admin.token");
+    }
+
+    @Test
+    void updatesAreRefusedWithoutAConfiguredToken() {
+        Response response = service.updateConfig("Bearer anything", new AdmissionConfig());
+
+        assertEquals(403, response.getStatus());
+    }
+
+    @Test
+    void invalidConfigIsRejectedWithAStructuredError() {
+        System.setProperty("admission.admin.token", "s3cret");
+        AdmissionConfig before = AdmissionController.shared().getConfig();
+        AdmissionConfig config = new AdmissionConfig();
+        config.setUserRatePerSecond(-1);
+
+        Response response = service.updateConfig("Bearer s3cret", config);
+
+        assertEquals(400, response.getStatus());
+        Map<?, ?> body = (Map<?, ?>) response.getEntity();
+        assertEquals("Rates must be positive", body.get("error"));
+        assertSame(before, AdmissionController.shared().getConfig());
+    }
+}
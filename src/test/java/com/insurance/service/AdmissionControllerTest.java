@@ -0,0 +1,100 @@
+package com.insurance.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControllerTest {
+
+    @Test
+    void userOverItsBurstIsRejectedWithARetryHint() {
+        AdmissionController controller = new AdmissionController(config(1, 3, 100));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(controller.tryAdmit("USER001", "web").isAdmitted());
+            controller.release();
+        }
+        AdmissionController.Decision rejected = controller.tryAdmit("USER001", "web");
+
+        assertFalse(rejected.isAdmitted());
+        assertTrue(rejected.getReason().contains("USER001"));
+        assertTrue(rejected.getRetryAfterSeconds() >= 1);
+        assertTrue(controller.tryAdmit("USER002", "web").isAdmitted());
+    }
+
+    @Test
+    void concurrencyCapHoldsUntilASlotIsReleased() {
+        AdmissionController controller = new AdmissionController(config(100, 100, 2));
+
+        assertTrue(controller.tryAdmit("USER001", "web").isAdmitted());
+        assertTrue(controller.tryAdmit("USER002", "web").isAdmitted());
+        assertFalse(controller.tryAdmit("USER003", "web").isAdmitted());
+
+        controller.release();
+        assertTrue(controller.tryAdmit("USER003", "web").isAdmitted());
+        assertEquals(2, controller.getInFlight());
+        assertEquals(1, controller.getRejected());
+    }
+
+    @Test
+    void submissionRejectedByALaterCheckCostsNoEarlierToken() {
+        AdmissionConfig config = config(0.001, 1, 100);
+        config.setClientRatePerSecond(0.001);
+        config.setClientBurst(2);
+        AdmissionController controller = new AdmissionController(config);
+
+        assertTrue(controller.tryAdmit("USER001", "web").isAdmitted());
+        assertFalse(controller.tryAdmit("USER001", "web").isAdmitted());
+
+        // The second USER001 submission gave its client token back
+        assertTrue(controller.tryAdmit("USER002", "web").isAdmitted());
+        assertFalse(controller.tryAdmit("USER003", "web").isAdmitted());
+    }
+
+    @Test
+    void disabledControllerAdmitsEverything() {
+        AdmissionConfig config = config(1, 1, 1);
+        config.setEnabled(false);
+        AdmissionController controller = new AdmissionController(config);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(controller.tryAdmit("USER001", "web").isAdmitted());
+        }
+    }
+
+    @Test
+    void invalidLimitsAreRefused() {
+        AdmissionController controller = new AdmissionController(config(1, 1, 1));
+        AdmissionConfig invalid = config(1, 1, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> controller.updateConfig(invalid));
+        assertEquals(1, controller.getConfig().getMaxConcurrent());
+    }
+
+    @Test
+    void updatedLimitsApplyToTheNextSubmission() {
+        AdmissionController controller = new AdmissionController(config(100, 100, 1));
+        assertTrue(controller.tryAdmit("USER001", "web").isAdmitted());
+        assertFalse(controller.tryAdmit("USER002", "web").isAdmitted());
+
+        controller.updateConfig(config(100, 100, 2));
+
+        assertTrue(controller.tryAdmit("USER002", "web").isAdmitted());
+    }
+
+    private static AdmissionConfig config(double userRate, int userBurst, int maxConcurrent) {
+        AdmissionConfig config = new AdmissionConfig();
+        config.setEnabled(true);
+        config.setUserRatePerSecond(userRate);
+        config.setUserBurst(userBurst);
+        config.setClientRatePerSecond(1000);
+        config.setClientBurst(1000);
+        config.setMaxConcurrent(maxConcurrent);
+        config.setMaxTrackedKeys(1000);
+        config.setIdleEvictSeconds(600);
+        return config;
+    }
+}
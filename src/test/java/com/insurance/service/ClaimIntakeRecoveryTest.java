@@ -0,0 +1,150 @@
+package com.insurance.service;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+import com.insurance.journal.ClaimJournal;
+import com.insurance.orchestrator.ClaimScheduler;
+import com.insurance.orchestrator.InsuranceClaimOrchestrator;
+import com.insurance.status.ClaimState;
+import com.insurance.status.ClaimStatusStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClaimIntakeRecoveryTest {
+
+    private static final int JOURNAL_SEGMENT_BYTES = 1024 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private final List<String> processed = Collections.synchronizedList(new ArrayList<>());
+    private final List<AutoCloseable> opened = new ArrayList<>();
+    // Claims wait here before they are decided
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    @AfterEach
+    void close() throws Exception {
+        for (AutoCloseable closeable : opened) {
+            closeable.close();
+        }
+    }
+
+    @Test
+    void decidedClaimsAreRestoredUnderTheirKeysAndUndecidedOnesResumedInOrder() throws Exception {
+        try (ClaimJournal journal = new ClaimJournal(dir.resolve("journal"), JOURNAL_SEGMENT_BYTES, 0)) {
+            journal.appendSubmitted(claim("C1"), "key:first");
+            journal.appendSubmitted(claim("C2"), "key:second");
+            journal.appendDecision(new ClaimResponse("C1", "APPROVED", "Claim approved", null), "key:first");
+            journal.appendSubmitted(claim("C3"), null);
+            journal.awaitDurable(journal.appendSubmitted(claim("C4"), "key:fourth"));
+        }
+
+        // One lane with room for a single queued claim: resumed claims must wait for it, not be dropped
+        ClaimIntake intake = intake(ClaimScheduler.parseLanes("only:1:1:*", 1));
+        assertFalse(intake.isRecovered());
+        intake.recover();
+        assertTrue(intake.isRecovered());
+
+        IdempotentClaimCache cache = intake.getIdempotencyCache();
+        assertEquals("APPROVED", cache.getCompleted("key:first").getStatus());
+        awaitDecision(intake, "C4");
+        assertEquals(Arrays.asList("C2", "C3", "C4"), processed);
+        assertNotNull(cache.getCompleted("key:second"));
+        assertNotNull(cache.getCompleted("claim:C3"));
+        assertNotNull(cache.getCompleted("key:fourth"));
+        assertEquals(ClaimState.APPROVED, intake.getStatusStore().get("C1").getState());
+    }
+
+    @Test
+    void asyncClaimIsDurableBeforeItIsDecided() throws Exception {
+        ClaimIntake intake = intake(ClaimScheduler.parseLanes("only:1:1:*", 10));
+        intake.recover();
+
+        IdempotentClaimCache.Ticket ticket = intake.getIdempotencyCache().begin("claim:A1");
+        intake.enqueue(claim("A1"), null, ticket);
+        assertFalse(intake.getIdempotencyCache().begin("claim:A1").isOwner());
+        assertEquals("APPROVED", ticket.getFuture().get(5, TimeUnit.SECONDS).getStatus());
+
+        // After a restart the claim is decided, not queued again
+        intake.getJournal().close();
+        processed.clear();
+        ClaimIntake restarted = intake(ClaimScheduler.parseLanes("only:1:1:*", 10));
+        restarted.recover();
+        assertEquals("APPROVED", restarted.getIdempotencyCache().getCompleted("claim:A1").getStatus());
+        assertTrue(processed.isEmpty());
+    }
+
+    @Test
+    void asyncClaimWhoseDecisionCannotBeJournaledReleasesItsKey() throws Exception {
+        gate = new CountDownLatch(1);
+        ClaimIntake intake = intake(ClaimScheduler.parseLanes("only:1:1:*", 10));
+        intake.recover();
+
+        IdempotentClaimCache.Ticket ticket = intake.getIdempotencyCache().begin("claim:A2");
+        intake.enqueue(claim("A2"), null, ticket);
+        intake.getJournal().close();
+        gate.countDown();
+
+        assertThrows(ExecutionException.class, () -> ticket.getFuture().get(5, TimeUnit.SECONDS));
+        assertTrue(intake.getIdempotencyCache().begin("claim:A2").isOwner());
+    }
+
+    private ClaimIntake intake(List<com.insurance.orchestrator.SchedulingLane> lanes) {
+        InsuranceClaimOrchestrator orchestrator = new InsuranceClaimOrchestrator(null, null) {
+            @Override
+            public ClaimResponse processClaim(ClaimRequest request) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                processed.add(request.getClaimId());
+                return new ClaimResponse(request.getClaimId(), "APPROVED", "Claim approved", null);
+            }
+        };
+        ClaimJournal journal = new ClaimJournal(dir.resolve("journal"), JOURNAL_SEGMENT_BYTES, 0);
+        ClaimStatusStore statusStore = new ClaimStatusStore(dir.resolve("status.spill"), 1000);
+        ClaimScheduler scheduler = new ClaimScheduler(orchestrator, lanes);
+        opened.add(journal);
+        opened.add(statusStore);
+        opened.add(scheduler::shutdown);
+        return new ClaimIntake(orchestrator, scheduler, new IdempotentClaimCache(1, TimeUnit.HOURS, 1000),
+                journal, statusStore);
+    }
+
+    private static void awaitDecision(ClaimIntake intake, String claimId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (intake.getStatusStore().get(claimId) == null
+                || !intake.getStatusStore().get(claimId).getState().isFinal()) {
+            assertTrue(System.nanoTime() < deadline, "no decision for " + claimId);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static ClaimRequest claim(String claimId) {
+        ClaimRequest request = new ClaimRequest();
+        request.setClaimId(claimId);
+        request.setUserId("USER001");
+        request.setClaimType("AUTO");
+        request.setClaimAmount(1500.0);
+        request.setDescription("Rear bumper damage");
+        request.setIncidentDate("2024-01-15");
+        return request;
+    }
+}
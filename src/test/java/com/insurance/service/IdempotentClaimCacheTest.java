@@ -0,0 +1,193 @@
+package com.insurance.service;
+
+import com.insurance.dto.ClaimResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotentClaimCacheTest {
+
+    private static final int THREADS = 16;
+
+    private final IdempotentClaimCache cache = new IdempotentClaimCache(1, TimeUnit.HOURS, 1000);
+
+    @Test
+    void idempotencyKeyTakesPrecedenceOverTheClaimId() {
+        assertEquals("key:abc", IdempotentClaimCache.key(" abc ", "CLM-1"));
+        assertEquals("claim:CLM-1", IdempotentClaimCache.key(" ", "CLM-1"));
+        assertNull(IdempotentClaimCache.key(null, null));
+    }
+
+    @Test
+    void repeatedSubmissionReplaysTheStoredResponse() {
+        AtomicInteger executions = new AtomicInteger();
+
+        IdempotentClaimCache.Outcome first = cache.execute("claim:C1", () -> {
+            executions.incrementAndGet();
+            return approved("C1");
+        });
+        IdempotentClaimCache.Outcome second = cache.execute("claim:C1", () -> {
+            executions.incrementAndGet();
+            return approved("C1");
+        });
+
+        assertFalse(first.isReplayed());
+        assertTrue(second.isReplayed());
+        assertSame(first.getResponse(), second.getResponse());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void concurrentDuplicatesAreProcessedOnce() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<IdempotentClaimCache.Outcome>> outcomes = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                outcomes.add(pool.submit(() -> {
+                    start.await();
+                    return cache.execute("claim:C1", () -> {
+                        executions.incrementAndGet();
+                        sleep(50);
+                        return approved("C1");
+                    });
+                }));
+            }
+            start.countDown();
+
+            ClaimResponse first = null;
+            int replayed = 0;
+            for (Future<IdempotentClaimCache.Outcome> outcome : outcomes) {
+                IdempotentClaimCache.Outcome result = outcome.get(10, TimeUnit.SECONDS);
+                if (first == null) {
+                    first = result.getResponse();
+                }
+                assertSame(first, result.getResponse());
+                replayed += result.isReplayed() ? 1 : 0;
+            }
+            assertEquals(1, executions.get());
+            assertEquals(THREADS - 1, replayed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void errorResponseIsNotStored() {
+        cache.execute("claim:C2", () -> new ClaimResponse("C2", "ERROR", "downstream failed", null));
+
+        IdempotentClaimCache.Outcome retry = cache.execute("claim:C2", () -> approved("C2"));
+
+        assertFalse(retry.isReplayed());
+        assertEquals("APPROVED", retry.getResponse().getStatus());
+    }
+
+    @Test
+    void failedSubmissionCanBeRetried() {
+        assertThrows(IllegalStateException.class, () -> cache.execute("claim:C3", () -> {
+            throw new IllegalStateException("lane full");
+        }));
+
+        assertEquals("APPROVED", cache.execute("claim:C3", () -> approved("C3")).getResponse().getStatus());
+    }
+
+    @Test
+    void beginGivesTheKeyToExactlyOneCaller() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<IdempotentClaimCache.Ticket>> tickets = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                tickets.add(pool.submit(() -> {
+                    start.await();
+                    return cache.begin("key:K1");
+                }));
+            }
+            start.countDown();
+
+            IdempotentClaimCache.Ticket owner = null;
+            List<IdempotentClaimCache.Ticket> duplicates = new ArrayList<>();
+            for (Future<IdempotentClaimCache.Ticket> future : tickets) {
+                IdempotentClaimCache.Ticket ticket = future.get(10, TimeUnit.SECONDS);
+                if (ticket.isOwner()) {
+                    assertNull(owner, "two callers own the key");
+                    owner = ticket;
+                } else {
+                    duplicates.add(ticket);
+                }
+            }
+            assertNotNull(owner);
+
+            ClaimResponse decision = approved("C2");
+            owner.complete(decision);
+            for (IdempotentClaimCache.Ticket duplicate : duplicates) {
+                assertSame(decision, duplicate.getFuture().get(1, TimeUnit.SECONDS));
+            }
+            assertSame(decision, cache.begin("key:K1").getStored());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedSubmissionReleasesTheKey() {
+        IdempotentClaimCache.Ticket first = cache.begin("claim:C3");
+        assertTrue(first.isOwner());
+        assertFalse(cache.begin("claim:C3").isOwner());
+
+        first.fail(new IllegalStateException("lane full"));
+        IdempotentClaimCache.Ticket retry = cache.begin("claim:C3");
+        assertTrue(retry.isOwner());
+        assertNull(retry.getStored());
+    }
+
+    @Test
+    void keyIsFreeByTheTimeTheFailureIsSeen() {
+        IdempotentClaimCache.Ticket first = cache.begin("claim:C5");
+        AtomicBoolean retryOwnsTheKey = new AtomicBoolean();
+        first.getFuture().whenComplete((response, error) ->
+                retryOwnsTheKey.set(cache.begin("claim:C5").isOwner()));
+
+        first.fail(new IllegalStateException("lane full"));
+
+        assertTrue(retryOwnsTheKey.get());
+    }
+
+    @Test
+    void errorOutcomesAreNotStored() {
+        IdempotentClaimCache.Ticket ticket = cache.begin("claim:C4");
+        ticket.complete(new ClaimResponse("C4", "ERROR", "downstream failed", null));
+
+        assertNull(cache.getCompleted("claim:C4"));
+        assertTrue(cache.begin("claim:C4").isOwner());
+    }
+
+    private static ClaimResponse approved(String claimId) {
+        return new ClaimResponse(claimId, "APPROVED", "Claim approved", null);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
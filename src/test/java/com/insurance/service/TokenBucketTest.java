@@ -0,0 +1,64 @@
+package com.insurance.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstIsAdmittedBackToBackThenTheRateApplies() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(0, 10, 5), "request " + i);
+        }
+        long wait = bucket.tryAcquire(0, 10, 5);
+        assertEquals(SECOND / 10, wait);
+
+        assertTrue(bucket.tryAcquire(wait - 1, 10, 5) > 0);
+        assertEquals(0, bucket.tryAcquire(wait, 10, 5));
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToTheBurst() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        long later = 60 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(later, 1, 3));
+        }
+        assertTrue(bucket.tryAcquire(later, 1, 3) > 0);
+    }
+
+    @Test
+    void refundedTokenCanBeTakenAgain() {
+        TokenBucket bucket = new TokenBucket(0);
+        assertEquals(0, bucket.tryAcquire(0, 1, 2));
+        assertEquals(0, bucket.tryAcquire(0, 1, 2));
+        assertTrue(bucket.tryAcquire(0, 1, 2) > 0);
+
+        bucket.refund(1);
+
+        assertEquals(0, bucket.tryAcquire(0, 1, 2));
+    }
+
+    @Test
+    void nonPositiveRateAdmitsNothing() {
+        assertEquals(Long.MAX_VALUE, new TokenBucket(0).tryAcquire(0, 0, 10));
+    }
+
+    @Test
+    void lastUseIsTracked() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        bucket.tryAcquire(7 * SECOND, 1, 1);
+
+        assertEquals(7 * SECOND, bucket.getLastUsedNanos());
+    }
+}
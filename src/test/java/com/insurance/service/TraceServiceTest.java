@@ -0,0 +1,54 @@
+package com.insurance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.ws.rs.core.Response;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceServiceTest {
+
+    private final TraceService service = new TraceService();
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("tracing.admin.token");
+        System.clearProperty("tracing.exportDir");
+    }
+
+    @Test
+    void exportIsRefusedWithoutAConfiguredToken() {
+        Response response = service.export("Bearer anything");
+
+        assertEquals(403, response.getStatus());
+    }
+
+    @Test
+    void exportNeedsTheMatchingToken(@TempDir Path dir) {
+        System.setProperty("tracing.admin.token", "s3cret");
+        System.setProperty("tracing.exportDir", dir.toString());
+
+        assertEquals(401, service.export(null).getStatus());
+        assertEquals(401, service.export("Bearer wrong").getStatus());
+
+        Response response = service.export("Bearer s3cret");
+        assertEquals(200, response.getStatus());
+        Map<?, ?> result = (Map<?, ?>) response.getEntity();
+        assertTrue(Files.exists(Path.of((String) result.get("file"))));
+    }
+
+    @Test
+    void unknownTraceIdIsReturnedAsAStructuredError() {
+        Response response = service.getTrace("abc\"}, {\"injected\":\"x");
+
+        assertEquals(404, response.getStatus());
+        Map<?, ?> body = (Map<?, ?>) response.getEntity();
+        assertEquals("Trace not found: abc\"}, {\"injected\":\"x", body.get("error"));
+    }
+}
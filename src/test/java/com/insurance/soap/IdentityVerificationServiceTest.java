@@ -0,0 +1,61 @@
+package com.insurance.soap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdentityVerificationServiceTest {
+
+    private final IdentityVerificationService service = new IdentityVerificationService();
+
+    @Test
+    void batchResultsFollowTheOrderOfTheChecks() {
+        IdentityCheck[] checks = new IdentityCheck[50];
+        for (int i = 0; i < checks.length; i++) {
+            // Every third document ID is too short to verify
+            checks[i] = new IdentityCheck("BATCH-" + i, "John Doe", i % 3 == 0 ? "SHORT" : "DOC-" + (100000 + i));
+        }
+
+        VerificationResult[] results = service.verifyIdentities(checks);
+
+        assertEquals(checks.length, results.length);
+        for (int i = 0; i < results.length; i++) {
+            assertEquals("BATCH-" + i, results[i].getUserId());
+            assertEquals(i % 3 != 0, results[i].isVerified());
+        }
+    }
+
+    @Test
+    void batchMatchesSingleVerification() {
+        VerificationResult single = service.verifyIdentity("SINGLE-1", "Jane Doe", "DOC-123456");
+        VerificationResult[] batch = service.verifyIdentities(new IdentityCheck[]{
+                new IdentityCheck("SINGLE-1", "Jane Doe", "DOC-123456"),
+                new IdentityCheck("SINGLE-2", null, "DOC-123456")});
+
+        assertEquals(single.isVerified(), batch[0].isVerified());
+        assertEquals(single.getConfidenceScore(), batch[0].getConfidenceScore(), 0.0);
+        assertFalse(batch[1].isVerified());
+        assertEquals("NONE", batch[1].getVerificationMethod());
+    }
+
+    @Test
+    void emptyBatchReturnsNoResults() {
+        assertEquals(0, service.verifyIdentities(new IdentityCheck[0]).length);
+        assertEquals(0, service.verifyIdentities(null).length);
+    }
+
+    @Test
+    void oversizedBatchIsRejected() {
+        IdentityCheck[] checks = new IdentityCheck[Integer.getInteger("identity.batch.maxSize", 500) + 1];
+        for (int i = 0; i < checks.length; i++) {
+            checks[i] = new IdentityCheck("OVERSIZED-" + i, "John Doe", "DOC-123456");
+        }
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> service.verifyIdentities(checks));
+        assertTrue(error.getMessage().contains("maximum"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.insurance.soap;
+
+import org.junit.jupiter.api.Test;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.ws.WebServiceException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdentityVerificationXmlTest {
+
+    @Test
+    void requestIsReadBackAfterSerialization() throws Exception {
+        Source request = IdentityVerificationXml.verifyIdentityRequest("USER001", "John Doe", "DOC-123456");
+
+        IdentityVerificationXml.Call call = IdentityVerificationXml.readCall(reparse(request));
+
+        assertEquals(IdentityVerificationXml.NAMESPACE, call.operation.getNamespaceURI());
+        assertEquals(IdentityVerificationXml.VERIFY_IDENTITY, call.operation.getLocalPart());
+        assertEquals("USER001", call.parts.get("userId"));
+        assertEquals("John Doe", call.parts.get("name"));
+        assertEquals("DOC-123456", call.parts.get("documentId"));
+    }
+
+    @Test
+    void nullPartsAreLeftOut() throws Exception {
+        IdentityVerificationXml.Call call = IdentityVerificationXml.readCall(
+                reparse(IdentityVerificationXml.verifyIdentityRequest("USER001", null, "DOC-123456")));
+
+        assertFalse(call.parts.containsKey("name"));
+    }
+
+    @Test
+    void responseIsReadBackAfterSerialization() throws Exception {
+        VerificationResult sent = new VerificationResult("USER001", true, 0.95,
+                "Identity verified successfully", "GOVERNMENT_ID_CHECK");
+
+        VerificationResult received = IdentityVerificationXml.readVerificationResult(
+                reparse(IdentityVerificationXml.verifyIdentityResponse(sent)));
+
+        assertEquals("USER001", received.getUserId());
+        assertTrue(received.isVerified());
+        assertEquals(0.95, received.getConfidenceScore(), 0.0);
+        assertEquals("Identity verified successfully", received.getMessage());
+        assertEquals("GOVERNMENT_ID_CHECK", received.getVerificationMethod());
+    }
+
+    @Test
+    void responseMatchesTheRpcLiteralWireFormat() {
+        String xml = "<ns2:verifyIdentityResponse xmlns:ns2=\"http://soap.insurance.com/\"><return>"
+                + "<confidenceScore>0.45</confidenceScore><userId>USER002</userId>"
+                + "<verified>false</verified></return></ns2:verifyIdentityResponse>";
+
+        VerificationResult result = IdentityVerificationXml.readVerificationResult(
+                new StreamSource(new StringReader(xml)));
+
+        assertEquals("USER002", result.getUserId());
+        assertFalse(result.isVerified());
+        assertEquals(0.45, result.getConfidenceScore(), 0.0);
+    }
+
+    @Test
+    void emptyResponseIsRejected() {
+        String xml = "<ns2:verifyIdentityResponse xmlns:ns2=\"http://soap.insurance.com/\"/>";
+
+        assertThrows(WebServiceException.class,
+                () -> IdentityVerificationXml.readVerificationResult(new StreamSource(new StringReader(xml))));
+    }
+
+    /**
+     * Serialize a payload to text and parse it again, as it would arrive from the wire
+     */
+    private static Source reparse(Source payload) throws Exception {
+        StringWriter text = new StringWriter();
+        TransformerFactory.newInstance().newTransformer().transform(payload, new StreamResult(text));
+        return new StreamSource(new StringReader(text.toString()));
+    }
+}
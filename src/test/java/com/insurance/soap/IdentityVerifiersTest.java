@@ -0,0 +1,39 @@
+package com.insurance.soap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdentityVerifiersTest {
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("identity.client.mode");
+        System.clearProperty("identity.client.url");
+    }
+
+    @Test
+    void inProcessIsTheDefault() {
+        IdentityVerifier verifier = IdentityVerifiers.fromSystemProperties();
+
+        assertTrue(verifier instanceof InProcessIdentityVerifier);
+        assertTrue(verifier.verifyIdentity("USER001", "John Doe", "DOC-123456").isVerified());
+    }
+
+    @Test
+    void unknownModeIsRejected() {
+        System.setProperty("identity.client.mode", "carrier-pigeon");
+
+        assertThrows(IllegalArgumentException.class, IdentityVerifiers::fromSystemProperties);
+    }
+
+    @Test
+    void remoteModeRequiresAnUrl() {
+        System.setProperty("identity.client.mode", "remote");
+        System.setProperty("identity.client.url", " ");
+
+        assertThrows(IllegalArgumentException.class, IdentityVerifiers::fromSystemProperties);
+    }
+}
@@ -0,0 +1,128 @@
+package com.insurance.soap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerificationCacheTest {
+
+    private static final int THREADS = 16;
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    void positiveResultIsCached() {
+        VerificationCache cache = new VerificationCache(10, 10, TimeUnit.MINUTES, 100);
+
+        VerificationResult first = cache.get("USER001", "DOC12345", () -> verify(true));
+        VerificationResult second = cache.get("USER001", "DOC12345", () -> verify(true));
+
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void negativeResultsUseTheirOwnTtl() {
+        VerificationCache cache = new VerificationCache(10, 0, TimeUnit.MINUTES, 100);
+
+        assertFalse(cache.get("USER001", "BAD", () -> verify(false)).isVerified());
+        assertFalse(cache.get("USER001", "BAD", () -> verify(false)).isVerified());
+
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void differentDocumentsAreCachedSeparately() {
+        VerificationCache cache = new VerificationCache(10, 10, TimeUnit.MINUTES, 100);
+
+        cache.get("USER001", "DOC12345", () -> verify(true));
+        cache.get("USER001", "DOC67890", () -> verify(true));
+
+        assertEquals(2, verifications.get());
+        assertEquals(2, cache.size());
+        assertFalse(cache.toString().contains("DOC12345"));
+    }
+
+    @Test
+    void invalidateDropsEveryResultOfTheUser() {
+        VerificationCache cache = new VerificationCache(10, 10, TimeUnit.MINUTES, 100);
+        cache.get("USER001", "DOC12345", () -> verify(true));
+        cache.get("USER001", "DOC67890", () -> verify(true));
+        cache.get("USER002", "DOC12345", () -> verify(true));
+
+        cache.invalidate("USER001");
+
+        assertEquals(1, cache.size());
+        cache.get("USER001", "DOC12345", () -> verify(true));
+        assertEquals(4, verifications.get());
+    }
+
+    @Test
+    void concurrentLookupsShareOneVerification() throws Exception {
+        VerificationCache cache = new VerificationCache(10, 10, TimeUnit.MINUTES, 100);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<VerificationResult>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return cache.get("USER001", "DOC12345", () -> {
+                        sleep(50);
+                        return verify(true);
+                    });
+                }));
+            }
+            start.countDown();
+
+            VerificationResult first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<VerificationResult> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, verifications.get());
+            assertEquals(1.0 - 1.0 / THREADS, cache.getHitRate(), 1e-9);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void cacheStaysWithinItsBound() {
+        VerificationCache cache = new VerificationCache(10, 10, TimeUnit.MINUTES, 10);
+        for (int i = 0; i < 50; i++) {
+            cache.get("USER" + i, "DOC12345", () -> verify(true));
+        }
+        assertTrue(cache.size() <= 10);
+        assertTrue(cache.getEvictions() >= 40);
+    }
+
+    private VerificationResult verify(boolean verified) {
+        verifications.incrementAndGet();
+        return new VerificationResult("USER001", verified, verified ? 0.95 : 0.45,
+                verified ? "Identity verified successfully" : "Identity verification failed - invalid document",
+                "GOVERNMENT_ID_CHECK");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
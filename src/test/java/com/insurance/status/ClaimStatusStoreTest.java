@@ -0,0 +1,90 @@
+package com.insurance.status;
+
+import com.insurance.dto.ClaimRequest;
+import com.insurance.dto.ClaimResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClaimStatusStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private ClaimStatusStore store;
+
+    @AfterEach
+    void close() {
+        store.close();
+    }
+
+    @Test
+    void trackedClaimMovesThroughItsStages() {
+        store = new ClaimStatusStore(dir.resolve("status.spill"), 100);
+
+        store.received(claim("C1"));
+        assertEquals(ClaimState.RECEIVED, store.get("C1").getState());
+        store.onStage("C1", ClaimState.SCORING);
+        assertEquals(ClaimState.SCORING, store.get("C1").getState());
+        store.onDecision(new ClaimResponse("C1", "REJECTED", "Fraud risk too high", null));
+        store.onStage("C1", ClaimState.VALIDATING);
+
+        ClaimStatus status = store.get("C1");
+        assertEquals(ClaimState.REJECTED, status.getState());
+        assertEquals("Fraud risk too high", status.getResponse().getMessage());
+    }
+
+    @Test
+    void progressOfUntrackedClaimsIsIgnored() {
+        store = new ClaimStatusStore(dir.resolve("status.spill"), 100);
+
+        store.onStage("WARMUP-1", ClaimState.VERIFYING);
+        store.onDecision(new ClaimResponse("WARMUP-1", "APPROVED", "Claim approved", null));
+
+        assertNull(store.get("WARMUP-1"));
+        assertNull(store.get(null));
+    }
+
+    @Test
+    void spilledClaimsAreStillFound() throws InterruptedException {
+        store = new ClaimStatusStore(dir.resolve("status.spill"), 100);
+
+        for (int i = 0; i < 1000; i++) {
+            store.received(claim("C" + i));
+            store.onDecision(new ClaimResponse("C" + i, i % 3 == 0 ? "REJECTED" : "APPROVED", "Decision " + i, null));
+        }
+
+        // The spiller runs in the background; wait for it to bring the map back within its bound
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (store.getHotEntries() > 100) {
+            assertTrue(System.nanoTime() < deadline, "hot " + store.getHotEntries());
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertTrue(store.getSpilled() > 0);
+        for (int i = 0; i < 1000; i++) {
+            ClaimStatus status = store.get("C" + i);
+            assertEquals(i % 3 == 0 ? ClaimState.REJECTED : ClaimState.APPROVED, status.getState());
+            assertEquals("Decision " + i, status.getResponse().getMessage());
+        }
+        assertTrue(store.getColdReads() > 0);
+        assertNull(store.get("C1000"));
+    }
+
+    private static ClaimRequest claim(String claimId) {
+        ClaimRequest request = new ClaimRequest();
+        request.setClaimId(claimId);
+        request.setUserId("USER001");
+        request.setClaimType("AUTO");
+        request.setClaimAmount(1500.0);
+        request.setDescription("Rear bumper damage");
+        request.setIncidentDate("2024-01-15");
+        return request;
+    }
+}
@@ -0,0 +1,95 @@
+package com.insurance.tracing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TracerTest {
+
+    @AfterEach
+    void clearCollector() {
+        SpanCollector.shared().clear();
+    }
+
+    @Test
+    void traceparentRoundTrips() {
+        String header = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+        TraceContext context = TraceContext.parse(header);
+
+        assertNotNull(context);
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", context.getTraceId());
+        assertEquals("00f067aa0ba902b7", context.getSpanId());
+        assertTrue(context.isSampled());
+        assertEquals(header, context.toTraceparent());
+    }
+
+    @Test
+    void malformedTraceparentIsIgnored() {
+        assertNull(TraceContext.parse(null));
+        assertNull(TraceContext.parse("garbage"));
+        assertNull(TraceContext.parse("00-4bf92f3577b34da6-00f067aa0ba902b7-01"));
+        assertNull(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e473z-00f067aa0ba902b7-01"));
+    }
+
+    @Test
+    void childSpanJoinsTheTraceAndRestoresTheParent() {
+        assertNull(Tracer.current());
+
+        try (Span root = Tracer.startSpan("root")) {
+            assertSame(root.context(), Tracer.current());
+            try (Span child = Tracer.startSpan("child")) {
+                assertEquals(root.getTraceId(), child.getTraceId());
+                assertEquals(root.getSpanId(), child.getParentSpanId());
+                assertNotEquals(root.getSpanId(), child.getSpanId());
+                assertSame(child.context(), Tracer.current());
+            }
+            assertSame(root.context(), Tracer.current());
+        }
+
+        assertNull(Tracer.current());
+    }
+
+    @Test
+    void incomingContextIsContinued() {
+        TraceContext incoming = TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+
+        try (Span span = Tracer.startSpan("server", incoming)) {
+            assertEquals(incoming.getTraceId(), span.getTraceId());
+            assertEquals(incoming.getSpanId(), span.getParentSpanId());
+        }
+    }
+
+    @Test
+    void finishedSpansAreCollectedByTrace() {
+        String traceId;
+        try (Span root = Tracer.startSpan("root")) {
+            traceId = root.getTraceId();
+            try (Span child = Tracer.startSpan("child")) {
+                child.setAttribute("claimId", "CLM-1");
+            }
+        }
+
+        Trace trace = SpanCollector.shared().getTrace(traceId);
+        assertNotNull(trace);
+        assertEquals(2, trace.getSpans().size());
+        assertEquals("root", trace.getRootName());
+    }
+
+    @Test
+    void activatedContextIsScopedToTheBlock() {
+        TraceContext context = TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00");
+
+        try (Tracer.Scope ignored = Tracer.activate(context)) {
+            assertSame(context, Tracer.current());
+        }
+
+        assertNull(Tracer.current());
+    }
+}